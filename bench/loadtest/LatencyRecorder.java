@@ -0,0 +1,90 @@
+package loadtest;
+
+import utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency and error counts for one measurement window.
+ */
+final class LatencyRecorder {
+
+    interface Operation<T> {
+        T call() throws Exception;
+    }
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    /**
+     * Runs the operation and records its latency under name. A thrown
+     * exception (or a null result) is counted as an error and rethrown /
+     * returned so the session can stop early.
+     */
+    <T> T time(String name, Operation<T> op) throws Exception {
+        Stats s = stats.computeIfAbsent(name, k -> new Stats());
+        long start = System.nanoTime();
+        try {
+            T result = op.call();
+            if (result == null) s.errors.increment();
+            return result;
+        } catch (Exception e) {
+            s.errors.increment();
+            throw e;
+        } finally {
+            s.latency.record((System.nanoTime() - start) / 1_000);
+        }
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    private double seconds() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return (end - startNanos) / 1e9;
+    }
+
+    void print() {
+        double secs = seconds();
+        System.out.printf(Locale.ROOT, "%n%-20s %9s %7s %9s %10s %10s %10s %10s%n",
+                "Operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Stats> e : new TreeMap<>(stats).entrySet()) {
+            LatencyHistogram h = e.getValue().latency;
+            long count = h.count();
+            System.out.printf(Locale.ROOT, "%-20s %9d %7d %9.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    e.getKey(), count, e.getValue().errors.sum(), count / secs,
+                    h.percentile(50) / 1000.0, h.percentile(90) / 1000.0,
+                    h.percentile(99) / 1000.0, h.max() / 1000.0);
+        }
+    }
+
+    void writeCsv(Path file) throws IOException {
+        double secs = seconds();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("operation,count,errors,ops_per_sec,p50_ms,p90_ms,p99_ms,max_ms");
+            for (Map.Entry<String, Stats> e : new TreeMap<>(stats).entrySet()) {
+                LatencyHistogram h = e.getValue().latency;
+                out.printf(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f%n",
+                        e.getKey(), h.count(), e.getValue().errors.sum(), h.count() / secs,
+                        h.percentile(50) / 1000.0, h.percentile(90) / 1000.0,
+                        h.percentile(99) / 1000.0, h.max() / 1000.0);
+            }
+        }
+        System.out.println("\nResults written to " + file);
+    }
+}
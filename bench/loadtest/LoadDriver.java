@@ -0,0 +1,253 @@
+package loadtest;
+
+import models.Employee;
+import models.EmployeeRequest;
+import services.DashboardPrefetchService;
+import services.DashboardService;
+import services.PayrollService;
+import services.RequestApprovalService;
+import services.RequestService;
+import services.UserService;
+import utils.DBConnection;
+import utils.PayrollChangeTracker;
+
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LOAD DRIVER: Replays role sessions against the database filled by
+ * WorkloadGenerator, from many threads at once, through the same service
+ * calls the screens use, and reports p50/p90/p99 latency per operation.
+ *
+ *   Employee         login, dashboard panels (prefetch), own payslips
+ *   HR               login, HR dashboard counts, pending inbox page, approve a few
+ *   Payroll Officer  login, payroll list for last month + one department,
+ *                    recompute of that department's payroll rows
+ *
+ * Each thread is one user: it picks a role by --mix, a random account of that
+ * role, runs the session, waits --think ms and starts over. Warm-up results
+ * are discarded.
+ *
+ * Options:
+ *   --threads N      concurrent users (default 16)
+ *   --warmup S       warm-up seconds (default 10)
+ *   --duration S     measured seconds (default 60)
+ *   --think MS       pause between sessions (default 0)
+ *   --mix E,H,P      employee,HR,payroll-officer session weights (default 80,15,5)
+ *   --seed N         random seed (default 42)
+ *   --out FILE       also write the results as CSV
+ */
+public final class LoadDriver {
+
+    /**
+     * One generated login.
+     */
+    private static final class Account {
+        final String username;
+        final String password;
+        final int empId;
+
+        Account(String username, String password, int empId) {
+            this.username = username;
+            this.password = password;
+            this.empId = empId;
+        }
+    }
+
+    private final Map<String, List<Account>> accountsByRole = new HashMap<>();
+    private final Map<String, List<Integer>> empIdsByDept = new HashMap<>();
+    private final List<String> departments = new ArrayList<>();
+    private final int[] mix;
+    private final long think;
+    private YearMonth lastPaid;
+
+    private volatile LatencyRecorder recorder = new LatencyRecorder();
+    private volatile boolean running = true;
+
+    private LoadDriver(int[] mix, long think) {
+        this.mix = mix;
+        this.think = think;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        int threads = Integer.parseInt(opts.getOrDefault("threads", "16"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(opts.getOrDefault("duration", "60"));
+        long think = Long.parseLong(opts.getOrDefault("think", "0"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        String[] weights = opts.getOrDefault("mix", "80,15,5").split(",");
+        int[] mix = { Integer.parseInt(weights[0].trim()), Integer.parseInt(weights[1].trim()), Integer.parseInt(weights[2].trim()) };
+
+        LoadDriver driver = new LoadDriver(mix, think);
+        driver.loadAccounts();
+        System.out.printf("%d threads, %d s warm-up + %d s measured, mix %s (employee,HR,payroll), seed %d%n",
+                threads, warmup, duration, String.join(",", weights), seed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            Random rnd = new Random(seed * 31 + t);
+            pool.submit(() -> driver.userLoop(rnd));
+        }
+
+        TimeUnit.SECONDS.sleep(warmup);
+        driver.recorder = new LatencyRecorder();
+        TimeUnit.SECONDS.sleep(duration);
+        LatencyRecorder measured = driver.recorder;
+        measured.stop();
+        driver.running = false;
+        pool.shutdown();
+        pool.awaitTermination(60, TimeUnit.SECONDS);
+
+        measured.print();
+        if (opts.containsKey("out")) measured.writeCsv(Paths.get(opts.get("out")));
+        DBConnection.shutdown();
+        System.exit(0);
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    private void loadAccounts() throws SQLException {
+        String accountsSql = "SELECT u.username, u.password, r.role_name, e.emp_id " +
+                             "FROM users u JOIN roles r ON u.role_id = r.role_id " +
+                             "JOIN employees e ON e.user_id = u.user_id " +
+                             "WHERE u.username BETWEEN ? AND ?";
+        String deptSql = "SELECT e.emp_id, d.dept_name FROM employees e JOIN departments d ON e.dept_id = d.dept_id " +
+                         "WHERE e.status = 'Active'";
+        String periodSql = "SELECT month, year FROM payroll ORDER BY generated_on DESC LIMIT 1";
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(accountsSql)) {
+                ps.setString(1, WorkloadGenerator.username(0));
+                ps.setString(2, WorkloadGenerator.username(999_999));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        accountsByRole.computeIfAbsent(rs.getString("role_name"), k -> new ArrayList<>())
+                                .add(new Account(rs.getString("username"), rs.getString("password"), rs.getInt("emp_id")));
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(deptSql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    empIdsByDept.computeIfAbsent(rs.getString("dept_name"), k -> new ArrayList<>()).add(rs.getInt("emp_id"));
+                }
+            }
+            // Payroll sessions work on the latest generated period
+            try (PreparedStatement ps = conn.prepareStatement(periodSql);
+                 ResultSet rs = ps.executeQuery()) {
+                lastPaid = rs.next() ? PayrollChangeTracker.toYearMonth(rs.getString("month"), rs.getInt("year")) : null;
+            }
+        }
+        if (lastPaid == null) lastPaid = YearMonth.now().minusMonths(1);
+        departments.addAll(empIdsByDept.keySet());
+        departments.sort(null);
+
+        for (String role : new String[] { "Employee", "HR", "Payroll Officer" }) {
+            if (!accountsByRole.containsKey(role)) {
+                System.err.println("No generated " + role + " accounts; run WorkloadGenerator first.");
+                System.exit(1);
+            }
+        }
+        System.out.printf(Locale.ROOT, "Accounts: %d employee, %d HR, %d payroll officer%n",
+                accountsByRole.get("Employee").size(), accountsByRole.get("HR").size(),
+                accountsByRole.get("Payroll Officer").size());
+    }
+
+    private void userLoop(Random rnd) {
+        DashboardService dashboard = new DashboardService();
+        RequestService requests = new RequestService();
+        while (running) {
+            int pick = rnd.nextInt(mix[0] + mix[1] + mix[2]);
+            String role = pick < mix[0] ? "Employee" : pick < mix[0] + mix[1] ? "HR" : "Payroll Officer";
+            List<Account> accounts = accountsByRole.get(role);
+            Account account = accounts.get(rnd.nextInt(accounts.size()));
+            LatencyRecorder rec = recorder;
+            try {
+                Employee emp = rec.time("login", () -> UserService.authenticate(account.username, account.password));
+                if (emp == null) continue;
+                switch (role) {
+                    case "Employee" -> employeeSession(rec, account);
+                    case "HR" -> hrSession(rec, emp, dashboard, requests, rnd);
+                    default -> payrollSession(rec, rnd);
+                }
+            } catch (Exception e) {
+                // Counted as an error for the operation; the next session starts fresh
+            }
+            if (think > 0) {
+                try {
+                    Thread.sleep(think);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void employeeSession(LatencyRecorder rec, Account account) throws Exception {
+        rec.time("dashboard.employee", () -> {
+            DashboardPrefetchService.Session session = DashboardPrefetchService.open(account.empId);
+            session.allDone().join();
+            return session.netSalary().isCompletedExceptionally() ? null : session;
+        });
+        rec.time("payslips.employee", () -> PayrollService.getEmployeePayroll(account.empId));
+    }
+
+    private void hrSession(LatencyRecorder rec, Employee hr, DashboardService dashboard,
+                           RequestService requests, Random rnd) throws Exception {
+        rec.time("dashboard.hr", () -> {
+            dashboard.getTotalActiveEmployees();
+            dashboard.getPendingLeaveRequestsCount();
+            dashboard.getPendingCorrectionRequestsCount();
+            dashboard.getEmployeesOnLeaveTodayCount();
+            dashboard.getLatestPendingRequests(10);
+            return dashboard.getDepartmentDistribution();
+        });
+
+        List<EmployeeRequest> page = rec.time("approvals.inbox",
+                () -> requests.getRequestsPage("Pending", null, rnd.nextInt(200), 50));
+        if (page.isEmpty()) return;
+
+        RequestApprovalService.Batch batch = new RequestApprovalService.Batch();
+        for (int i = 0, n = 1 + rnd.nextInt(5); i < n; i++) {
+            EmployeeRequest req = page.get(rnd.nextInt(page.size()));
+            batch.add(req.getRequestType(), req.getRequestId());
+        }
+        rec.time("approvals.decide", () -> rnd.nextInt(10) == 0
+                ? RequestApprovalService.reject(batch, hr.getUserId())
+                : RequestApprovalService.approve(batch, hr.getUserId()));
+    }
+
+    private void payrollSession(LatencyRecorder rec, Random rnd) throws Exception {
+        String month = PayrollChangeTracker.monthName(lastPaid.atDay(1));
+        String dept = departments.get(rnd.nextInt(departments.size()));
+        rec.time("payroll.list", () -> PayrollService.getFilteredPayroll(month, dept, "All"));
+        rec.time("payroll.run", () -> {
+            LocalDate day = lastPaid.atDay(1);
+            for (int empId : empIdsByDept.get(dept)) PayrollChangeTracker.markDirty(empId, day);
+            return PayrollService.recomputeDirty(month, lastPaid.getYear());
+        });
+    }
+}
@@ -0,0 +1,533 @@
+package loadtest;
+
+import services.PayrollService;
+import utils.DBConnection;
+import utils.PayrollChangeTracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SYNTHETIC WORKLOAD: Fills a freshly created payroll_system schema (sql/sql.sql)
+ * with production-sized data: users + employees, salary history, daily
+ * attendance, monthly payroll, leave / bank / advance / reimbursement requests
+ * and notification history. Everything is written through the normal tables,
+ * so the triggers (inbox, rollups, leave balance, HR notifications) run too.
+ *
+ * Employees are generated in chunks; each chunk has its own Random derived
+ * from the seed and is written in one transaction with JDBC batches, so the
+ * same seed, size and end date always produce the same data, whatever the
+ * thread count. Accounts are named load000001.. with the password "loadtest".
+ *
+ * Options:
+ *   --employees N   employees to create (default 100000)
+ *   --years N       history length in years (default 5)
+ *   --end DATE      last day of history, yyyy-mm-dd (default today)
+ *   --seed N        random seed (default 42)
+ *   --threads N     writer threads / connections (default 4)
+ *   --chunk N       employees per transaction (default 200)
+ */
+public final class WorkloadGenerator {
+
+    static final String USER_PREFIX = "load";
+    static final String PASSWORD = "loadtest";
+
+    private static final int BATCH = 2_000;
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Ahmed", "Fatima", "Wei", "Mei", "Carlos", "Sofia", "Ivan", "Olga", "Kwame", "Amara"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee",
+        "Khan", "Chen", "Wang", "Silva", "Petrov", "Mensah", "Okafor", "Nakamura", "Kowalski", "Novak"
+    };
+    private static final String[] EXTRA_DEPARTMENTS = {
+        "Sales", "Marketing", "Operations", "Legal", "Support", "Logistics",
+        "Procurement", "Engineering", "Research", "Quality", "Facilities", "Security"
+    };
+    private static final String[] POSITIONS = {
+        "Associate", "Analyst", "Specialist", "Senior Specialist", "Team Lead", "Manager", "Senior Manager"
+    };
+    private static final String[] LEAVE_TYPES = { "Annual Leave", "Annual Leave", "Sick Leave", "Casual Leave" };
+
+    private final int employees;
+    private final int years;
+    private final LocalDate end;
+    private final LocalDate start;
+    private final long seed;
+    private final int chunk;
+
+    private final List<Integer> deptIds = new ArrayList<>();
+    private final Map<String, Integer> roleIds = new HashMap<>();
+    private double taxRate;
+
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicInteger chunksDone = new AtomicInteger();
+
+    private WorkloadGenerator(int employees, int years, LocalDate end, long seed, int chunk) {
+        this.employees = employees;
+        this.years = years;
+        this.end = end;
+        this.start = end.minusYears(years).plusDays(1);
+        this.seed = seed;
+        this.chunk = chunk;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = LoadDriver.parse(args);
+        int employees = Integer.parseInt(opts.getOrDefault("employees", "100000"));
+        int years = Integer.parseInt(opts.getOrDefault("years", "5"));
+        LocalDate end = opts.containsKey("end") ? LocalDate.parse(opts.get("end")) : LocalDate.now();
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        int threads = Integer.parseInt(opts.getOrDefault("threads", "4"));
+        int chunk = Integer.parseInt(opts.getOrDefault("chunk", "200"));
+
+        new WorkloadGenerator(employees, years, end, seed, chunk).run(threads);
+    }
+
+    private void run(int threads) throws Exception {
+        try (Connection conn = DBConnection.getConnection()) {
+            if (countExisting(conn) > 0) {
+                System.err.println("Generated accounts (" + USER_PREFIX + "*) already exist; "
+                        + "reload sql/sql.sql into a fresh database first.");
+                System.exit(1);
+            }
+            prepareReferenceData(conn);
+        }
+
+        int chunks = (employees + chunk - 1) / chunk;
+        System.out.printf("Generating %,d employees, %s .. %s, seed %d, %d threads%n",
+                employees, start, end, seed, threads);
+
+        long t0 = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < chunks; c++) {
+            int from = c * chunk + 1;
+            int to = Math.min(employees, from + chunk - 1);
+            int index = c;
+            futures.add(pool.submit(() -> {
+                writeChunk(index, from, to);
+                int done = chunksDone.incrementAndGet();
+                if (done % 10 == 0 || done == chunks) {
+                    double secs = (System.nanoTime() - t0) / 1e9;
+                    System.out.printf("  %d/%d chunks, %,d rows, %,.0f rows/s%n", done, chunks, rows.get(), rows.get() / secs);
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        for (Future<?> f : futures) f.get();
+
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("Done: %,d rows in %.1f s (%,.0f rows/s, trigger rows not counted)%n", rows.get(), secs, rows.get() / secs);
+        DBConnection.shutdown();
+    }
+
+    private static int countExisting(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) FROM users WHERE username BETWEEN ? AND ?")) {
+            ps.setString(1, username(0));
+            ps.setString(2, username(999_999));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void prepareReferenceData(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT IGNORE INTO departments (dept_name, description) VALUES (?, 'Generated for load tests')")) {
+            for (String dept : EXTRA_DEPARTMENTS) {
+                ps.setString(1, dept);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT dept_id FROM departments ORDER BY dept_id")) {
+                while (rs.next()) deptIds.add(rs.getInt(1));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT role_id, role_name FROM roles")) {
+                while (rs.next()) roleIds.put(rs.getString("role_name"), rs.getInt("role_id"));
+            }
+        }
+        taxRate = PayrollService.loadTaxRate(conn);
+    }
+
+    static String username(int n) {
+        return String.format("%s%06d", USER_PREFIX, n);
+    }
+
+    /**
+     * One generated employee, kept only while its chunk is written.
+     */
+    private static final class Person {
+        int n;
+        int userId;
+        int empId;
+        int deptId;
+        String role;
+        LocalDate joined;
+        final List<LocalDate> raiseDates = new ArrayList<>();
+        final List<Double> salaries = new ArrayList<>();
+
+        double salaryOn(LocalDate date) {
+            double salary = salaries.get(0);
+            for (int i = 1; i < raiseDates.size(); i++) {
+                if (!raiseDates.get(i).isAfter(date)) salary = salaries.get(i);
+            }
+            return salary;
+        }
+    }
+
+    private void writeChunk(int index, int from, int to) throws SQLException {
+        Random rnd = new Random(seed * 1_000_003L + index);
+        List<Person> people = new ArrayList<>(to - from + 1);
+        for (int n = from; n <= to; n++) people.add(newPerson(n, rnd));
+
+        Connection conn = DBConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+            insertUsers(conn, people, rnd);
+            insertEmployees(conn, people, rnd);
+            insertSalaryHistory(conn, people);
+            insertAttendance(conn, people, rnd);
+            insertPayroll(conn, people);
+            insertRequests(conn, people, rnd);
+            insertNotifications(conn, people, rnd);
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("Chunk " + index + " failed: " + e.getMessage());
+            try { conn.rollback(); } catch (SQLException ignored) { }
+            throw e;
+        } finally {
+            conn.close();
+        }
+    }
+
+    private Person newPerson(int n, Random rnd) {
+        Person p = new Person();
+        p.n = n;
+        p.deptId = deptIds.get(rnd.nextInt(deptIds.size()));
+        p.role = n % 500 == 0 ? "Payroll Officer" : n % 250 == 0 ? "HR" : "Employee";
+
+        // A third were already employed before the window; the rest joined during it
+        long windowDays = end.toEpochDay() - start.toEpochDay();
+        p.joined = rnd.nextInt(3) == 0
+                ? start.minusDays(rnd.nextInt(3650))
+                : start.plusDays(rnd.nextInt((int) Math.max(1, windowDays - 30)));
+
+        double salary = 24_000 + rnd.nextInt(120) * 1_000;
+        p.raiseDates.add(p.joined);
+        p.salaries.add(salary);
+        for (LocalDate d = p.joined.plusMonths(12 + rnd.nextInt(12)); d.isBefore(end); d = d.plusMonths(12 + rnd.nextInt(12))) {
+            salary = Math.round(salary * (1.02 + rnd.nextInt(8) / 100.0));
+            p.raiseDates.add(d);
+            p.salaries.add(salary);
+        }
+        return p;
+    }
+
+    private void insertUsers(Connection conn, List<Person> people, Random rnd) throws SQLException {
+        String sql = "INSERT INTO users (username, password, first_name, last_name, email, phone, dept_id, " +
+                     "designation, date_of_joining, status, role_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'Active', ?)";
+        try (Batch b = new Batch(conn, sql)) {
+            for (Person p : people) {
+                String first = FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+                b.ps.setString(1, username(p.n));
+                b.ps.setString(2, PASSWORD);
+                b.ps.setString(3, first);
+                b.ps.setString(4, last);
+                b.ps.setString(5, username(p.n) + "@example.com");
+                b.ps.setString(6, String.format("555%07d", p.n));
+                b.ps.setInt(7, p.deptId);
+                b.ps.setString(8, p.role);
+                b.ps.setDate(9, Date.valueOf(p.joined));
+                b.ps.setInt(10, roleIds.getOrDefault(p.role, roleIds.get("Employee")));
+                b.add();
+            }
+        }
+
+        Map<String, Person> byName = new HashMap<>();
+        for (Person p : people) byName.put(username(p.n), p);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT user_id, username FROM users WHERE username BETWEEN ? AND ?")) {
+            ps.setString(1, username(people.get(0).n));
+            ps.setString(2, username(people.get(people.size() - 1).n));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) byName.get(rs.getString("username")).userId = rs.getInt("user_id");
+            }
+        }
+    }
+
+    private void insertEmployees(Connection conn, List<Person> people, Random rnd) throws SQLException {
+        String sql = "INSERT INTO employees (user_id, role_id, gender, phone, email, dept_id, position, salary, " +
+                     "bank_account, date_joined, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'Active')";
+        String[] genders = { "Male", "Female", "Other" };
+        try (Batch b = new Batch(conn, sql)) {
+            for (Person p : people) {
+                b.ps.setInt(1, p.userId);
+                b.ps.setInt(2, roleIds.getOrDefault(p.role, roleIds.get("Employee")));
+                b.ps.setString(3, genders[rnd.nextInt(20) == 0 ? 2 : rnd.nextInt(2)]);
+                b.ps.setString(4, String.format("555%07d", p.n));
+                b.ps.setString(5, username(p.n) + "@example.com");
+                b.ps.setInt(6, p.deptId);
+                b.ps.setString(7, POSITIONS[rnd.nextInt(POSITIONS.length)]);
+                b.ps.setDouble(8, p.salaries.get(p.salaries.size() - 1));
+                b.ps.setString(9, String.format("ACCT%010d", p.n));
+                b.ps.setDate(10, Date.valueOf(p.joined));
+                b.add();
+            }
+        }
+
+        Map<Integer, Person> byUser = new HashMap<>();
+        for (Person p : people) byUser.put(p.userId, p);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT e.emp_id, e.user_id FROM employees e JOIN users u ON e.user_id = u.user_id " +
+                "WHERE u.username BETWEEN ? AND ?")) {
+            ps.setString(1, username(people.get(0).n));
+            ps.setString(2, username(people.get(people.size() - 1).n));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) byUser.get(rs.getInt("user_id")).empId = rs.getInt("emp_id");
+            }
+        }
+    }
+
+    private void insertSalaryHistory(Connection conn, List<Person> people) throws SQLException {
+        String sql = "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to) VALUES (?, ?, ?, ?)";
+        try (Batch b = new Batch(conn, sql)) {
+            for (Person p : people) {
+                for (int i = 0; i < p.raiseDates.size(); i++) {
+                    boolean last = i == p.raiseDates.size() - 1;
+                    b.ps.setInt(1, p.empId);
+                    b.ps.setDouble(2, p.salaries.get(i));
+                    b.ps.setDate(3, Date.valueOf(p.raiseDates.get(i)));
+                    b.ps.setDate(4, last ? null : Date.valueOf(p.raiseDates.get(i + 1).minusDays(1)));
+                    b.add();
+                }
+            }
+        }
+    }
+
+    private void insertAttendance(Connection conn, List<Person> people, Random rnd) throws SQLException {
+        String sql = "INSERT INTO attendance (emp_id, attendance_date, time_in, time_out, status, attendance_type, hours_worked) " +
+                     "VALUES (?, ?, ?, ?, ?, 'Regular', ?)";
+        try (Batch b = new Batch(conn, sql)) {
+            for (Person p : people) {
+                LocalDate from = p.joined.isAfter(start) ? p.joined : start;
+                for (LocalDate d = from; !d.isAfter(end); d = d.plusDays(1)) {
+                    DayOfWeek dow = d.getDayOfWeek();
+                    if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) continue;
+
+                    int roll = rnd.nextInt(100);
+                    String status = roll < 3 ? "Absent" : roll < 6 ? "Leave" : "Present";
+                    b.ps.setInt(1, p.empId);
+                    b.ps.setDate(2, Date.valueOf(d));
+                    if (status.equals("Present")) {
+                        LocalTime in = LocalTime.of(8, 0).plusMinutes(rnd.nextInt(90));
+                        int minutes = 7 * 60 + rnd.nextInt(150);
+                        b.ps.setTime(3, Time.valueOf(in));
+                        b.ps.setTime(4, Time.valueOf(in.plusMinutes(minutes)));
+                        b.ps.setString(5, status);
+                        b.ps.setDouble(6, Math.round(minutes / 60.0 * 100) / 100.0);
+                    } else {
+                        b.ps.setTime(3, null);
+                        b.ps.setTime(4, null);
+                        b.ps.setString(5, status);
+                        b.ps.setDouble(6, 0);
+                    }
+                    b.add();
+                }
+            }
+        }
+    }
+
+    private void insertPayroll(Connection conn, List<Person> people) throws SQLException {
+        String sql = "INSERT INTO payroll (emp_id, month, year, base_salary, allowances, deductions, tax, status, generated_on) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, 'Processed', ?)";
+        YearMonth last = YearMonth.from(end).minusMonths(1);   // the current month is not paid yet
+        try (Batch b = new Batch(conn, sql)) {
+            for (Person p : people) {
+                YearMonth first = YearMonth.from(p.joined.isAfter(start) ? p.joined : start);
+                for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+                    double base = p.salaryOn(m.atEndOfMonth());
+                    double allowances = PayrollService.DEFAULT_ALLOWANCES;
+                    double tax = Math.round(PayrollService.calculateTax(base, allowances, taxRate) * 100.0) / 100.0;
+                    b.ps.setInt(1, p.empId);
+                    b.ps.setString(2, PayrollChangeTracker.monthName(m.atDay(1)));
+                    b.ps.setInt(3, m.getYear());
+                    b.ps.setDouble(4, base);
+                    b.ps.setDouble(5, allowances);
+                    b.ps.setDouble(6, PayrollService.DEFAULT_DEDUCTIONS);
+                    b.ps.setDouble(7, tax);
+                    b.ps.setTimestamp(8, Timestamp.valueOf(m.atEndOfMonth().atTime(18, 0)));
+                    b.add();
+                }
+            }
+        }
+    }
+
+    /**
+     * Past requests are decided (mostly approved); those from the last 30 days
+     * are left Pending so the approval screens have a realistic backlog.
+     */
+    private String requestStatus(LocalDate requested, Random rnd) {
+        if (requested.isAfter(end.minusDays(30))) return "Pending";
+        return rnd.nextInt(100) < 85 ? "Approved" : "Rejected";
+    }
+
+    private void insertRequests(Connection conn, List<Person> people, Random rnd) throws SQLException {
+        String leaveSql = "INSERT INTO leave_requests (emp_id, leave_type, start_date, end_date, total_days, reason, status, requested_on) " +
+                          "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String bankSql = "INSERT INTO bank_requests (emp_id, old_account, new_account, status, request_date) VALUES (?, ?, ?, ?, ?)";
+        String advanceSql = "INSERT INTO salary_advance_requests (emp_id, amount, reason, status, request_date) VALUES (?, ?, ?, ?, ?)";
+        String reimbSql = "INSERT INTO reimbursements (emp_id, amount, reason, status, request_date) VALUES (?, ?, ?, ?, ?)";
+
+        try (Batch leave = new Batch(conn, leaveSql);
+             Batch bank = new Batch(conn, bankSql);
+             Batch advance = new Batch(conn, advanceSql);
+             Batch reimb = new Batch(conn, reimbSql)) {
+            for (Person p : people) {
+                LocalDate from = p.joined.isAfter(start) ? p.joined : start;
+                long days = end.toEpochDay() - from.toEpochDay();
+                if (days <= 0) continue;
+                int activeYears = (int) Math.max(1, days / 365);
+
+                for (int i = 0, n = activeYears * (2 + rnd.nextInt(4)); i < n; i++) {
+                    LocalDate first = from.plusDays(rnd.nextLong(days));
+                    int length = rnd.nextInt(10) < 7 ? 1 + rnd.nextInt(2) : 3 + rnd.nextInt(8);
+                    LocalDate requested = first.minusDays(rnd.nextInt(14));
+                    String type = LEAVE_TYPES[rnd.nextInt(LEAVE_TYPES.length)];
+                    leave.ps.setInt(1, p.empId);
+                    leave.ps.setString(2, type);
+                    leave.ps.setDate(3, Date.valueOf(first));
+                    leave.ps.setDate(4, Date.valueOf(first.plusDays(length - 1)));
+                    leave.ps.setDouble(5, length);
+                    leave.ps.setString(6, type.equals("Sick Leave") ? "Unwell" : "Personal time off");
+                    leave.ps.setString(7, requestStatus(requested, rnd));
+                    leave.ps.setTimestamp(8, Timestamp.valueOf(requested.atTime(9 + rnd.nextInt(8), rnd.nextInt(60))));
+                    leave.add();
+                }
+
+                if (rnd.nextInt(5) == 0) {
+                    LocalDate requested = from.plusDays(rnd.nextLong(days));
+                    bank.ps.setInt(1, p.empId);
+                    bank.ps.setString(2, String.format("ACCT%010d", p.n));
+                    bank.ps.setString(3, String.format("ACCT%010d", 1_000_000 + rnd.nextInt(9_000_000)));
+                    bank.ps.setString(4, requestStatus(requested, rnd));
+                    bank.ps.setTimestamp(5, Timestamp.valueOf(requested.atTime(10, 0)));
+                    bank.add();
+                }
+
+                for (int i = 0, n = rnd.nextInt(activeYears + 1) / 2; i < n; i++) {
+                    LocalDate requested = from.plusDays(rnd.nextLong(days));
+                    advance.ps.setInt(1, p.empId);
+                    advance.ps.setDouble(2, 100 + rnd.nextInt(40) * 50);
+                    advance.ps.setString(3, "Advance against salary");
+                    advance.ps.setString(4, requestStatus(requested, rnd));
+                    advance.ps.setTimestamp(5, Timestamp.valueOf(requested.atTime(11, 0)));
+                    advance.add();
+                }
+
+                for (int i = 0, n = activeYears * rnd.nextInt(4); i < n; i++) {
+                    LocalDate requested = from.plusDays(rnd.nextLong(days));
+                    reimb.ps.setInt(1, p.empId);
+                    reimb.ps.setDouble(2, 10 + rnd.nextInt(500));
+                    reimb.ps.setString(3, rnd.nextBoolean() ? "Travel expenses" : "Equipment purchase");
+                    reimb.ps.setString(4, requestStatus(requested, rnd));
+                    reimb.ps.setTimestamp(5, Timestamp.valueOf(requested.atTime(14, 0)));
+                    reimb.add();
+                }
+            }
+        }
+    }
+
+    private void insertNotifications(Connection conn, List<Person> people, Random rnd) throws SQLException {
+        String sql = "INSERT INTO notifications (user_id, title, message, target, status, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        YearMonth last = YearMonth.from(end).minusMonths(1);
+        try (Batch b = new Batch(conn, sql)) {
+            for (Person p : people) {
+                YearMonth first = YearMonth.from(p.joined.isAfter(start) ? p.joined : start);
+                for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+                    boolean recent = m.equals(last);
+                    String period = PayrollChangeTracker.monthName(m.atDay(1)) + " " + m.getYear();
+                    b.ps.setInt(1, p.userId);
+                    b.ps.setString(2, "Payslip Ready");
+                    b.ps.setString(3, "Your payslip for " + period + " is available.");
+                    b.ps.setString(4, "Payroll");
+                    b.ps.setString(5, recent ? "Unread" : "Read");
+                    b.ps.setTimestamp(6, Timestamp.valueOf(m.atEndOfMonth().atTime(18, 5)));
+                    b.add();
+
+                    if (rnd.nextInt(3) == 0) {
+                        b.ps.setInt(1, p.userId);
+                        b.ps.setString(2, "Announcement");
+                        b.ps.setString(3, "Company update for " + period + ".");
+                        b.ps.setString(4, "All");
+                        b.ps.setString(5, recent && rnd.nextBoolean() ? "Unread" : "Read");
+                        b.ps.setTimestamp(6, Timestamp.valueOf(m.atDay(1 + rnd.nextInt(28)).atTime(9, 0)));
+                        b.add();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A prepared statement that executes its batch every BATCH rows and on close.
+     */
+    private final class Batch implements AutoCloseable {
+        final PreparedStatement ps;
+        private int pending;
+
+        Batch(Connection conn, String sql) throws SQLException {
+            this.ps = conn.prepareStatement(sql);
+        }
+
+        void add() throws SQLException {
+            ps.addBatch();
+            if (++pending == BATCH) flush();
+        }
+
+        private void flush() throws SQLException {
+            if (pending == 0) return;
+            ps.executeBatch();
+            rows.addAndGet(pending);
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                ps.close();
+            }
+        }
+    }
+}
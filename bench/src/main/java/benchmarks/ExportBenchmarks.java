@@ -0,0 +1,113 @@
+package benchmarks;
+
+import controllers.PdfUtils;
+import models.PayrollRecord;
+import models.Payslip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import services.PayrollService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering and export hot paths.
+ *
+ *   csv          payroll table CSV export (PayrollService.writeCsv), 1,000 rows
+ *   payslip      one payslip PDF (PdfUtils.generatePayslipPdf) to a temp file
+ *   payslipBulk  100 payslip PDFs, one op = the whole batch
+ *
+ * PdfUtils is the payslip renderer shared by the employee screens;
+ * PayslipService's copy of it does not compile against models.Payslip, so
+ * it is not measured (bench/pom.xml leaves it out of the build).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+UseParallelGC", "-XX:+AlwaysPreTouch" })
+public class ExportBenchmarks {
+
+    private static final int CSV_ROWS = 1_000;
+    private static final int BULK = 100;
+
+    @Param("42")
+    long seed;
+
+    private final List<PayrollRecord> records = new ArrayList<>(CSV_ROWS);
+    private final List<Payslip> payslips = new ArrayList<>(BULK);
+    private final File[] bulkFiles = new File[BULK];
+    private Path dir;
+    private File single;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < CSV_ROWS; i++) {
+            records.add(new PayrollRecord(i + 1, "Employee " + i, "Dept " + (i % 12), 20, rnd.nextInt(3),
+                    20_000 + rnd.nextInt(180_000), rnd.nextInt(5_000), rnd.nextInt(1_000), "Processed"));
+        }
+        for (int i = 0; i < BULK; i++) {
+            BigDecimal base = BigDecimal.valueOf(20_000 + rnd.nextInt(180_000));
+            BigDecimal allowances = BigDecimal.valueOf(rnd.nextInt(5_000));
+            BigDecimal deductions = BigDecimal.valueOf(rnd.nextInt(1_000));
+            BigDecimal tax = base.add(allowances).multiply(BigDecimal.valueOf(0.12));
+            BigDecimal net = base.add(allowances).subtract(deductions).subtract(tax);
+            payslips.add(new Payslip(i + 1, i + 1, i + 1, "Employee " + i, "March", 2025,
+                    base, allowances, deductions, tax, net, Timestamp.valueOf("2025-03-31 18:00:00")));
+        }
+
+        dir = Files.createTempDirectory("payslip-bench");
+        single = dir.resolve("single.pdf").toFile();
+        for (int i = 0; i < BULK; i++) bulkFiles[i] = dir.resolve("bulk-" + i + ".pdf").toFile();
+    }
+
+    @TearDown
+    public void tearDown() {
+        single.delete();
+        for (File f : bulkFiles) f.delete();
+        dir.toFile().delete();
+    }
+
+    @Benchmark
+    public int csv() {
+        StringWriter out = new StringWriter(CSV_ROWS * 64);
+        try (PrintWriter writer = new PrintWriter(out)) {
+            PayrollService.writeCsv(records, writer);
+        }
+        return out.getBuffer().length();
+    }
+
+    @Benchmark
+    public boolean payslip() {
+        return PdfUtils.generatePayslipPdf(payslips.get(cursor++ % BULK), single);
+    }
+
+    @Benchmark
+    public void payslipBulk(Blackhole bh) {
+        for (int i = 0; i < BULK; i++) bh.consume(PdfUtils.generatePayslipPdf(payslips.get(i), bulkFiles[i]));
+    }
+}
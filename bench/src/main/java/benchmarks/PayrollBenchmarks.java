@@ -0,0 +1,169 @@
+package benchmarks;
+
+import models.Employee;
+import models.PayrollRecord;
+import models.TaxBracket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import services.PayrollService;
+import services.UserService;
+import services.WorkingDayService;
+import utils.TaxSchedule;
+import utils.WorkingDayCalendar;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payroll calculation and row-mapping hot paths.
+ *
+ *   netPay            structure editor live preview (handleLiveUpdate)
+ *   taxFlat           TaxSchedule.taxFor on the flat settings.tax_rate schedule
+ *   taxBrackets       TaxSchedule.taxFor on a four-bracket marginal schedule
+ *   taxColumn         TaxSchedule.taxFor over a 10,000-row column
+ *   mapPayrollRecord  ResultSet -> PayrollRecord (PayrollService.mapPayrollRow)
+ *   mapEmployee       ResultSet -> Employee (UserService.mapSessionEmployee)
+ *
+ * Inputs come from a fixed seed. Mapping runs over StubResultSet, so its
+ * numbers include the proxy dispatch but no driver or network cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+UseParallelGC", "-XX:+AlwaysPreTouch" })
+public class PayrollBenchmarks {
+
+    private static final int N = 1024;  // power of two: index with & (N - 1)
+    private static final int COLUMN = 10_000;
+
+    @Param("42")
+    long seed;
+
+    private final double[] base = new double[N];
+    private final double[] allowances = new double[N];
+    private final double[] bonus = new double[N];
+    private final double[] deductions = new double[N];
+    private final double[] insurance = new double[N];
+    private final double[] gross = new double[COLUMN];
+    private final double[] out = new double[COLUMN];
+    private final ResultSet[] payrollRows = new ResultSet[N];
+    private final ResultSet[] employeeRows = new ResultSet[N];
+
+    private TaxSchedule flat;
+    private TaxSchedule brackets;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < N; i++) {
+            base[i] = 20_000 + rnd.nextInt(180_000);
+            allowances[i] = rnd.nextInt(5_000);
+            bonus[i] = rnd.nextInt(4) == 0 ? rnd.nextInt(10_000) : 0;
+            deductions[i] = rnd.nextInt(1_000);
+            insurance[i] = 100 + rnd.nextInt(400);
+        }
+
+        flat = TaxSchedule.flat(12.0);
+        brackets = TaxSchedule.of(List.of(
+                new TaxBracket(0, 20_000, 0),
+                new TaxBracket(20_000, 50_000, 10),
+                new TaxBracket(50_000, 100_000, 20),
+                new TaxBracket(100_000, 0, 30)));
+        for (int i = 0; i < COLUMN; i++) gross[i] = base[i & (N - 1)] + allowances[i & (N - 1)];
+
+        // mapPayrollRow looks up working days; serve them without the database
+        for (int year = 2020; year <= 2030; year++) {
+            WorkingDayService.useCalendar(new WorkingDayCalendar(year,
+                    EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), List.of()));
+        }
+
+        String[] months = { "January", "February", "March", "April", "May", "June",
+                            "July", "August", "September", "October", "November", "December" };
+        for (int i = 0; i < N; i++) {
+            Map<String, Object> p = new HashMap<>();
+            p.put("payroll_id", i + 1);
+            p.put("employee_name", "Employee " + i);
+            p.put("department", i % 7 == 0 ? null : "Dept " + (i % 12));
+            p.put("month", months[i % 12]);
+            p.put("year", 2024 + (i % 2));
+            p.put("base_salary", base[i]);
+            p.put("allowances", allowances[i]);
+            p.put("deductions", deductions[i]);
+            payrollRows[i] = StubResultSet.of(p);
+
+            Map<String, Object> e = new HashMap<>();
+            e.put("emp_id", i + 1);
+            e.put("user_id", i + 100);
+            e.put("username", "user" + i);
+            e.put("first_name", "First" + i);
+            e.put("last_name", "Last" + i);
+            e.put("email", "user" + i + "@example.com");
+            e.put("phone", "555-" + (1000 + i));
+            e.put("department", "Dept " + (i % 12));
+            e.put("position", "Position " + (i % 20));
+            e.put("date_joined", i % 10 == 0 ? null : Date.valueOf(LocalDate.of(2015, 1, 1).plusDays(i)));
+            e.put("status", "Active");
+            e.put("role_id", 1 + (i % 4));
+            e.put("role_name", "Employee");
+            employeeRows[i] = StubResultSet.of(e);
+        }
+    }
+
+    private int next() {
+        return cursor++ & (N - 1);
+    }
+
+    @Benchmark
+    public double netPay() {
+        int i = next();
+        return PayrollService.netPay(base[i], allowances[i], bonus[i], deductions[i], insurance[i], 12.0, 4.5);
+    }
+
+    @Benchmark
+    public double taxFlat() {
+        return flat.taxFor(base[next()]);
+    }
+
+    @Benchmark
+    public double taxBrackets() {
+        return brackets.taxFor(base[next()]);
+    }
+
+    @Benchmark
+    public void taxColumn(Blackhole bh) {
+        brackets.taxFor(gross, out, COLUMN);
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public PayrollRecord mapPayrollRecord() throws SQLException {
+        return PayrollService.mapPayrollRow(payrollRows[next()]);
+    }
+
+    @Benchmark
+    public Employee mapEmployee() throws SQLException {
+        return UserService.mapSessionEmployee(employeeRows[next()]);
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * A ResultSet over one in-memory row, so row-mapping code can be measured
+ * without a database or driver. Supports the getters the mappers use
+ * (by column label) plus next() and wasNull(); next() always returns true.
+ */
+public final class StubResultSet {
+
+    private StubResultSet() {
+    }
+
+    public static ResultSet of(Map<String, Object> row) {
+        boolean[] lastNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("next")) return true;
+                    if (name.equals("wasNull")) return lastNull[0];
+                    if (name.equals("close")) return null;
+                    if (!name.startsWith("get") || args == null || !(args[0] instanceof String)) {
+                        throw new UnsupportedOperationException(name);
+                    }
+                    Object value = row.get((String) args[0]);
+                    lastNull[0] = value == null;
+                    return switch (name) {
+                        case "getString" -> value == null ? null : value.toString();
+                        case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getDouble" -> value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getBigDecimal" -> value == null ? null : new BigDecimal(value.toString());
+                        case "getDate" -> (Date) value;
+                        case "getTimestamp" -> (Timestamp) value;
+                        case "getObject" -> value;
+                        default -> throw new UnsupportedOperationException(name);
+                    };
+                });
+    }
+}
@@ -0,0 +1,18 @@
+@echo off
+rem Builds an AppCDS archive (payroll.jsa) for faster cold starts.
+rem See build-cds-archive.sh for details. Set PATH_TO_FX, MYSQL_JAR and ITEXT_JAR first.
+
+cd /d "%~dp0\.."
+
+if "%PATH_TO_FX%"=="" (echo Set PATH_TO_FX to the JavaFX SDK lib folder & exit /b 1)
+if "%MYSQL_JAR%"=="" (echo Set MYSQL_JAR to the MySQL connector jar & exit /b 1)
+if "%ITEXT_JAR%"=="" (echo Set ITEXT_JAR to the iText jar & exit /b 1)
+
+set CP=bin;%MYSQL_JAR%;%ITEXT_JAR%
+set FX=--module-path "%PATH_TO_FX%" --add-modules javafx.controls,javafx.fxml
+
+java -XX:ArchiveClassesAtExit=payroll.jsa %FX% -cp "%CP%" application.Main --cds-training
+
+echo.
+echo Archive written to payroll.jsa. Launch with:
+echo   java -XX:SharedArchiveFile=payroll.jsa %FX% -cp "%CP%" application.Main
@@ -0,0 +1,29 @@
+#!/bin/sh
+# Builds an AppCDS archive (payroll.jsa) for faster cold starts.
+#
+# The app runs once in training mode (login screen + startup warm-up, then exits)
+# and the JVM dumps every loaded class into the archive at exit. Later launches
+# map the archive instead of parsing and verifying those classes again.
+#
+# Usage:
+#   PATH_TO_FX=/path/to/javafx-sdk/lib MYSQL_JAR=/path/to/mysql-connector-j.jar \
+#   ITEXT_JAR=/path/to/itextpdf.jar scripts/build-cds-archive.sh
+#
+# Requires the compiled classes in bin/ (Eclipse output folder) and JDK 21.
+# The archive is only valid for the exact JDK and classpath used to build it.
+
+set -e
+cd "$(dirname "$0")/.."
+
+: "${PATH_TO_FX:?Set PATH_TO_FX to the JavaFX SDK lib folder}"
+: "${MYSQL_JAR:?Set MYSQL_JAR to the MySQL connector jar}"
+: "${ITEXT_JAR:?Set ITEXT_JAR to the iText jar}"
+
+CP="bin:$MYSQL_JAR:$ITEXT_JAR"
+FX="--module-path $PATH_TO_FX --add-modules javafx.controls,javafx.fxml"
+
+java -XX:ArchiveClassesAtExit=payroll.jsa $FX -cp "$CP" application.Main --cds-training
+
+echo
+echo "Archive written to payroll.jsa. Launch with:"
+echo "  java -XX:SharedArchiveFile=payroll.jsa $FX -cp \"$CP\" application.Main"
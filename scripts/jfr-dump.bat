@@ -0,0 +1,19 @@
+@echo off
+rem Dumps the running "payroll" flight recording of a live application to a .jfr
+rem file. See jfr-dump.sh for details.
+rem Usage: jfr-dump.bat [pid|main-class] [output.jfr]
+
+cd /d "%~dp0\.."
+
+set TARGET=%1
+if "%TARGET%"=="" set TARGET=application.Main
+set FILE=%2
+if "%FILE%"=="" set FILE=build\jfr\payroll-%RANDOM%.jfr
+
+for %%F in ("%FILE%") do (
+    if not exist "%%~dpF" mkdir "%%~dpF"
+    set FILE=%%~fF
+)
+
+jcmd %TARGET% JFR.dump name=payroll filename="%FILE%" || exit /b 1
+echo Wrote %FILE%
@@ -0,0 +1,25 @@
+#!/bin/sh
+# Dumps the running "payroll" flight recording of a live application to a .jfr
+# file (open it in JDK Mission Control, or summarise it with 'jfr summary').
+#
+# Usage:
+#   scripts/jfr-dump.sh [pid|main-class] [output.jfr]
+#
+# The process defaults to application.Main; the file to build/jfr/payroll-<time>.jfr.
+# The recording is started by the app with -Dpayroll.jfr=true, or in a running
+# app that was started without it:
+#   jcmd <pid> JFR.start name=payroll settings=$PWD/src/jfr/payroll.jfc maxage=6h
+
+set -e
+cd "$(dirname "$0")/.."
+
+TARGET="${1:-application.Main}"
+FILE="${2:-build/jfr/payroll-$(date +%Y%m%d-%H%M%S).jfr}"
+
+mkdir -p "$(dirname "$FILE")"
+# jcmd resolves a relative filename against the target's working directory
+FILE="$(cd "$(dirname "$FILE")" && pwd)/$(basename "$FILE")"
+
+jcmd "$TARGET" JFR.dump name=payroll filename="$FILE"
+echo "Wrote $FILE"
+jfr summary "$FILE" | grep -E 'payroll\.|Duration|Start' || true
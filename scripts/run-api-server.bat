@@ -0,0 +1,23 @@
+@echo off
+rem Runs the headless REST API server (api.ApiServer). See run-api-server.sh for details.
+rem Usage: run-api-server.bat [--host 127.0.0.1] [--port 8080] [--backlog 1024]
+rem Set PATH_TO_FX and MYSQL_JAR first; PAYROLL_DB_URL, PAYROLL_DB_USER and
+rem PAYROLL_DB_PASSWORD select the database, DB_MAX_ACTIVE caps its connections.
+
+cd /d "%~dp0\.."
+
+if "%PATH_TO_FX%"=="" (echo Set PATH_TO_FX to the JavaFX SDK lib folder & exit /b 1)
+if "%MYSQL_JAR%"=="" (echo Set MYSQL_JAR to the MySQL connector jar & exit /b 1)
+
+if "%PAYROLL_DB_URL%"=="" set PAYROLL_DB_URL=jdbc:mysql://localhost:3306/payroll_system
+if "%PAYROLL_DB_USER%"=="" set PAYROLL_DB_USER=root
+if "%PAYROLL_DB_PASSWORD%"=="" set PAYROLL_DB_PASSWORD=root
+if "%DB_MAX_ACTIVE%"=="" set DB_MAX_ACTIVE=32
+
+set CP=bin;%MYSQL_JAR%
+if not "%ITEXT_JAR%"=="" set CP=%CP%;%ITEXT_JAR%
+set FX=--module-path "%PATH_TO_FX%" --add-modules javafx.base
+set METRICS=
+if not "%PAYROLL_METRICS_PORT%"=="" set METRICS=-Dpayroll.metrics.port=%PAYROLL_METRICS_PORT%
+
+java %FX% -cp "%CP%" "-Dpayroll.db.url=%PAYROLL_DB_URL%" "-Dpayroll.db.user=%PAYROLL_DB_USER%" "-Dpayroll.db.password=%PAYROLL_DB_PASSWORD%" -Dpayroll.db.maxActive=%DB_MAX_ACTIVE% -Dpayroll.db.maxIdle=%DB_MAX_ACTIVE% %METRICS% api.ApiServer %*
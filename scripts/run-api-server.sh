@@ -0,0 +1,35 @@
+#!/bin/sh
+# Runs the headless REST API server (api.ApiServer): no windows, one virtual
+# thread per request, Bearer-token sessions, JSON over /api/.
+#
+# Usage:
+#   PATH_TO_FX=/path/to/javafx-sdk/lib MYSQL_JAR=/path/to/mysql-connector-j.jar \
+#   scripts/run-api-server.sh [--host 127.0.0.1] [--port 8080] [--backlog 1024]
+#
+# PAYROLL_DB_URL / PAYROLL_DB_USER / PAYROLL_DB_PASSWORD select the database.
+# DB_MAX_ACTIVE caps the pooled connections shared by all requests (default 32);
+# requests beyond that wait up to -Dpayroll.db.acquireTimeoutMs, then get a 503.
+# Set PAYROLL_METRICS_PORT to also serve /metrics.
+#
+# Only javafx.base is loaded (the services return ObservableLists). Requires the
+# compiled classes in bin/ (Eclipse output folder) and JDK 21.
+
+set -e
+cd "$(dirname "$0")/.."
+
+: "${PATH_TO_FX:?Set PATH_TO_FX to the JavaFX SDK lib folder}"
+: "${MYSQL_JAR:?Set MYSQL_JAR to the MySQL connector jar}"
+
+DB_URL="${PAYROLL_DB_URL:-jdbc:mysql://localhost:3306/payroll_system}"
+DB_USER="${PAYROLL_DB_USER:-root}"
+DB_PASSWORD="${PAYROLL_DB_PASSWORD:-root}"
+DB_MAX_ACTIVE="${DB_MAX_ACTIVE:-32}"
+METRICS="${PAYROLL_METRICS_PORT:+-Dpayroll.metrics.port=$PAYROLL_METRICS_PORT}"
+
+CP="bin:$MYSQL_JAR${ITEXT_JAR:+:$ITEXT_JAR}"
+FX="--module-path $PATH_TO_FX --add-modules javafx.base"
+
+exec java $FX -cp "$CP" \
+    -Dpayroll.db.url="$DB_URL" -Dpayroll.db.user="$DB_USER" -Dpayroll.db.password="$DB_PASSWORD" \
+    -Dpayroll.db.maxActive="$DB_MAX_ACTIVE" -Dpayroll.db.maxIdle="$DB_MAX_ACTIVE" $METRICS \
+    api.ApiServer "$@"
@@ -0,0 +1,9 @@
+@echo off
+rem Runs the JMH micro-benchmarks in bench\ with the gc profiler (ops/s plus
+rem allocation per op). See run-benchmarks.sh for details and options.
+
+cd /d "%~dp0\.."
+
+call mvn -q -B -f bench\pom.xml package || exit /b 1
+
+java -jar bench\target\benchmarks.jar -prof gc %*
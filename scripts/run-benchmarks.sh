@@ -0,0 +1,24 @@
+#!/bin/sh
+# Runs the JMH micro-benchmarks in bench/ (payroll math, tax, row mapping, CSV
+# and payslip PDF rendering) with the gc profiler, so each benchmark reports
+# ops/s plus gc.alloc.rate (MB/s) and gc.alloc.rate.norm (bytes per op).
+#
+# Usage:
+#   scripts/run-benchmarks.sh [JMH options]
+#
+# Options are passed to JMH (java -jar bench/target/benchmarks.jar -h), e.g.
+#   'PayrollBenchmarks.tax'                 only benchmarks matching the regex
+#   -rf json -rff build/bench.json          keep results to compare runs
+#   -f 1 -wi 2 -i 3                         quick run: 1 fork, fewer iterations
+#
+# bench/pom.xml compiles the application sources in src/ together with the
+# benchmarks into bench/target/benchmarks.jar; Maven and JDK 21 are required,
+# no database is needed. Each benchmark runs in its own forked JVMs with a
+# fixed heap and GC (see @Fork), so runs on the same machine and JDK are
+# comparable.
+
+set -e
+cd "$(dirname "$0")/.."
+
+mvn -q -B -f bench/pom.xml package
+java -jar bench/target/benchmarks.jar -prof gc "$@"
@@ -0,0 +1,37 @@
+@echo off
+rem Fills a database with synthetic data and replays concurrent role sessions
+rem against it. See run-loadtest.sh for details.
+rem Usage: run-loadtest.bat generate|drive [options]
+rem Set PATH_TO_FX, MYSQL_JAR and ITEXT_JAR first; PAYROLL_DB_URL, PAYROLL_DB_USER
+rem and PAYROLL_DB_PASSWORD select the (throwaway) database.
+
+cd /d "%~dp0\.."
+
+if "%PATH_TO_FX%"=="" (echo Set PATH_TO_FX to the JavaFX SDK lib folder & exit /b 1)
+if "%MYSQL_JAR%"=="" (echo Set MYSQL_JAR to the MySQL connector jar & exit /b 1)
+if "%ITEXT_JAR%"=="" (echo Set ITEXT_JAR to the iText jar & exit /b 1)
+
+if "%1"=="generate" (set MAIN=loadtest.WorkloadGenerator) else if "%1"=="drive" (set MAIN=loadtest.LoadDriver) else (echo Usage: run-loadtest.bat generate^|drive [options] & exit /b 1)
+shift
+
+if "%PAYROLL_DB_URL%"=="" set PAYROLL_DB_URL=jdbc:mysql://localhost:3306/payroll_system?rewriteBatchedStatements=true
+if "%PAYROLL_DB_USER%"=="" set PAYROLL_DB_USER=root
+if "%PAYROLL_DB_PASSWORD%"=="" set PAYROLL_DB_PASSWORD=root
+
+set OUT=build\loadtest
+set CP=bin;%MYSQL_JAR%;%ITEXT_JAR%
+set FX=--module-path "%PATH_TO_FX%" --add-modules javafx.controls,javafx.fxml
+
+if exist %OUT% rmdir /s /q %OUT%
+mkdir %OUT%
+javac --release 21 -encoding UTF-8 %FX% -cp "%CP%" -d %OUT% bench\loadtest\*.java || exit /b 1
+
+set ARGS=
+:collect
+if "%~1"=="" goto run
+set ARGS=%ARGS% %1
+shift
+goto collect
+
+:run
+java -Xms2g -Xmx2g %FX% -cp "%OUT%;%CP%" "-Dpayroll.db.url=%PAYROLL_DB_URL%" "-Dpayroll.db.user=%PAYROLL_DB_USER%" "-Dpayroll.db.password=%PAYROLL_DB_PASSWORD%" %MAIN% %ARGS%
@@ -0,0 +1,47 @@
+#!/bin/sh
+# Fills a database with synthetic production-sized data and replays concurrent
+# role sessions against it (bench/loadtest), reporting p50/p90/p99 per operation.
+#
+# Usage:
+#   PATH_TO_FX=/path/to/javafx-sdk/lib MYSQL_JAR=/path/to/mysql-connector-j.jar \
+#   ITEXT_JAR=/path/to/itextpdf.jar scripts/run-loadtest.sh generate [options]
+#   ... scripts/run-loadtest.sh drive [options]
+#
+#   generate   loadtest.WorkloadGenerator, e.g. --employees 100000 --years 5 --seed 42
+#   drive      loadtest.LoadDriver, e.g. --threads 32 --duration 120 --out build/load.csv
+#
+# Use a throwaway MySQL server: load sql/sql.sql into it first, then point
+# PAYROLL_DB_URL (and PAYROLL_DB_USER / PAYROLL_DB_PASSWORD) at it. Keep
+# rewriteBatchedStatements=true in the URL or the generator runs row by row.
+#
+# Requires the compiled classes in bin/ (Eclipse output folder) and JDK 21.
+
+set -e
+cd "$(dirname "$0")/.."
+
+: "${PATH_TO_FX:?Set PATH_TO_FX to the JavaFX SDK lib folder}"
+: "${MYSQL_JAR:?Set MYSQL_JAR to the MySQL connector jar}"
+: "${ITEXT_JAR:?Set ITEXT_JAR to the iText jar}"
+
+case "$1" in
+    generate) MAIN=loadtest.WorkloadGenerator ;;
+    drive) MAIN=loadtest.LoadDriver ;;
+    *) echo "Usage: $0 generate|drive [options]" >&2; exit 1 ;;
+esac
+shift
+
+DB_URL="${PAYROLL_DB_URL:-jdbc:mysql://localhost:3306/payroll_system?rewriteBatchedStatements=true}"
+DB_USER="${PAYROLL_DB_USER:-root}"
+DB_PASSWORD="${PAYROLL_DB_PASSWORD:-root}"
+
+OUT=build/loadtest
+CP="bin:$MYSQL_JAR:$ITEXT_JAR"
+FX="--module-path $PATH_TO_FX --add-modules javafx.controls,javafx.fxml"
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+javac --release 21 -encoding UTF-8 $FX -cp "$CP" -d "$OUT" bench/loadtest/*.java
+
+java -Xms2g -Xmx2g $FX -cp "$OUT:$CP" \
+    -Dpayroll.db.url="$DB_URL" -Dpayroll.db.user="$DB_USER" -Dpayroll.db.password="$DB_PASSWORD" \
+    $MAIN "$@"
@@ -0,0 +1,21 @@
+package api;
+
+/**
+ * Ends a request with an HTTP status and a message for the client
+ * ({"error": message}). Anything else thrown by a handler is a 500.
+ */
+public class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
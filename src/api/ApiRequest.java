@@ -0,0 +1,195 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import models.Employee;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One API call: path and query parameters, the JSON body, the caller's
+ * session and the response. Handlers stream their JSON through respond().
+ */
+public class ApiRequest {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int WRITE_BUFFER = 16 * 1024;
+
+    /**
+     * Writes the response body.
+     */
+    @FunctionalInterface
+    public interface Body {
+        void write(JsonWriter json) throws Exception;
+    }
+
+    private final HttpExchange exchange;
+    private final Map<String, String> pathParams;
+    private Map<String, String> query;
+    private final String token;
+    private Employee employee;
+    private int status;
+    private boolean committed;
+
+    ApiRequest(HttpExchange exchange, Map<String, String> pathParams) {
+        this.exchange = exchange;
+        this.pathParams = pathParams;
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        this.token = auth != null && auth.regionMatches(true, 0, "Bearer ", 0, 7) ? auth.substring(7).trim() : null;
+    }
+
+    public String getToken() { return token; }
+    public Employee getEmployee() { return employee; }
+    void setEmployee(Employee employee) { this.employee = employee; }
+    int getStatus() { return status; }
+    /** True once the status line is sent; a failure after that can only abort the stream. */
+    boolean isCommitted() { return committed; }
+
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    public int pathInt(String name) {
+        try {
+            return Integer.parseInt(pathParams.get(name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "'" + name + "' must be a number");
+        }
+    }
+
+    /**
+     * @return the query parameter, or null when absent or blank
+     */
+    public String query(String name) {
+        // Parsed on first use, so bad percent-encoding fails inside the handler as a 400
+        if (query == null) query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String value = query.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public Integer queryInt(String name) {
+        String value = query(name);
+        if (value == null) return null;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "'" + name + "' must be a number");
+        }
+    }
+
+    public int queryInt(String name, int defaultValue, int min, int max) {
+        Integer value = queryInt(name);
+        return value == null ? defaultValue : Math.max(min, Math.min(max, value));
+    }
+
+    public LocalDate queryDate(String name) {
+        return date(name, query(name));
+    }
+
+    public YearMonth queryMonth(String name) {
+        String value = query(name);
+        if (value == null) return null;
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "'" + name + "' must be yyyy-MM");
+        }
+    }
+
+    /**
+     * Parses the request body as a JSON object (empty body = empty object).
+     */
+    public Map<String, Object> body() throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                if (buf.size() + n > MAX_BODY_BYTES) throw new ApiException(413, "Request body too large");
+                buf.write(chunk, 0, n);
+            }
+            return JsonReader.parseObject(buf.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static String string(Map<String, Object> body, String name, boolean required) {
+        Object value = body.get(name);
+        if (value == null || value.toString().isBlank()) {
+            if (required) throw new ApiException(400, "'" + name + "' is required");
+            return null;
+        }
+        if (!(value instanceof String s)) throw new ApiException(400, "'" + name + "' must be a string");
+        return s.trim();
+    }
+
+    public static LocalDate date(String name, String value) {
+        if (value == null) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "'" + name + "' must be yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Sends the status and streams the JSON written by the body (chunked, so
+     * rows go out while they are still being read from the database).
+     */
+    public void respond(int status, Body body) throws Exception {
+        this.status = status;
+        this.committed = true;
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), WRITE_BUFFER)) {
+            JsonWriter json = new JsonWriter(out);
+            body.write(json);
+        }
+    }
+
+    public void respondNoContent() throws IOException {
+        this.status = 204;
+        this.committed = true;
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Error responses are small: sent with a Content-Length, not chunked.
+     */
+    void respondError(int status, String message) throws IOException {
+        this.status = status;
+        this.committed = true;
+        StringWriter text = new StringWriter();
+        new JsonWriter(text).beginObject().name("error").value(message == null ? "Error" : message).endObject();
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (status == 401) exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> map = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return map;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            map.putIfAbsent(key, value);
+        }
+        return map;
+    }
+}
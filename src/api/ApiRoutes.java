@@ -0,0 +1,358 @@
+package api;
+
+import dao.AttendanceDAO;
+import dao.EmployeeDAO;
+import models.ApprovalResult;
+import models.Attendance;
+import models.AttendanceRecord;
+import models.Employee;
+import models.EmployeeRequest;
+import models.LeaveRequest;
+import models.Payslip;
+import services.EmployeeService;
+import services.PayrollService;
+import services.RequestApprovalService;
+import services.RequestService;
+import services.UserService;
+import utils.SessionManager;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * API ROUTES: The REST endpoints, each a thin layer over an existing service
+ * or DAO call. Routes under /api/me act on the signed-in employee; the rest
+ * are limited to the roles that see the same data in the desktop app.
+ *
+ * Large lists (payroll) are streamed to the client a chunk of rows at a
+ * time, with no connection held while writing; the others serialize the list
+ * the service already returns.
+ */
+public class ApiRoutes {
+
+    private static final String ADMIN = "Admin";
+    private static final String HR = "HR";
+    private static final String PAYROLL_OFFICER = "Payroll Officer";
+
+    private static final int MAX_DECISIONS = 1000;
+
+    // Stateless, so one instance serves every request thread
+    private static final EmployeeService employeeService = new EmployeeService();
+    private static final RequestService requestService = new RequestService();
+    private static final EmployeeDAO employeeDAO = new EmployeeDAO();
+    private static final AttendanceDAO attendanceDAO = new AttendanceDAO();
+
+    public static void register(ApiServer api) {
+        api.open("GET", "/api/health", ApiRoutes::health);
+        api.open("POST", "/api/login", ApiRoutes::login);
+        api.secured("POST", "/api/logout", ApiRoutes::logout);
+
+        api.secured("GET", "/api/me", ApiRoutes::me);
+        api.secured("GET", "/api/me/payroll", ApiRoutes::myPayroll);
+        api.secured("GET", "/api/me/payslips/latest", ApiRoutes::myLatestPayslip);
+        api.secured("GET", "/api/me/attendance", ApiRoutes::myAttendance);
+        api.secured("GET", "/api/me/leave-requests", ApiRoutes::myLeaveRequests);
+        api.secured("GET", "/api/me/leave-balance", ApiRoutes::myLeaveBalance);
+
+        api.secured("GET", "/api/employees", ApiRoutes::employees, ADMIN, HR, PAYROLL_OFFICER);
+        api.secured("GET", "/api/payroll", ApiRoutes::payroll, ADMIN, HR, PAYROLL_OFFICER);
+        api.secured("GET", "/api/attendance", ApiRoutes::attendance, ADMIN, HR);
+        api.secured("POST", "/api/attendance", ApiRoutes::recordAttendance, ADMIN, HR);
+        api.secured("GET", "/api/requests", ApiRoutes::requests, ADMIN, HR);
+        api.secured("POST", "/api/requests/decisions", ApiRoutes::decideRequests, ADMIN, HR);
+    }
+
+    // ---------------------------------------------------------------- session
+
+    private static void health(ApiRequest req) throws Exception {
+        req.respond(200, json -> json.beginObject().name("status").value("ok").endObject());
+    }
+
+    private static void login(ApiRequest req) throws Exception {
+        Map<String, Object> body = req.body();
+        String username = ApiRequest.string(body, "username", true);
+        String password = ApiRequest.string(body, "password", true);
+
+        Employee employee = UserService.authenticate(username, password);
+        if (employee == null) throw new ApiException(401, "Invalid username or password");
+
+        String token = ApiSessions.create(employee);
+        req.respond(200, json -> {
+            json.beginObject()
+                .name("token").value(token)
+                .name("expiresInSeconds").value(ApiSessions.getIdleSeconds())
+                .name("user");
+            employee(json, employee);
+            json.endObject();
+        });
+    }
+
+    private static void logout(ApiRequest req) throws Exception {
+        ApiSessions.remove(req.getToken());
+        req.respondNoContent();
+    }
+
+    // --------------------------------------------------------------- /api/me
+
+    private static void me(ApiRequest req) throws Exception {
+        req.respond(200, json -> employee(json, req.getEmployee()));
+    }
+
+    private static void myPayroll(ApiRequest req) throws Exception {
+        int empId = requireEmployeeRecord();
+        req.respond(200, json -> {
+            json.beginArray();
+            PayrollService.streamPayroll(null, null, empId, rs -> payrollRow(json, rs));
+            json.endArray();
+        });
+    }
+
+    private static void myLatestPayslip(ApiRequest req) throws Exception {
+        Optional<Payslip> payslip = employeeDAO.getLatestPayslip(requireEmployeeRecord());
+        if (payslip.isEmpty()) throw new ApiException(404, "No payslip yet");
+        req.respond(200, json -> payslip(json, payslip.get()));
+    }
+
+    private static void myAttendance(ApiRequest req) throws Exception {
+        int empId = requireEmployeeRecord();
+        YearMonth month = req.queryMonth("month");
+        List<AttendanceRecord> records =
+                employeeDAO.getMonthlyAttendance(empId, month == null ? YearMonth.now() : month);
+        req.respond(200, json -> {
+            json.beginArray();
+            for (AttendanceRecord r : records) attendanceRecord(json, r);
+            json.endArray();
+        });
+    }
+
+    private static void myLeaveRequests(ApiRequest req) throws Exception {
+        List<LeaveRequest> requests = employeeDAO.getEmployeeLeaveRequests(requireEmployeeRecord());
+        req.respond(200, json -> {
+            json.beginArray();
+            for (LeaveRequest r : requests) leaveRequest(json, r);
+            json.endArray();
+        });
+    }
+
+    private static void myLeaveBalance(ApiRequest req) throws Exception {
+        int remaining = employeeDAO.getRemainingLeaveDays(requireEmployeeRecord());
+        req.respond(200, json -> json.beginObject().name("remainingDays").value(remaining).endObject());
+    }
+
+    // ---------------------------------------------------------- back office
+
+    private static void employees(ApiRequest req) throws Exception {
+        List<Employee> employees = employeeService.getAllEmployees();
+        req.respond(200, json -> {
+            json.beginArray();
+            for (Employee e : employees) employee(json, e);
+            json.endArray();
+        });
+    }
+
+    private static void payroll(ApiRequest req) throws Exception {
+        String month = req.query("month");
+        Integer year = req.queryInt("year");
+        Integer empId = req.queryInt("empId");
+        req.respond(200, json -> {
+            json.beginArray();
+            PayrollService.streamPayroll(month, year, empId, rs -> payrollRow(json, rs));
+            json.endArray();
+        });
+    }
+
+    private static void attendance(ApiRequest req) throws Exception {
+        List<Attendance> records = attendanceDAO.getFilteredRecords(
+                req.queryDate("date"), req.query("name"), req.query("status"));
+        req.respond(200, json -> {
+            json.beginArray();
+            for (Attendance a : records) attendance(json, a);
+            json.endArray();
+        });
+    }
+
+    private static void recordAttendance(ApiRequest req) throws Exception {
+        Map<String, Object> body = req.body();
+        String employeeName = ApiRequest.string(body, "employeeName", true);
+        LocalDate date = ApiRequest.date("date", ApiRequest.string(body, "date", true));
+        String status = ApiRequest.string(body, "status", true);
+        String type = ApiRequest.string(body, "type", false);
+        String remarks = ApiRequest.string(body, "remarks", false);
+
+        if (!attendanceDAO.saveAttendance(employeeName, date, status, type == null ? "Regular" : type, remarks)) {
+            throw new ApiException(422, "Could not record attendance for '" + employeeName + "'");
+        }
+        req.respond(201, json -> json.beginObject().name("saved").value(true).endObject());
+    }
+
+    private static void requests(ApiRequest req) throws Exception {
+        int offset = req.queryInt("offset", 0, 0, Integer.MAX_VALUE);
+        int limit = req.queryInt("limit", 100, 1, 1000);
+        List<EmployeeRequest> page = requestService.getRequestsPage(
+                req.query("status"), req.query("type"), offset, limit);
+        req.respond(200, json -> {
+            json.beginArray();
+            for (EmployeeRequest r : page) employeeRequest(json, r);
+            json.endArray();
+        });
+    }
+
+    /**
+     * Body: {"status": "Approved" | "Rejected", "items": [{"type": "Leave", "id": 12}, ...]}
+     */
+    private static void decideRequests(ApiRequest req) throws Exception {
+        Map<String, Object> body = req.body();
+        String status = ApiRequest.string(body, "status", true);
+        if (!"Approved".equals(status) && !"Rejected".equals(status)) {
+            throw new ApiException(400, "'status' must be Approved or Rejected");
+        }
+        if (!(body.get("items") instanceof List<?> items) || items.isEmpty()) {
+            throw new ApiException(400, "'items' must be a non-empty array");
+        }
+        if (items.size() > MAX_DECISIONS) {
+            throw new ApiException(413, "At most " + MAX_DECISIONS + " items per call");
+        }
+
+        RequestApprovalService.Batch batch = new RequestApprovalService.Batch();
+        for (Object item : items) {
+            if (!(item instanceof Map<?, ?> entry)
+                    || !(entry.get("type") instanceof String type)
+                    || !(entry.get("id") instanceof Long id) || id <= 0 || id > Integer.MAX_VALUE) {
+                throw new ApiException(400, "Each item needs a string 'type' and a positive numeric 'id'");
+            }
+            batch.add(type, id.intValue());
+        }
+
+        ApprovalResult result = RequestApprovalService.decide(batch, status, SessionManager.getCurrentUserId());
+        req.respond(200, json -> json.beginObject()
+                .name("status").value(result.getStatus())
+                .name("decided").value(result.getDecidedCount())
+                .name("skipped").value(result.getSkipped())
+                .name("failedSources").value(result.getFailedSources())
+                .endObject());
+    }
+
+    /**
+     * The signed-in user's emp_id; accounts without an employee record (e.g. admin) get a 404.
+     */
+    private static int requireEmployeeRecord() {
+        int empId = SessionManager.getCurrentEmployeeId();
+        if (empId <= 0) throw new ApiException(404, "This account has no employee record");
+        return empId;
+    }
+
+    // ----------------------------------------------------------- serializers
+
+    private static void employee(JsonWriter json, Employee e) throws IOException {
+        json.beginObject()
+            .name("employeeId").value(e.getEmployeeId())
+            .name("userId").value(e.getUserId())
+            .name("username").value(e.getUsername())
+            .name("firstName").value(e.getFirstName())
+            .name("lastName").value(e.getLastName())
+            .name("role").value(e.getRoleName())
+            .name("department").value(e.getDepartment())
+            .name("position").value(e.getPosition())
+            .name("employmentType").value(e.getEmploymentType())
+            .name("status").value(e.getStatus())
+            .name("email").value(e.getEmail())
+            .name("phone").value(e.getPhone())
+            .name("dateJoined").value(e.getDateJoined())
+            .endObject();
+    }
+
+    private static void payrollRow(JsonWriter json, ResultSet rs) throws SQLException, IOException {
+        Timestamp generatedOn = rs.getTimestamp("generated_on");
+        json.beginObject()
+            .name("payrollId").value(rs.getInt("payroll_id"))
+            .name("employeeId").value(rs.getInt("emp_id"))
+            .name("employeeName").value(rs.getString("employee_name"))
+            .name("department").value(rs.getString("department"))
+            .name("month").value(rs.getString("month"))
+            .name("year").value(rs.getInt("year"))
+            .name("baseSalary").value(rs.getBigDecimal("base_salary"))
+            .name("allowances").value(rs.getBigDecimal("allowances"))
+            .name("deductions").value(rs.getBigDecimal("deductions"))
+            .name("tax").value(rs.getBigDecimal("tax"))
+            .name("netSalary").value(rs.getBigDecimal("net_salary"))
+            .name("status").value(rs.getString("status"))
+            .name("generatedOn").value(generatedOn == null ? null : generatedOn.toLocalDateTime())
+            .endObject();
+    }
+
+    private static void payslip(JsonWriter json, Payslip p) throws IOException {
+        json.beginObject()
+            .name("payslipId").value(p.getPayslipId())
+            .name("payrollId").value(p.getPayrollId())
+            .name("employeeId").value(p.getEmpId())
+            .name("employeeName").value(p.getEmployeeName())
+            .name("month").value(p.getMonth())
+            .name("year").value(p.getYear())
+            .name("baseSalary").value(p.getBaseSalary())
+            .name("allowances").value(p.getAllowances())
+            .name("deductions").value(p.getDeductions())
+            .name("tax").value(p.getTax())
+            .name("netSalary").value(p.getNetSalary())
+            .name("generatedOn").value(p.getGeneratedOn() == null ? null : p.getGeneratedOn().toLocalDateTime())
+            .endObject();
+    }
+
+    private static void attendanceRecord(JsonWriter json, AttendanceRecord r) throws IOException {
+        json.beginObject()
+            .name("date").value(r.getDate())
+            .name("clockIn").value(r.getClockInTime())
+            .name("clockOut").value(r.getClockOutTime())
+            .name("status").value(r.getStatus())
+            .name("type").value(r.getType())
+            .name("remarks").value(r.getRemarks())
+            .endObject();
+    }
+
+    private static void attendance(JsonWriter json, Attendance a) throws IOException {
+        json.beginObject()
+            .name("id").value(a.getId())
+            .name("employeeName").value(a.getEmployeeName())
+            .name("date").value(a.getDate())
+            .name("status").value(a.getStatus())
+            .name("type").value(a.getLeaveType())
+            .name("remarks").value(a.getRemarks())
+            .endObject();
+    }
+
+    private static void leaveRequest(JsonWriter json, LeaveRequest r) throws IOException {
+        json.beginObject()
+            .name("requestId").value(r.getRequestId())
+            .name("leaveType").value(r.getLeaveType())
+            .name("startDate").value(r.getStartDate())
+            .name("endDate").value(r.getEndDate())
+            .name("totalDays").value(r.getTotalDays())
+            .name("reason").value(r.getReason())
+            .name("status").value(r.getStatus())
+            .name("requestedOn").value(r.getRequestedOn())
+            .endObject();
+    }
+
+    private static void employeeRequest(JsonWriter json, EmployeeRequest r) throws IOException {
+        json.beginObject()
+            .name("requestId").value(r.getRequestId())
+            .name("type").value(r.getRequestType())
+            .name("employeeId").value(r.getEmployeeId())
+            .name("employeeName").value(r.getEmployeeName())
+            .name("status").value(r.getStatus())
+            .name("submittedDate").value(r.getSubmittedDate())
+            .name("startDate").value(r.getStartDate())
+            .name("endDate").value(r.getEndDate())
+            .name("justification").value(r.getJustification())
+            .name("hrComment").value(r.getHrComment())
+            .name("oldValue").value(r.getOldValue())
+            .name("newValue").value(r.getNewValue())
+            .endObject();
+    }
+}
@@ -0,0 +1,249 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import models.Employee;
+import services.AutoApprovalService;
+import utils.DBConnection;
+import utils.FlightRecording;
+import utils.Metrics;
+import utils.MetricsServer;
+import utils.PayrollChangeTracker;
+import utils.SessionManager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * API SERVER: Headless server mode. Serves the services and DAOs as a JSON
+ * REST API (routes in ApiRoutes) for kiosks and the self-service portal,
+ * without JavaFX windows or the desktop's single static session.
+ *
+ *   java -cp bin:... api.ApiServer [--host 127.0.0.1] [--port 8080] [--backlog 1024]
+ *
+ * Every request runs on its own virtual thread, so blocking JDBC calls are
+ * cheap to wait on and thousands of requests can be in flight. The signed-in
+ * user comes from the Bearer token (ApiSessions) and is bound to that thread
+ * for the request only. Database access goes through the DBConnection pool
+ * capped at -Dpayroll.db.maxActive connections (default 32 here), so a burst
+ * queues for a connection instead of exhausting MySQL sessions.
+ *
+ * Binds to 127.0.0.1 unless --host says otherwise; put it behind a TLS
+ * reverse proxy before exposing it on a network.
+ */
+public class ApiServer {
+
+    /**
+     * Handles one matched route.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handle(ApiRequest request) throws Exception;
+    }
+
+    private static final class Route {
+        final String method;
+        final String[] segments;
+        final boolean secured;
+        final Set<String> roles;
+        final Handler handler;
+        final Metrics.Timer timer;
+
+        Route(String method, String pattern, boolean secured, Set<String> roles, Handler handler) {
+            this.method = method;
+            this.segments = split(pattern);
+            this.secured = secured;
+            this.roles = roles;
+            this.handler = handler;
+            this.timer = Metrics.timer("payroll_api_request_seconds", "REST API requests by route",
+                                       "route", method + " " + pattern);
+        }
+
+        /**
+         * @return the {name} path parameters, or null when the path does not match
+         */
+        Map<String, String> match(String[] path) {
+            if (path.length != segments.length) return null;
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < path.length; i++) {
+                String s = segments[i];
+                if (s.startsWith("{") && s.endsWith("}")) {
+                    params.put(s.substring(1, s.length() - 1), path[i]);
+                } else if (!s.equals(path[i])) {
+                    return null;
+                }
+            }
+            return params;
+        }
+    }
+
+    private static final LongAdder inFlight = new LongAdder();
+    private static final Metrics.Counter OK =
+            Metrics.counter("payroll_api_responses_total", "REST API responses by status class", "status", "2xx");
+    private static final Metrics.Counter CLIENT_ERROR =
+            Metrics.counter("payroll_api_responses_total", "REST API responses by status class", "status", "4xx");
+    private static final Metrics.Counter SERVER_ERROR =
+            Metrics.counter("payroll_api_responses_total", "REST API responses by status class", "status", "5xx");
+
+    static {
+        Metrics.gauge("payroll_api_requests_in_flight", "REST API requests being handled", inFlight::sum);
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public static void main(String[] args) throws IOException {
+        // Server defaults; explicit -D flags win. Read when DBConnection loads, so set them first.
+        if (System.getProperty("payroll.db.maxActive") == null) System.setProperty("payroll.db.maxActive", "32");
+        if (System.getProperty("payroll.db.maxIdle") == null) System.setProperty("payroll.db.maxIdle", "32");
+
+        Map<String, String> options = parseOptions(args);
+        String host = options.getOrDefault("host", "127.0.0.1");
+        int port = Integer.parseInt(options.getOrDefault("port", "8080"));
+        int backlog = Integer.parseInt(options.getOrDefault("backlog", "1024"));
+
+        // Payroll changes made here must reach the desktop that recomputes
+        PayrollChangeTracker.persistMarks();
+        ApiServer api = new ApiServer();
+        ApiRoutes.register(api);
+        api.start(host, port, backlog);
+        // Evaluates API submissions and sweeps requests left pending (one sweeper at a time)
+        AutoApprovalService.startJob(true);
+
+        MetricsServer.startIfConfigured();
+        FlightRecording.startIfRequested();
+        Runtime.getRuntime().addShutdownHook(new Thread(api::stop, "api-shutdown"));
+    }
+
+    /**
+     * A route anyone may call (health, login).
+     */
+    public void open(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, false, Set.of(), handler));
+    }
+
+    /**
+     * A route that needs a session; with roles, only those roles (case-insensitive).
+     */
+    public void secured(String method, String pattern, Handler handler, String... roles) {
+        Set<String> allowed = Arrays.stream(roles).map(r -> r.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+        routes.add(new Route(method, pattern, true, allowed, handler));
+    }
+
+    public void start(String host, int port, int backlog) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+        server.createContext("/api/", this::dispatch);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        System.err.println("REST API listening on http://" + host + ":" + server.getAddress().getPort() + "/api/");
+    }
+
+    public void stop() {
+        if (server == null) return;
+        server.stop(2);
+        executor.shutdown();
+        DBConnection.shutdown();
+        server = null;
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        inFlight.increment();
+
+        String[] path = split(exchange.getRequestURI().getPath());
+        String method = exchange.getRequestMethod();
+        Route route = null;
+        Map<String, String> params = Map.of();
+        boolean pathKnown = false;
+        for (Route r : routes) {
+            Map<String, String> m = r.match(path);
+            if (m == null) continue;
+            pathKnown = true;
+            if (r.method.equals(method)) {
+                route = r;
+                params = m;
+                break;
+            }
+        }
+
+        ApiRequest request = new ApiRequest(exchange, params);
+        try {
+            if (route == null) {
+                throw pathKnown ? new ApiException(405, "Method " + method + " not allowed here")
+                                : new ApiException(404, "No such endpoint");
+            }
+            if (route.secured) {
+                Employee employee = ApiSessions.lookup(request.getToken());
+                if (employee == null) throw new ApiException(401, "Sign in first (POST /api/login)");
+                String role = employee.getRoleName() == null ? "" : employee.getRoleName().toUpperCase(Locale.ROOT);
+                if (!route.roles.isEmpty() && !route.roles.contains(role)) {
+                    throw new ApiException(403, "Not available to the " + employee.getRoleName() + " role");
+                }
+                request.setEmployee(employee);
+                SessionManager.bindRequest(employee);
+            }
+            route.handler.handle(request);
+        } catch (ApiException e) {
+            fail(request, e.getStatus(), e.getMessage(), null);
+        } catch (SQLTransientConnectionException e) {
+            fail(request, 503, "Database busy, try again", e);
+        } catch (IllegalArgumentException e) {
+            fail(request, 400, e.getMessage(), null);
+        } catch (Exception e) {
+            fail(request, 500, "Internal error", e);
+        } finally {
+            SessionManager.unbindRequest();
+            exchange.close();
+            inFlight.decrement();
+            if (route != null) route.timer.recordSince(start);
+            int status = request.getStatus();
+            if (status >= 500) SERVER_ERROR.inc();
+            else if (status >= 400) CLIENT_ERROR.inc();
+            else OK.inc();
+        }
+    }
+
+    private static void fail(ApiRequest request, int status, String message, Exception cause) {
+        if (cause != null) {
+            System.err.println("API error (" + status + "): " + cause.getMessage());
+            if (status == 500) cause.printStackTrace();
+        }
+        if (request.isCommitted()) {
+            // Headers (and maybe rows) already went out; closing the exchange aborts the stream
+            if (cause == null) System.err.println("API error after response started: " + message);
+            return;
+        }
+        try {
+            request.respondError(status, message);
+        } catch (IOException e) {
+            System.err.println("Could not send API error: " + e.getMessage());
+        }
+    }
+
+    private static String[] split(String path) {
+        return Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,90 @@
+package api;
+
+import models.Employee;
+import utils.Metrics;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer-token sessions for the REST API. A login creates a random token that
+ * maps to the authenticated Employee; each request looks its token up and
+ * binds that Employee for its own thread (SessionManager.bindRequest), so
+ * concurrent clients never see each other's session.
+ *
+ * Sessions expire after -Dpayroll.api.sessionMinutes (default 30) without a
+ * request. They live in memory: restarting the server logs everyone out.
+ */
+public class ApiSessions {
+
+    private static final long IDLE_MILLIS = Long.getLong("payroll.api.sessionMinutes", 30L) * 60_000L;
+
+    private static final class Session {
+        final Employee employee;
+        volatile long lastSeen;
+
+        Session(Employee employee) {
+            this.employee = employee;
+            this.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-session-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        Metrics.gauge("payroll_api_sessions", "Open REST API sessions", sessions::size);
+        sweeper.scheduleWithFixedDelay(ApiSessions::expireIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Starts a session for an authenticated employee and returns its token.
+     */
+    public static String create(Employee employee) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(employee));
+        return token;
+    }
+
+    /**
+     * @return the session's employee, or null if the token is unknown or expired
+     */
+    public static Employee lookup(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (now - session.lastSeen > IDLE_MILLIS) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.lastSeen = now;
+        return session.employee;
+    }
+
+    public static void remove(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    public static long getIdleSeconds() {
+        return IDLE_MILLIS / 1000;
+    }
+
+    private static void expireIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_MILLIS;
+        sessions.values().removeIf(s -> s.lastSeen < cutoff);
+    }
+}
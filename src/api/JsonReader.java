@@ -0,0 +1,182 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON parser for request bodies: objects become Map, arrays List,
+ * numbers Double (or Long when integral), plus String, Boolean and null.
+ * Bodies are small (a login, a decision batch), so this parses a String.
+ */
+public class JsonReader {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final String s;
+    private int pos;
+    private int depth;
+
+    private JsonReader(String s) {
+        this.s = s;
+    }
+
+    /**
+     * Parses a JSON object; an empty body is an empty object.
+     *
+     * @throws ApiException 400 on malformed input or a non-object root
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String json) {
+        if (json == null || json.isBlank()) return new LinkedHashMap<>();
+        JsonReader r = new JsonReader(json);
+        Object value = r.readValue();
+        r.skipWhitespace();
+        if (r.pos != r.s.length()) throw r.error("Unexpected trailing characters");
+        if (!(value instanceof Map)) throw new ApiException(400, "Request body must be a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= s.length()) throw error("Unexpected end of input");
+        char c = s.charAt(pos);
+        return switch (c) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) yield readNumber();
+                throw error("Unexpected character '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        enter();
+        pos++;
+        Map<String, Object> map = new LinkedHashMap<>();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            depth--;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("Expected a property name");
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            map.put(name, readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') break;
+            if (c != ',') throw error("Expected ',' or '}'");
+        }
+        depth--;
+        return map;
+    }
+
+    private List<Object> readArray() {
+        enter();
+        pos++;
+        List<Object> list = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            depth--;
+            return list;
+        }
+        while (true) {
+            list.add(readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == ']') break;
+            if (c != ',') throw error("Expected ',' or ']'");
+        }
+        depth--;
+        return list;
+    }
+
+    private String readString() {
+        pos++;
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = next();
+            switch (e) {
+                case '"', '\\', '/' -> sb.append(e);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > s.length()) throw error("Bad unicode escape");
+                    try {
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("Bad unicode escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("Bad escape '\\" + e + "'");
+            }
+        }
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0) pos++;
+        String text = s.substring(start, pos);
+        try {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) return Long.parseLong(text);
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("Bad number '" + text + "'");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!s.startsWith(word, pos)) throw error("Unexpected token");
+        pos += word.length();
+        return value;
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) throw error("JSON nested too deep");
+    }
+
+    private void expect(char c) {
+        if (next() != c) throw error("Expected '" + c + "'");
+    }
+
+    private char peek() {
+        if (pos >= s.length()) throw error("Unexpected end of input");
+        return s.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void skipWhitespace() {
+        while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+    }
+
+    private ApiException error(String message) {
+        return new ApiException(400, "Malformed JSON at " + pos + ": " + message);
+    }
+}
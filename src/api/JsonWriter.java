@@ -0,0 +1,150 @@
+package api;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Streaming JSON writer: values go straight to the response as they are
+ * produced, so a large array never exists in memory as a whole. Commas are
+ * tracked per nesting level; the caller keeps names and values in order.
+ *
+ *   json.beginObject().name("id").value(7).name("items").beginArray() ... .endArray().endObject();
+ */
+public class JsonWriter {
+
+    private static final int MAX_DEPTH = 64;
+
+    private final Writer out;
+    // first[d]: nothing written yet at depth d (no comma needed)
+    private final boolean[] first = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+        first[0] = true;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) return nullValue();
+        separate();
+        string(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return nullValue();
+        separate();
+        out.write(BigDecimal.valueOf(value).toPlainString());
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(BigDecimal value) throws IOException {
+        if (value == null) return nullValue();
+        separate();
+        out.write(value.toPlainString());
+        return this;
+    }
+
+    /**
+     * Dates and times as ISO-8601 strings.
+     */
+    public JsonWriter value(TemporalAccessor value) throws IOException {
+        return value == null ? nullValue() : value(value.toString());
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separate();
+        out.write("null");
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private JsonWriter open(char c) throws IOException {
+        separate();
+        if (depth + 1 >= MAX_DEPTH) throw new IllegalStateException("JSON nested too deep");
+        out.write(c);
+        first[++depth] = true;
+        return this;
+    }
+
+    private JsonWriter close(char c) throws IOException {
+        if (depth == 0) throw new IllegalStateException("Unbalanced " + c);
+        depth--;
+        out.write(c);
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!first[depth]) out.write(',');
+        first[depth] = false;
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 || c == 0x2028 || c == 0x2029 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (escape != null) {
+                out.write(s, start, i - start);
+                out.write(escape);
+                start = i + 1;
+            }
+        }
+        out.write(s, start, s.length() - start);
+        out.write('"');
+    }
+}
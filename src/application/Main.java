@@ -1,17 +1,49 @@
 package application;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import services.AutoApprovalService;
+import services.LeaveLedgerService;
+import utils.DBConnection;
+import utils.FlightRecording;
+import utils.FxWatchdog;
+import utils.MetricsServer;
+import utils.StartupTimer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Main extends Application {
 
+    // Passed by scripts/build-cds-archive: start, load the common classes, exit
+    private static final String CDS_TRAINING_FLAG = "--cds-training";
+
+    // Classes the first dashboard needs; loading them while the user types takes them off the critical path
+    private static final List<String> WARM_CLASSES = List.of(
+        "controllers.EmployeeDashboardController", "controllers.HRDashboardController",
+        "controllers.AdminDashboardController", "controllers.PayrollOfficerController",
+        "controllers.DashboardLoader", "dao.EmployeeDAO", "services.DashboardService",
+        "javafx.scene.chart.BarChart", "javafx.scene.chart.PieChart", "javafx.scene.chart.LineChart",
+        "javafx.scene.control.TableView", "javafx.scene.control.DatePicker", "javafx.scene.control.TabPane"
+    );
+
+    private static final ExecutorService warmup = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "startup-warmup");
+        t.setDaemon(true);
+        return t;
+    });
+
     @Override
     public void start(Stage primaryStage) {
+        StartupTimer.mark("FX start");
         try {
-           
+            // Stage 1: login first, nothing else on the FX thread
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/login.fxml"));
             Parent root = loader.load();
 
@@ -19,13 +51,67 @@ public class Main extends Application {
             primaryStage.setScene(scene);
             primaryStage.setTitle("Login Page");
             primaryStage.show();
-        } catch (Exception e) 
+            StartupTimer.mark("login shown");
+
+            // Samples FX-thread responsiveness from here on (UI Responsiveness screen)
+            FxWatchdog.start();
+            // -Dpayroll.jfr=true: payroll JFR recording, started off the FX thread
+            CompletableFuture.runAsync(FlightRecording::startIfRequested, warmup);
+
+            // Stage 2: warm the pool and class caches in parallel while the user types
+            CompletableFuture<Void> warm = CompletableFuture.allOf(
+                CompletableFuture.runAsync(Main::warmConnectionPool, warmup),
+                CompletableFuture.runAsync(Main::warmClasses, warmup)
+            ).thenRun(() -> StartupTimer.mark("warm-up done"));
+
+            if (getParameters().getRaw().contains(CDS_TRAINING_FLAG)) {
+                // Archive is written by -XX:ArchiveClassesAtExit when the JVM exits
+                warm.whenComplete((v, e) -> Platform.runLater(Platform::exit));
+            } else {
+                // Posts any leave accruals missed while the application was not running
+                warm.thenRun(LeaveLedgerService::startAccrualJob);
+                // Evaluates the auto-approval rules for requests submitted here;
+                // -Dpayroll.autoApproval.sweep=true also sweeps requests already pending
+                warm.thenRun(() -> AutoApprovalService.startJob(Boolean.getBoolean("payroll.autoApproval.sweep")));
+                // -Dpayroll.metrics.port: Prometheus endpoint on localhost
+                CompletableFuture.runAsync(MetricsServer::startIfConfigured, warmup);
+            }
+        } catch (Exception e)
         {
             e.printStackTrace();
         }
     }
 
+    @Override
+    public void stop() {
+        MetricsServer.stop();
+        DBConnection.shutdown();
+    }
+
+    private static void warmConnectionPool() {
+        try {
+            DBConnection.warmUp(2);
+            StartupTimer.mark("db pool ready");
+        } catch (Exception e) {
+            // Not fatal: the login attempt opens its own connection and reports the error
+            System.err.println("Connection warm-up failed: " + e.getMessage());
+        }
+    }
+
+    private static void warmClasses() {
+        ClassLoader cl = Main.class.getClassLoader();
+        for (String name : WARM_CLASSES) {
+            try {
+                Class.forName(name, false, cl);
+            } catch (ClassNotFoundException e) {
+                System.err.println("Warm-up class not found: " + name);
+            }
+        }
+        StartupTimer.mark("classes loaded");
+    }
+
     public static void main(String[] args) {
+        StartupTimer.mark("main");
         launch(args);
     }
 }
@@ -13,6 +13,7 @@ import java.util.regex.Pattern;
 
 import utils.DBConnection; 
 import models.CalendarEvent; 
+import services.CalendarIndexService;
 
 public class AddEventModalController {
 
@@ -126,6 +127,7 @@ public class AddEventModalController {
             }
             
             pst.executeUpdate();
+            CalendarIndexService.invalidate();
             
             // 3. Close and Refresh Parent - This should now work without visibility errors
             // The visibility of dpCalendarDate and cbEventTypeFilter in the parent controller must be public.
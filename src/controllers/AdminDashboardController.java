@@ -3,6 +3,7 @@ package controllers;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent; 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -21,8 +22,11 @@ import models.Employee;
 import utils.DBConnection;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
+import utils.FlightRecording;
 import utils.SessionManager;
+import utils.ViewRegistry;
 import java.io.File;
 
 import java.io.IOException;
@@ -32,7 +36,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 public class AdminDashboardController implements Initializable {
 
@@ -60,6 +67,7 @@ public class AdminDashboardController implements Initializable {
     @FXML private TableColumn<Employee, Void> colActions;
 
     private ObservableList<Employee> employeeList = FXCollections.observableArrayList();
+    private CompletableFuture<Void> dataLoaded = CompletableFuture.completedFuture(null);
 
     // ------------------ MAIN CONTAINER ------------------
     @FXML private BorderPane mainBorderPane;
@@ -71,22 +79,36 @@ public class AdminDashboardController implements Initializable {
         try {
             System.out.println("Admin Dashboard initializing...");
             refreshDashboardHeader();
-            loadSummaryCards();
-            loadCharts();
             setupEmployeeTable();
-            loadEmployeesTable();
         } catch (Exception e) {
             e.printStackTrace();
             showInfo("Initialization Failed! Database setup or connectivity issue.");
         }
+
+        // The frame is up first; each panel queries on a worker thread and fills in when ready
+        dataLoaded = CompletableFuture.allOf(loadSummaryCards(), loadCharts(), loadEmployeesTable());
+    }
+
+    /**
+     * Completes once every dashboard panel has its data (or has failed).
+     */
+    public CompletableFuture<Void> whenDataLoaded() {
+        return dataLoaded;
     }
 
     // ------------------ SUMMARY CARDS ------------------
-    private void loadSummaryCards() {
-        lblTotalEmployees.setText(getSingleValue("SELECT COUNT(*) FROM employees"));
-        lblPendingLeaves.setText(getSingleValue("SELECT COUNT(*) FROM leave_requests WHERE status='Pending'"));
-        lblPendingRequests.setText(getSingleValue("SELECT (SELECT COUNT(*) FROM salary_advance_requests WHERE status='Pending') + (SELECT COUNT(*) FROM bank_requests WHERE status='Pending')"));
-        lblPayrollPending.setText(getSingleValue("SELECT COUNT(*) FROM payroll WHERE net_salary IS NULL"));
+    private CompletableFuture<Void> loadSummaryCards() {
+        return DashboardLoader.loadPanel("Summary cards", () -> new String[] {
+            getSingleValue("SELECT COUNT(*) FROM employees"),
+            getSingleValue("SELECT COUNT(*) FROM leave_requests WHERE status='Pending'"),
+            getSingleValue("SELECT (SELECT COUNT(*) FROM salary_advance_requests WHERE status='Pending') + (SELECT COUNT(*) FROM bank_requests WHERE status='Pending')"),
+            getSingleValue("SELECT COUNT(*) FROM payroll WHERE net_salary IS NULL")
+        }, values -> {
+            lblTotalEmployees.setText(values[0]);
+            lblPendingLeaves.setText(values[1]);
+            lblPendingRequests.setText(values[2]);
+            lblPayrollPending.setText(values[3]);
+        }, null);
     }
 
     private String getSingleValue(String query) {
@@ -101,9 +123,9 @@ public class AdminDashboardController implements Initializable {
     }
 
     // ------------------ CHARTS ------------------
-    private void loadCharts() {
+    private CompletableFuture<Void> loadCharts() {
         loadSalaryChart();
-        // Placeholder for Attendance Chart if needed
+        return DashboardLoader.loadAttendanceTrendChart(attendanceChartContainer);
     }
 
     private void loadSalaryChart() {
@@ -163,9 +185,14 @@ public class AdminDashboardController implements Initializable {
         tblEmployees.setItems(employeeList);
     }
 
-    private void loadEmployeesTable() {
-        employeeList.clear();
+    private CompletableFuture<Void> loadEmployeesTable() {
+        return DashboardLoader.loadPanel("Employees", this::queryEmployees,
+                employeeList::setAll,
+                e -> showInfo("Database error loading employees: " + e.getMessage()));
+    }
 
+    private List<Employee> queryEmployees() throws SQLException {
+        List<Employee> employees = new ArrayList<>();
         String query = "SELECT e.emp_id, u.user_id, u.username, u.first_name, u.last_name, " +
                        "d.dept_name AS department, " +
                        "r.role_name, e.position, e.date_joined, e.status " +
@@ -190,12 +217,10 @@ public class AdminDashboardController implements Initializable {
                                   rs.getDate("date_joined").toLocalDate() : LocalDate.now());
                 emp.setStatus(rs.getString("status"));
                 emp.setRoleName(rs.getString("role_name"));
-                employeeList.add(emp);
+                employees.add(emp);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showInfo("Database error loading employees: " + e.getMessage());
         }
+        return employees;
     }
 
     // ------------------ ACTIONS ------------------
@@ -215,6 +240,36 @@ public class AdminDashboardController implements Initializable {
     @FXML private void openReports() { loadPage("/views/Reports.fxml"); }
     @FXML private void openNotifications() { loadPage("/views/Notifications.fxml"); }
     @FXML private void openSystemSettings() { loadPage("/views/SystemSettings.fxml"); }
+    @FXML private void openQueryDiagnostics() { loadPage("/views/QueryDiagnostics.fxml"); }
+    @FXML private void openUiResponsiveness() { loadPage("/views/UiResponsiveness.fxml"); }
+    @FXML private void openMetrics() { loadPage("/views/Metrics.fxml"); }
+
+    /**
+     * Saves the running "payroll" flight recording to a .jfr file (written off the FX thread).
+     */
+    @FXML
+    private void dumpFlightRecording() {
+        if (!FlightRecording.isRunning()) {
+            showInfo("No flight recording is running. Start the application with -Dpayroll.jfr=true.");
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setInitialFileName("payroll-" + LocalDate.now() + ".jfr");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Flight Recording", "*.jfr"));
+        File file = chooser.showSaveDialog(mainBorderPane.getScene().getWindow());
+        if (file == null) return;
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                FlightRecording.dump(file.toPath());
+                Platform.runLater(() -> showInfo("Flight recording saved to " + file.getAbsolutePath()
+                        + "\nOpen it in JDK Mission Control or with 'jfr print'."));
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> showInfo("Could not save the flight recording: " + e.getMessage()));
+            }
+        });
+    }
     @FXML private void changePassword() { loadPage("/views/ChangePassword.fxml"); }
 
     @FXML
@@ -302,9 +357,9 @@ public class AdminDashboardController implements Initializable {
                 showInfo("View file not found: " + fxmlPath);
                 return;
             }
-            FXMLLoader loader = new FXMLLoader(url);
             // ⭐ Using 'Parent' instead of 'Pane' or 'VBox' to support all FXML root types
-            Parent page = loader.load(); 
+            // Cached after the first visit (or preloaded after login)
+            Parent page = ViewRegistry.get(fxmlPath).getRoot();
             mainBorderPane.setCenter(page);
         } catch (IOException e) {
             e.printStackTrace();
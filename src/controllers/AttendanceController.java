@@ -2,6 +2,9 @@ package controllers;
 
 import dao.AttendanceDAO;
 import models.Attendance;
+import services.AttendanceIndexService;
+import services.TimeClockImportService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -16,8 +19,11 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import utils.RefreshableView;
 
-public class AttendanceController implements Initializable {
+public class AttendanceController implements Initializable, RefreshableView {
 
     @FXML private TableView<Attendance> attendanceTable;
     @FXML private TableColumn<Attendance, String> colEmployee, colStatus, colLeaveType, colRemarks;
@@ -41,6 +47,8 @@ public class AttendanceController implements Initializable {
 
         setupStatusTextColors();
         setupRowClickListener();
+        // The KPI index is one scan of attendance; load it before it is needed
+        AttendanceIndexService.warmUp();
 
         if (leaveTypeFilter != null) {
             leaveTypeFilter.setItems(FXCollections.observableArrayList("All Statuses", "Present", "Absent", "Leave"));
@@ -50,6 +58,11 @@ public class AttendanceController implements Initializable {
         onFilter();
     }
 
+    @Override
+    public void onViewShown() {
+        onFilter();
+    }
+
     @FXML
     private void onFilter() {
         String name = (searchBar != null) ? searchBar.getText().trim() : "";
@@ -162,6 +175,21 @@ public class AttendanceController implements Initializable {
     }
 
     private void updateKPIs() {
+        String name = (searchBar != null) ? searchBar.getText().trim() : "";
+        LocalDate date = (dateFilter != null) ? dateFilter.getValue() : null;
+        String status = (leaveTypeFilter != null) ? leaveTypeFilter.getValue() : null;
+        boolean allStatuses = status == null || status.equals("All Statuses");
+
+        // Without name or status filters the counts are popcounts on the attendance bitmap
+        // index (once it is loaded); otherwise they are counted from the rows in the table
+        long[] totals = name.isEmpty() && allStatuses ? AttendanceIndexService.statusTotalsIfLoaded(date) : null;
+        if (totals != null) {
+            lblPresentCount.setText(String.format("%02d", totals[0]));
+            lblAbsentCount.setText(String.format("%02d", totals[1]));
+            lblLeaveCount.setText(String.format("%02d", totals[2]));
+            return;
+        }
+
         long p = masterData.stream().filter(a -> a.getStatus().equalsIgnoreCase("Present")).count();
         long ab = masterData.stream().filter(a -> a.getStatus().equalsIgnoreCase("Absent")).count();
         long l = masterData.stream().filter(a -> a.getStatus().equalsIgnoreCase("Leave")).count();
@@ -219,6 +247,38 @@ public class AttendanceController implements Initializable {
         }
     }
 
+    /**
+     * Imports a badge / time-clock punch file (CSV or fixed width) in the background.
+     */
+    @FXML
+    private void onImportTimeClock() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Time-Clock Punches");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV punches", "*.csv"),
+                new FileChooser.ExtensionFilter("Fixed-width punches", "*.txt", "*.dat"));
+        File file = chooser.showOpenDialog(attendanceTable.getScene().getWindow());
+        if (file == null) return;
+
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return TimeClockImportService.importFile(file.toPath());
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                showAlert("Import Failed", "Could not import " + file.getName() + ":\n" + error.getCause().getMessage());
+                return;
+            }
+            Alert alert = new Alert(Alert.AlertType.INFORMATION, result.getSummary());
+            alert.setHeaderText("Import finished");
+            alert.showAndWait();
+            onFilter();
+        }, Platform::runLater);
+    }
+
     @FXML
     private void onResetFilters() {
         if(searchBar != null) searchBar.clear();
@@ -0,0 +1,97 @@
+package controllers;
+
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.FileChooser;
+import models.BulkOnboardingResult;
+import services.BulkOnboardingService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class BulkUploadController {
+
+    private static final String TEMPLATE =
+        "first_name,last_name,email,department,position,salary,hire_date,gender,role,phone\n" +
+        "Jane,Doe,jane.doe@example.com,IT,Software Engineer,55000,2025-01-06,Female,Employee,0300-0000000\n";
+
+    @FXML private Label lblFile;
+    @FXML private Label lblStatus;
+    @FXML private Button btnImport;
+    @FXML private ProgressBar progressBar;
+    @FXML private ListView<String> errorList;
+
+    private File selectedFile;
+
+    @FXML
+    private void onChooseFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Select New Hires CSV");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(lblFile.getScene().getWindow());
+        if (file == null) return;
+
+        selectedFile = file;
+        lblFile.setText(file.getName());
+        btnImport.setDisable(false);
+        progressBar.setProgress(0);
+        lblStatus.setText("");
+        errorList.getItems().clear();
+    }
+
+    @FXML
+    private void onImport() {
+        if (selectedFile == null) return;
+        File file = selectedFile;
+
+        btnImport.setDisable(true);
+        errorList.getItems().clear();
+        progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        lblStatus.setText("Importing " + file.getName() + "...");
+
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return BulkOnboardingService.importFile(file.toPath(), (fraction, rows, inserted, errors) ->
+                        Platform.runLater(() -> {
+                            progressBar.setProgress(fraction);
+                            lblStatus.setText(String.format("%d row(s) read, %d created, %d error(s)", rows, inserted, errors));
+                        }));
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenCompleteAsync((result, error) -> {
+            btnImport.setDisable(false);
+            if (error != null) {
+                error.printStackTrace();
+                progressBar.setProgress(0);
+                lblStatus.setText("Import failed: " + error.getCause().getMessage());
+                return;
+            }
+            progressBar.setProgress(1.0);
+            lblStatus.setText(result.getSummary());
+            for (BulkOnboardingResult.RowError rowError : result.getErrors()) {
+                errorList.getItems().add(rowError.toString());
+            }
+        }, Platform::runLater);
+    }
+
+    @FXML
+    private void onSaveTemplate() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save CSV Template");
+        chooser.setInitialFileName("new_hires_template.csv");
+        File file = chooser.showSaveDialog(lblFile.getScene().getWindow());
+        if (file == null) return;
+        try {
+            Files.writeString(file.toPath(), TEMPLATE, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            e.printStackTrace();
+            new Alert(Alert.AlertType.ERROR, "Could not save template: " + e.getMessage()).showAndWait();
+        }
+    }
+}
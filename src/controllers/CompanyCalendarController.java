@@ -19,20 +19,24 @@ import java.io.IOException;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
 import utils.DBConnection; 
 import models.CalendarEvent;   
+import services.CalendarIndexService;
 
 public class CompanyCalendarController implements Initializable {
 
     // FXML fields - Must be public for AddEventModalController access
     @FXML public DatePicker dpCalendarDate; 
     @FXML public ComboBox<String> cbEventTypeFilter; 
+    @FXML private ComboBox<String> cbRange;
+    @FXML private Label lblOnLeave;
     @FXML public TableView<CalendarEvent> tblEvents; 
     
     @FXML private TableColumn<CalendarEvent, LocalDate> colDate;
@@ -44,6 +48,10 @@ public class CompanyCalendarController implements Initializable {
     @FXML private Button btnEditEvent;
     @FXML private Button btnDeleteEvent;
 
+    private static final String RANGE_DAY = "Day";
+    private static final String RANGE_WEEK = "Week";
+    private static final String RANGE_MONTH = "Month";
+
     private ObservableList<CalendarEvent> allEvents = FXCollections.observableArrayList();
     private int employeeId = 3; 
 
@@ -75,8 +83,12 @@ public class CompanyCalendarController implements Initializable {
         cbEventTypeFilter.getItems().addAll("All Events", "Holiday", "Company", "Personal");
         cbEventTypeFilter.setValue("All Events");
         
-        // Both date picker and combo box call the same handler
+        cbRange.getItems().addAll(RANGE_DAY, RANGE_WEEK, RANGE_MONTH);
+        cbRange.setValue(RANGE_DAY);
+
+        // Date picker and both combo boxes call the same handler
         cbEventTypeFilter.setOnAction(this::handleFilterAndDateChange); 
+        cbRange.setOnAction(this::handleFilterAndDateChange);
     }
 
     @FXML
@@ -86,60 +98,30 @@ public class CompanyCalendarController implements Initializable {
     }
 
     /**
-     * Fetches events from the database based on dateFilter and typeFilter.
-     * @param dateFilter The LocalDate to filter by (null for all dates).
+     * Shows events from the calendar index for the selected range and type.
+     * Filter changes never go back to the database; the index is rebuilt only
+     * after an event or leave change invalidates it.
+     * @param dateFilter The anchor date (null for all dates).
      * @param typeFilter The event type string to filter by ("All Events" for all types).
      */
     public void loadEventsData(LocalDate dateFilter, String typeFilter) {
         allEvents.clear();
 
-        // Base SQL: Company/Holiday events for everyone OR Personal events for the specific employee
-        String sql = "SELECT event_id, emp_id, event_date, event_time, description, type, details " +
-                     "FROM calendar_events " +
-                     "WHERE (type IN ('Company', 'Holiday') OR (type = 'Personal' AND emp_id = ?))";
-
-        // IMPORTANT: The date filter uses 'event_date = ?' which works correctly 
-        // if event_date is a DATE type in the database.
-        if (dateFilter != null) {
-            sql += " AND event_date = ?";
-        }
-        
-        if (typeFilter != null && !typeFilter.equals("All Events")) {
-            sql += " AND type = ?";
-        }
-
-        sql += " ORDER BY event_date, event_time";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql)) {
-
-            int paramIndex = 1;
-            // 1. Always set the employee ID for the WHERE clause
-            pst.setInt(paramIndex++, employeeId);
-
-            // 2. Conditionally set the date parameter
-            if (dateFilter != null) {
-                // Converting LocalDate to java.sql.Date
-                pst.setDate(paramIndex++, java.sql.Date.valueOf(dateFilter));
-            }
-
-            // 3. Conditionally set the type parameter
-            if (typeFilter != null && !typeFilter.equals("All Events")) {
-                pst.setString(paramIndex++, typeFilter);
+        try {
+            List<CalendarEvent> events;
+            if (dateFilter == null) {
+                events = CalendarIndexService.allEvents(employeeId);
+            } else {
+                switch (cbRange.getValue() == null ? RANGE_DAY : cbRange.getValue()) {
+                    case RANGE_WEEK -> events = CalendarIndexService.eventsInWeek(employeeId, dateFilter);
+                    case RANGE_MONTH -> events = CalendarIndexService.eventsInMonth(employeeId, YearMonth.from(dateFilter));
+                    default -> events = CalendarIndexService.eventsOn(employeeId, dateFilter);
+                }
             }
 
-            ResultSet rs = pst.executeQuery();
-
-            while (rs.next()) {
-                allEvents.add(new CalendarEvent(
-                    rs.getInt("event_id"),       
-                    rs.getInt("emp_id"),         
-                    rs.getDate("event_date").toLocalDate(),
-                    rs.getString("event_time"),
-                    rs.getString("description"),
-                    rs.getString("type"),
-                    rs.getString("details")
-                ));
+            boolean allTypes = typeFilter == null || typeFilter.equals("All Events");
+            for (CalendarEvent e : events) {
+                if (allTypes || typeFilter.equals(e.getEventType())) allEvents.add(e);
             }
 
             tblEvents.setItems(allEvents);
@@ -147,6 +129,8 @@ public class CompanyCalendarController implements Initializable {
                 tblEvents.setPlaceholder(new Label("No calendar events found for this selection."));
             }
 
+            updateOnLeaveLabel(dateFilter);
+
         } catch (SQLException e) {
             showAlert(AlertType.ERROR, "Database Error", 
                       "Failed to retrieve events. Check if your database is running and tables exist.");
@@ -154,6 +138,16 @@ public class CompanyCalendarController implements Initializable {
         }
     }
 
+    private void updateOnLeaveLabel(LocalDate date) throws SQLException {
+        if (lblOnLeave == null) return;
+        if (date == null) {
+            lblOnLeave.setText("");
+            return;
+        }
+        int out = CalendarIndexService.whoIsOut(date).size();
+        lblOnLeave.setText(out == 0 ? "Nobody on leave on " + date : out + " employee(s) on leave on " + date);
+    }
+
     // --- CRUD and Modal Methods ---
     // (Rest of the CRUD and utility methods remain the same as the previous correct version)
     
@@ -238,6 +232,7 @@ public class CompanyCalendarController implements Initializable {
             int rowsAffected = pst.executeUpdate();
             
             if (rowsAffected > 0) {
+                CalendarIndexService.invalidate();
                 showAlert(AlertType.INFORMATION, "Success", "Event deleted successfully.");
                 loadEventsData(dpCalendarDate.getValue(), cbEventTypeFilter.getValue()); 
             } else {
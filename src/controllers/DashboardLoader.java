@@ -1,9 +1,12 @@
 package controllers;
 
+import dao.AttendanceRollupDAO;
 import dao.EmployeeDAO;
+import models.AttendanceMonthSummary;
 import models.Employee;
 import models.AttendanceRecord;
 import models.LeaveRequest;
+import services.LeaveLedgerService;
 import utils.DBConnection;
 import utils.SessionManager;
 import javafx.collections.FXCollections;
@@ -16,19 +19,68 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.chart.*;
 import javafx.stage.Stage;
-import javafx.stage.Modality;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.fxml.FXMLLoader;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.application.Platform;
 import java.io.IOException;
 import java.net.URL;
 import java.sql.*;
-import java.time.Month;
 import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class DashboardLoader {
 
+    private static final AttendanceRollupDAO rollupDAO = new AttendanceRollupDAO();
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    // Dashboard panel queries run here, never on the FX thread
+    private static final ExecutorService panelLoader = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "dashboard-panels");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Runs a panel's query on a worker thread and hands the result to apply on
+     * the FX thread. A failed query is logged and passed to onError (may be null)
+     * on the FX thread instead.
+     *
+     * @return completes once the panel has been updated (or has failed)
+     */
+    public static <T> CompletableFuture<Void> loadPanel(String panel, Callable<T> query,
+                                                        Consumer<T> apply, Consumer<Throwable> onError) {
+        CompletableFuture<Void> shown = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, panelLoader).whenComplete((result, error) -> Platform.runLater(() -> {
+            try {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.err.println(panel + " panel failed: " + cause.getMessage());
+                    if (onError != null) onError.accept(cause);
+                } else {
+                    apply.accept(result);
+                }
+            } finally {
+                shown.complete(null);
+            }
+        }));
+        return shown;
+    }
+
     // --- 1. PROFILE LOADING ---
     public static void loadProfile(Label lblName, Label lblRole, ImageView imgProfile) {
         Employee emp = SessionManager.getCurrentEmployee();
@@ -50,20 +102,11 @@ public class DashboardLoader {
     // --- 2. METRICS LOADING (Salary & Leaves) ---
     public static void loadSalaryAndLeaves(Label lblLeaves, Label lblSalary) {
         int empId = SessionManager.getCurrentEmployeeId();
-        double totalAllowedLeaves = 15.0;
 
-        try (Connection conn = DBConnection.getConnection()) {
-            // Leave Balance
-            String leaveSql = "SELECT IFNULL(SUM(total_days),0) AS used FROM leave_requests WHERE emp_id=? AND status='Approved'";
-            try (PreparedStatement psL = conn.prepareStatement(leaveSql)) {
-                psL.setInt(1, empId);
-                ResultSet rsL = psL.executeQuery();
-                if (rsL.next()) {
-                    double remaining = totalAllowedLeaves - rsL.getDouble("used");
-                    lblLeaves.setText(remaining + " Days");
-                }
-            }
+        // Leave Balance: running balance from the leave ledger
+        lblLeaves.setText(String.format("%.2f Days", LeaveLedgerService.getTotalAvailable(empId)));
 
+        try (Connection conn = DBConnection.getConnection()) {
             // Net Salary - Fixed order by generated_on
             String salSql = "SELECT net_salary FROM payroll WHERE emp_id=? ORDER BY generated_on DESC LIMIT 1";
             try (PreparedStatement psS = conn.prepareStatement(salSql)) {
@@ -76,8 +119,14 @@ public class DashboardLoader {
         }
     }
 
-    // --- 3. CHART LOADING (Fixed SQL Syntax) ---
-    public static void loadWorkingHoursChart(StackPane chartContainer) {
+    // --- 3. CHART LOADING (from attendance_monthly_rollup) ---
+    public static CompletableFuture<Void> loadWorkingHoursChart(StackPane chartContainer) {
+        int empId = SessionManager.getCurrentEmployeeId();
+        return loadPanel("Working hours", () -> rollupDAO.getEmployeeMonths(empId, 6),
+                         months -> showWorkingHoursChart(chartContainer, months), null);
+    }
+
+    private static void showWorkingHoursChart(StackPane chartContainer, List<AttendanceMonthSummary> months) {
         CategoryAxis xAxis = new CategoryAxis();
         NumberAxis yAxis = new NumberAxis();
         BarChart<String, Number> chart = new BarChart<>(xAxis, yAxis);
@@ -86,24 +135,44 @@ public class DashboardLoader {
 
         XYChart.Series<String, Number> series = new XYChart.Series<>();
 
-        // FIXED SQL: MONTH(date) is used in both SELECT and ORDER BY to satisfy ONLY_FULL_GROUP_BY
-        String sql = "SELECT MONTH(date) AS m, SUM(TIMESTAMPDIFF(HOUR,time_in,time_out)) AS hours " +
-                     "FROM attendance WHERE emp_id=? AND time_in IS NOT NULL AND time_out IS NOT NULL " +
-                     "GROUP BY m ORDER BY m DESC LIMIT 6";
+        // Rollup rows are keyed by (year, month), so months of different years are no longer merged
+        for (AttendanceMonthSummary m : months) {
+            series.getData().add(new XYChart.Data<>(m.getPeriod().format(MONTH_LABEL), m.getHours()));
+        }
+        chart.getData().add(series);
+        chartContainer.getChildren().setAll(chart);
+    }
+
+    /**
+     * Organisation-wide Present / Absent / Leave days for the last 6 months (HR and admin dashboards).
+     */
+    public static CompletableFuture<Void> loadAttendanceTrendChart(StackPane chartContainer) {
+        return loadPanel("Attendance trend", () -> rollupDAO.getOrganisationMonths(6),
+                         months -> showAttendanceTrendChart(chartContainer, months), null);
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, SessionManager.getCurrentEmployeeId());
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String monthName = Month.of(rs.getInt("m")).name();
-                series.getData().add(new XYChart.Data<>(monthName, rs.getInt("hours")));
-            }
-            chart.getData().add(series);
-            chartContainer.getChildren().setAll(chart);
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private static void showAttendanceTrendChart(StackPane chartContainer, List<AttendanceMonthSummary> months) {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        StackedBarChart<String, Number> chart = new StackedBarChart<>(xAxis, yAxis);
+        chart.setTitle("Attendance (Last 6 Months)");
+        yAxis.setLabel("Days");
+
+        XYChart.Series<String, Number> present = new XYChart.Series<>();
+        present.setName("Present");
+        XYChart.Series<String, Number> absent = new XYChart.Series<>();
+        absent.setName("Absent");
+        XYChart.Series<String, Number> leave = new XYChart.Series<>();
+        leave.setName("Leave");
+
+        for (AttendanceMonthSummary m : months) {
+            String label = m.getPeriod().format(MONTH_LABEL);
+            present.getData().add(new XYChart.Data<>(label, m.getPresentDays()));
+            absent.getData().add(new XYChart.Data<>(label, m.getAbsentDays()));
+            leave.getData().add(new XYChart.Data<>(label, m.getLeaveDays()));
         }
+        chart.getData().setAll(List.of(present, absent, leave));
+        chartContainer.getChildren().setAll(chart);
     }
 
     // --- 4. TABLE INITIALIZATION ---
@@ -170,25 +239,6 @@ public class DashboardLoader {
     }
 
     // --- 6. WINDOW & UI MANAGEMENT ---
-    public static void openModal(String fxmlPath, String title, Stage owner) {
-        try {
-            URL resource = DashboardLoader.class.getResource(fxmlPath);
-            if (resource == null) throw new IOException("FXML file not found: " + fxmlPath);
-            
-            FXMLLoader loader = new FXMLLoader(resource);
-            Parent root = loader.load();
-            Stage stage = new Stage();
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(owner);
-            stage.setTitle(title);
-            stage.setScene(new Scene(root));
-            stage.show();
-        } catch (IOException e) {
-            showAlert(AlertType.ERROR, "System Error", "Could not open window: " + fxmlPath);
-            e.printStackTrace();
-        }
-    }
-
     public static void performLogout(Stage currentStage) {
         if (showConfirm("Logout", "Are you sure you want to logout?")) {
             try {
@@ -11,6 +11,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import models.Department; 
 import utils.DBConnection; 
+import utils.RefreshableView;
 
 import java.net.URL;
 import java.sql.Connection;
@@ -20,7 +21,7 @@ import java.sql.SQLException;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
-public class DepartmentController implements Initializable {
+public class DepartmentController implements Initializable, RefreshableView {
 
     // --- FXML Fields ---
     @FXML private TableView<Department> tblDepartments;
@@ -164,6 +165,11 @@ public class DepartmentController implements Initializable {
 
     // --- Database Operations (CRUD) ---
 
+    @Override
+    public void onViewShown() {
+        loadDepartments();
+    }
+
     /** Fetches all departments from the DB (MADE PUBLIC for external call) */
     public void loadDepartments() {
         departmentList.clear();
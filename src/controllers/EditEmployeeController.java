@@ -13,8 +13,12 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
+import dao.SalaryHistoryDAO;
 import models.Employee;
+import services.SalaryHistoryService;
 import utils.DBConnection; 
+import utils.PayrollChangeTracker;
+import utils.SessionManager;
 
 public class EditEmployeeController implements Initializable {
 
@@ -26,6 +30,7 @@ public class EditEmployeeController implements Initializable {
     @FXML private RadioButton rbMale, rbFemale, rbOther;
 
     private Employee employeeToEdit;
+    private final SalaryHistoryDAO salaryHistoryDAO = new SalaryHistoryDAO();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -122,6 +127,13 @@ public class EditEmployeeController implements Initializable {
                 pst.executeUpdate();
             }
 
+            // 3b. SALARY HISTORY: keep an effective-dated row instead of losing the old value
+            double newSalary = Double.parseDouble(txtSalary.getText().trim());
+            if (Math.abs(newSalary - employeeToEdit.getSalary()) >= 0.005) {
+                salaryHistoryDAO.recordChange(conn, employeeToEdit.getEmployeeId(), employeeToEdit.getSalary(), newSalary,
+                        LocalDate.now(), SessionManager.getCurrentUserId());
+            }
+
             // 4. OPTIONAL: PASSWORD UPDATE
             if (!txtNewPassword.getText().isEmpty()) {
                 String passSql = "UPDATE users SET password=? WHERE user_id=?";
@@ -133,6 +145,8 @@ public class EditEmployeeController implements Initializable {
             }
             
             conn.commit();
+            PayrollChangeTracker.markDirty(employeeToEdit.getEmployeeId(), LocalDate.now());
+            SalaryHistoryService.invalidate();
             showAlert(AlertType.INFORMATION, "Success", "Employee record updated successfully.");
             handleCancel(null);
 
@@ -6,11 +6,16 @@ import models.AttendanceRecord;
 import models.LeaveRequest;
 import utils.DBConnection; 
 import utils.SessionManager; 
+import services.DashboardPrefetchService;
+import services.LeaveLedgerService;
+import utils.ViewRegistry;
 import utils.ProfileUpdateListener; 
 import models.Payslip;
 import utils.PDFGenerator;
+import utils.PayrollEvents;
 import controllers.PayslipsHistoryController;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -104,7 +109,8 @@ public class EmployeeDashboardController implements Initializable, ProfileUpdate
             }
         });
 
-        loadAllData();
+        // Deferred so the dashboard frame is up before its queries run
+        Platform.runLater(this::loadAllData);
     }
     
     @Override
@@ -114,14 +120,47 @@ public class EmployeeDashboardController implements Initializable, ProfileUpdate
         loadSalaryAndLeaveMetrics(); 
     }
     
+    /**
+     * Fills every panel from the login prefetch. The queries run concurrently
+     * (see DashboardPrefetchService) and each panel is updated on the FX thread
+     * as soon as its own result arrives.
+     */
     private void loadAllData() {
         loadProfile();
-        loadSalaryAndLeaveMetrics();
-     
-        loadAttendanceData(); 
-        loadLeavesData();
-        loadRequestsData();
-      
+        showNextPayDay();
+
+        int empId = SessionManager.getCurrentEmployeeId();
+        if (empId <= 0) return;
+
+        DashboardPrefetchService.Session prefetch = DashboardPrefetchService.claim(empId);
+
+        // Six rollup rows, cheap enough to read directly
+        if (chartContainer != null) DashboardLoader.loadWorkingHoursChart(chartContainer);
+
+        prefetch.netSalary().whenCompleteAsync((salary, error) -> {
+            if (error != null) { System.err.println("Salary panel failed: " + error.getMessage()); return; }
+            lblNetSalary.setText(salary != null ? "ETB " + salary : "ETB 0.00");
+        }, Platform::runLater);
+
+        prefetch.remainingLeave().whenCompleteAsync((days, error) -> {
+            if (error != null) { System.err.println("Leave balance panel failed: " + error.getMessage()); return; }
+            lblAvailableLeaves.setText(String.format("%.2f Days", days != null ? days : 0.0));
+        }, Platform::runLater);
+
+        prefetch.attendance().whenCompleteAsync((rows, error) -> {
+            if (error != null) { System.err.println("Attendance panel failed: " + error.getMessage()); return; }
+            tblAttendance.setItems(rows);
+        }, Platform::runLater);
+
+        prefetch.leaves().whenCompleteAsync((rows, error) -> {
+            if (error != null) { System.err.println("Leave panel failed: " + error.getMessage()); return; }
+            tblLeaveRequests.setItems(rows);
+        }, Platform::runLater);
+
+        prefetch.otherRequests().whenCompleteAsync((rows, error) -> {
+            if (error != null) { System.err.println("Requests panel failed: " + error.getMessage()); return; }
+            tblOtherRequests.setItems(rows);
+        }, Platform::runLater);
     }
     
     // ------------------ SCENE/WINDOW MANAGEMENT (ROBUST LOADING) ------------------
@@ -176,12 +215,8 @@ public class EmployeeDashboardController implements Initializable, ProfileUpdate
      */
     private void loadCenterContent(String fxmlPath, String title) {
         try {
-            URL resource = getClass().getResource(fxmlPath);
-            if (resource == null) {
-                throw new IOException("Resource not found: " + fxmlPath);
-            }
-            
-            Parent newContent = FXMLLoader.load(resource);
+            // Cached after the first visit (or preloaded after login)
+            Parent newContent = ViewRegistry.get(fxmlPath).getRoot();
             
             // Check if the ScrollPane is injected (best case)
             if (centerScrollPane != null) {
@@ -556,6 +591,7 @@ public class EmployeeDashboardController implements Initializable, ProfileUpdate
     }
 
     private boolean generatePayslipPdf(Payslip payslip, File file) {
+        PayrollEvents.PdfRender event = PayrollEvents.PdfRender.begin("payslip");
         Document document = new Document();
         
         try (FileOutputStream fos = new FileOutputStream(file)) {
@@ -653,11 +689,13 @@ public class EmployeeDashboardController implements Initializable, ProfileUpdate
             document.add(new Paragraph("Payroll Manager Signature", normalFont));
 
             document.close();
+            event.finish(file, true);
             return true;
             
         } catch (Exception e) {
             System.err.println("Error generating PDF: " + e.getMessage());
             e.printStackTrace();
+            event.finish(file, false);
             return false;
         }
     }
@@ -755,34 +793,30 @@ public class EmployeeDashboardController implements Initializable, ProfileUpdate
                 : "ETB 0.00"
             );
 
-            // LEAVE BALANCE
-            PreparedStatement psLeave = conn.prepareStatement(
-                "SELECT remaining_days FROM leave_balance WHERE emp_id=?"
-            );
-            psLeave.setInt(1, emp.getEmployeeId());
-            ResultSet rsLeave = psLeave.executeQuery();
-
+            // LEAVE BALANCE (leave ledger)
             lblAvailableLeaves.setText(
-                rsLeave.next()
-                ? rsLeave.getInt("remaining_days") + " Days"
-                : "0 Days"
+                String.format("%.2f Days", LeaveLedgerService.getTotalAvailable(emp.getEmployeeId()))
             );
 
-            // PAY DAY (FIXED LOGIC – 25th)
-            int payday = 25;
-            LocalDate today = LocalDate.now();
-            LocalDate nextPay = today.withDayOfMonth(payday);
-            if (!nextPay.isAfter(today)) {
-                nextPay = nextPay.plusMonths(1);
-            }
-
-            lblPayDay.setText(nextPay.format(DATE_FORMAT));
+            showNextPayDay();
 
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    private void showNextPayDay() {
+        // PAY DAY (FIXED LOGIC – 25th)
+        int payday = 25;
+        LocalDate today = LocalDate.now();
+        LocalDate nextPay = today.withDayOfMonth(payday);
+        if (!nextPay.isAfter(today)) {
+            nextPay = nextPay.plusMonths(1);
+        }
+
+        lblPayDay.setText(nextPay.format(DATE_FORMAT));
+    }
+
 
 
 
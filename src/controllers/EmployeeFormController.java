@@ -4,10 +4,15 @@ import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
+import dao.SalaryHistoryDAO;
 import models.Employee; // Assuming this model holds combined user/employee data
+import services.SalaryHistoryService;
 import utils.DBConnection;
+import utils.PayrollChangeTracker;
+import utils.SessionManager;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,6 +33,7 @@ public class EmployeeFormController {
     private Map<String, Integer> roleMap = new HashMap<>(); // role_name -> role_id
     private Map<String, Integer> deptMap = new HashMap<>(); // dept_name -> dept_id
     private UserManagementController parentController; // Reference to refresh the list
+    private final SalaryHistoryDAO salaryHistoryDAO = new SalaryHistoryDAO();
 
     /**
      * Initializes the form components and loads dynamic data.
@@ -126,6 +132,7 @@ public class EmployeeFormController {
 
         try (Connection conn = DBConnection.getConnection()) {
             conn.setAutoCommit(false); // Start transaction for atomicity
+            boolean salaryChanged = false;
 
             if (editingEmployee == null) {
                 // 1. INSERT into USERS table
@@ -138,10 +145,15 @@ public class EmployeeFormController {
                 updateExistingUser(conn);
                 
                 // 2. UPDATE EMPLOYEES table
-                updateExistingEmployee(conn);
+                salaryChanged = updateExistingEmployee(conn);
             }
 
             conn.commit(); // Commit transaction
+            if (salaryChanged) {
+                // Payroll reads the salary history; recompute this employee's open period
+                PayrollChangeTracker.markDirty(editingEmployee.getEmployeeId(), LocalDate.now());
+                SalaryHistoryService.invalidate();
+            }
 
             // Inform and refresh
             showAlert("Success", "User data saved successfully!", Alert.AlertType.INFORMATION);
@@ -249,7 +261,10 @@ public class EmployeeFormController {
         }
     }
     
-    private void updateExistingEmployee(Connection conn) throws SQLException {
+    /**
+     * @return true if the salary changed (recorded in salary_history in the same transaction)
+     */
+    private boolean updateExistingEmployee(Connection conn) throws SQLException {
         Integer roleId = roleMap.get(cbRole.getValue());
         Integer deptId = deptMap.get(cbDepartment.getValue());
 
@@ -271,6 +286,12 @@ public class EmployeeFormController {
             ps.setInt(11, editingEmployee.getEmployeeId());
             ps.executeUpdate();
         }
+
+        double newSalary = Double.parseDouble(tfSalary.getText());
+        if (Math.abs(newSalary - editingEmployee.getSalary()) < 0.005) return false;
+        salaryHistoryDAO.recordChange(conn, editingEmployee.getEmployeeId(), editingEmployee.getSalary(), newSalary,
+                LocalDate.now(), SessionManager.getCurrentUserId());
+        return true;
     }
 
     // ------------------ UTILITY METHODS ------------------
@@ -21,8 +21,9 @@ import java.net.URL;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ResourceBundle;
+import utils.RefreshableView;
 
-public class EmployeeRecordsController implements Initializable {
+public class EmployeeRecordsController implements Initializable, RefreshableView {
 
     @FXML private TableView<Employee> tblEmployees;
     @FXML private TableColumn<Employee, Integer> colEmployeeID;
@@ -76,6 +77,11 @@ public class EmployeeRecordsController implements Initializable {
         });
     }
 
+    @Override
+    public void onViewShown() {
+        loadEmployeeData();
+    }
+
     private void loadEmployeeData() {
         try {
             masterEmployeeList.setAll(employeeService.getAllEmployees()); 
@@ -2,6 +2,7 @@ package controllers;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -22,10 +23,12 @@ import models.Employee;
 import services.UserService; 
 import services.DashboardService; 
 import utils.SessionManager; 
+import utils.ViewRegistry;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 // These are necessary for the Alert and were confirmed as present/needed
 import javafx.scene.control.Alert;
@@ -52,6 +55,7 @@ public class HRDashboardController implements Initializable {
     
     // Dashboard Components
     @FXML private StackPane chartDepartment;
+    @FXML private StackPane chartAttendance;
     @FXML private TableView<RequestData> tblLatestRequests;
     
     // FXML components from the Sidebar (for controlling active state)
@@ -60,6 +64,7 @@ public class HRDashboardController implements Initializable {
 
     private UserService userService = new UserService(); 
     private DashboardService dashboardService = new DashboardService(); 
+    private CompletableFuture<Void> dataLoaded = CompletableFuture.completedFuture(null);
     
     // Simple helper model for the TableView (Nested to keep controller self-contained)
     public static class RequestData {
@@ -88,7 +93,8 @@ public class HRDashboardController implements Initializable {
     public void initialize(URL url, ResourceBundle resourceBundle) {
         loadProfileInfo(); 
         setupTableView();  
-        loadDashboardMetrics(); 
+        // The frame is up first; the queries run on a worker thread and the panels fill in when ready
+        dataLoaded = loadDashboardMetrics();
         
         vboxDashboardOverview.setVisible(true);
         vboxDashboardOverview.setManaged(true);
@@ -138,71 +144,90 @@ public class HRDashboardController implements Initializable {
 
 
     /**
-     * Loads metrics, table data, and charts from the database using DashboardService.
+     * Completes once every dashboard panel has its data (or has failed).
      */
+    public CompletableFuture<Void> whenDataLoaded() {
+        return dataLoaded;
+    }
+
     /**
      * Loads metrics, table data, and charts from the database using DashboardService.
-     * UPDATED: Integrated with real database queries from DashboardService.
+     * The queries run on a worker thread (DashboardLoader.loadPanel); the labels,
+     * table and charts are updated on the FX thread.
      */
-    private void loadDashboardMetrics() {
-        try {
+    private CompletableFuture<Void> loadDashboardMetrics() {
+        CompletableFuture<Void> metrics = DashboardLoader.loadPanel("HR metrics", () -> {
             // --- 1. Load Metric Counts (Using DashboardService) ---
-            int totalActive = dashboardService.getTotalActiveEmployees();
-            int pendingLeave = dashboardService.getPendingLeaveRequestsCount();
-            int pendingCorrection = dashboardService.getPendingCorrectionRequestsCount();
-            int leavesToday = dashboardService.getEmployeesOnLeaveTodayCount();
-            
-            // --- Set Labels with Live Data ---
-            lblTotalEmployees.setText(String.valueOf(totalActive));
-            lblTotalEmployees.getStyleClass().setAll("metric-value");
-            
-            // Pending Requests = Leave Requests + Correction (Bank/Advance) Requests
-            lblPendingRequests.setText(String.valueOf(pendingLeave + pendingCorrection));
-            
-            // Setting a static value or a specific query if available for new hires
-            lblNewHires.setText("5"); 
-            
-            lblLeavesToday.setText(String.valueOf(leavesToday));
-            
+            int[] counts = {
+                dashboardService.getTotalActiveEmployees(),
+                dashboardService.getPendingLeaveRequestsCount(),
+                dashboardService.getPendingCorrectionRequestsCount(),
+                dashboardService.getEmployeesOnLeaveTodayCount()
+            };
+
             // --- 2. Load Table Data (Latest Pending Requests) ---
             // This pulls combined requests (Leave, Bank, Salary) from the service
-            List<String[]> latestRequests = dashboardService.getLatestPendingRequests(5); 
             ObservableList<RequestData> tableData = FXCollections.observableArrayList();
-            
-            for (String[] req : latestRequests) {
+            for (String[] req : dashboardService.getLatestPendingRequests(5)) {
                 // req array structure: [0:Type, 1:Employee Name, 2:Date Submitted, 3:Details]
                 if (req.length >= 4) {
                     tableData.add(new RequestData(req[0], req[1], req[2], req[3]));
                 }
             }
-            tblLatestRequests.setItems(tableData);
-            
-            // --- 3. Load Chart ---
-            loadDepartmentChart();
+            return new MetricsData(counts, tableData);
+        }, result -> {
+            int[] counts = result.counts;
 
-        } catch (SQLException e) {
-            System.err.println("❌ Database Error loading dashboard data: " + e.getMessage());
-            e.printStackTrace();
-            
+            // --- Set Labels with Live Data ---
+            lblTotalEmployees.setText(String.valueOf(counts[0]));
+            lblTotalEmployees.getStyleClass().setAll("metric-value");
+
+            // Pending Requests = Leave Requests + Correction (Bank/Advance) Requests
+            lblPendingRequests.setText(String.valueOf(counts[1] + counts[2]));
+
+            // Setting a static value or a specific query if available for new hires
+            lblNewHires.setText("5");
+
+            lblLeavesToday.setText(String.valueOf(counts[3]));
+            tblLatestRequests.setItems(result.latestRequests);
+        }, e -> {
             // Fallback: Show error indicators
             lblTotalEmployees.setText("!");
             lblPendingRequests.setText("!");
-            showAlert(Alert.AlertType.ERROR, "Data Load Error", 
+            showAlert(Alert.AlertType.ERROR, "Data Load Error",
                       "Failed to retrieve dashboard metrics from the database.");
+        });
+
+        // --- 3. Load Charts ---
+        CompletableFuture<Void> departments = loadDepartmentChart();
+        CompletableFuture<Void> attendance = chartAttendance != null
+                ? DashboardLoader.loadAttendanceTrendChart(chartAttendance)
+                : CompletableFuture.completedFuture(null);
+        return CompletableFuture.allOf(metrics, departments, attendance);
+    }
+
+    /**
+     * Counts and latest requests read by the worker thread for the metric panels.
+     */
+    private static class MetricsData {
+        final int[] counts;
+        final ObservableList<RequestData> latestRequests;
+
+        MetricsData(int[] counts, ObservableList<RequestData> latestRequests) {
+            this.counts = counts;
+            this.latestRequests = latestRequests;
         }
     }
-    
+
     /**
      * Loads the department distribution chart using live data from the database.
      * UPDATED: Now groups real employees by their assigned departments.
      */
-    private void loadDepartmentChart() {
-        try {
-            // Fetch real distribution from the database
-            Map<String, Integer> stats = dashboardService.getDepartmentDistribution();
-            
+    private CompletableFuture<Void> loadDepartmentChart() {
+        // Fetch real distribution from the database
+        return DashboardLoader.loadPanel("Department chart", dashboardService::getDepartmentDistribution, stats -> {
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-            
+
             // If the database is empty, stats will be empty; handle it gracefully
             if (stats != null && !stats.isEmpty()) {
                 stats.forEach((deptName, count) -> {
@@ -212,23 +237,21 @@ public class HRDashboardController implements Initializable {
                 // Optional: add a "No Data" slice if the DB is fresh/empty
                 pieChartData.add(new PieChart.Data("No Employees Found", 1));
             }
-                
+
             final PieChart chart = new PieChart(pieChartData);
             chart.setTitle("Employee Distribution");
             chart.setLegendVisible(true);
             chart.setLabelsVisible(true); // Shows department names on the chart
             chart.setLabelLineLength(10);
-            
+
             // Refresh the UI container
             chartDepartment.getChildren().clear();
             chartDepartment.getChildren().add(chart);
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Error loading Department Chart: " + e.getMessage());
+        }, e -> {
             // Fallback to an empty chart container or error message
             chartDepartment.getChildren().clear();
             chartDepartment.getChildren().add(new Label("Chart Unavailable"));
-        }
+        });
     }
 
     /**
@@ -239,17 +262,17 @@ public class HRDashboardController implements Initializable {
         final String resourcePath = "/views/" + fxmlFileName;
         
         try {
-            URL fxmlUrl = getClass().getResource(resourcePath);
-            if (fxmlUrl == null) {
+            String cachePath = resourcePath;
+            if (getClass().getResource(resourcePath) == null) {
                 // Fallback attempt for files not in /views/
-                fxmlUrl = getClass().getResource("/" + fxmlFileName);
-                if (fxmlUrl == null) {
+                cachePath = "/" + fxmlFileName;
+                if (getClass().getResource(cachePath) == null) {
                      throw new IOException("Resource not found at path: " + resourcePath + ". Check file name and case in src/views/.");
                 }
             }
 
-            FXMLLoader loader = new FXMLLoader(fxmlUrl);
-            Parent newContent = loader.load();
+            // Cached after the first visit (or preloaded after login)
+            Parent newContent = ViewRegistry.get(cachePath).getRoot();
             
             mainContentArea.getChildren().add(newContent);
             
@@ -335,7 +358,7 @@ public class HRDashboardController implements Initializable {
     
     @FXML
     private void openBulkUpload() {
-        loadCenterContent("quick_action_bulk_upload.fxml");
+        loadCenterContent("BulkUpload.fxml");
     }
 
     @FXML
@@ -8,65 +8,171 @@ import javafx.scene.layout.HBox;
 import javafx.event.ActionEvent;
 import java.net.URL;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.ResourceBundle;
+import dao.RequestInboxDAO;
+import models.InboxEntry;
+import services.CalendarIndexService;
+import services.LeaveLedgerService;
 import utils.DBConnection;
+import utils.RefreshableView;
 
-public class HRNotificationsController implements Initializable {
+public class HRNotificationsController implements Initializable, RefreshableView {
 
     @FXML private Tab tabUnread;
     @FXML private Tab tabArchived;
     @FXML private VBox vboxUnreadNotifications;
     @FXML private VBox vboxArchivedNotifications;
 
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * One card: a request from request_inbox or a general notification.
+     */
+    private static final class Item {
+        final int id;
+        final String type, title, message, status;
+        final LocalDateTime created;
+        final boolean general;
+
+        Item(int id, String type, String title, String message, String status, LocalDateTime created, boolean general) {
+            this.id = id;
+            this.type = type;
+            this.title = title;
+            this.message = message;
+            this.status = status;
+            this.created = created;
+            this.general = general;
+        }
+    }
+
+    private static final Comparator<Item> NEWEST_FIRST = Comparator
+            .comparing((Item item) -> item.created, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(item -> item.id, Comparator.reverseOrder());
+
+    private final RequestInboxDAO inboxDAO = new RequestInboxDAO();
+    // Cards shown so far per tab: {requests, general notifications}
+    private final int[] unreadOffsets = new int[2];
+    private final int[] archivedOffsets = new int[2];
+    private final Button btnMoreUnread = new Button("Load more");
+    private final Button btnMoreArchived = new Button("Load more");
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
+        btnMoreUnread.setOnAction(e -> loadPage(true));
+        btnMoreArchived.setOnAction(e -> loadPage(false));
+        loadNotifications();
+    }
+
+    @Override
+    public void onViewShown() {
         loadNotifications();
     }
 
     /**
-     * Fetches all requests and notifications from the database using UNION.
+     * Reloads the first page of both tabs.
      */
     private void loadNotifications() {
         vboxUnreadNotifications.getChildren().clear();
         vboxArchivedNotifications.getChildren().clear();
+        Arrays.fill(unreadOffsets, 0);
+        Arrays.fill(archivedOffsets, 0);
 
-        // The query now includes the primary ID from each table so buttons know what to update
-        String query = 
-            "SELECT leave_id AS id, 'LEAVE' AS type, CONCAT('Leave: ', leave_type) AS title, " +
-            "CONCAT('Emp ID ', emp_id, ' requested ', total_days, ' days.') AS msg, status FROM leave_requests " +
-            "UNION ALL " +
-            "SELECT request_id AS id, 'BANK' AS type, 'Bank Account Change' AS title, " +
-            "CONCAT('Emp ID ', emp_id, ' new acc: ', new_account) AS msg, status FROM bank_requests " +
-            "UNION ALL " +
-            "SELECT advance_id AS id, 'SALARY' AS type, 'Salary Advance Request' AS title, " +
-            "CONCAT('Emp ID ', emp_id, ' amount: ', amount) AS msg, status FROM salary_advance_requests " +
-            "UNION ALL " +
-            "SELECT notify_id AS id, 'GENERAL' AS type, title, message AS msg, status FROM notifications " +
-            "ORDER BY id DESC";
-
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        loadPage(true);
+        loadPage(false);
+        updateTabLabels();
+    }
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String type = rs.getString("type");
-                String title = rs.getString("title");
-                String message = rs.getString("msg");
-                String status = rs.getString("status");
+    /**
+     * Appends the next page of one tab, newest first. Requests come from
+     * request_inbox one page at a time (RequestInboxDAO) and general
+     * notifications from notifications, both LIMIT/OFFSET on a total order;
+     * the two pages are merged by date and only PAGE_SIZE cards are shown,
+     * so each source's offset advances by what was actually used.
+     */
+    private void loadPage(boolean unread) {
+        VBox target = unread ? vboxUnreadNotifications : vboxArchivedNotifications;
+        Button loadMore = unread ? btnMoreUnread : btnMoreArchived;
+        int[] offsets = unread ? unreadOffsets : archivedOffsets;
+        target.getChildren().remove(loadMore);
 
-                String color = getColorByTarget(type);
+        try {
+            List<InboxEntry> requests = unread
+                    ? inboxDAO.findPage("Pending", null, null, offsets[0], PAGE_SIZE)
+                    : inboxDAO.findDecidedPage(offsets[0], PAGE_SIZE);
+            List<Item> items = new ArrayList<>();
+            for (InboxEntry entry : requests) items.add(toItem(entry));
+            List<Item> notices = loadGeneral(unread, offsets[1], PAGE_SIZE);
+            items.addAll(notices);
+            items.sort(NEWEST_FIRST);
 
-                if (status.equalsIgnoreCase("Pending") || status.equalsIgnoreCase("Unread")) {
-                    addNotification(title, message, color, vboxUnreadNotifications, id, type, status);
+            int shown = Math.min(PAGE_SIZE, items.size());
+            for (Item item : items.subList(0, shown)) {
+                if (item.general) offsets[1]++; else offsets[0]++;
+                if (unread) {
+                    addNotification(item.title, item.message, getColorByTarget(item.type), target, item.id, item.type, item.status);
                 } else {
-                    addNotification(title, message, "#6c757d", vboxArchivedNotifications, id, type, status);
+                    addNotification(item.title, item.message, "#6c757d", target, item.id, item.type, item.status);
                 }
             }
+            if (items.size() > shown || requests.size() == PAGE_SIZE || notices.size() == PAGE_SIZE) {
+                target.getChildren().add(loadMore);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        updateTabLabels();
+    }
+
+    private List<Item> loadGeneral(boolean unread, int offset, int limit) throws SQLException {
+        String sql = "SELECT notify_id, title, message, status, created_at FROM notifications " +
+                     "WHERE status " + (unread ? "=" : "<>") + " 'Unread' " +
+                     "ORDER BY created_at DESC, notify_id DESC LIMIT ? OFFSET ?";
+        List<Item> items = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp created = rs.getTimestamp("created_at");
+                    items.add(new Item(rs.getInt("notify_id"), "GENERAL", rs.getString("title"), rs.getString("message"),
+                            rs.getString("status"), created == null ? null : created.toLocalDateTime(), true));
+                }
+            }
+        }
+        return items;
+    }
+
+    private static Item toItem(InboxEntry entry) {
+        String type, title, message;
+        switch (entry.getSource()) {
+            case InboxEntry.LEAVE -> {
+                type = "LEAVE";
+                title = "Leave: " + entry.getSubtype();
+                message = "Emp ID " + entry.getEmpId() + " requested " + entry.getTotalDays() + " days.";
+            }
+            case InboxEntry.BANK_CHANGE -> {
+                type = "BANK";
+                title = "Bank Account Change";
+                message = "Emp ID " + entry.getEmpId() + " new acc: " + entry.getNewValue();
+            }
+            case InboxEntry.SALARY_ADVANCE -> {
+                type = "SALARY";
+                title = "Salary Advance Request";
+                message = "Emp ID " + entry.getEmpId() + " amount: " + entry.getAmount();
+            }
+            default -> {
+                type = "REIMB";
+                title = "Reimbursement Request";
+                message = "Emp ID " + entry.getEmpId() + " amount: " + entry.getAmount();
+            }
+        }
+        // id is the source table's primary key so buttons know what to update
+        return new Item(entry.getSourceId(), type, title, message, entry.getStatus(), entry.getSubmittedAt(), false);
     }
 
     private String getColorByTarget(String type) {
@@ -75,6 +181,7 @@ public class HRNotificationsController implements Initializable {
             case "LEAVE"   -> "#ffc107"; // Yellow
             case "BANK"    -> "#17a2b8"; // Cyan
             case "SALARY"  -> "#28a745"; // Green
+            case "REIMB"   -> "#6f42c1"; // Purple
             case "SECURITY"-> "#dc3545"; // Red
             default        -> "#007bff"; // Blue
         };
@@ -123,6 +230,7 @@ public class HRNotificationsController implements Initializable {
             case "LEAVE" -> { table = "leave_requests"; column = "leave_id"; statusValue = "Approved"; }
             case "BANK"  -> { table = "bank_requests"; column = "request_id"; statusValue = "Approved"; }
             case "SALARY"-> { table = "salary_advance_requests"; column = "advance_id"; statusValue = "Approved"; }
+            case "REIMB" -> { table = "reimbursements"; column = "reimb_id"; statusValue = "Approved"; }
             default      -> { table = "notifications"; column = "notify_id"; statusValue = "Read"; }
         }
 
@@ -133,6 +241,10 @@ public class HRNotificationsController implements Initializable {
             pst.setString(1, statusValue);
             pst.setInt(2, id);
             pst.executeUpdate();
+            if (table.equals("leave_requests")) {
+                CalendarIndexService.invalidate();
+                LeaveLedgerService.invalidate();
+            }
             
             loadNotifications(); // Refresh both tabs
         } catch (SQLException e) {
@@ -158,9 +270,27 @@ public class HRNotificationsController implements Initializable {
         }
     }
 
+    /**
+     * Tab totals from counts, since the tabs only hold the pages loaded so far.
+     */
     private void updateTabLabels() {
-        tabUnread.setText(String.format("Unread (%d)", vboxUnreadNotifications.getChildren().size()));
-        tabArchived.setText(String.format("Archived (%d)", vboxArchivedNotifications.getChildren().size()));
+        try {
+            int unread = inboxDAO.count("Pending") + countGeneral(true);
+            int archived = inboxDAO.count("Approved") + inboxDAO.count("Rejected") + countGeneral(false);
+            tabUnread.setText(String.format("Unread (%d)", unread));
+            tabArchived.setText(String.format("Archived (%d)", archived));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private int countGeneral(boolean unread) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM notifications WHERE status " + (unread ? "=" : "<>") + " 'Unread'";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
     }
 
     private void showAlert(Alert.AlertType type, String title, String message) {
@@ -7,11 +7,21 @@ import javafx.stage.Stage;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import javafx.scene.control.Alert.AlertType;
+import models.CalendarEvent;
+import models.InboxEntry;
+import models.LeaveSpan;
+import services.AutoApprovalService;
+import services.CalendarIndexService;
+import services.LeaveLedgerService;
+import services.WorkingDayService;
 import utils.DBConnection; 
 // You might also need utils.SessionManager if you wanted to load the ID here, 
 // but it's better to pass it from the main dashboard controller.
@@ -29,9 +39,8 @@ public class LeaveRequestFormController implements Initializable {
     // --- Internal State ---
     // employeeId must be set by the calling controller (EmployeeDashboardController)
     private int employeeId; 
-    private final double ANNUAL_LEAVE_BALANCE = 15.0; 
-    private final double SICK_LEAVE_BALANCE = 10.0;
-    private double currentAvailableDays = ANNUAL_LEAVE_BALANCE; 
+    // Balance of the selected type, from the leave ledger (LeaveLedgerService)
+    private double currentAvailableDays = 0; 
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
@@ -42,7 +51,6 @@ public class LeaveRequestFormController implements Initializable {
         dpStartDate.valueProperty().addListener((obs, oldDate, newDate) -> calculateDays());
         dpEndDate.valueProperty().addListener((obs, oldDate, newDate) -> calculateDays());
 
-        lblAvailableDays.setText("Available Annual Leave Days: " + ANNUAL_LEAVE_BALANCE);
         cbLeaveType.setValue("Annual Leave"); 
     }
     
@@ -52,29 +60,21 @@ public class LeaveRequestFormController implements Initializable {
      */
     public void setEmployeeId(int employeeId) {
         this.employeeId = employeeId;
-        // Optional: If you load balances from DB, this is where you'd call a method to load them.
+        updateAvailableDays(cbLeaveType.getValue());
     }
     
     private void updateAvailableDays(String leaveType) {
         if (leaveType == null) return;
         
-        switch (leaveType) {
-            case "Annual Leave":
-                currentAvailableDays = ANNUAL_LEAVE_BALANCE;
-                lblAvailableDays.setText("Available Annual Leave Days: " + currentAvailableDays);
-                break;
-            case "Sick Leave":
-                currentAvailableDays = SICK_LEAVE_BALANCE;
-                lblAvailableDays.setText("Available Sick Leave Days: " + currentAvailableDays);
-                break;
-            case "Unpaid Leave":
-                currentAvailableDays = Double.MAX_VALUE;
-                lblAvailableDays.setText("Unpaid Leave: No balance check required.");
-                break;
-            default:
-                currentAvailableDays = 0;
-                lblAvailableDays.setText("Please select a Leave Type.");
-                break;
+        if (LeaveLedgerService.isTracked(leaveType)) {
+            currentAvailableDays = LeaveLedgerService.getAvailable(employeeId, leaveType);
+            lblAvailableDays.setText(String.format("Available %s Days: %.2f", leaveType, currentAvailableDays));
+        } else if (leaveType.equals("Unpaid Leave")) {
+            currentAvailableDays = Double.MAX_VALUE;
+            lblAvailableDays.setText("Unpaid Leave: No balance check required.");
+        } else {
+            currentAvailableDays = 0;
+            lblAvailableDays.setText("Please select a Leave Type.");
         }
         calculateDays(); 
     }
@@ -84,8 +84,8 @@ public class LeaveRequestFormController implements Initializable {
         LocalDate end = dpEndDate.getValue();
         
         if (start != null && end != null && !end.isBefore(start)) {
-            // Include start and end date (+1)
-            long days = ChronoUnit.DAYS.between(start, end) + 1; 
+            // Working days only: weekends and company holidays are not charged
+            int days = WorkingDayService.workingDays(start, end);
             lblTotalDays.setText(days + " Days");
         } else {
             lblTotalDays.setText("0 Days");
@@ -108,9 +108,13 @@ public class LeaveRequestFormController implements Initializable {
             showAlert(AlertType.ERROR, "Error", "Invalid total days calculated.");
             return;
         }
+        if (totalDays <= 0) {
+            showAlert(AlertType.WARNING, "Cannot Submit", "The selected dates contain no working days.");
+            return;
+        }
 
         // 1. Balance Check
-        if ((type.equals("Annual Leave") || type.equals("Sick Leave")) && totalDays > currentAvailableDays) {
+        if (LeaveLedgerService.isTracked(type) && totalDays > currentAvailableDays) {
             showAlert(AlertType.WARNING, "Cannot Submit", String.format("Requested days (%.1f) exceed available balance (%.1f).", totalDays, currentAvailableDays));
             return;
         }
@@ -121,12 +125,35 @@ public class LeaveRequestFormController implements Initializable {
             return;
         }
 
-        // 3. Database Insertion
+        // 3. Overlap Check: existing leave blocks the request, holidays only need confirming
+        try {
+            List<LeaveSpan> clashes = CalendarIndexService.overlappingLeave(employeeId, start, end);
+            if (!clashes.isEmpty()) {
+                StringBuilder sb = new StringBuilder("These dates overlap leave you already have:");
+                for (LeaveSpan span : clashes) sb.append("\n  - ").append(span);
+                showAlert(AlertType.WARNING, "Overlapping Leave", sb.toString());
+                return;
+            }
+
+            List<CalendarEvent> holidays = CalendarIndexService.holidaysBetween(start, end);
+            if (!holidays.isEmpty()) {
+                StringBuilder sb = new StringBuilder("The selected dates include company holiday(s), which are not counted:");
+                for (CalendarEvent h : holidays) sb.append("\n  - ").append(h.getDate()).append(" ").append(h.getEventDescription());
+                sb.append("\n\nSubmit the request anyway?");
+                Optional<ButtonType> answer = new Alert(AlertType.CONFIRMATION, sb.toString(), ButtonType.YES, ButtonType.NO).showAndWait();
+                if (answer.isEmpty() || answer.get() != ButtonType.YES) return;
+            }
+        } catch (SQLException e) {
+            // Not fatal: HR still reviews the request before approving it
+            System.err.println("Leave overlap check skipped: " + e.getMessage());
+        }
+
+        // 4. Database Insertion
         String sql = "INSERT INTO leave_requests (emp_id, leave_type, start_date, end_date, total_days, reason, status) " +
                      "VALUES (?, ?, ?, ?, ?, ?, 'Pending')";
         
         try (Connection conn = getDBConnection(); 
-             PreparedStatement pst = conn.prepareStatement(sql)) {
+             PreparedStatement pst = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pst.setInt(1, employeeId);
             pst.setString(2, type);
@@ -138,6 +165,12 @@ public class LeaveRequestFormController implements Initializable {
             int affectedRows = pst.executeUpdate();
             
             if (affectedRows > 0) {
+                // The leave_requests trigger reserved the days against the balance
+                CalendarIndexService.invalidate();
+                LeaveLedgerService.invalidate();
+                try (ResultSet keys = pst.getGeneratedKeys()) {
+                    if (keys.next()) AutoApprovalService.submitted(InboxEntry.LEAVE, keys.getInt(1));
+                }
                 showAlert(AlertType.INFORMATION, "Success", "Leave request submitted successfully for approval!");
                 handleClose();
             } else {
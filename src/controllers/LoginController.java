@@ -1,5 +1,6 @@
 package controllers;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -9,11 +10,19 @@ import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import models.Employee;
+import services.DashboardPrefetchService;
+import services.UserService;
 import utils.DBConnection;
+import utils.FxWatchdog;
+import utils.Metrics;
+import utils.PayrollEvents;
 import utils.SessionManager;
+import utils.StartupTimer;
+import utils.ViewRegistry;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 public class LoginController {
 
@@ -23,19 +32,32 @@ public class LoginController {
     @FXML
     private PasswordField txtPassword;
 
+    // Employee dashboard queries started right after authentication
+    private DashboardPrefetchService.Session prefetch;
+
+    // Login metrics (Metrics screen / Prometheus endpoint)
+    private static final Metrics.Timer AUTH_TIME =
+            Metrics.timer("payroll_login_auth_seconds", "Credential check and session details query");
+    private static final Metrics.Timer LOGIN_TIME =
+            Metrics.timer("payroll_login_seconds", "Successful login, from the click to the dashboard shown");
+    private static final Metrics.Counter LOGIN_SUCCESS =
+            Metrics.counter("payroll_logins_total", "Login attempts by result", "result", "success");
+    private static final Metrics.Counter LOGIN_FAILURE =
+            Metrics.counter("payroll_logins_total", "Login attempts by result", "result", "failure");
+    private static final Metrics.Counter LOGIN_ERROR =
+            Metrics.counter("payroll_logins_total", "Login attempts by result", "result", "error");
+
     @FXML
     public void initialize() {
-        // Database connectivity test
-        try (Connection conn = DBConnection.getConnection()) {
-            if (conn != null) {
+        // Database connectivity test, off the FX thread so the login screen shows at once
+        CompletableFuture.runAsync(() -> {
+            try (Connection conn = DBConnection.getConnection()) {
                 System.out.println("Database check successful.");
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to connect to database.");
+            } catch (SQLException e) {
+                System.err.println("Database initialization failed: " + e.getMessage());
+                Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Could not connect on startup.\n" + e.getMessage()));
             }
-        } catch (SQLException e) {
-            System.err.println("Database initialization failed: " + e.getMessage());
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Could not connect on startup.\n" + e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -48,117 +70,40 @@ public class LoginController {
             return;
         }
 
-        // --- STEP 1: AUTHENTICATION CHECK (Simple Query) ---
-        // This query only checks the users table and role, ensuring it doesn't fail 
-        // if the employee record is missing/incomplete for the admin user.
-        String authSql =
-                "SELECT u.user_id, r.role_name " +
-                "FROM users u " +
-                "JOIN roles r ON u.role_id = r.role_id " +
-                "WHERE u.username = ? AND u.password = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(authSql)) {
-
-            pst.setString(1, username);
-            pst.setString(2, password);
-
-            try (ResultSet rs = pst.executeQuery()) {
-                if (rs.next()) {
-                    int userId = rs.getInt("user_id");
-                    String roleName = rs.getString("role_name");
-
-                    // --- STEP 2: AUTHORIZATION AND DATA RETRIEVAL ---
-                    // Fetch all details using a second method
-                    Employee emp = fetchUserDetails(userId); 
-                    
-                    // The role_name from the initial auth check is more reliable
-                    // than the one pulled from the complex join for basic Admin roles.
-                    emp.setRoleName(roleName); 
-                    
-                    SessionManager.setCurrentEmployee(emp);
-                    loadDashboard(emp.getRoleName());
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password!");
+        long start = System.nanoTime();
+        try {
+            // Checks the credentials, then loads the session details (UserService.authenticate)
+            Employee emp = UserService.authenticate(username, password);
+            AUTH_TIME.recordSince(start);
+            if (emp != null) {
+                String roleName = emp.getRoleName();
+                SessionManager.setCurrentEmployee(emp);
+
+                // Start the dashboard panel queries now, while the dashboard itself is being built
+                if ("EMPLOYEE".equalsIgnoreCase(roleName) && emp.getEmployeeId() > 0) {
+                    prefetch = DashboardPrefetchService.start(emp.getEmployeeId());
                 }
+                loadDashboard(roleName);
+                LOGIN_TIME.recordSince(start);
+                LOGIN_SUCCESS.inc();
+            } else {
+                LOGIN_FAILURE.inc();
+                showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password!");
             }
 
         } catch (SQLException e) {
+            LOGIN_ERROR.inc();
             e.printStackTrace();
             showAlert(Alert.AlertType.ERROR, "Database Error", e.getMessage());
         } catch (Exception e) {
+            LOGIN_ERROR.inc();
             e.printStackTrace();
             showAlert(Alert.AlertType.ERROR, "System Error", e.getMessage());
         }
     }
-
-    /**
-     * Fetches complete user/employee details based on user_id, 
-     * handling cases where an Employee record might not exist 
-     * (e.g., for a pure Admin user).
-     * @param userId The validated user_id from the users table.
-     * @return Employee object populated with all available data.
-     */
-    private Employee fetchUserDetails(int userId) throws SQLException {
-        // This query includes all the LEFT JOINs from your original code
-        String sql =
-                "SELECT u.*, r.role_name, d.dept_name AS department, " +
-                "e.position, e.date_joined, e.status, e.emp_id " +
-                "FROM users u " +
-                "JOIN roles r ON u.role_id = r.role_id " +
-                "LEFT JOIN departments d ON u.dept_id = d.dept_id " +
-                "LEFT JOIN employees e ON u.user_id = e.user_id " +
-                "WHERE u.user_id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql)) {
-
-            pst.setInt(1, userId);
-
-            try (ResultSet rs = pst.executeQuery()) {
-                if (rs.next()) {
-                    return createEmployeeFromResultSet(rs);
-                }
-            }
-        }
-        
-        // This should not be reached if authentication succeeded, but required for compilation
-        return new Employee(); 
-    }
     
     // NOTE: The rest of the methods remain unchanged.
 
-    private Employee createEmployeeFromResultSet(ResultSet rs) throws SQLException {
-        Employee emp = new Employee();
-
-        // emp_id might be NULL if the user is a non-employee Admin. getInt() handles NULL by returning 0.
-        // If emp_id is 0, it means the user is a system user/non-payroll employee.
-        emp.setEmployeeId(rs.getInt("emp_id")); 
-        
-        emp.setUserId(rs.getInt("user_id"));
-        emp.setUsername(rs.getString("username"));
-        emp.setFirstName(rs.getString("first_name"));
-        emp.setLastName(rs.getString("last_name"));
-        emp.setEmail(rs.getString("email"));
-        emp.setPhone(rs.getString("phone"));
-        
-        // Department and Position will be NULL if no employee record, but this is handled by the model.
-        emp.setDepartment(rs.getString("department"));
-        emp.setPosition(rs.getString("position"));
-
-        Date sqlDate = rs.getDate("date_joined");
-        // Use a fallback date if date_joined is NULL (e.g., for non-payroll Admin)
-        emp.setDateJoined(sqlDate != null ? sqlDate.toLocalDate() : LocalDate.of(1900, 1, 1)); 
-
-        String status = rs.getString("status");
-        emp.setStatus(status != null ? status : "Active");
-
-        emp.setRoleId(rs.getInt("role_id"));
-        emp.setRoleName(rs.getString("role_name"));
-
-        return emp;
-    }
-
     private void loadDashboard(String role) {
         // ... (The loadDashboard method is unchanged) ...
         try {
@@ -189,11 +134,36 @@ public class LoginController {
                 }
             }
 
+            StartupTimer.mark("login accepted");
+            FxWatchdog.viewShown(fxmlPath);
+            PayrollEvents.ViewLoad viewLoad = PayrollEvents.ViewLoad.begin(fxmlPath, "dashboard");
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
             Parent root = loader.load();
+            viewLoad.finish();
+
+            // Build this role's sidebar views in the background while the dashboard shows
+            ViewRegistry.preloadForRole(role);
+
             stage.setScene(new Scene(root));
             stage.setTitle(title);
             stage.show();
+            StartupTimer.mark("dashboard shown");
+
+            Runnable report = () -> {
+                StartupTimer.mark("dashboard data loaded");
+                StartupTimer.reportOnce();
+            };
+            Object controller = loader.getController();
+            if (prefetch != null) {
+                // Employee panels fill in as the concurrent prefetch completes
+                prefetch.allDone().thenRun(report);
+            } else if (controller instanceof AdminDashboardController admin) {
+                admin.whenDataLoaded().thenRun(report);
+            } else if (controller instanceof HRDashboardController hr) {
+                hr.whenDataLoaded().thenRun(report);
+            } else {
+                Platform.runLater(report);
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
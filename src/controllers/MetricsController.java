@@ -0,0 +1,86 @@
+package controllers;
+
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import utils.Metrics;
+import utils.MetricsServer;
+import utils.RefreshableView;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Admin screen over Metrics: every counter, gauge and timer with its current
+ * value, and the address of the Prometheus endpoint when it is on.
+ */
+public class MetricsController implements RefreshableView {
+
+    @FXML private Label lblEndpoint;
+    @FXML private TextField txtFilter;
+    @FXML private TableView<Metrics.Metric> tblMetrics;
+    @FXML private TableColumn<Metrics.Metric, String> colName;
+    @FXML private TableColumn<Metrics.Metric, String> colLabels;
+    @FXML private TableColumn<Metrics.Metric, String> colType;
+    @FXML private TableColumn<Metrics.Metric, String> colValue;
+    @FXML private TableColumn<Metrics.Metric, String> colP50;
+    @FXML private TableColumn<Metrics.Metric, String> colP99;
+    @FXML private TableColumn<Metrics.Metric, String> colMax;
+    @FXML private TableColumn<Metrics.Metric, String> colTotal;
+
+    @FXML
+    public void initialize() {
+        colName.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().getName()));
+        colLabels.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().getLabels()));
+        colType.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().getType().name().toLowerCase()));
+        colValue.setCellValueFactory(cd -> new ReadOnlyStringWrapper(formatValue(cd.getValue())));
+        colP50.setCellValueFactory(cd -> new ReadOnlyStringWrapper(timer(cd.getValue(), t -> t.getPercentileMillis(50))));
+        colP99.setCellValueFactory(cd -> new ReadOnlyStringWrapper(timer(cd.getValue(), t -> t.getPercentileMillis(99))));
+        colMax.setCellValueFactory(cd -> new ReadOnlyStringWrapper(timer(cd.getValue(), Metrics.Timer::getMaxMillis)));
+        colTotal.setCellValueFactory(cd -> new ReadOnlyStringWrapper(
+                cd.getValue() instanceof Metrics.Timer t ? String.format("%,.2f s", t.getTotalSeconds()) : ""));
+
+        // Help text on hover
+        tblMetrics.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(Metrics.Metric item, boolean empty) {
+                super.updateItem(item, empty);
+                setTooltip(empty || item == null ? null : new Tooltip(item.getHelp()));
+            }
+        });
+
+        txtFilter.textProperty().addListener((obs, old, text) -> refresh());
+        refresh();
+    }
+
+    @Override
+    public void onViewShown() {
+        refresh();
+    }
+
+    @FXML
+    private void onRefresh() {
+        refresh();
+    }
+
+    private void refresh() {
+        String url = MetricsServer.getUrl();
+        lblEndpoint.setText(url != null ? "Prometheus endpoint: " + url
+                                        : "Prometheus endpoint off (start with -Dpayroll.metrics.port=9404)");
+
+        String filter = txtFilter.getText() == null ? "" : txtFilter.getText().trim().toLowerCase();
+        tblMetrics.getItems().setAll(Metrics.snapshot().stream()
+                .filter(m -> filter.isEmpty() || m.getName().contains(filter) || m.getLabels().toLowerCase().contains(filter))
+                .toList());
+    }
+
+    private static String formatValue(Metrics.Metric m) {
+        double v = m.getValue();
+        if (m instanceof Metrics.Timer) return String.format("%,d calls", (long) v);
+        if (v == Math.rint(v)) return String.format("%,d", (long) v);
+        return String.format("%,.2f", v);
+    }
+
+    private static String timer(Metrics.Metric m, ToDoubleFunction<Metrics.Timer> value) {
+        return m instanceof Metrics.Timer t ? String.format("%,.2f", value.applyAsDouble(t)) : "";
+    }
+}
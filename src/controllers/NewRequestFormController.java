@@ -4,11 +4,15 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
+import models.InboxEntry;
+import services.AutoApprovalService;
 import utils.DBConnection;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ResourceBundle;
 import javafx.scene.control.Alert.AlertType;
@@ -116,12 +120,15 @@ public class NewRequestFormController implements Initializable {
                      "VALUES (?, ?, ?, 'Pending')";
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql)) {
+             PreparedStatement pst = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pst.setInt(1, employeeId);
             pst.setDouble(2, Double.parseDouble(txtAmount.getText().trim()));
             pst.setString(3, reason);
             pst.executeUpdate();
+            try (ResultSet keys = pst.getGeneratedKeys()) {
+                if (keys.next()) AutoApprovalService.submitted(InboxEntry.SALARY_ADVANCE, keys.getInt(1));
+            }
         }
     }
     
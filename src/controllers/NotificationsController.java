@@ -9,6 +9,7 @@ import javafx.scene.layout.*;
 import models.Notification;
 import utils.DBConnection;
 import utils.SessionManager;
+import utils.RefreshableView;
 
 import java.net.URL;
 import java.sql.*;
@@ -17,7 +18,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.ResourceBundle;
 
-public class NotificationsController implements Initializable {
+public class NotificationsController implements Initializable, RefreshableView {
 
     @FXML private VBox containerNotifications;
     @FXML private Label lblUnreadCount;
@@ -29,6 +30,11 @@ public class NotificationsController implements Initializable {
         Platform.runLater(this::loadNotifications);
     }
 
+    @Override
+    public void onViewShown() {
+        loadNotifications();
+    }
+
     @FXML
     public void loadNotifications() {
         if (containerNotifications == null) return;
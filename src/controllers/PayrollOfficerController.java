@@ -2,9 +2,21 @@ package controllers;
 
 import dao.EmployeeDAO;
 import models.Employee;
+import models.PayrollRecomputeReport;
 import models.PayrollRecord;
+import models.RetroPayChange;
+import models.RetroPayResult;
+import models.SimulationResult;
+import models.SimulationScenario;
+import services.PayrollService;
+import services.PayrollSimulationService;
+import services.RetroPayService;
+import services.SalaryHistoryService;
 import utils.DBConnection;
+import utils.PayrollChangeTracker;
+import utils.PayrollEvents;
 import utils.SessionManager;
+import utils.TaxSchedule;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -57,10 +69,12 @@ public class PayrollOfficerController implements Initializable {
     
     // Global Config Fields
     @FXML private TextField cfgTaxRate, cfgSocialRate, cfgCurrency;
+    @FXML private TextField cfgTaxBrackets;
 
     private final ObservableList<PayrollRecord> payrollData = FXCollections.observableArrayList();
     private final ObservableList<Employee> employeeList = FXCollections.observableArrayList();
     private final EmployeeDAO employeeDAO = new EmployeeDAO();
+    private PayrollSimulationService.Workforce simulationWorkforce; // loaded on first what-if run
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
@@ -185,19 +199,166 @@ public class PayrollOfficerController implements Initializable {
         double deductions = parseSafe(txtDeductions.getText());
         double insurance = parseSafe(txtInsurance.getText());
 
-        double taxRate = parseSafe(cfgTaxRate.getText()) / 100;
-        double socialRate = parseSafe(cfgSocialRate.getText()) / 100;
+        double taxRate = parseSafe(cfgTaxRate.getText());
+        double socialRate = parseSafe(cfgSocialRate.getText());
 
-        double gross = base + allowances + bonus;
-        double tax = gross * taxRate;
-        double social = gross * socialRate;
-
-        double net = gross - (tax + social + deductions + insurance);
+        double net = PayrollService.netPay(base, allowances, bonus, deductions, insurance, taxRate, socialRate);
 
         String symbol = cfgCurrency.getText();
         lblLiveNetPreview.setText(String.format("%s %.2f", symbol, net));
     }
 
+    /**
+     * RETRO PAY: Backdates a new salary for the employee selected in the
+     * structure editor and posts arrears for closed periods to this month.
+     */
+    @FXML
+    private void handleBackdateSalary() {
+        Employee selected = listEmployees.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showSimpleAlert(AlertType.WARNING, "Selection Required", "Please select an employee to backdate.");
+            return;
+        }
+        String name = selected.getFirstName() + " " + selected.getLastName();
+
+        TextInputDialog salaryDialog = new TextInputDialog(txtBaseSalary.getText());
+        salaryDialog.setTitle("Backdate Salary");
+        salaryDialog.setHeaderText("New monthly salary for " + name);
+        String salaryText = salaryDialog.showAndWait().orElse(null);
+        if (salaryText == null) return;
+        double newSalary = parseSafe(salaryText);
+        if (newSalary <= 0) {
+            showSimpleAlert(AlertType.ERROR, "Invalid Input", "Please enter a valid numeric salary.");
+            return;
+        }
+
+        LocalDate effective = askEffectiveDate("Backdate salary for " + name);
+        if (effective == null) return;
+
+        runRetroPay(() -> RetroPayService.apply(java.util.List.of(new RetroPayChange(selected.getId(), newSalary, effective))));
+    }
+
+    /**
+     * RETRO PAY: Across-the-board backdated raise for every active employee.
+     */
+    @FXML
+    private void handleBackdatedRaiseAll() {
+        TextInputDialog raiseDialog = new TextInputDialog("3");
+        raiseDialog.setTitle("Backdated Raise");
+        raiseDialog.setHeaderText("Raise for all active employees (%)");
+        String raiseText = raiseDialog.showAndWait().orElse(null);
+        if (raiseText == null) return;
+
+        LocalDate effective = askEffectiveDate("Backdated raise of " + raiseText + "%");
+        if (effective == null) return;
+
+        double raise = parseSafe(raiseText);
+        runRetroPay(() -> RetroPayService.applyAcrossTheBoard(raise, effective));
+    }
+
+    private interface RetroRun {
+        RetroPayResult run() throws SQLException;
+    }
+
+    private void runRetroPay(RetroRun run) {
+        try {
+            RetroPayResult result = run.run();
+            logAction(SessionManager.getCurrentUserId(), result.getSummary());
+            simulationWorkforce = null;
+            loadEmployeeList();
+            loadPayrollData();
+            lblStatusMessage.setText(result.getSummary());
+            showSimpleAlert(AlertType.INFORMATION, "Retro Pay Posted", result.getSummary());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            showSimpleAlert(AlertType.ERROR, "Retro Pay Failed", e.getMessage());
+        }
+    }
+
+    private LocalDate askEffectiveDate(String header) {
+        TextInputDialog dialog = new TextInputDialog(LocalDate.now().withDayOfMonth(1).minusMonths(1).toString());
+        dialog.setTitle("Effective Date");
+        dialog.setHeaderText(header);
+        dialog.setContentText("Effective from (yyyy-MM-dd):");
+        String text = dialog.showAndWait().orElse(null);
+        if (text == null) return null;
+        try {
+            LocalDate date = LocalDate.parse(text.trim());
+            if (!date.isBefore(LocalDate.now().withDayOfMonth(1))) {
+                showSimpleAlert(AlertType.WARNING, "Not Backdated", "Effective date must be before the current period.");
+                return null;
+            }
+            return date;
+        } catch (java.time.format.DateTimeParseException e) {
+            showSimpleAlert(AlertType.ERROR, "Invalid Date", "Please use the format yyyy-MM-dd.");
+            return null;
+        }
+    }
+
+    /**
+     * WHAT-IF: Applies a department (or company-wide) raise and the tax rules
+     * typed in the Tax & Global Rules tab (brackets if given, otherwise the flat
+     * rate) to the whole active workforce, then reports cost per department and
+     * the spread of net-pay changes. Nothing is written to the payroll table.
+     */
+    @FXML
+    private void handleWhatIfSimulation() {
+        try {
+            if (simulationWorkforce == null) {
+                simulationWorkforce = PayrollSimulationService.loadWorkforce();
+            }
+
+            java.util.List<String> choices = new java.util.ArrayList<>();
+            choices.add("All Departments");
+            choices.addAll(java.util.Arrays.asList(simulationWorkforce.getDepartmentNames()));
+            ChoiceDialog<String> deptDialog = new ChoiceDialog<>("All Departments", choices);
+            deptDialog.setTitle("What-If Simulation");
+            deptDialog.setHeaderText("Which department receives the raise?");
+            String dept = deptDialog.showAndWait().orElse(null);
+            if (dept == null) return;
+
+            TextInputDialog raiseDialog = new TextInputDialog("4");
+            raiseDialog.setTitle("What-If Simulation");
+            raiseDialog.setHeaderText("Raise for " + dept + " (%)");
+            String raiseText = raiseDialog.showAndWait().orElse(null);
+            if (raiseText == null) return;
+            double raise = parseSafe(raiseText);
+
+            String brackets = cfgTaxBrackets == null ? "" : cfgTaxBrackets.getText().trim();
+            double proposedTax = parseSafe(cfgTaxRate.getText());
+            TaxSchedule schedule;
+            String taxLabel;
+            if (brackets.isEmpty()) {
+                schedule = TaxSchedule.flat(proposedTax);
+                taxLabel = String.format("tax %.2f%%", proposedTax);
+            } else {
+                try {
+                    schedule = TaxSchedule.parse(brackets);
+                } catch (IllegalArgumentException e) {
+                    showSimpleAlert(AlertType.ERROR, "Invalid Tax Brackets", e.getMessage());
+                    return;
+                }
+                taxLabel = schedule.size() + " tax brackets";
+            }
+            SimulationScenario scenario = new SimulationScenario(
+                    String.format("%s +%.1f%%, %s", dept, raise, taxLabel))
+                    .withTaxSchedule(schedule);
+            if ("All Departments".equals(dept)) {
+                scenario.raiseAll(raise);
+            } else {
+                scenario.raiseDepartment(dept, raise);
+            }
+
+            SimulationResult result = PayrollSimulationService.simulate(simulationWorkforce, scenario);
+            lblStatusMessage.setText("Simulation finished in " + result.getElapsedMillis() + " ms");
+            showSimpleAlert(AlertType.INFORMATION, "What-If Result", result.toReport(cfgCurrency.getText()));
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            showSimpleAlert(AlertType.ERROR, "Simulation Error", "Could not load workforce: " + e.getMessage());
+        }
+    }
+
     private double parseSafe(String value) {
         if (value == null || value.isEmpty()) return 0.0;
         try {
@@ -211,6 +372,9 @@ public class PayrollOfficerController implements Initializable {
     private void loadPayrollData() {
         payrollData.clear();
 
+        // Apply pending salary/leave/attendance changes before reading the period
+        PayrollRecomputeReport recompute = recomputeOpenPeriod();
+
         String sql = """
             SELECT CONCAT(u.first_name,' ',u.last_name) AS name,
                    p.base_salary, p.allowances, p.deductions, p.tax,
@@ -240,7 +404,9 @@ public class PayrollOfficerController implements Initializable {
                 ));
             }
 
-            lblStatusMessage.setText("Payroll loaded successfully");
+            lblStatusMessage.setText(recompute != null && !recompute.isEmpty()
+                    ? recompute.getSummary()
+                    : "Payroll loaded successfully");
 
         } catch (SQLException e) {
             lblStatusMessage.setText("Payroll load error");
@@ -281,27 +447,37 @@ public class PayrollOfficerController implements Initializable {
                 try (Connection conn = DBConnection.getConnection();
                      PreparedStatement pstmt = conn.prepareStatement(sql)) {
                     
-                    double taxRate = parseSafe(cfgTaxRate.getText()) / 100;
+                    // Same tax source and rule as the incremental recompute (saved settings, not the unsaved field)
+                    double taxRate = PayrollService.loadTaxRate(conn);
+                    java.time.YearMonth period = java.time.YearMonth.of(comboYear.getValue(),
+                            java.time.Month.valueOf(comboMonth.getValue().toUpperCase(java.util.Locale.ENGLISH)));
+                    java.util.Map<Integer, Double> unpaidDays = PayrollService.loadUnpaidDays(conn, period, null);
+                    java.util.Map<Integer, double[]> arrears =
+                            PayrollService.loadArrears(conn, comboMonth.getValue(), comboYear.getValue(), null);
+                    long started = System.nanoTime();
+                    PayrollEvents.PayrollRunChunk chunk = PayrollEvents.PayrollRunChunk.begin("batch generate", period.toString());
 
                     for (Employee emp : employeeList) {
-                        double base = emp.getSalary();
-                        double allowances = 500.0; 
-                        double deductions = 100.0;
-                        double calculatedTax = (base + allowances) * taxRate;
+                        PayrollService.Computed row = PayrollService.compute(emp.getId(), period, emp.getSalary(),
+                                unpaidDays.getOrDefault(emp.getId(), 0.0), arrears.get(emp.getId()), taxRate);
 
                         pstmt.setInt(1, emp.getId()); // Must exist in 'employees' table
                         pstmt.setString(2, comboMonth.getValue());
                         pstmt.setInt(3, comboYear.getValue());
-                        pstmt.setDouble(4, base);
-                        pstmt.setDouble(5, allowances);
-                        pstmt.setDouble(6, deductions);
-                        pstmt.setDouble(7, calculatedTax);
+                        pstmt.setDouble(4, row.base);
+                        pstmt.setDouble(5, row.allowances);
+                        pstmt.setDouble(6, row.deductions);
+                        pstmt.setDouble(7, row.tax);
                         pstmt.setString(8, "Processed"); 
                         
                         pstmt.addBatch();
                     }
                     
-                    pstmt.executeBatch();
+                    int[] counts = pstmt.executeBatch();
+                    chunk.finish(employeeList.size(), counts.length);
+                    PayrollService.recordRun("batch generate", employeeList.size(), counts.length, System.nanoTime() - started);
+                    // Full regeneration supersedes any pending incremental changes
+                    PayrollChangeTracker.clear(comboMonth.getValue(), comboYear.getValue());
                     lblStatusMessage.setText("Batch processing successful!");
                     loadPayrollData(); // This will fetch the auto-calculated net_salary
                     
@@ -395,9 +571,16 @@ public class PayrollOfficerController implements Initializable {
                 
                 int affectedRows = pstmt.executeUpdate();
                 if (affectedRows > 0) {
+                    SalaryHistoryService.recordChange(selected.getId(), selected.getSalary(), newSalary, LocalDate.now(),
+                            SessionManager.getCurrentUserId());
                     lblStatusMessage.setText("Updated salary for " + selected.getFirstName());
                     logAction(SessionManager.getCurrentEmployee().getUserId(), 
                               "Updated Salary Structure for Emp ID: " + selected.getId());
+
+                    // Recompute only this employee's row for the open period
+                    PayrollChangeTracker.markDirty(selected.getId(), comboMonth.getValue(), comboYear.getValue());
+                    simulationWorkforce = null;
+                    loadPayrollData();
                     showSimpleAlert(AlertType.INFORMATION, "Data Saved", "Salary structure successfully updated.");
                     loadEmployeeList(); 
                 }
@@ -410,6 +593,22 @@ public class PayrollOfficerController implements Initializable {
         }
     }
 
+    /**
+     * Recalculates the payroll rows of employees changed since the last run
+     * for the selected period. Returns null when nothing was pending.
+     */
+    private PayrollRecomputeReport recomputeOpenPeriod() {
+        String month = comboMonth.getValue();
+        Integer year = comboYear.getValue();
+        if (month == null || year == null || !PayrollChangeTracker.hasPendingChanges(month, year)) return null;
+
+        PayrollRecomputeReport report = PayrollService.recomputeDirty(month, year);
+        if (!report.isEmpty()) {
+            logAction(SessionManager.getCurrentUserId(), "Incremental payroll recompute: " + report.getSummary());
+        }
+        return report;
+    }
+
     @FXML
     private void saveGlobalSettings() {
         String sql = "UPDATE settings SET tax_rate = ? WHERE id = 1";
@@ -658,20 +857,7 @@ public class PayrollOfficerController implements Initializable {
             
             if (file != null) {
                 try (java.io.PrintWriter writer = new java.io.PrintWriter(file)) {
-                    // Write header
-                    writer.println("Employee Name,Base Salary,Allowances,Deductions,Net Salary,Status");
-                    
-                    // Write data
-                    for (PayrollRecord record : payrollData) {
-                        writer.println(String.format("%s,%.2f,%.2f,%.2f,%.2f,%s",
-                            record.getEmployeeName(),
-                            record.getBaseSalary(),
-                            record.getAllowances(),
-                            record.getDeductions(),
-                            record.getNetSalary(),
-                            record.getStatus()
-                        ));
-                    }
+                    PayrollService.writeCsv(payrollData, writer);
                     
                     showSimpleAlert(AlertType.INFORMATION, "Export Successful", 
                         "Payroll data exported to: " + file.getAbsolutePath());
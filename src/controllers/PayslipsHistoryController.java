@@ -37,6 +37,7 @@ import com.itextpdf.text.pdf.PdfWriter;
 
 import models.Payslip;
 import utils.DBConnection; 
+import utils.PayrollEvents;
 
 public class PayslipsHistoryController implements Initializable {
 
@@ -156,6 +157,7 @@ public class PayslipsHistoryController implements Initializable {
     }
 
     private boolean generatePayslipPdf(Payslip payslip, File file) {
+        PayrollEvents.PdfRender event = PayrollEvents.PdfRender.begin("payslip");
         Document document = new Document();
         try (FileOutputStream fos = new FileOutputStream(file)) {
             PdfWriter.getInstance(document, fos);
@@ -177,9 +179,11 @@ public class PayslipsHistoryController implements Initializable {
             
             document.add(table);
             document.close();
+            event.finish(file, true);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
+            event.finish(file, false);
             return false;
         }
     }
@@ -3,6 +3,7 @@ package controllers;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import models.Payslip;
+import utils.PayrollEvents;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.text.SimpleDateFormat;
@@ -15,6 +16,7 @@ public class PdfUtils {
             file.getParentFile().mkdirs();
         }
 
+        PayrollEvents.PdfRender event = PayrollEvents.PdfRender.begin("payslip");
         Document document = new Document();
         try (FileOutputStream fos = new FileOutputStream(file)) {
             PdfWriter.getInstance(document, fos);
@@ -108,9 +110,11 @@ public class PdfUtils {
             document.add(new Paragraph("Payroll Department Signature", normalFont));
 
             document.close();
+            event.finish(file, true);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
+            event.finish(file, false);
             return false;
         }
     }
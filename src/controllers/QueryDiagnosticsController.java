@@ -0,0 +1,107 @@
+package controllers;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.util.Callback;
+import utils.LatencyHistogram;
+import utils.QueryStats;
+import utils.RefreshableView;
+
+import java.util.function.Function;
+
+/**
+ * Admin screen over QueryStats: the queries with the most total time, the
+ * recent slow-query log and the connection wait times.
+ */
+public class QueryDiagnosticsController implements RefreshableView {
+
+    private static final int TOP = 100;
+
+    @FXML private TextField txtThreshold;
+    @FXML private Label lblConnectionWait;
+    @FXML private TableView<QueryStats.Entry> tblQueries;
+    @FXML private TableColumn<QueryStats.Entry, String> colQuery;
+    @FXML private TableColumn<QueryStats.Entry, String> colCaller;
+    @FXML private TableColumn<QueryStats.Entry, Long> colCount;
+    @FXML private TableColumn<QueryStats.Entry, String> colTotal;
+    @FXML private TableColumn<QueryStats.Entry, String> colMean;
+    @FXML private TableColumn<QueryStats.Entry, String> colP50;
+    @FXML private TableColumn<QueryStats.Entry, String> colP99;
+    @FXML private TableColumn<QueryStats.Entry, String> colMax;
+    @FXML private TableColumn<QueryStats.Entry, Long> colRows;
+    @FXML private TableColumn<QueryStats.Entry, Long> colErrors;
+    @FXML private ListView<QueryStats.SlowQuery> slowList;
+
+    @FXML
+    public void initialize() {
+        colQuery.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().getFingerprint()));
+        colCaller.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().getCaller()));
+        colCount.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().getCount()));
+        colTotal.setCellValueFactory(millis(QueryStats.Entry::getTotalMillis));
+        colMean.setCellValueFactory(millis(QueryStats.Entry::getMeanMillis));
+        colP50.setCellValueFactory(millis(QueryStats.Entry::getP50Millis));
+        colP99.setCellValueFactory(millis(QueryStats.Entry::getP99Millis));
+        colMax.setCellValueFactory(millis(QueryStats.Entry::getMaxMillis));
+        colRows.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().getRows()));
+        colErrors.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().getErrors()));
+
+        // Full SQL on hover; the column is too narrow for most statements
+        colQuery.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : item);
+                setTooltip(empty || item == null ? null : new Tooltip(item));
+            }
+        });
+
+        txtThreshold.setText(String.valueOf(QueryStats.getSlowThresholdMillis()));
+        refresh();
+    }
+
+    @Override
+    public void onViewShown() {
+        refresh();
+    }
+
+    @FXML
+    private void onRefresh() {
+        refresh();
+    }
+
+    @FXML
+    private void onReset() {
+        QueryStats.reset();
+        refresh();
+    }
+
+    @FXML
+    private void onApplyThreshold() {
+        try {
+            QueryStats.setSlowThresholdMillis(Long.parseLong(txtThreshold.getText().trim()));
+        } catch (NumberFormatException e) {
+            txtThreshold.setText(String.valueOf(QueryStats.getSlowThresholdMillis()));
+        }
+    }
+
+    private void refresh() {
+        if (!QueryStats.ENABLED) {
+            lblConnectionWait.setText("Query instrumentation is off (-Dpayroll.db.instrument=false).");
+        } else {
+            LatencyHistogram wait = QueryStats.getConnectionWait();
+            lblConnectionWait.setText(String.format(
+                    "Connection wait: %,d acquired, p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                    wait.count(), wait.percentile(50) / 1000.0, wait.percentile(99) / 1000.0, wait.max() / 1000.0));
+        }
+        tblQueries.getItems().setAll(QueryStats.top(TOP));
+        slowList.getItems().setAll(QueryStats.recentSlowQueries());
+    }
+
+    private static Callback<TableColumn.CellDataFeatures<QueryStats.Entry, String>, ObservableValue<String>> millis(
+            Function<QueryStats.Entry, Double> value) {
+        return cd -> new ReadOnlyStringWrapper(String.format("%,.2f", value.apply(cd.getValue())));
+    }
+}
@@ -10,6 +10,7 @@ import javafx.scene.layout.StackPane;
 import javafx.stage.FileChooser;
 import models.*;
 import utils.DBConnection;
+import utils.PayrollEvents;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -217,6 +218,7 @@ public class ReportsAnalyticsController implements Initializable {
         File file = chooser.showSaveDialog(lblReportTitle.getScene().getWindow());
 
         if (file != null) {
+            PayrollEvents.PdfRender event = PayrollEvents.PdfRender.begin(type + " report");
             try {
                 Document doc = new Document(PageSize.A4);
                 PdfWriter.getInstance(doc, new FileOutputStream(file));
@@ -259,8 +261,10 @@ public class ReportsAnalyticsController implements Initializable {
                 }
                 doc.add(pdfTable);
                 doc.close();
+                event.finish(file, true);
                 showAlert("Success", "Exported successfully.");
             } catch (Exception e) {
+                event.finish(file, false);
                 showAlert("Error", "PDF Export Failed: " + e.getMessage());
             }
         }
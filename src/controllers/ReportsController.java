@@ -10,7 +10,13 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import models.ForecastResult;
+import models.ForecastScenario;
 import models.Report;
+import services.PayrollForecastService;
+import utils.TaxSchedule;
+
+import java.sql.SQLException;
 
 public class ReportsController {
 
@@ -22,11 +28,13 @@ public class ReportsController {
 
     private ObservableList<Report> reportList = FXCollections.observableArrayList();
     private final ReportDAO reportDAO = new ReportDAO();
+    private String lastForecastInputs = "3, 10, 36";
+    private String lastForecastBrackets = "";
 
     @FXML
     private void initialize() {
         setupTable();
-        reportTypeFilter.getItems().addAll("Payroll Summary", "Attendance Summary", "Requests Summary");
+        reportTypeFilter.getItems().addAll("Payroll Summary", "Attendance Summary", "Requests Summary", "Payroll Forecast");
         reportTypeFilter.setValue("Payroll Summary");
         onGenerateReport();
     }
@@ -62,6 +70,9 @@ public class ReportsController {
                     reportList.addAll(reportDAO.getRequestsSummaryTableData());
                     calculateTotals(false);
                     break;
+                case "Payroll Forecast":
+                    generateForecast();
+                    return;
             }
             loadChart(type);
         } catch (Exception e) {
@@ -116,5 +127,91 @@ public class ReportsController {
         reportChartContainer.getChildren().add(chart);
     }
 
+    /**
+     * FORECAST: Asks for raise/attrition/horizon and optional tax brackets,
+     * projects monthly payroll cost per department and charts it (one line per
+     * department plus the total).
+     */
+    private void generateForecast() throws SQLException {
+        TextInputDialog dialog = new TextInputDialog(lastForecastInputs);
+        dialog.setTitle("Payroll Forecast");
+        dialog.setHeaderText("Annual raise %, annual attrition %, months (12-36)");
+        dialog.setContentText("Inputs:");
+        String input = dialog.showAndWait().orElse(null);
+        if (input == null) return;
+
+        String[] parts = input.split(",");
+        double raise = parts.length > 0 ? parseOrDefault(parts[0], 3.0) : 3.0;
+        double attrition = parts.length > 1 ? parseOrDefault(parts[1], 10.0) : 10.0;
+        int months = parts.length > 2 ? (int) parseOrDefault(parts[2], 36) : 36;
+        lastForecastInputs = input;
+
+        TextInputDialog taxDialog = new TextInputDialog(lastForecastBrackets);
+        taxDialog.setTitle("Payroll Forecast");
+        taxDialog.setHeaderText("Tax brackets, e.g. 0-10000:0, 10000-20000:10, 20000+:20\n(blank = current tax rate)");
+        taxDialog.setContentText("Brackets:");
+        String brackets = taxDialog.showAndWait().orElse(null);
+        if (brackets == null) return;
+        brackets = brackets.trim();
+
+        ForecastScenario scenario;
+        if (brackets.isEmpty()) {
+            scenario = new ForecastScenario(months, raise, attrition);
+        } else {
+            TaxSchedule schedule;
+            try {
+                schedule = TaxSchedule.parse(brackets);
+            } catch (IllegalArgumentException e) {
+                new Alert(Alert.AlertType.ERROR, e.getMessage()).showAndWait();
+                return;
+            }
+            scenario = new ForecastScenario(months, raise, attrition, schedule, brackets.replaceAll("\\s+", ""));
+        }
+        lastForecastBrackets = brackets;
+
+        ForecastResult forecast = PayrollForecastService.forecast(scenario);
+
+        updateUI("Month", "Projected Cost", "Projected Tax", "Expected Headcount");
+        String[] labels = forecast.getMonthLabels();
+        for (int m = 0; m < labels.length; m++) {
+            reportList.add(new Report(labels[m],
+                    String.format("%.2f", forecast.getTotalCost()[m]),
+                    String.format("%.2f", forecast.getTotalTax()[m]),
+                    String.format("%.1f", forecast.getHeadcount()[m])));
+        }
+
+        lblTotalCount.setText("Months Projected: " + labels.length);
+        lblGrandTotal.setText(String.format("Projected Total: $%.2f", forecast.getGrandTotal()));
+        lblGrandTotal.setVisible(true);
+
+        reportChartContainer.getChildren().clear();
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        LineChart<String, Number> chart = new LineChart<>(xAxis, yAxis);
+        chart.setTitle(String.format("Payroll Forecast (raise %.1f%%, attrition %.1f%%)", raise, attrition));
+        chart.setCreateSymbols(false);
+
+        forecast.getDepartmentCost().forEach((dept, cost) -> {
+            XYChart.Series<String, Number> series = new XYChart.Series<>();
+            series.setName(dept);
+            for (int m = 0; m < labels.length; m++) series.getData().add(new XYChart.Data<>(labels[m], cost[m]));
+            chart.getData().add(series);
+        });
+        XYChart.Series<String, Number> total = new XYChart.Series<>();
+        total.setName("Total");
+        for (int m = 0; m < labels.length; m++) total.getData().add(new XYChart.Data<>(labels[m], forecast.getTotalCost()[m]));
+        chart.getData().add(total);
+
+        reportChartContainer.getChildren().add(chart);
+    }
+
+    private double parseOrDefault(String value, double fallback) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
     @FXML private void onExportPDF() { /* Logic for iText */ }
 }
\ No newline at end of file
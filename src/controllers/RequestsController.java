@@ -6,13 +6,22 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.util.Callback;
+import dao.RequestInboxDAO;
+import models.ApprovalResult;
+import models.InboxEntry;
 import models.Request;
+import services.RequestApprovalService;
 import utils.DBConnection;
+import utils.RefreshableView;
+import utils.SessionManager;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-public class RequestsController {
+public class RequestsController implements RefreshableView {
 
     @FXML private TableView<Request> requestsTable;
     @FXML private TableColumn<Request, String> colEmployee;
@@ -24,15 +33,28 @@ public class RequestsController {
 
     @FXML private ComboBox<String> employeeFilter;
     @FXML private ComboBox<String> requestTypeFilter;
+    @FXML private Button btnLoadMore;
+    @FXML private Label lblShowing;
 
+    private static final int PAGE_SIZE = 500;
+
+    // Filter labels -> request_inbox.source
+    private static final Map<String, String> TYPE_TO_SOURCE = Map.of(
+            "Leave", InboxEntry.LEAVE,
+            "Salary Advance", InboxEntry.SALARY_ADVANCE,
+            "Bank Account Change", InboxEntry.BANK_CHANGE,
+            "Reimbursement", InboxEntry.REIMBURSEMENT);
+
+    private final RequestInboxDAO inboxDAO = new RequestInboxDAO();
+    private final Map<String, Integer> employeeIds = new HashMap<>();
     private ObservableList<Request> requestList = FXCollections.observableArrayList();
-    private ObservableList<Request> tableItems = FXCollections.observableArrayList();
+    private boolean hasMore;
 
     @FXML
     private void initialize() {
-        loadRequests(); 
         loadFilters(); 
         setupTable();
+        loadRequests(); 
     }
 
     private void setupTable() {
@@ -82,20 +104,26 @@ public class RequestsController {
         });
 
         // CRITICAL: Initialize the table items
-        tableItems.addAll(requestList);
-        requestsTable.setItems(tableItems);
+        requestsTable.setItems(requestList);
+    }
+
+    @Override
+    public void onViewShown() {
+        loadRequests();
     }
 
     private void loadFilters() {
-        // Load employee names from database
+        // Employee names -> emp_id, so the employee filter runs in the inbox query
         ObservableList<String> employees = FXCollections.observableArrayList("All");
-        String empSql = "SELECT DISTINCT CONCAT(u.first_name, ' ', u.last_name) AS full_name FROM users u ORDER BY full_name";
+        String empSql = "SELECT e.emp_id, CONCAT(u.first_name, ' ', u.last_name) AS full_name " +
+                        "FROM employees e JOIN users u ON e.user_id = u.user_id ORDER BY full_name";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(empSql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                employees.add(rs.getString("full_name"));
+                String name = rs.getString("full_name");
+                if (employeeIds.putIfAbsent(name, rs.getInt("emp_id")) == null) employees.add(name);
             }
         } catch (SQLException e) {
             System.err.println("Error loading employee filter: " + e.getMessage());
@@ -105,121 +133,80 @@ public class RequestsController {
         employeeFilter.setValue("All");
 
         // Populate request types
-        requestTypeFilter.getItems().addAll("All", "Leave", "Salary Advance", "Bank Account Change", "Reimbursement");
+        requestTypeFilter.getItems().setAll("All", "Leave", "Salary Advance", "Bank Account Change", "Reimbursement");
         requestTypeFilter.setValue("All");
     }
 
+    /**
+     * Reloads the first page for the current filters.
+     */
     private void loadRequests() {
         requestList.clear();
-        
-        try (Connection conn = DBConnection.getConnection()) {
-            // Load Leave Requests
-            String leaveSql = "SELECT lr.leave_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
-                            "lr.leave_type, lr.requested_on, lr.status, lr.reason " +
-                            "FROM leave_requests lr " +
-                            "JOIN employees e ON lr.emp_id = e.emp_id " +
-                            "JOIN users u ON e.user_id = u.user_id " +
-                            "ORDER BY lr.requested_on DESC";
-            
-            try (PreparedStatement ps = conn.prepareStatement(leaveSql);
-                 ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    requestList.add(new Request(
-                        rs.getString("employee_name"),
-                        "Leave - " + rs.getString("leave_type"),
-                        rs.getTimestamp("requested_on").toLocalDateTime().toLocalDate(),
-                        rs.getString("status"),
-                        rs.getString("reason")
-                    ));
-                }
-            }
-            
-            // Load Salary Advance Requests
-            String advanceSql = "SELECT sar.advance_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
-                              "sar.amount, sar.request_date, sar.status, sar.reason " +
-                              "FROM salary_advance_requests sar " +
-                              "JOIN employees e ON sar.emp_id = e.emp_id " +
-                              "JOIN users u ON e.user_id = u.user_id " +
-                              "ORDER BY sar.request_date DESC";
-            
-            try (PreparedStatement ps = conn.prepareStatement(advanceSql);
-                 ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    requestList.add(new Request(
-                        rs.getString("employee_name"),
-                        "Salary Advance",
-                        rs.getTimestamp("request_date").toLocalDateTime().toLocalDate(),
-                        rs.getString("status"),
-                        "Amount: $" + rs.getDouble("amount") + " - " + rs.getString("reason")
-                    ));
-                }
-            }
-            
-            // Load Bank Account Change Requests
-            String bankSql = "SELECT br.request_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
-                           "br.old_account, br.new_account, br.request_date, br.status " +
-                           "FROM bank_requests br " +
-                           "JOIN employees e ON br.emp_id = e.emp_id " +
-                           "JOIN users u ON e.user_id = u.user_id " +
-                           "ORDER BY br.request_date DESC";
-            
-            try (PreparedStatement ps = conn.prepareStatement(bankSql);
-                 ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    requestList.add(new Request(
-                        rs.getString("employee_name"),
-                        "Bank Account Change",
-                        rs.getTimestamp("request_date").toLocalDateTime().toLocalDate(),
-                        rs.getString("status"),
-                        "From: " + rs.getString("old_account") + " To: " + rs.getString("new_account")
-                    ));
-                }
-            }
-            
-            // Load Reimbursement Requests
-            String reimbSql = "SELECT r.reimb_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
-                            "r.amount, r.request_date, r.status, r.reason " +
-                            "FROM reimbursements r " +
-                            "JOIN employees e ON r.emp_id = e.emp_id " +
-                            "JOIN users u ON e.user_id = u.user_id " +
-                            "ORDER BY r.request_date DESC";
-            
-            try (PreparedStatement ps = conn.prepareStatement(reimbSql);
-                 ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    requestList.add(new Request(
-                        rs.getString("employee_name"),
-                        "Reimbursement",
-                        rs.getTimestamp("request_date").toLocalDateTime().toLocalDate(),
-                        rs.getString("status"),
-                        "Amount: $" + rs.getDouble("amount") + " - " + rs.getString("reason")
-                    ));
-                }
+        loadNextPage();
+    }
+
+    /**
+     * Appends the next page of request_inbox for the current filters: one indexed
+     * query, newest first, instead of scanning all four request tables.
+     */
+    private void loadNextPage() {
+        String selectedEmployee = employeeFilter.getValue();
+        String selectedType = requestTypeFilter.getValue();
+        Integer empId = selectedEmployee == null || "All".equals(selectedEmployee) ? null : employeeIds.get(selectedEmployee);
+        String source = selectedType == null ? null : TYPE_TO_SOURCE.get(selectedType);
+
+        try {
+            List<InboxEntry> page = inboxDAO.findPage(null, empId, source, requestList.size(), PAGE_SIZE);
+            for (InboxEntry entry : page) {
+                requestList.add(toRequest(entry));
             }
-            
+            hasMore = page.size() == PAGE_SIZE;
         } catch (SQLException e) {
             System.err.println("Error loading requests: " + e.getMessage());
             e.printStackTrace();
             showInfo("Database Error: " + e.getMessage());
+            hasMore = false;
         }
+
+        if (requestsTable != null) requestsTable.setItems(requestList);
+        if (btnLoadMore != null) btnLoadMore.setDisable(!hasMore);
+        if (lblShowing != null) lblShowing.setText("Showing " + requestList.size() + " requests");
+    }
+
+    private static Request toRequest(InboxEntry entry) {
+        String type;
+        String remarks;
+        switch (entry.getSource()) {
+            case InboxEntry.LEAVE -> {
+                type = "Leave - " + entry.getSubtype();
+                remarks = entry.getReason();
+            }
+            case InboxEntry.BANK_CHANGE -> {
+                type = "Bank Account Change";
+                remarks = "From: " + entry.getOldValue() + " To: " + entry.getNewValue();
+            }
+            default -> {
+                type = entry.getSource();
+                double amount = entry.getAmount() == null ? 0 : entry.getAmount().doubleValue();
+                remarks = "Amount: $" + amount + " - " + entry.getReason();
+            }
+        }
+        LocalDate date = entry.getSubmittedAt() == null ? null : entry.getSubmittedAt().toLocalDate();
+        return new Request(entry.getSource(), entry.getSourceId(), entry.getEmployeeName(), type, date, entry.getStatus(), remarks);
+    }
+
+    @FXML
+    private void onLoadMore() {
+        if (hasMore) loadNextPage();
     }
 
     @FXML
     private void onFilter() {
         String selectedEmployee = employeeFilter.getValue();
         String selectedType = requestTypeFilter.getValue();
-        
-        // Use a stream filter for efficiency and clarity
-        ObservableList<Request> filteredData = requestList.stream()
-                .filter(request -> {
-                    boolean matchesEmployee = "All".equals(selectedEmployee) || request.getEmployeeName().equals(selectedEmployee);
-                    boolean matchesType = "All".equals(selectedType) || request.getType().equals(selectedType);
-                    return matchesEmployee && matchesType;
-                })
-                .collect(FXCollections::observableArrayList, ObservableList::add, ObservableList::addAll);
-
-        // Update the TableView's items
-        requestsTable.setItems(filteredData);
+
+        // Filters are part of the inbox query, so re-query from the first page
+        loadRequests();
         
         showInfo("Filter applied for Employee: " + selectedEmployee + ", Type: " + selectedType);
     }
@@ -235,69 +222,36 @@ public class RequestsController {
     }
     
     private void updateRequestStatus(Request req, String newStatus) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String tableName = null;
-            String idColumn = null;
-            
-            // Determine which table to update based on request type
-            if (req.getType().startsWith("Leave")) {
-                tableName = "leave_requests";
-                idColumn = "leave_id";
-            } else if (req.getType().equals("Salary Advance")) {
-                tableName = "salary_advance_requests";
-                idColumn = "advance_id";
-            } else if (req.getType().equals("Bank Account Change")) {
-                tableName = "bank_requests";
-                idColumn = "request_id";
-            } else if (req.getType().equals("Reimbursement")) {
-                tableName = "reimbursements";
-                idColumn = "reimb_id";
-            }
-            
-            if (tableName != null) {
-                String sql = "UPDATE " + tableName + " SET status = ? " +
-                           "WHERE " + idColumn + " IN (" +
-                           "  SELECT sub.id FROM (" +
-                           "    SELECT " + idColumn + " AS id FROM " + tableName + " " +
-                           "    WHERE emp_id = (SELECT e.emp_id FROM employees e " +
-                           "                    JOIN users u ON e.user_id = u.user_id " +
-                           "                    WHERE CONCAT(u.first_name, ' ', u.last_name) = ?) " +
-                           "    ORDER BY request_date DESC LIMIT 1" +
-                           "  ) AS sub" +
-                           ")";
-                
-                // For leave_requests, use requested_on instead of request_date
-                if (tableName.equals("leave_requests")) {
-                    sql = sql.replace("request_date", "requested_on");
-                }
-                
-                try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                    ps.setString(1, newStatus);
-                    ps.setString(2, req.getEmployeeName());
-                    int updated = ps.executeUpdate();
-                    
-                    if (updated > 0) {
-                        req.setStatus(newStatus);
-                        requestsTable.refresh();
-                        showInfo(req.getEmployeeName() + "'s request " + newStatus.toLowerCase() + ".");
-                        loadRequests(); // Reload to get fresh data
-                    } else {
-                        showInfo("Failed to update request status.");
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error updating request: " + e.getMessage());
-            e.printStackTrace();
-            showInfo("Database Error: " + e.getMessage());
+        RequestApprovalService.Batch batch = new RequestApprovalService.Batch().add(req.getSource(), req.getSourceId());
+        ApprovalResult result = RequestApprovalService.decide(batch, newStatus, SessionManager.getCurrentUserId());
+
+        if (result.getDecidedCount() > 0) {
+            applyResult(result);
+            showInfo(req.getEmployeeName() + "'s request " + newStatus.toLowerCase() + ".");
+        } else if (result.getFailedSources() > 0) {
+            showInfo("Failed to update request status.");
+        } else {
+            // Someone else decided it first; show the current state
+            loadRequests();
+            showInfo("This request is no longer pending.");
         }
     }
 
+    /**
+     * Patches the rows the engine changed instead of re-querying the inbox.
+     */
+    private void applyResult(ApprovalResult result) {
+        for (Request r : requestList) {
+            if (result.isDecided(r.getSource(), r.getSourceId())) r.setStatus(result.getStatus());
+        }
+        requestsTable.refresh();
+    }
+
     @FXML
     private void onApproveAll() {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Approve All Requests");
-        confirm.setHeaderText("Are you sure you want to approve ALL pending requests?");
+        confirm.setHeaderText("Are you sure you want to approve ALL pending requests shown?");
         confirm.setContentText("This action cannot be undone.");
         
         confirm.showAndWait().ifPresent(response -> {
@@ -311,7 +265,7 @@ public class RequestsController {
     private void onRejectAll() {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Reject All Requests");
-        confirm.setHeaderText("Are you sure you want to reject ALL pending requests?");
+        confirm.setHeaderText("Are you sure you want to reject ALL pending requests shown?");
         confirm.setContentText("This action cannot be undone.");
         
         confirm.showAndWait().ifPresent(response -> {
@@ -321,34 +275,26 @@ public class RequestsController {
         });
     }
     
+    /**
+     * Decides the pending requests loaded in the table, by id. Rows that were
+     * decided elsewhere in the meantime are left as they are.
+     */
     private void updateAllRequestsStatus(String newStatus) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String[] queries = {
-                "UPDATE leave_requests SET status = ? WHERE status = 'Pending'",
-                "UPDATE salary_advance_requests SET status = ? WHERE status = 'Pending'",
-                "UPDATE bank_requests SET status = ? WHERE status = 'Pending'",
-                "UPDATE reimbursements SET status = ? WHERE status = 'Pending'"
-            };
-            
-            int totalUpdated = 0;
-            for (String query : queries) {
-                try (PreparedStatement ps = conn.prepareStatement(query)) {
-                    ps.setString(1, newStatus);
-                    totalUpdated += ps.executeUpdate();
-                }
-            }
-            
-            if (totalUpdated > 0) {
-                showInfo("All " + totalUpdated + " pending requests " + newStatus.toLowerCase() + ".");
-                loadRequests();
-            } else {
-                showInfo("No pending requests found.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error updating all requests: " + e.getMessage());
-            e.printStackTrace();
-            showInfo("Database Error: " + e.getMessage());
+        RequestApprovalService.Batch batch = new RequestApprovalService.Batch();
+        for (Request r : requestList) {
+            if ("Pending".equals(r.getStatus())) batch.add(r.getSource(), r.getSourceId());
+        }
+        if (batch.isEmpty()) {
+            showInfo("No pending requests found.");
+            return;
         }
+
+        ApprovalResult result = RequestApprovalService.decide(batch, newStatus, SessionManager.getCurrentUserId());
+        applyResult(result);
+
+        String msg = result.getDecidedCount() + " pending requests " + newStatus.toLowerCase() + ".";
+        if (result.getSkipped() > 0) msg += " " + result.getSkipped() + " were skipped (no longer pending or failed to update).";
+        showInfo(msg);
     }
 
     private void showInfo(String msg) {
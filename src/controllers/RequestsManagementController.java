@@ -11,8 +11,11 @@ import javafx.event.ActionEvent;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.HBox;
 
+import models.ApprovalResult;
 import models.EmployeeRequest; 
+import services.RequestApprovalService;
 import services.RequestService;
+import utils.SessionManager;
 import java.net.URL;
 import java.time.LocalDate;
 import java.util.ResourceBundle;
@@ -22,6 +25,8 @@ import java.io.File;
 
 public class RequestsManagementController implements Initializable {
 
+    private static final String BULK_COMMENT = "Bulk approved by HR";
+
     @FXML private TableView<EmployeeRequest> tblRequestsList;
     @FXML private TableColumn<EmployeeRequest, Integer> colID; 
     @FXML private TableColumn<EmployeeRequest, String> colEmployee; 
@@ -197,17 +202,22 @@ public class RequestsManagementController implements Initializable {
         List<EmployeeRequest> selectedItems = tblRequestsList.getSelectionModel().getSelectedItems();
         if (selectedItems.isEmpty()) return;
 
-        int count = 0;
+        RequestApprovalService.Batch batch = new RequestApprovalService.Batch();
         for (EmployeeRequest req : selectedItems) {
-            if ("Pending".equals(req.getStatus())) {
+            if ("Pending".equals(req.getStatus())) batch.add(req.getRequestType(), req.getRequestId());
+        }
+        if (batch.isEmpty()) return;
+
+        ApprovalResult result = RequestApprovalService.decide(batch, "Approved", SessionManager.getCurrentUserId(), BULK_COMMENT);
+        // Patch the decided rows in place; the master list is not reloaded
+        for (EmployeeRequest req : masterRequestList) {
+            if (result.isDecided(req.getRequestType(), req.getRequestId())) {
                 req.setStatus("Approved");
-                req.setHrComment("Bulk approved by HR");
-                requestService.updateRequest(req);
-                count++;
+                req.setHrComment(BULK_COMMENT);
             }
         }
         tblRequestsList.refresh();
-        showAlert(AlertType.INFORMATION, "Bulk Action", count + " requests were approved.");
+        showAlert(AlertType.INFORMATION, "Bulk Action", result.getDecidedCount() + " requests were approved.");
     }
 
     private void setupStatusStyling() {
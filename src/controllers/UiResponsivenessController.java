@@ -0,0 +1,73 @@
+package controllers;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import utils.FxWatchdog;
+import utils.RefreshableView;
+
+/**
+ * Admin screen over FxWatchdog: pulse latency per view and the recent
+ * FX-thread stalls with the stack captured when each one started.
+ */
+public class UiResponsivenessController implements RefreshableView {
+
+    @FXML private TextField txtThreshold;
+    @FXML private TableView<FxWatchdog.ViewStats> tblViews;
+    @FXML private TableColumn<FxWatchdog.ViewStats, String> colView;
+    @FXML private TableColumn<FxWatchdog.ViewStats, Long> colPulses;
+    @FXML private TableColumn<FxWatchdog.ViewStats, String> colP50;
+    @FXML private TableColumn<FxWatchdog.ViewStats, String> colP99;
+    @FXML private TableColumn<FxWatchdog.ViewStats, String> colMax;
+    @FXML private TableColumn<FxWatchdog.ViewStats, Long> colStalls;
+    @FXML private ListView<FxWatchdog.Stall> stallList;
+    @FXML private TextArea txtStack;
+
+    @FXML
+    public void initialize() {
+        colView.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().getView()));
+        colPulses.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().getPulses()));
+        colP50.setCellValueFactory(cd -> new ReadOnlyStringWrapper(String.format("%,.1f", cd.getValue().getP50Millis())));
+        colP99.setCellValueFactory(cd -> new ReadOnlyStringWrapper(String.format("%,.1f", cd.getValue().getP99Millis())));
+        colMax.setCellValueFactory(cd -> new ReadOnlyStringWrapper(String.format("%,.1f", cd.getValue().getMaxMillis())));
+        colStalls.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().getStalls()));
+
+        stallList.getSelectionModel().selectedItemProperty().addListener((obs, old, stall) ->
+                txtStack.setText(stall == null ? "" : stall + "\n\n" + stall.getStack()));
+
+        txtThreshold.setText(String.valueOf(FxWatchdog.getStallThresholdMillis()));
+        refresh();
+    }
+
+    @Override
+    public void onViewShown() {
+        refresh();
+    }
+
+    @FXML
+    private void onRefresh() {
+        refresh();
+    }
+
+    @FXML
+    private void onReset() {
+        FxWatchdog.reset();
+        refresh();
+    }
+
+    @FXML
+    private void onApplyThreshold() {
+        try {
+            FxWatchdog.setStallThresholdMillis(Long.parseLong(txtThreshold.getText().trim()));
+        } catch (NumberFormatException e) {
+            txtThreshold.setText(String.valueOf(FxWatchdog.getStallThresholdMillis()));
+        }
+    }
+
+    private void refresh() {
+        tblViews.getItems().setAll(FxWatchdog.viewStats());
+        stallList.getItems().setAll(FxWatchdog.recentStalls());
+        txtStack.clear();
+    }
+}
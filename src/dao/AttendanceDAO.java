@@ -1,7 +1,10 @@
 package dao;
 
 import models.Attendance;
+import services.AttendanceIndexService;
 import utils.DBConnection;
+import utils.AttendanceBitmapIndex;
+import utils.PayrollChangeTracker;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -58,14 +61,33 @@ public class AttendanceDAO {
      */
     public void updateAttendance(int id, LocalDate date, String status, String type, String remarks) {
         String sql = "UPDATE attendance SET attendance_date = ?, status = ?, attendance_type = ?, remarks = ? WHERE attend_id = ?";
+        String ownerSql = "SELECT emp_id, attendance_date FROM attendance WHERE attend_id = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            // Remember whose row this is (and its old date) for payroll change tracking
+            int empId = -1;
+            LocalDate oldDate = null;
+            try (PreparedStatement owner = conn.prepareStatement(ownerSql)) {
+                owner.setInt(1, id);
+                ResultSet rs = owner.executeQuery();
+                if (rs.next()) {
+                    empId = rs.getInt("emp_id");
+                    oldDate = rs.getDate("attendance_date").toLocalDate();
+                }
+            }
+
             ps.setDate(1, Date.valueOf(date));
             ps.setString(2, status);
             ps.setString(3, type); // Fills Type column
             ps.setString(4, remarks);
             ps.setInt(5, id);
-            ps.executeUpdate();
+            if (ps.executeUpdate() > 0 && empId > 0) {
+                PayrollChangeTracker.markDirty(empId, date);
+                PayrollChangeTracker.markDirty(empId, oldDate);
+                AttendanceIndexService.remove(empId, oldDate);
+                AttendanceIndexService.record(empId, date, status);
+            }
         } catch (SQLException e) { 
             System.err.println("Database Error (Update): " + e.getMessage());
         }
@@ -89,6 +111,7 @@ public class AttendanceDAO {
             ps.setString(5, fullName);
             
             int affectedRows = ps.executeUpdate();
+            if (affectedRows > 0) indexInsertedRows(conn, fullName, date, status);
             return affectedRows > 0;
         } catch (SQLException e) {
             System.err.println("Database Error (Save): " + e.getMessage());
@@ -96,6 +119,23 @@ public class AttendanceDAO {
         }
     }
 
+
+    /**
+     * The insert resolves emp_id by name inside the SQL, so look the new row(s) up
+     * to keep the attendance bitmap index in step.
+     */
+    private void indexInsertedRows(Connection conn, String fullName, LocalDate date, String status) throws SQLException {
+        String sql = "SELECT a.emp_id FROM attendance a " +
+                     "JOIN employees e ON a.emp_id = e.emp_id " +
+                     "JOIN users u ON e.user_id = u.user_id " +
+                     "WHERE CONCAT(u.first_name, ' ', u.last_name) = ? AND a.attendance_date = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, fullName);
+            ps.setDate(2, Date.valueOf(date));
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) AttendanceIndexService.record(rs.getInt("emp_id"), date, status);
+        }
+    }
     
     public ObservableList<AttendanceRecord> getMonthlyAttendance(int empId, YearMonth month) {
 
@@ -153,4 +193,23 @@ public class AttendanceDAO {
         } catch (SQLException e) { e.printStackTrace(); }
         return names;
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the presence bitmap index with one sequential scan of attendance.
+     */
+    public AttendanceBitmapIndex loadBitmapIndex() throws SQLException {
+        String sql = "SELECT emp_id, attendance_date, status FROM attendance";
+        AttendanceBitmapIndex index = new AttendanceBitmapIndex();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(5000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    index.set(rs.getInt("emp_id"), rs.getDate("attendance_date").toLocalDate(), rs.getString("status"));
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,125 @@
+package dao;
+
+import models.AttendanceMonthSummary;
+import utils.DBConnection;
+
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads attendance_monthly_rollup, the per-employee monthly totals kept
+ * current by the attendance triggers (see sql.sql). Chart and report queries
+ * hit a handful of pre-aggregated rows instead of scanning attendance.
+ */
+public class AttendanceRollupDAO {
+
+    /**
+     * The employee's last `months` months up to and including the current one,
+     * oldest first. Months without attendance are returned as zero rows so the
+     * chart keeps a continuous axis.
+     */
+    public List<AttendanceMonthSummary> getEmployeeMonths(int empId, int months) {
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(months - 1);
+        String sql = "SELECT year, month, hours, present_days, absent_days, leave_days " +
+                     "FROM attendance_monthly_rollup " +
+                     "WHERE emp_id = ? AND year BETWEEN ? AND ? AND (year * 12 + month) BETWEEN ? AND ?";
+
+        AttendanceMonthSummary[] slots = emptySlots(empId, from, months);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, empId);
+            ps.setInt(2, from.getYear());
+            ps.setInt(3, to.getYear());
+            ps.setInt(4, periodKey(from));
+            ps.setInt(5, periodKey(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) fillSlot(slots, from, empId, rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Attendance Rollup): " + e.getMessage());
+        }
+        return List.of(slots);
+    }
+
+    /**
+     * Organisation-wide totals for the last `months` months, oldest first (HR / admin charts).
+     */
+    public List<AttendanceMonthSummary> getOrganisationMonths(int months) {
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(months - 1);
+        String sql = "SELECT year, month, SUM(hours) AS hours, SUM(present_days) AS present_days, " +
+                     "SUM(absent_days) AS absent_days, SUM(leave_days) AS leave_days " +
+                     "FROM attendance_monthly_rollup " +
+                     "WHERE year BETWEEN ? AND ? AND (year * 12 + month) BETWEEN ? AND ? " +
+                     "GROUP BY year, month";
+
+        AttendanceMonthSummary[] slots = emptySlots(0, from, months);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, from.getYear());
+            ps.setInt(2, to.getYear());
+            ps.setInt(3, periodKey(from));
+            ps.setInt(4, periodKey(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) fillSlot(slots, from, 0, rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Attendance Rollup): " + e.getMessage());
+        }
+        return List.of(slots);
+    }
+
+    /**
+     * Rebuilds the rollup from the attendance table in one pass.
+     * Only needed as a repair step (e.g. after data was loaded with triggers disabled).
+     */
+    public boolean rebuild() {
+        String clearSql = "DELETE FROM attendance_monthly_rollup";
+        String fillSql = "INSERT INTO attendance_monthly_rollup " +
+                         "(emp_id, year, month, hours, present_days, absent_days, leave_days) " +
+                         "SELECT emp_id, YEAR(attendance_date), MONTH(attendance_date), " +
+                         "SUM(attendance_hours(time_in, time_out)), " +
+                         "SUM(status = 'Present'), SUM(status = 'Absent'), SUM(status = 'Leave') " +
+                         "FROM attendance GROUP BY emp_id, YEAR(attendance_date), MONTH(attendance_date)";
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate(clearSql);
+                st.executeUpdate(fillSql);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Attendance Rollup Rebuild): " + e.getMessage());
+            return false;
+        }
+    }
+
+    // year * 12 + month is monotonic, so a month range spanning a year boundary is one BETWEEN;
+    // the plain year BETWEEN in front of it lets the (year, month) index narrow the scan
+    private static int periodKey(YearMonth ym) {
+        return ym.getYear() * 12 + ym.getMonthValue();
+    }
+
+    private static AttendanceMonthSummary[] emptySlots(int empId, YearMonth from, int months) {
+        AttendanceMonthSummary[] slots = new AttendanceMonthSummary[months];
+        for (int i = 0; i < months; i++) {
+            slots[i] = new AttendanceMonthSummary(empId, from.plusMonths(i), 0, 0, 0, 0);
+        }
+        return slots;
+    }
+
+    private static void fillSlot(AttendanceMonthSummary[] slots, YearMonth from, int empId, ResultSet rs) throws SQLException {
+        YearMonth period = YearMonth.of(rs.getInt("year"), rs.getInt("month"));
+        int i = periodKey(period) - periodKey(from);
+        if (i < 0 || i >= slots.length) return;
+        slots[i] = new AttendanceMonthSummary(empId, period, rs.getDouble("hours"),
+                rs.getInt("present_days"), rs.getInt("absent_days"), rs.getInt("leave_days"));
+    }
+}
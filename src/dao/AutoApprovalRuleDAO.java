@@ -0,0 +1,76 @@
+package dao;
+
+import models.AutoApprovalRule;
+import utils.DBConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads auto_approval_rule (see sql.sql).
+ */
+public class AutoApprovalRuleDAO {
+
+    private static final String SWEEP_LOCK = "payroll_auto_approval_sweep";
+
+    /**
+     * Work run under the sweep lock.
+     */
+    @FunctionalInterface
+    public interface LockedTask {
+        int run() throws SQLException;
+    }
+
+    /**
+     * Runs the task while this session holds the MySQL named lock for the
+     * auto-approval sweep, so only one process sweeps at a time.
+     * @return the task's result, or -1 without running it if another process holds the lock
+     */
+    public int whileSweepLocked(LockedTask task) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement lock = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                lock.setString(1, SWEEP_LOCK);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) return -1;
+                }
+            }
+            try {
+                return task.run();
+            } finally {
+                try (PreparedStatement release = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    release.setString(1, SWEEP_LOCK);
+                    release.executeQuery().close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Enabled rules, in priority order.
+     */
+    public List<AutoApprovalRule> loadEnabled() throws SQLException {
+        String sql = "SELECT rule_id, name, source, leave_type, max_amount, max_days, require_balance, no_overlap, priority " +
+                     "FROM auto_approval_rule WHERE enabled = TRUE ORDER BY priority, rule_id";
+        List<AutoApprovalRule> rules = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                AutoApprovalRule rule = new AutoApprovalRule();
+                rule.setRuleId(rs.getInt("rule_id"));
+                rule.setName(rs.getString("name"));
+                rule.setSource(rs.getString("source"));
+                rule.setLeaveType(rs.getString("leave_type"));
+                rule.setMaxAmount(rs.getBigDecimal("max_amount"));
+                double maxDays = rs.getDouble("max_days");
+                rule.setMaxDays(rs.wasNull() ? null : maxDays);
+                rule.setRequireBalance(rs.getBoolean("require_balance"));
+                rule.setNoOverlap(rs.getBoolean("no_overlap"));
+                rule.setPriority(rs.getInt("priority"));
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,64 @@
+package dao;
+
+import models.CalendarEvent;
+import models.LeaveSpan;
+import utils.DBConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk reads behind the calendar interval index (CalendarIndexService).
+ */
+public class CalendarDAO {
+
+    /**
+     * Every calendar event (Company, Holiday and all employees' Personal events).
+     */
+    public List<CalendarEvent> loadAllEvents() throws SQLException {
+        String sql = "SELECT event_id, emp_id, event_date, event_time, description, type, details " +
+                     "FROM calendar_events";
+        List<CalendarEvent> events = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                events.add(new CalendarEvent(
+                    rs.getInt("event_id"),
+                    rs.getInt("emp_id"),
+                    rs.getDate("event_date").toLocalDate(),
+                    rs.getString("event_time"),
+                    rs.getString("description"),
+                    rs.getString("type"),
+                    rs.getString("details")
+                ));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Leave that still occupies the calendar: Approved and Pending requests.
+     */
+    public List<LeaveSpan> loadActiveLeave() throws SQLException {
+        String sql = "SELECT leave_id, emp_id, leave_type, start_date, end_date, status " +
+                     "FROM leave_requests WHERE status IN ('Approved', 'Pending')";
+        List<LeaveSpan> spans = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                spans.add(new LeaveSpan(
+                    rs.getInt("leave_id"),
+                    rs.getInt("emp_id"),
+                    rs.getString("leave_type"),
+                    rs.getDate("start_date").toLocalDate(),
+                    rs.getDate("end_date").toLocalDate(),
+                    rs.getString("status")
+                ));
+            }
+        }
+        return spans;
+    }
+}
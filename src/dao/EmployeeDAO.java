@@ -224,10 +224,10 @@ public class EmployeeDAO {
     }
 
     /**
-     * Get remaining leave balance for the employee
+     * Get remaining leave balance for the employee (all ledger-tracked types)
      */
     public int getRemainingLeaveDays(int empId) {
-        String sql = "SELECT remaining_days FROM leave_balance WHERE emp_id = ?";
+        String sql = "SELECT FLOOR(IFNULL(SUM(balance), 0)) AS remaining_days FROM leave_ledger_balance WHERE emp_id = ?";
         try (Connection con = DBConnection.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
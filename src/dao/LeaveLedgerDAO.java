@@ -0,0 +1,104 @@
+package dao;
+
+import utils.DBConnection;
+
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * leave_ledger / leave_ledger_balance access. Balances are maintained by the
+ * ledger triggers (see sql.sql); the leave_requests triggers reserve days
+ * while a request is Pending and post usage when it is approved.
+ */
+public class LeaveLedgerDAO {
+
+    // One month of every policy for every active employee; December carries the rounding remainder
+    private static final String ACCRUAL_SQL =
+        "INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, period, note) " +
+        "SELECT e.emp_id, p.leave_type, 'Accrual', " +
+        "       CASE WHEN ? = 12 THEN p.annual_days - 11 * ROUND(p.annual_days / 12, 2) " +
+        "            ELSE ROUND(p.annual_days / 12, 2) END, " +
+        "       ?, ?, 'Monthly accrual' " +
+        "FROM employees e CROSS JOIN leave_policy p " +
+        "WHERE e.status = 'Active' AND (e.date_joined IS NULL OR e.date_joined <= ?) " +
+        "ON DUPLICATE KEY UPDATE entry_id = entry_id";
+
+    /**
+     * leave_type -> annual entitlement, for every type the ledger tracks.
+     */
+    public Map<String, Double> loadPolicies() throws SQLException {
+        Map<String, Double> policies = new LinkedHashMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT leave_type, annual_days FROM leave_policy ORDER BY leave_type");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) policies.put(rs.getString("leave_type"), rs.getDouble("annual_days"));
+        }
+        return policies;
+    }
+
+    /**
+     * emp_id -> (leave_type -> {balance, reserved}), one scan of leave_ledger_balance.
+     * balance is what has been posted; reserved is held by Pending requests.
+     */
+    public Map<Integer, Map<String, double[]>> loadBalances() throws SQLException {
+        Map<Integer, Map<String, double[]>> balances = new HashMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT emp_id, leave_type, balance, reserved FROM leave_ledger_balance");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                balances.computeIfAbsent(rs.getInt("emp_id"), k -> new HashMap<>())
+                        .put(rs.getString("leave_type"), new double[] { rs.getDouble("balance"), rs.getDouble("reserved") });
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * @return the latest period with accrual entries, or null if none were ever posted
+     */
+    public YearMonth lastAccruedPeriod() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT MAX(period) FROM leave_ledger WHERE entry_type = 'Accrual'");
+             ResultSet rs = ps.executeQuery()) {
+            String period = rs.next() ? rs.getString(1) : null;
+            return period == null ? null : YearMonth.parse(period);
+        }
+    }
+
+    /**
+     * Posts one month's accrual for everyone in a single statement.
+     * Idempotent: a period already posted for an employee/type is left alone.
+     * @return number of ledger rows inserted
+     */
+    public int accrue(YearMonth period) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(ACCRUAL_SQL)) {
+            ps.setInt(1, period.getMonthValue());
+            ps.setDate(2, Date.valueOf(period.atDay(1)));
+            ps.setString(3, period.toString());
+            ps.setDate(4, Date.valueOf(period.atEndOfMonth()));
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Manual correction (positive grants days, negative removes them).
+     */
+    public boolean addAdjustment(int empId, String leaveType, double days, String note, int createdBy) throws SQLException {
+        String sql = "INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, note, created_by) " +
+                     "VALUES (?, ?, 'Adjustment', ?, CURDATE(), ?, ?)";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, empId);
+            ps.setString(2, leaveType);
+            ps.setDouble(3, days);
+            ps.setString(4, note);
+            if (createdBy > 0) ps.setInt(5, createdBy); else ps.setNull(5, Types.INTEGER);
+            return ps.executeUpdate() > 0;
+        }
+    }
+}
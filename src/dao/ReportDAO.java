@@ -65,14 +65,14 @@ public class ReportDAO {
     // --- 2. Attendance Summary (FIXED: Correct join path) ---
 
     public List<Report> getAttendanceSummaryTableData() {
-        // SQL query corrected to join attendance -> employees -> users to retrieve the employee name
+        // Reads the monthly rollup (one row per employee per month) instead of every attendance row
         // MySQL uses CONCAT instead of || for string concatenation
         String sql = "SELECT CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
-                     "SUM(CASE WHEN a.status = 'Present' THEN 1 ELSE 0 END), " +
-                     "SUM(CASE WHEN a.status = 'Absent' THEN 1 ELSE 0 END), " +
-                     "SUM(CASE WHEN a.status = 'Leave' THEN 1 ELSE 0 END) " +
-                     "FROM attendance a " +
-                     "JOIN employees e ON a.emp_id = e.emp_id " +
+                     "SUM(r.present_days), " +
+                     "SUM(r.absent_days), " +
+                     "SUM(r.leave_days) " +
+                     "FROM attendance_monthly_rollup r " +
+                     "JOIN employees e ON r.emp_id = e.emp_id " +
                      "JOIN users u ON e.user_id = u.user_id " +
                      "GROUP BY employee_name " +
                      "ORDER BY employee_name";
@@ -83,27 +83,16 @@ public class ReportDAO {
     // --- 3. Requests Summary (FIXED: Uses UNION ALL for multiple request tables) ---
 
     public List<Report> getRequestsSummaryTableData() {
-        // MySQL-compatible query using UNION ALL to aggregate data from multiple request tables
-        // Table name corrected from 'leaves' to 'leave_requests'
-        String sql = "SELECT 'Leave' AS type, COUNT(*) AS total, " +
-                     "SUM(CASE WHEN status = 'Approved' THEN 1 ELSE 0 END) AS approved, " +
-                     "SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END) AS pending " +
-                     "FROM leave_requests " +
-                     "UNION ALL " +
-                     "SELECT 'Bank Change' AS type, COUNT(*) AS total, " +
-                     "SUM(CASE WHEN status = 'Approved' THEN 1 ELSE 0 END) AS approved, " +
-                     "SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END) AS pending " +
-                     "FROM bank_requests " +
-                     "UNION ALL " +
-                     "SELECT 'Salary Advance' AS type, COUNT(*) AS total, " +
-                     "SUM(CASE WHEN status = 'Approved' THEN 1 ELSE 0 END) AS approved, " +
-                     "SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END) AS pending " +
-                     "FROM salary_advance_requests " +
-                     "UNION ALL " +
-                     "SELECT 'Reimbursement' AS type, COUNT(*) AS total, " +
-                     "SUM(CASE WHEN status = 'Approved' THEN 1 ELSE 0 END) AS approved, " +
-                     "SUM(CASE WHEN status = 'Pending' THEN 1 ELSE 0 END) AS pending " +
-                     "FROM reimbursements";
+        // One GROUP BY over request_inbox instead of four table scans; the source list
+        // keeps a row (with zeros) for request types that have no requests yet
+        String sql = "SELECT s.source AS type, COUNT(i.source_id) AS total, " +
+                     "COALESCE(SUM(i.status = 'Approved'), 0) AS approved, " +
+                     "COALESCE(SUM(i.status = 'Pending'), 0) AS pending " +
+                     "FROM (SELECT 'Leave' AS source UNION ALL SELECT 'Bank Change' " +
+                     "      UNION ALL SELECT 'Salary Advance' UNION ALL SELECT 'Reimbursement') s " +
+                     "LEFT JOIN request_inbox i ON i.source = s.source " +
+                     "GROUP BY s.source " +
+                     "ORDER BY FIELD(s.source, 'Leave', 'Bank Change', 'Salary Advance', 'Reimbursement')";
         return executeReportQuery(sql);
     }
 }
\ No newline at end of file
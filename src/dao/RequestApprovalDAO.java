@@ -0,0 +1,167 @@
+package dao;
+
+import models.InboxEntry;
+import utils.DBConnection;
+import utils.NotificationService;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Id-based status changes for one request table at a time.
+ *
+ * decide() runs in a single transaction: lock the still-Pending rows among the
+ * ids, update them with one statement, and write the employee notifications
+ * and audit_log rows as JDBC batches. Leave balances follow through the
+ * leave_requests ledger trigger and request_inbox through its triggers.
+ */
+public class RequestApprovalDAO {
+
+    // Keep IN lists well under max_allowed_packet / placeholder limits
+    private static final int CHUNK = 1000;
+
+    // source -> {table, id column}
+    private static final Map<String, String[]> TABLES = Map.of(
+            InboxEntry.LEAVE, new String[] { "leave_requests", "leave_id" },
+            InboxEntry.BANK_CHANGE, new String[] { "bank_requests", "request_id" },
+            InboxEntry.SALARY_ADVANCE, new String[] { "salary_advance_requests", "advance_id" },
+            InboxEntry.REIMBURSEMENT, new String[] { "reimbursements", "reimb_id" });
+
+    /**
+     * A request that changed status, with what the side effects need.
+     */
+    public static class Decided {
+        public final int sourceId;
+        public final int empId;
+        public final int userId;
+        public final LocalDate startDate;   // leave only
+        public final LocalDate endDate;     // leave only
+
+        Decided(int sourceId, int empId, int userId, LocalDate startDate, LocalDate endDate) {
+            this.sourceId = sourceId;
+            this.empId = empId;
+            this.userId = userId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+    }
+
+    public static boolean isKnownSource(String source) {
+        return TABLES.containsKey(source);
+    }
+
+    /**
+     * Moves the Pending requests among ids to newStatus. Ids that are missing or
+     * already decided are ignored. actorUserId <= 0 means a system decision
+     * (auto-approval): its audit rows are filed under the requester, tagged [auto].
+     * A non-blank comment is added to the employee's notification and the audit row.
+     * @return the requests that changed status
+     */
+    public List<Decided> decide(String source, List<Integer> ids, String newStatus, int actorUserId,
+                                String comment) throws SQLException {
+        String[] table = TABLES.get(source);
+        if (table == null) throw new IllegalArgumentException("Unknown request source: " + source);
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        boolean leave = InboxEntry.LEAVE.equals(source);
+        List<Decided> decided = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < ids.size(); from += CHUNK) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + CHUNK, ids.size()));
+                    decided.addAll(lockPending(conn, table, leave, chunk));
+                }
+                if (!decided.isEmpty()) {
+                    updateStatus(conn, table, decided, newStatus);
+                    String note = comment == null || comment.isBlank() ? "" : " Comment: " + comment.trim();
+                    insertNotifications(conn, source, decided, newStatus, note);
+                    insertAudit(conn, source, decided, newStatus, actorUserId, note);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        // Counted once committed: a rolled-back table queued nothing
+        NotificationService.QUEUED.add(decided.size());
+        return decided;
+    }
+
+    private List<Decided> lockPending(Connection conn, String[] table, boolean leave, List<Integer> ids) throws SQLException {
+        String sql = "SELECT r." + table[1] + " AS id, r.emp_id, e.user_id" +
+                     (leave ? ", r.start_date, r.end_date" : "") +
+                     " FROM " + table[0] + " r JOIN employees e ON r.emp_id = e.emp_id" +
+                     " WHERE r." + table[1] + " IN (" + placeholders(ids.size()) + ") AND r.status = 'Pending'" +
+                     " FOR UPDATE";
+        List<Decided> rows = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) ps.setInt(i + 1, ids.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate start = null;
+                    LocalDate end = null;
+                    if (leave) {
+                        Date s = rs.getDate("start_date");
+                        Date e = rs.getDate("end_date");
+                        if (s != null) start = s.toLocalDate();
+                        if (e != null) end = e.toLocalDate();
+                    }
+                    rows.add(new Decided(rs.getInt("id"), rs.getInt("emp_id"), rs.getInt("user_id"), start, end));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void updateStatus(Connection conn, String[] table, List<Decided> rows, String newStatus) throws SQLException {
+        for (int from = 0; from < rows.size(); from += CHUNK) {
+            List<Decided> chunk = rows.subList(from, Math.min(from + CHUNK, rows.size()));
+            String sql = "UPDATE " + table[0] + " SET status = ? WHERE " + table[1] +
+                         " IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, newStatus);
+                for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 2, chunk.get(i).sourceId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private void insertNotifications(Connection conn, String source, List<Decided> rows, String newStatus,
+                                     String note) throws SQLException {
+        String sql = "INSERT INTO notifications (user_id, title, message, target, status) VALUES (?, ?, ?, 'Requests', 'Unread')";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Decided d : rows) {
+                ps.setInt(1, d.userId);
+                ps.setString(2, source + " Request " + newStatus);
+                ps.setString(3, "Your " + source.toLowerCase() + " request #" + d.sourceId + " was " + newStatus.toLowerCase() + "." + note);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertAudit(Connection conn, String source, List<Decided> rows, String newStatus, int actorUserId,
+                             String note) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO audit_log (user_id, action) VALUES (?, ?)")) {
+            for (Decided d : rows) {
+                boolean system = actorUserId <= 0;
+                ps.setInt(1, system ? d.userId : actorUserId);
+                ps.setString(2, newStatus + " " + source + " request #" + d.sourceId + " (Emp ID " + d.empId + ")" +
+                                (system ? " [auto]" : "") + note);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+}
@@ -0,0 +1,145 @@
+package dao;
+
+import models.InboxEntry;
+import utils.DBConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads request_inbox, the trigger-maintained projection of the four request
+ * tables (see sql.sql). Pages are served newest first from
+ * idx_inbox_status / idx_inbox_emp / idx_inbox_submitted depending on the filter.
+ * Ties on submitted_at are broken on the primary key (source, source_id), so
+ * the order is total and LIMIT/OFFSET pages never repeat or skip a row; InnoDB
+ * appends the primary key to every secondary index, so the indexes still
+ * deliver rows in that order.
+ */
+public class RequestInboxDAO {
+
+    private static final String SELECT =
+        "SELECT i.source, i.source_id, i.emp_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
+        "i.status, i.submitted_at, i.subtype, i.reason, i.amount, i.old_value, i.new_value, " +
+        "i.start_date, i.end_date, i.total_days " +
+        "FROM request_inbox i " +
+        "JOIN employees e ON i.emp_id = e.emp_id " +
+        "JOIN users u ON e.user_id = u.user_id ";
+
+    private static final String PAGE_ORDER = " ORDER BY i.submitted_at DESC, i.source DESC, i.source_id DESC LIMIT ? OFFSET ?";
+
+    /**
+     * One page of requests, newest first. Null filters are ignored.
+     */
+    public List<InboxEntry> findPage(String status, Integer empId, String source, int offset, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT).append("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        if (status != null) { sql.append(" AND i.status = ?"); params.add(status); }
+        if (empId != null) { sql.append(" AND i.emp_id = ?"); params.add(empId); }
+        if (source != null) { sql.append(" AND i.source = ?"); params.add(source); }
+        sql.append(PAGE_ORDER);
+        params.add(limit);
+        params.add(offset);
+        return query(sql.toString(), params);
+    }
+
+    /**
+     * One page of requests that have been decided (not Pending), newest first.
+     */
+    public List<InboxEntry> findDecidedPage(int offset, int limit) throws SQLException {
+        return query(SELECT + "WHERE i.status <> 'Pending'" + PAGE_ORDER, List.of(limit, offset));
+    }
+
+    private List<InboxEntry> query(String sql, List<Object> params) throws SQLException {
+        List<InboxEntry> page = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) ps.setObject(i + 1, params.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) page.add(map(rs));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * The still-Pending requests among the given ids of one source.
+     */
+    public List<InboxEntry> findPending(String source, List<Integer> ids) throws SQLException {
+        List<InboxEntry> rows = new ArrayList<>();
+        if (ids.isEmpty()) return rows;
+        String sql = SELECT + "WHERE i.source = ? AND i.status = 'Pending' AND i.source_id IN (" +
+                     String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, source);
+            for (int i = 0; i < ids.size(); i++) ps.setInt(i + 2, ids.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows.add(map(rs));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Number of requests with the status, optionally limited to one or more sources.
+     */
+    public int count(String status, String... sources) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM request_inbox WHERE status = ?");
+        if (sources.length > 0) {
+            sql.append(" AND source IN (").append(String.join(",", Collections.nCopies(sources.length, "?"))).append(")");
+        }
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            ps.setString(1, status);
+            for (int i = 0; i < sources.length; i++) ps.setString(i + 2, sources[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * source -> {total, approved, pending}, in source order.
+     */
+    public Map<String, int[]> countsBySource() throws SQLException {
+        String sql = "SELECT source, COUNT(*) AS total, " +
+                     "SUM(status = 'Approved') AS approved, SUM(status = 'Pending') AS pending " +
+                     "FROM request_inbox GROUP BY source ORDER BY source";
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                counts.put(rs.getString("source"),
+                        new int[] { rs.getInt("total"), rs.getInt("approved"), rs.getInt("pending") });
+            }
+        }
+        return counts;
+    }
+
+    private static InboxEntry map(ResultSet rs) throws SQLException {
+        InboxEntry entry = new InboxEntry();
+        entry.setSource(rs.getString("source"));
+        entry.setSourceId(rs.getInt("source_id"));
+        entry.setEmpId(rs.getInt("emp_id"));
+        entry.setEmployeeName(rs.getString("employee_name"));
+        entry.setStatus(rs.getString("status"));
+        Timestamp ts = rs.getTimestamp("submitted_at");
+        if (ts != null) entry.setSubmittedAt(ts.toLocalDateTime());
+        entry.setSubtype(rs.getString("subtype"));
+        entry.setReason(rs.getString("reason"));
+        entry.setAmount(rs.getBigDecimal("amount"));
+        entry.setOldValue(rs.getString("old_value"));
+        entry.setNewValue(rs.getString("new_value"));
+        Date start = rs.getDate("start_date");
+        if (start != null) entry.setStartDate(start.toLocalDate());
+        Date end = rs.getDate("end_date");
+        if (end != null) entry.setEndDate(end.toLocalDate());
+        entry.setTotalDays(rs.getDouble("total_days"));
+        return entry;
+    }
+}
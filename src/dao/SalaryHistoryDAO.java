@@ -0,0 +1,234 @@
+package dao;
+
+import models.RetroPayChange;
+import utils.DBConnection;
+import utils.SalaryIntervalIndex;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SalaryHistoryDAO {
+
+    // effective_from for a salary whose start is unknown (no date_joined)
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+
+    /**
+     * Records a salary change effective from the given date on the caller's connection
+     * (so it joins the caller's transaction).
+     * The open range is closed the day before, and any rows starting on/after the
+     * effective date are superseded by the new one. An employee without history
+     * first gets previousSalary from date_joined (or the earliest date), so the
+     * days before the change keep their salary.
+     */
+    public void recordChange(Connection conn, int empId, double previousSalary, double salary,
+                             LocalDate effectiveFrom, int changedBy) throws SQLException {
+        String openSql = "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to) " +
+                         "SELECT e.emp_id, ?, COALESCE(e.date_joined, ?), NULL FROM employees e " +
+                         "WHERE e.emp_id = ? AND NOT EXISTS (SELECT 1 FROM salary_history h WHERE h.emp_id = e.emp_id)";
+        String closeSql = "UPDATE salary_history SET effective_to = ? " +
+                          "WHERE emp_id = ? AND effective_from < ? AND (effective_to IS NULL OR effective_to >= ?)";
+        String supersedeSql = "DELETE FROM salary_history WHERE emp_id = ? AND effective_from >= ?";
+        String insertSql = "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to, changed_by) " +
+                           "VALUES (?, ?, ?, NULL, ?)";
+
+        Date effective = Date.valueOf(effectiveFrom);
+        try (PreparedStatement open = conn.prepareStatement(openSql);
+             PreparedStatement close = conn.prepareStatement(closeSql);
+             PreparedStatement supersede = conn.prepareStatement(supersedeSql);
+             PreparedStatement insert = conn.prepareStatement(insertSql)) {
+
+            open.setDouble(1, previousSalary);
+            open.setDate(2, Date.valueOf(EARLIEST));
+            open.setInt(3, empId);
+            open.executeUpdate();
+
+            close.setDate(1, Date.valueOf(effectiveFrom.minusDays(1)));
+            close.setInt(2, empId);
+            close.setDate(3, effective);
+            close.setDate(4, effective);
+            close.executeUpdate();
+
+            supersede.setInt(1, empId);
+            supersede.setDate(2, effective);
+            supersede.executeUpdate();
+
+            insert.setInt(1, empId);
+            insert.setDouble(2, salary);
+            insert.setDate(3, effective);
+            if (changedBy > 0) insert.setInt(4, changedBy); else insert.setNull(4, Types.INTEGER);
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * Batched variant of recordChange for many employees at once (retro pay).
+     * Runs on the caller's connection/transaction; call openMissing first.
+     */
+    public void recordChanges(Connection conn, List<RetroPayChange> changes, int changedBy) throws SQLException {
+        String closeSql = "UPDATE salary_history SET effective_to = ? " +
+                          "WHERE emp_id = ? AND effective_from < ? AND (effective_to IS NULL OR effective_to >= ?)";
+        String supersedeSql = "DELETE FROM salary_history WHERE emp_id = ? AND effective_from >= ?";
+        String insertSql = "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to, changed_by) " +
+                           "VALUES (?, ?, ?, NULL, ?)";
+
+        try (PreparedStatement close = conn.prepareStatement(closeSql);
+             PreparedStatement supersede = conn.prepareStatement(supersedeSql);
+             PreparedStatement insert = conn.prepareStatement(insertSql)) {
+
+            for (RetroPayChange c : changes) {
+                Date effective = Date.valueOf(c.getEffectiveFrom());
+                close.setDate(1, Date.valueOf(c.getEffectiveFrom().minusDays(1)));
+                close.setInt(2, c.getEmpId());
+                close.setDate(3, effective);
+                close.setDate(4, effective);
+                close.addBatch();
+
+                supersede.setInt(1, c.getEmpId());
+                supersede.setDate(2, effective);
+                supersede.addBatch();
+
+                insert.setInt(1, c.getEmpId());
+                insert.setDouble(2, c.getNewSalary());
+                insert.setDate(3, effective);
+                if (changedBy > 0) insert.setInt(4, changedBy); else insert.setNull(4, Types.INTEGER);
+                insert.addBatch();
+            }
+
+            // Order matters: supersede must run before the new rows exist
+            close.executeBatch();
+            supersede.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Opens a range at the current employees.salary, from date_joined (or the
+     * earliest date), for each listed employee that has no history yet, so a
+     * later change closes a previous salary instead of starting from nothing.
+     * Runs on the caller's connection, before employees.salary is changed.
+     */
+    public void openMissing(Connection conn, List<Integer> empIds) throws SQLException {
+        String sql = "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to) " +
+                     "SELECT e.emp_id, COALESCE(e.salary, 0), COALESCE(e.date_joined, ?), NULL FROM employees e " +
+                     "WHERE e.emp_id = ? AND NOT EXISTS (SELECT 1 FROM salary_history h WHERE h.emp_id = e.emp_id)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int empId : empIds) {
+                ps.setDate(1, Date.valueOf(EARLIEST));
+                ps.setInt(2, empId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Applies percentage raises (RetroPayChange.isRaise) on the caller's connection.
+     * The history is kept: the range running across the effective date is split
+     * there, and every range from the effective date on is scaled by the raise.
+     */
+    public void recordRaises(Connection conn, List<RetroPayChange> raises, int changedBy) throws SQLException {
+        String splitSql = "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to, changed_by) " +
+                          "SELECT emp_id, salary, ?, effective_to, changed_by FROM salary_history " +
+                          "WHERE emp_id = ? AND effective_from < ? AND (effective_to IS NULL OR effective_to >= ?)";
+        String closeSql = "UPDATE salary_history SET effective_to = ? " +
+                          "WHERE emp_id = ? AND effective_from < ? AND (effective_to IS NULL OR effective_to >= ?)";
+        String scaleSql = "UPDATE salary_history SET salary = ROUND(salary * ?, 2), changed_by = ? " +
+                          "WHERE emp_id = ? AND effective_from >= ?";
+
+        try (PreparedStatement split = conn.prepareStatement(splitSql);
+             PreparedStatement close = conn.prepareStatement(closeSql);
+             PreparedStatement scale = conn.prepareStatement(scaleSql)) {
+
+            for (RetroPayChange c : raises) {
+                Date effective = Date.valueOf(c.getEffectiveFrom());
+                split.setDate(1, effective);
+                split.setInt(2, c.getEmpId());
+                split.setDate(3, effective);
+                split.setDate(4, effective);
+                split.addBatch();
+
+                close.setDate(1, Date.valueOf(c.getEffectiveFrom().minusDays(1)));
+                close.setInt(2, c.getEmpId());
+                close.setDate(3, effective);
+                close.setDate(4, effective);
+                close.addBatch();
+
+                scale.setDouble(1, 1.0 + c.getRaisePercent() / 100.0);
+                if (changedBy > 0) scale.setInt(2, changedBy); else scale.setNull(2, Types.INTEGER);
+                scale.setInt(3, c.getEmpId());
+                scale.setDate(4, effective);
+                scale.addBatch();
+            }
+
+            // Order matters: the split copies must exist before the originals are closed
+            split.executeBatch();
+            close.executeBatch();
+            scale.executeBatch();
+        }
+    }
+
+    /**
+     * Standalone variant that opens its own connection.
+     */
+    public boolean recordChange(int empId, double previousSalary, double salary, LocalDate effectiveFrom, int changedBy) {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                recordChange(conn, empId, previousSalary, salary, effectiveFrom, changedBy);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Salary History): " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the entire history into a point-in-time index with one sequential scan.
+     */
+    public SalaryIntervalIndex loadIndex() throws SQLException {
+        String sql = "SELECT emp_id, salary, effective_from, effective_to FROM salary_history " +
+                     "ORDER BY emp_id, effective_from";
+        SalaryIntervalIndex.Builder builder = new SalaryIntervalIndex.Builder();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(5000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Date to = rs.getDate("effective_to");
+                    builder.add(rs.getInt("emp_id"),
+                                rs.getDate("effective_from").toLocalDate(),
+                                to == null ? null : to.toLocalDate(),
+                                rs.getDouble("salary"));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Single point-in-time lookup straight from the table (for callers that
+     * only need one value and don't want to build the index).
+     */
+    public Double getSalaryOn(int empId, LocalDate date) {
+        String sql = "SELECT salary FROM salary_history WHERE emp_id = ? AND effective_from <= ? " +
+                     "AND (effective_to IS NULL OR effective_to >= ?) ORDER BY effective_from DESC LIMIT 1";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setDate(3, Date.valueOf(date));
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) return rs.getDouble("salary");
+        } catch (SQLException e) {
+            System.err.println("Database Error (Salary History): " + e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package models;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of one RequestApprovalService call: which requests changed status
+ * (by source and source id) and how many were skipped because they were no
+ * longer Pending or could not be written.
+ */
+public class ApprovalResult {
+
+    private final String status;
+    private final Map<String, Set<Integer>> decided = new HashMap<>();
+    private int skipped;
+    private int failedSources;
+
+    public ApprovalResult(String status) {
+        this.status = status;
+    }
+
+    public void addDecided(String source, int sourceId) {
+        decided.computeIfAbsent(source, k -> new HashSet<>()).add(sourceId);
+    }
+
+    public void addSkipped(int count) {
+        skipped += count;
+    }
+
+    public void addFailedSource() {
+        failedSources++;
+    }
+
+    /**
+     * The status the requests were moved to (Approved / Rejected).
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isDecided(String source, int sourceId) {
+        return decided.getOrDefault(source, Collections.emptySet()).contains(sourceId);
+    }
+
+    public Set<Integer> getDecided(String source) {
+        return decided.getOrDefault(source, Collections.emptySet());
+    }
+
+    public int getDecidedCount() {
+        int count = 0;
+        for (Set<Integer> ids : decided.values()) count += ids.size();
+        return count;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Number of request tables whose transaction was rolled back.
+     */
+    public int getFailedSources() {
+        return failedSources;
+    }
+}
@@ -0,0 +1,34 @@
+package models;
+
+import java.time.YearMonth;
+
+/**
+ * One row of attendance_monthly_rollup (or the sum of several rows when
+ * aggregated across employees; empId is 0 in that case).
+ */
+public class AttendanceMonthSummary {
+
+    private final int empId;
+    private final YearMonth period;
+    private final double hours;
+    private final int presentDays;
+    private final int absentDays;
+    private final int leaveDays;
+
+    public AttendanceMonthSummary(int empId, YearMonth period, double hours,
+                                  int presentDays, int absentDays, int leaveDays) {
+        this.empId = empId;
+        this.period = period;
+        this.hours = hours;
+        this.presentDays = presentDays;
+        this.absentDays = absentDays;
+        this.leaveDays = leaveDays;
+    }
+
+    public int getEmpId() { return empId; }
+    public YearMonth getPeriod() { return period; }
+    public double getHours() { return hours; }
+    public int getPresentDays() { return presentDays; }
+    public int getAbsentDays() { return absentDays; }
+    public int getLeaveDays() { return leaveDays; }
+}
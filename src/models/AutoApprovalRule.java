@@ -0,0 +1,52 @@
+package models;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of auto_approval_rule. Null / false conditions are not checked;
+ * a request matches the rule when every set condition holds.
+ */
+public class AutoApprovalRule {
+
+    private int ruleId;
+    private String name;
+    private String source;
+    private String leaveType;
+    private BigDecimal maxAmount;
+    private Double maxDays;
+    private boolean requireBalance;
+    private boolean noOverlap;
+    private int priority;
+
+    public int getRuleId() { return ruleId; }
+    public void setRuleId(int ruleId) { this.ruleId = ruleId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public String getLeaveType() { return leaveType; }
+    public void setLeaveType(String leaveType) { this.leaveType = leaveType; }
+
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+
+    public Double getMaxDays() { return maxDays; }
+    public void setMaxDays(Double maxDays) { this.maxDays = maxDays; }
+
+    public boolean isRequireBalance() { return requireBalance; }
+    public void setRequireBalance(boolean requireBalance) { this.requireBalance = requireBalance; }
+
+    public boolean isNoOverlap() { return noOverlap; }
+    public void setNoOverlap(boolean noOverlap) { this.noOverlap = noOverlap; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    @Override
+    public String toString() {
+        return name + " (" + source + ")";
+    }
+}
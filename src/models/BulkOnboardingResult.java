@@ -0,0 +1,73 @@
+package models;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome (and running progress) of a bulk employee onboarding import.
+ */
+public class BulkOnboardingResult {
+
+    /**
+     * One CSV row that was not imported.
+     */
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + message;
+        }
+    }
+
+    private final Path sourceFile;
+    private final List<RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long inserted;
+    private long elapsedMillis;
+    private double progress;
+
+    public BulkOnboardingResult(Path sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    public Path getSourceFile() { return sourceFile; }
+
+    public long getRowsRead() { return rowsRead; }
+    public void addRow() { rowsRead++; }
+
+    public long getInserted() { return inserted; }
+    public void addInserted(long count) { inserted += count; }
+
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+    public void addError(long line, String message) { errors.add(new RowError(line, message)); }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    /**
+     * Fraction of the file consumed so far, 0.0 - 1.0.
+     */
+    public double getProgress() { return progress; }
+    public void setProgress(double progress) { this.progress = progress; }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+
+    public String getSummary() {
+        return String.format("Bulk onboarding: %d row(s) read, %d employee(s) created, %d error(s) (%d ms, %d rows/s)",
+                rowsRead, inserted, errors.size(), elapsedMillis, getRowsPerSecond());
+    }
+}
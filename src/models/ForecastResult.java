@@ -0,0 +1,53 @@
+package models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Monthly projected payroll cost, per department and in total.
+ * All arrays are indexed by month offset from the start period.
+ */
+public class ForecastResult {
+
+    private final String[] monthLabels;
+    private final Map<String, double[]> departmentCost = new LinkedHashMap<>();
+    private final double[] totalCost;
+    private final double[] totalTax;
+    private final double[] headcount;
+    private long elapsedMillis;
+
+    public ForecastResult(String[] monthLabels) {
+        this.monthLabels = monthLabels;
+        this.totalCost = new double[monthLabels.length];
+        this.totalTax = new double[monthLabels.length];
+        this.headcount = new double[monthLabels.length];
+    }
+
+    /**
+     * Adds one department's projection (cost, tax and expected headcount per month).
+     */
+    public void addDepartment(String dept, double[] cost, double[] tax, double[] heads) {
+        departmentCost.put(dept, cost);
+        for (int m = 0; m < monthLabels.length; m++) {
+            totalCost[m] += cost[m];
+            totalTax[m] += tax[m];
+            headcount[m] += heads[m];
+        }
+    }
+
+    public String[] getMonthLabels() { return monthLabels; }
+    public int getMonths() { return monthLabels.length; }
+    public Map<String, double[]> getDepartmentCost() { return departmentCost; }
+    public double[] getTotalCost() { return totalCost; }
+    public double[] getTotalTax() { return totalTax; }
+    public double[] getHeadcount() { return headcount; }
+
+    public double getGrandTotal() {
+        double sum = 0.0;
+        for (double v : totalCost) sum += v;
+        return sum;
+    }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
@@ -0,0 +1,61 @@
+package models;
+
+import utils.TaxSchedule;
+
+import java.util.Objects;
+
+/**
+ * Inputs for a multi-month payroll cost projection.
+ * Raises are applied once every 12 months from the start month; attrition is
+ * spread evenly across the year as a monthly survival rate (leavers are not
+ * back-filled).
+ */
+public class ForecastScenario {
+
+    public static final int MIN_MONTHS = 12;
+    public static final int MAX_MONTHS = 36;
+
+    private final int months;
+    private final double annualRaisePercent;
+    private final double annualAttritionPercent;
+    private final TaxSchedule taxSchedule; // null = current settings rate
+    private final String taxScheduleKey;   // identifies the schedule for caching
+
+    public ForecastScenario(int months, double annualRaisePercent, double annualAttritionPercent) {
+        this(months, annualRaisePercent, annualAttritionPercent, null, "current");
+    }
+
+    public ForecastScenario(int months, double annualRaisePercent, double annualAttritionPercent,
+                            TaxSchedule taxSchedule, String taxScheduleKey) {
+        this.months = Math.max(MIN_MONTHS, Math.min(MAX_MONTHS, months));
+        this.annualRaisePercent = annualRaisePercent;
+        this.annualAttritionPercent = Math.max(0.0, Math.min(100.0, annualAttritionPercent));
+        this.taxSchedule = taxSchedule;
+        this.taxScheduleKey = taxScheduleKey == null ? "current" : taxScheduleKey;
+    }
+
+    public int getMonths() { return months; }
+    public double getAnnualRaisePercent() { return annualRaisePercent; }
+    public double getAnnualAttritionPercent() { return annualAttritionPercent; }
+    public TaxSchedule getTaxSchedule() { return taxSchedule; }
+    public String getTaxScheduleKey() { return taxScheduleKey; }
+
+    /**
+     * Stable key used by the forecast cache.
+     */
+    public String hashKey() {
+        return String.format("m=%d|r=%.4f|a=%.4f|t=%s", months, annualRaisePercent, annualAttritionPercent, taxScheduleKey);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ForecastScenario)) return false;
+        return hashKey().equals(((ForecastScenario) o).hashKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hashKey());
+    }
+}
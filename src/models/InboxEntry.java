@@ -0,0 +1,74 @@
+package models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row of request_inbox: a leave, bank change, salary advance or
+ * reimbursement request, identified by (source, sourceId).
+ */
+public class InboxEntry {
+
+    public static final String LEAVE = "Leave";
+    public static final String BANK_CHANGE = "Bank Change";
+    public static final String SALARY_ADVANCE = "Salary Advance";
+    public static final String REIMBURSEMENT = "Reimbursement";
+
+    private String source;
+    private int sourceId;
+    private int empId;
+    private String employeeName;
+    private String status;
+    private LocalDateTime submittedAt;
+    private String subtype;
+    private String reason;
+    private BigDecimal amount;
+    private String oldValue;
+    private String newValue;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private double totalDays;
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public int getSourceId() { return sourceId; }
+    public void setSourceId(int sourceId) { this.sourceId = sourceId; }
+
+    public int getEmpId() { return empId; }
+    public void setEmpId(int empId) { this.empId = empId; }
+
+    public String getEmployeeName() { return employeeName; }
+    public void setEmployeeName(String employeeName) { this.employeeName = employeeName; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public String getSubtype() { return subtype; }
+    public void setSubtype(String subtype) { this.subtype = subtype; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getOldValue() { return oldValue; }
+    public void setOldValue(String oldValue) { this.oldValue = oldValue; }
+
+    public String getNewValue() { return newValue; }
+    public void setNewValue(String newValue) { this.newValue = newValue; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public double getTotalDays() { return totalDays; }
+    public void setTotalDays(double totalDays) { this.totalDays = totalDays; }
+}
@@ -0,0 +1,41 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * Date range of one leave request, as held by the calendar interval index.
+ */
+public class LeaveSpan {
+
+    private final int leaveId;
+    private final int empId;
+    private final String leaveType;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String status;
+
+    public LeaveSpan(int leaveId, int empId, String leaveType, LocalDate startDate, LocalDate endDate, String status) {
+        this.leaveId = leaveId;
+        this.empId = empId;
+        this.leaveType = leaveType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    public int getLeaveId() { return leaveId; }
+    public int getEmpId() { return empId; }
+    public String getLeaveType() { return leaveType; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public String getStatus() { return status; }
+
+    public boolean isApproved() {
+        return "Approved".equalsIgnoreCase(status);
+    }
+
+    @Override
+    public String toString() {
+        return leaveType + " " + startDate + " to " + endDate + " (" + status + ")";
+    }
+}
@@ -0,0 +1,92 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of an incremental payroll recompute.
+ * Holds one line per payroll row that actually changed plus period totals
+ * before and after the recompute.
+ */
+public class PayrollRecomputeReport {
+
+    /**
+     * Before/after values for a single payroll row.
+     */
+    public static class Line {
+        private final int empId;
+        private final double oldBase, newBase;
+        private final double oldTax, newTax;
+        private final double oldNet, newNet;
+
+        public Line(int empId, double oldBase, double newBase, double oldTax, double newTax,
+                    double oldNet, double newNet) {
+            this.empId = empId;
+            this.oldBase = oldBase;
+            this.newBase = newBase;
+            this.oldTax = oldTax;
+            this.newTax = newTax;
+            this.oldNet = oldNet;
+            this.newNet = newNet;
+        }
+
+        public int getEmpId() { return empId; }
+        public double getOldBase() { return oldBase; }
+        public double getNewBase() { return newBase; }
+        public double getOldTax() { return oldTax; }
+        public double getNewTax() { return newTax; }
+        public double getOldNet() { return oldNet; }
+        public double getNewNet() { return newNet; }
+        public double getNetDelta() { return newNet - oldNet; }
+
+        @Override
+        public String toString() {
+            return String.format("Emp #%d: base %.2f -> %.2f, tax %.2f -> %.2f, net %.2f -> %.2f",
+                    empId, oldBase, newBase, oldTax, newTax, oldNet, newNet);
+        }
+    }
+
+    private final String month;
+    private final int year;
+    private final List<Line> lines = new ArrayList<>();
+    private int employeesChecked;
+    private double totalBefore;
+    private double totalAfter;
+    private long elapsedMillis;
+
+    public PayrollRecomputeReport(String month, int year) {
+        this.month = month;
+        this.year = year;
+    }
+
+    public void addLine(Line line) { lines.add(line); }
+
+    public String getMonth() { return month; }
+    public int getYear() { return year; }
+    public List<Line> getLines() { return lines; }
+    public int getChangedCount() { return lines.size(); }
+
+    public int getEmployeesChecked() { return employeesChecked; }
+    public void setEmployeesChecked(int employeesChecked) { this.employeesChecked = employeesChecked; }
+
+    public double getTotalBefore() { return totalBefore; }
+    public void setTotalBefore(double totalBefore) { this.totalBefore = totalBefore; }
+
+    public double getTotalAfter() { return totalAfter; }
+    public void setTotalAfter(double totalAfter) { this.totalAfter = totalAfter; }
+
+    public double getTotalDelta() { return totalAfter - totalBefore; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public boolean isEmpty() { return lines.isEmpty(); }
+
+    /**
+     * One-line summary for status bars and audit entries.
+     */
+    public String getSummary() {
+        return String.format("%s %d: %d of %d employee(s) changed, total %.2f -> %.2f (%+.2f) in %d ms",
+                month, year, lines.size(), employeesChecked, totalBefore, totalAfter, getTotalDelta(), elapsedMillis);
+    }
+}
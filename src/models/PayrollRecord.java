@@ -38,6 +38,9 @@ public class PayrollRecord {
     public String getPeriod() { return payPeriod.get(); }
     public double getNetSalary() { return netSalary.get(); }
     public String getStatus() { return status.get(); }
+    public double getBaseSalary() { return basicSalary.get(); }
+    public double getAllowances() { return allowances.get(); }
+    public double getDeductions() { return deductions.get(); }
 
     // Property methods
     public StringProperty employeeNameProperty() { return name; }
@@ -15,6 +15,10 @@ public class Request {
     private final StringProperty status;
     private final StringProperty remarks;
 
+    // Row identity in request_inbox: source table and its primary key
+    private String source;
+    private int sourceId;
+
     /**
      * Constructor for creating a new Request instance.
      */
@@ -25,6 +29,12 @@ public class Request {
         this.status = new SimpleStringProperty(status);
         this.remarks = new SimpleStringProperty(remarks);
     }
+
+    public Request(String source, int sourceId, String employeeName, String type, LocalDate date, String status, String remarks) {
+        this(employeeName, type, date, status, remarks);
+        this.source = source;
+        this.sourceId = sourceId;
+    }
     
     // 2. REQUIRED JavaFX Property Getters (Used by TableView for binding)
 
@@ -71,6 +81,14 @@ public class Request {
         return remarks.get();
     }
 
+    public String getSource() {
+        return source;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
     // Standard Setter (CRITICAL: Used by approveRequest and rejectRequest to change status)
     public void setStatus(String newStatus) {
         this.status.set(newStatus);
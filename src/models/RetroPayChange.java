@@ -0,0 +1,35 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * An effective-dated salary change fed to RetroPayService.
+ * Every closed payroll period from effectiveFrom's month up to (but not
+ * including) the current period is re-priced at newSalary. A percentage
+ * raise instead re-prices each period at its own point-in-time salary plus
+ * raisePercent, and newSalary is only the going-forward salary.
+ */
+public class RetroPayChange {
+
+    private final int empId;
+    private final double newSalary;
+    private final LocalDate effectiveFrom;
+    private final double raisePercent;
+
+    public RetroPayChange(int empId, double newSalary, LocalDate effectiveFrom) {
+        this(empId, newSalary, effectiveFrom, Double.NaN);
+    }
+
+    public RetroPayChange(int empId, double newSalary, LocalDate effectiveFrom, double raisePercent) {
+        this.empId = empId;
+        this.newSalary = newSalary;
+        this.effectiveFrom = effectiveFrom;
+        this.raisePercent = raisePercent;
+    }
+
+    public int getEmpId() { return empId; }
+    public double getNewSalary() { return newSalary; }
+    public LocalDate getEffectiveFrom() { return effectiveFrom; }
+    public double getRaisePercent() { return raisePercent; }
+    public boolean isRaise() { return !Double.isNaN(raisePercent); }
+}
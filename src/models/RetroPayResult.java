@@ -0,0 +1,70 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a retro-pay run: one arrears line per employee posted to the
+ * current period, plus run totals.
+ */
+public class RetroPayResult {
+
+    /**
+     * Arrears owed to one employee across all re-priced periods.
+     */
+    public static class Arrears {
+        private final int empId;
+        private final int periodsCovered;
+        private final double grossAmount;
+        private final double taxAmount;
+
+        public Arrears(int empId, int periodsCovered, double grossAmount, double taxAmount) {
+            this.empId = empId;
+            this.periodsCovered = periodsCovered;
+            this.grossAmount = grossAmount;
+            this.taxAmount = taxAmount;
+        }
+
+        public int getEmpId() { return empId; }
+        public int getPeriodsCovered() { return periodsCovered; }
+        public double getGrossAmount() { return grossAmount; }
+        public double getTaxAmount() { return taxAmount; }
+        public double getNetAmount() { return grossAmount - taxAmount; }
+    }
+
+    private final String postedMonth;
+    private final int postedYear;
+    private final List<Arrears> arrears = new ArrayList<>();
+    private int periodsRecomputed;
+    private long elapsedMillis;
+
+    public RetroPayResult(String postedMonth, int postedYear) {
+        this.postedMonth = postedMonth;
+        this.postedYear = postedYear;
+    }
+
+    public void addArrears(Arrears line) { arrears.add(line); }
+
+    public String getPostedMonth() { return postedMonth; }
+    public int getPostedYear() { return postedYear; }
+    public List<Arrears> getArrears() { return arrears; }
+
+    public int getPeriodsRecomputed() { return periodsRecomputed; }
+    public void setPeriodsRecomputed(int periodsRecomputed) { this.periodsRecomputed = periodsRecomputed; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public double getTotalGross() {
+        return arrears.stream().mapToDouble(Arrears::getGrossAmount).sum();
+    }
+
+    public double getTotalNet() {
+        return arrears.stream().mapToDouble(Arrears::getNetAmount).sum();
+    }
+
+    public String getSummary() {
+        return String.format("Retro pay: %d employee(s), %d closed period(s) re-priced, arrears %.2f gross / %.2f net posted to %s %d (%d ms)",
+                arrears.size(), periodsRecomputed, getTotalGross(), getTotalNet(), postedMonth, postedYear, elapsedMillis);
+    }
+}
@@ -0,0 +1,86 @@
+package models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Output of a payroll what-if simulation.
+ * Monthly cost per department (baseline vs scenario) and summary statistics
+ * of the per-employee net pay change. Nothing here is persisted.
+ */
+public class SimulationResult {
+
+    private final String scenarioName;
+    private final int employeeCount;
+    private final Map<String, double[]> departmentCost = new LinkedHashMap<>(); // dept -> {baseline, scenario}
+
+    private double totalBaselineCost;
+    private double totalScenarioCost;
+
+    // Net-pay delta distribution
+    private double deltaMin, deltaMax, deltaMean;
+    private double deltaP50, deltaP90, deltaP99;
+    private double[] histogramEdges = new double[0];
+    private int[] histogramCounts = new int[0];
+
+    private long elapsedMillis;
+
+    public SimulationResult(String scenarioName, int employeeCount) {
+        this.scenarioName = scenarioName;
+        this.employeeCount = employeeCount;
+    }
+
+    public void putDepartmentCost(String dept, double baseline, double scenario) {
+        departmentCost.put(dept, new double[]{baseline, scenario});
+        totalBaselineCost += baseline;
+        totalScenarioCost += scenario;
+    }
+
+    public void setDeltaStats(double min, double max, double mean, double p50, double p90, double p99) {
+        this.deltaMin = min;
+        this.deltaMax = max;
+        this.deltaMean = mean;
+        this.deltaP50 = p50;
+        this.deltaP90 = p90;
+        this.deltaP99 = p99;
+    }
+
+    public void setHistogram(double[] edges, int[] counts) {
+        this.histogramEdges = edges;
+        this.histogramCounts = counts;
+    }
+
+    public String getScenarioName() { return scenarioName; }
+    public int getEmployeeCount() { return employeeCount; }
+    public Map<String, double[]> getDepartmentCost() { return departmentCost; }
+    public double getTotalBaselineCost() { return totalBaselineCost; }
+    public double getTotalScenarioCost() { return totalScenarioCost; }
+    public double getTotalCostDelta() { return totalScenarioCost - totalBaselineCost; }
+    public double getDeltaMin() { return deltaMin; }
+    public double getDeltaMax() { return deltaMax; }
+    public double getDeltaMean() { return deltaMean; }
+    public double getDeltaP50() { return deltaP50; }
+    public double getDeltaP90() { return deltaP90; }
+    public double getDeltaP99() { return deltaP99; }
+    public double[] getHistogramEdges() { return histogramEdges; }
+    public int[] getHistogramCounts() { return histogramCounts; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    /**
+     * Multi-line text summary used by the payroll officer alert.
+     */
+    public String toReport(String currency) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Scenario: %s (%d employees, %d ms)%n%n", scenarioName, employeeCount, elapsedMillis));
+        sb.append("Monthly cost by department (current -> scenario):\n");
+        departmentCost.forEach((dept, cost) -> sb.append(String.format("  %-18s %s %,.2f -> %s %,.2f (%+,.2f)%n",
+                dept, currency, cost[0], currency, cost[1], cost[1] - cost[0])));
+        sb.append(String.format("%nTotal: %s %,.2f -> %s %,.2f (%+,.2f)%n",
+                currency, totalBaselineCost, currency, totalScenarioCost, getTotalCostDelta()));
+        sb.append(String.format("%nNet pay change per employee:%n  min %+.2f | p50 %+.2f | p90 %+.2f | p99 %+.2f | max %+.2f | mean %+.2f",
+                deltaMin, deltaP50, deltaP90, deltaP99, deltaMax, deltaMean));
+        return sb.toString();
+    }
+}
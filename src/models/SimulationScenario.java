@@ -0,0 +1,63 @@
+package models;
+
+import utils.TaxSchedule;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A "what-if" scenario for PayrollSimulationService.
+ * Describes transformations applied on top of the current workforce:
+ * percentage raises (company-wide or per department), a flat allowance
+ * change, and an optional replacement tax schedule.
+ */
+public class SimulationScenario {
+
+    private final String name;
+    private double globalRaisePercent = 0.0;
+    private final Map<String, Double> departmentRaisePercent = new LinkedHashMap<>();
+    private double allowanceChange = 0.0;
+    private TaxSchedule taxSchedule; // null = keep current tax rule
+
+    public SimulationScenario(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Raise every employee's base salary by the given percentage.
+     */
+    public SimulationScenario raiseAll(double percent) {
+        this.globalRaisePercent = percent;
+        return this;
+    }
+
+    /**
+     * Raise base salary for one department (applied on top of raiseAll).
+     */
+    public SimulationScenario raiseDepartment(String deptName, double percent) {
+        departmentRaisePercent.put(deptName, percent);
+        return this;
+    }
+
+    /**
+     * Add (or subtract) a fixed amount to every employee's allowances.
+     */
+    public SimulationScenario adjustAllowances(double amount) {
+        this.allowanceChange = amount;
+        return this;
+    }
+
+    /**
+     * Replace the tax rule for the scenario run.
+     */
+    public SimulationScenario withTaxSchedule(TaxSchedule schedule) {
+        this.taxSchedule = schedule;
+        return this;
+    }
+
+    public String getName() { return name; }
+    public double getGlobalRaisePercent() { return globalRaisePercent; }
+    public Map<String, Double> getDepartmentRaisePercent() { return departmentRaisePercent; }
+    public double getAllowanceChange() { return allowanceChange; }
+    public TaxSchedule getTaxSchedule() { return taxSchedule; }
+}
@@ -0,0 +1,51 @@
+package models;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a time-clock punch file import.
+ */
+public class TimeClockImportResult {
+
+    private final Path sourceFile;
+    private Path rejectFile;
+    private long linesRead;
+    private long punchesAccepted;
+    private long rejected;
+    private long employeeDaysUpserted;
+    private long elapsedMillis;
+
+    public TimeClockImportResult(Path sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    public Path getSourceFile() { return sourceFile; }
+
+    public Path getRejectFile() { return rejectFile; }
+    public void setRejectFile(Path rejectFile) { this.rejectFile = rejectFile; }
+
+    public long getLinesRead() { return linesRead; }
+    public void addLine() { linesRead++; }
+
+    public long getPunchesAccepted() { return punchesAccepted; }
+    public void addPunch() { punchesAccepted++; }
+
+    public long getRejected() { return rejected; }
+    public void addRejected(long count) { rejected += count; }
+
+    public long getEmployeeDaysUpserted() { return employeeDaysUpserted; }
+    public void addEmployeeDays(long count) { employeeDaysUpserted += count; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public long getPunchesPerSecond() {
+        return elapsedMillis == 0 ? punchesAccepted : punchesAccepted * 1000 / elapsedMillis;
+    }
+
+    public String getSummary() {
+        String summary = String.format("Time-clock import: %d line(s), %d punch(es) accepted, %d employee-day(s) upserted, %d rejected (%d ms, %d punches/s)",
+                linesRead, punchesAccepted, employeeDaysUpserted, rejected, elapsedMillis, getPunchesPerSecond());
+        return rejectFile == null ? summary : summary + "\nRejected lines written to " + rejectFile;
+    }
+}
@@ -0,0 +1,154 @@
+package services;
+
+import dao.AttendanceDAO;
+import utils.AttendanceBitmapIndex;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presence analytics backed by a cached AttendanceBitmapIndex.
+ * The index is built lazily with one scan of attendance and then kept in
+ * step by the attendance writers (record / remove); invalidate() forces a
+ * rebuild after bulk changes made outside those paths. The index carries the
+ * generation it was built for; invalidate(), and any write while no current
+ * index is published (a load may be scanning), bump the generation, so a
+ * load that missed a write or was overtaken by invalidate() is rebuilt.
+ *
+ * Screens on the FX thread call warmUp() and read through the *IfLoaded
+ * lookups, so the full-table scan never runs on the UI thread.
+ */
+public class AttendanceIndexService {
+
+    private static final AttendanceDAO dao = new AttendanceDAO();
+    private static volatile Snapshot snapshot;
+    private static final AtomicLong generation = new AtomicLong();
+    private static CompletableFuture<Void> warming;
+
+    private static final class Snapshot {
+        final long generation;
+        final AttendanceBitmapIndex index;
+
+        Snapshot(long generation, AttendanceBitmapIndex index) {
+            this.generation = generation;
+            this.index = index;
+        }
+    }
+
+    /**
+     * @return the cached index, loading it on first use
+     */
+    public static AttendanceBitmapIndex getIndex() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && current.generation == generation.get()) return current.index;
+        synchronized (AttendanceIndexService.class) {
+            current = snapshot;
+            long gen = generation.get();
+            if (current != null && current.generation == gen) return current.index;
+            // A write or invalidate() during the scan makes this index stale on arrival:
+            // the caller still gets it, but the next lookup sees the newer generation and rebuilds
+            current = new Snapshot(gen, dao.loadBitmapIndex());
+            snapshot = current;
+            return current.index;
+        }
+    }
+
+    private static boolean isLoaded() {
+        Snapshot current = snapshot;
+        return current != null && current.generation == generation.get();
+    }
+
+    /**
+     * Loads the index on a background thread if it is not loaded or loading already.
+     */
+    public static synchronized void warmUp() {
+        if (isLoaded() || (warming != null && !warming.isDone())) return;
+        warming = CompletableFuture.runAsync(() -> {
+            try {
+                getIndex();
+            } catch (SQLException e) {
+                System.err.println("Attendance index warm-up failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Drops the cached index; the next lookup rebuilds it.
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Applies one inserted/updated row to the published index. Without a
+     * current one, a load may be scanning past the row: the generation moves
+     * so that load is not kept.
+     */
+    public static void record(int empId, LocalDate date, String status) {
+        Snapshot current = snapshot;
+        if (current != null) current.index.set(empId, date, status);
+        if (current == null || current.generation != generation.get()) generation.incrementAndGet();
+    }
+
+    /**
+     * Applies one deleted row (or the old date of a row that moved), like record().
+     */
+    public static void remove(int empId, LocalDate date) {
+        Snapshot current = snapshot;
+        if (current != null) current.index.clear(empId, date);
+        if (current == null || current.generation != generation.get()) generation.incrementAndGet();
+    }
+
+    /**
+     * @return days marked Present for the employee in the month, or -1 if the index is unavailable
+     */
+    public static int daysPresent(int empId, YearMonth month) {
+        try {
+            return getIndex().countMonth(empId, AttendanceBitmapIndex.PRESENT, month);
+        } catch (SQLException e) {
+            System.err.println("Attendance index unavailable: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * statusTotals() without the load: null (and a background warm-up) when
+     * the index is not loaded yet, so the caller can count another way.
+     */
+    public static long[] statusTotalsIfLoaded(LocalDate date) {
+        if (!isLoaded()) {
+            warmUp();
+            return null;
+        }
+        return statusTotals(date);
+    }
+
+    /**
+     * Present / Absent / Leave totals on one date, or across all dates when date is null.
+     * Across all dates, Absent and Leave only count working days (a weekend or
+     * holiday marked Absent is not a missed day); Present counts every day worked.
+     * @return {present, absent, leave}, or null if the index is unavailable
+     */
+    public static long[] statusTotals(LocalDate date) {
+        try {
+            AttendanceBitmapIndex ix = getIndex();
+            long[] totals = new long[3];
+            if (date != null) {
+                for (int s = 0; s < totals.length; s++) totals[s] = ix.employeesOn(s, date).cardinality();
+                return totals;
+            }
+            totals[AttendanceBitmapIndex.PRESENT] = ix.countAll(AttendanceBitmapIndex.PRESENT);
+            for (int s : new int[] { AttendanceBitmapIndex.ABSENT, AttendanceBitmapIndex.LEAVE }) {
+                totals[s] = ix.countAllMasked(s, year -> WorkingDayService.forYear(year).mask());
+            }
+            return totals;
+        } catch (SQLException e) {
+            System.err.println("Attendance index unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package services;
+
+import dao.AutoApprovalRuleDAO;
+import dao.RequestInboxDAO;
+import models.ApprovalResult;
+import models.AutoApprovalRule;
+import models.InboxEntry;
+import models.LeaveSpan;
+import utils.Metrics;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+/**
+ * Rule-based auto-approval of new requests.
+ *
+ * The enabled rows of auto_approval_rule are compiled once into one predicate
+ * per request source: each rule is the AND of its set conditions (field
+ * checks first, then the leave balance, then the overlap index), and the
+ * rules of a source are OR-ed in priority order. Evaluating a request is a
+ * few comparisons and cache lookups, no queries. The balance check runs
+ * against a per-evaluation copy of the cached balances that each approved
+ * request draws down, so two requests cannot both pass on the same days.
+ *
+ * Every process (desktop client or API server) evaluates the requests it
+ * submits: submitted() queues them and the job drains the queue right away.
+ * Decisions are made as RequestApprovalService.SYSTEM_ACTOR whoever is signed
+ * in, and only requests still Pending under a row lock are decided
+ * (RequestApprovalDAO.decide), so two processes never approve one request twice.
+ *
+ * A catch-up sweep over everything still Pending (requests from before the
+ * rules existed, or whose drain failed) runs in the API server, or in a
+ * desktop started with -Dpayroll.autoApproval.sweep=true, on start and then
+ * every SWEEP_INTERVAL_MINUTES. It runs under a MySQL named lock
+ * (AutoApprovalRuleDAO.whileSweepLocked), so one process sweeps at a time.
+ * One set of balances is drawn down across all of a sweep's pages.
+ * Matching requests are approved in one RequestApprovalService call per
+ * page; the rest stay Pending in the HR inbox.
+ */
+public class AutoApprovalService {
+
+    private static final long SWEEP_INTERVAL_MINUTES = 15;
+    private static final int SWEEP_PAGE = 500;
+
+    private static final AutoApprovalRuleDAO ruleDAO = new AutoApprovalRuleDAO();
+    private static final RequestInboxDAO inboxDAO = new RequestInboxDAO();
+    private static final ConcurrentLinkedQueue<Submitted> queue = new ConcurrentLinkedQueue<>();
+    private static final Metrics.Counter APPROVED =
+            Metrics.counter("payroll_auto_approvals_total", "Requests approved by auto-approval rules");
+    private static volatile Map<String, BiPredicate<InboxEntry, Balances>> compiled;
+    private static volatile ScheduledExecutorService job;
+
+    private static final class Submitted {
+        final String source;
+        final int sourceId;
+
+        Submitted(String source, int sourceId) {
+            this.source = source;
+            this.sourceId = sourceId;
+        }
+    }
+
+    /**
+     * Leave balances as they stand during one evaluation: each request approved
+     * in it takes its days off the cached balance.
+     */
+    private static final class Balances {
+        private final Map<String, Double> remaining = new HashMap<>();
+
+        boolean covers(InboxEntry e) {
+            return remaining(e) >= e.getTotalDays();
+        }
+
+        void take(InboxEntry e) {
+            if (!InboxEntry.LEAVE.equals(e.getSource()) || !LeaveLedgerService.isTracked(e.getSubtype())) return;
+            remaining.put(key(e), remaining(e) - e.getTotalDays());
+        }
+
+        private double remaining(InboxEntry e) {
+            return remaining.computeIfAbsent(key(e), k -> LeaveLedgerService.getBalance(e.getEmpId(), e.getSubtype()));
+        }
+
+        private static String key(InboxEntry e) {
+            return e.getEmpId() + "|" + e.getSubtype();
+        }
+    }
+
+    /**
+     * Queues a newly inserted request and evaluates it in the background
+     * (once the job has started; it drains anything queued before that).
+     */
+    public static void submitted(String source, int sourceId) {
+        if (sourceId <= 0) return;
+        queue.add(new Submitted(source, sourceId));
+        ScheduledExecutorService current = job;
+        if (current != null) current.execute(AutoApprovalService::drainLogged);
+    }
+
+    /**
+     * Drops the compiled rules (auto_approval_rule edited); the next evaluation recompiles.
+     */
+    public static void invalidate() {
+        compiled = null;
+    }
+
+    // ----------------------------------------------------------------------
+    // Rule compilation
+    // ----------------------------------------------------------------------
+
+    private static Map<String, BiPredicate<InboxEntry, Balances>> getCompiled() throws SQLException {
+        Map<String, BiPredicate<InboxEntry, Balances>> current = compiled;
+        if (current == null) {
+            synchronized (AutoApprovalService.class) {
+                current = compiled;
+                if (current == null) {
+                    current = compile(ruleDAO.loadEnabled());
+                    compiled = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * source -> OR of its rules; rules arrive in priority order.
+     */
+    static Map<String, BiPredicate<InboxEntry, Balances>> compile(List<AutoApprovalRule> rules) {
+        Map<String, BiPredicate<InboxEntry, Balances>> bySource = new HashMap<>();
+        for (AutoApprovalRule rule : rules) {
+            bySource.merge(rule.getSource(), compile(rule), BiPredicate::or);
+        }
+        return bySource;
+    }
+
+    private static BiPredicate<InboxEntry, Balances> compile(AutoApprovalRule rule) {
+        BiPredicate<InboxEntry, Balances> p = (e, b) -> true;
+
+        if (rule.getLeaveType() != null) {
+            String leaveType = rule.getLeaveType();
+            p = p.and((e, b) -> leaveType.equals(e.getSubtype()));
+        }
+        if (rule.getMaxAmount() != null) {
+            BigDecimal max = rule.getMaxAmount();
+            p = p.and((e, b) -> e.getAmount() != null && e.getAmount().compareTo(max) <= 0);
+        }
+        if (rule.getMaxDays() != null) {
+            double maxDays = rule.getMaxDays();
+            p = p.and((e, b) -> e.getTotalDays() > 0 && e.getTotalDays() <= maxDays);
+        }
+        if (rule.isRequireBalance()) {
+            // Only tracked leave types have a balance to check against
+            p = p.and((e, b) -> LeaveLedgerService.isTracked(e.getSubtype()) && b.covers(e));
+        }
+        if (rule.isNoOverlap()) {
+            p = p.and((e, b) -> hasNoOtherLeave(e));
+        }
+        return p;
+    }
+
+    /**
+     * No Approved or Pending leave other than the request itself overlaps its dates.
+     */
+    private static boolean hasNoOtherLeave(InboxEntry e) {
+        if (e.getStartDate() == null || e.getEndDate() == null) return false;
+        try {
+            for (LeaveSpan span : CalendarIndexService.overlappingLeave(e.getEmpId(), e.getStartDate(), e.getEndDate())) {
+                if (span.getLeaveId() != e.getSourceId()) return false;
+            }
+            return true;
+        } catch (SQLException ex) {
+            // Cannot prove there is no clash: leave it to HR
+            return false;
+        }
+    }
+
+    /**
+     * @return true if at least one enabled rule approves the request
+     */
+    public static boolean matches(InboxEntry entry) throws SQLException {
+        return matches(entry, new Balances());
+    }
+
+    private static boolean matches(InboxEntry entry, Balances balances) throws SQLException {
+        BiPredicate<InboxEntry, Balances> rule = getCompiled().get(entry.getSource());
+        return rule != null && rule.test(entry, balances);
+    }
+
+    // ----------------------------------------------------------------------
+    // Batch evaluation
+    // ----------------------------------------------------------------------
+
+    /**
+     * Evaluates the entries and approves the matching ones in one batch.
+     * @return number of requests approved
+     */
+    public static int evaluate(List<InboxEntry> entries) throws SQLException {
+        return evaluate(entries, new Balances());
+    }
+
+    private static int evaluate(List<InboxEntry> entries, Balances balances) throws SQLException {
+        RequestApprovalService.Batch batch = new RequestApprovalService.Batch();
+        for (InboxEntry entry : entries) {
+            if (matches(entry, balances)) {
+                batch.add(entry.getSource(), entry.getSourceId());
+                balances.take(entry);
+            }
+        }
+        if (batch.isEmpty()) return 0;
+        ApprovalResult result = RequestApprovalService.approve(batch, RequestApprovalService.SYSTEM_ACTOR);
+        APPROVED.add(result.getDecidedCount());
+        return result.getDecidedCount();
+    }
+
+    /**
+     * Evaluates everything submitted since the last drain.
+     * @return number of requests approved
+     */
+    public static int drainQueue() throws SQLException {
+        Map<String, List<Integer>> ids = new LinkedHashMap<>();
+        Submitted s;
+        while ((s = queue.poll()) != null) {
+            ids.computeIfAbsent(s.source, k -> new ArrayList<>()).add(s.sourceId);
+        }
+        if (ids.isEmpty()) return 0;
+
+        List<InboxEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> e : ids.entrySet()) {
+            entries.addAll(inboxDAO.findPending(e.getKey(), e.getValue()));
+        }
+        return evaluate(entries);
+    }
+
+    /**
+     * Evaluates every Pending request in the inbox, a page at a time, against
+     * one set of balances. If anything is Pending, balances and leave are
+     * re-read first: other processes may have changed them.
+     * @return number of requests approved
+     */
+    public static int sweepPending() throws SQLException {
+        if (getCompiled().isEmpty()) return 0;
+        Balances balances = new Balances();
+        int approved = 0;
+        int offset = 0;
+        while (true) {
+            List<InboxEntry> page = inboxDAO.findPage("Pending", null, null, offset, SWEEP_PAGE);
+            if (offset == 0) {
+                if (page.isEmpty()) return 0;
+                LeaveLedgerService.invalidate();
+                CalendarIndexService.invalidate();
+            }
+            int approvedNow = evaluate(page, balances);
+            approved += approvedNow;
+            if (page.size() < SWEEP_PAGE) break;
+            // Approved rows left the Pending set, so the next page starts earlier
+            offset += SWEEP_PAGE - approvedNow;
+        }
+        return approved;
+    }
+
+    /**
+     * Starts the background job; with sweep, also the catch-up sweep (API server,
+     * or -Dpayroll.autoApproval.sweep=true on a desktop). Safe to call more than once.
+     */
+    public static synchronized void startJob(boolean sweep) {
+        if (job != null) return;
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auto-approval");
+            t.setDaemon(true);
+            return t;
+        });
+        if (sweep) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    ruleDAO.whileSweepLocked(AutoApprovalService::sweepPending);
+                } catch (SQLException e) {
+                    System.err.println("Auto-approval sweep failed: " + e.getMessage());
+                }
+            }, 0, SWEEP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+        job = executor;
+        // Requests submitted before the job started
+        executor.execute(AutoApprovalService::drainLogged);
+    }
+
+    private static void drainLogged() {
+        try {
+            drainQueue();
+        } catch (SQLException e) {
+            // The requests stay Pending for HR (and the next sweep, where one runs)
+            System.err.println("Auto-approval failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package services;
+
+import models.BulkOnboardingResult;
+import utils.DBConnection;
+import utils.PayrollChangeTracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * BULK ONBOARDING: Creates users + employees from a CSV of new hires.
+ *
+ * The file is streamed line by line; rows are validated as they are read and
+ * collected into chunks of CHUNK_ROWS. Department and role names are resolved
+ * from maps loaded once per import. For each chunk:
+ *   - usernames are generated the same way as UserService.createNewEmployee
+ *     (first initial + last name), and all of the chunk's candidates are
+ *     checked against users in ONE query; clashes get the next free numeric
+ *     suffix, and names handed out earlier in the same file are remembered
+ *   - emails already present in users are rejected in ONE query
+ *   - users, employees and the opening salary_history range are inserted as
+ *     three JDBC batches in a single transaction
+ * If a chunk's transaction fails, it is rolled back and retried row by row so
+ * one bad row is reported against its line instead of sinking the chunk.
+ *
+ * Expected header (any column order, case-insensitive):
+ *   first_name,last_name,email,department,position,salary,hire_date[,gender][,role][,phone]
+ * hire_date is yyyy-MM-dd; role defaults to Employee.
+ */
+public class BulkOnboardingService {
+
+    // Same temporary password as single-employee creation; users change it on first login
+    public static final String TEMP_PASSWORD = "password123";
+
+    private static final int CHUNK_ROWS = 500;
+    private static final int MAX_USERNAME_BASE = 40;
+    private static final String DEFAULT_ROLE = "employee";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+        "first_name", "last_name", "email", "department", "position", "salary", "hire_date");
+
+    private static final String USER_SQL =
+        "INSERT INTO users (username, password, role_id, first_name, last_name, email, phone, dept_id, designation, date_of_joining) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EMP_SQL =
+        "INSERT INTO employees (user_id, role_id, gender, phone, email, dept_id, position, salary, date_joined) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String HISTORY_SQL =
+        "INSERT INTO salary_history (emp_id, salary, effective_from, effective_to) VALUES (?, ?, ?, NULL)";
+
+    /**
+     * Receives progress after every chunk. Called on the import thread.
+     */
+    public interface ProgressListener {
+        void onProgress(double fraction, long rowsRead, long inserted, int errors);
+    }
+
+    private static class NewHire {
+        long line;
+        String firstName, lastName, email, gender, phone, position;
+        int deptId, roleId;
+        BigDecimal salary;
+        LocalDate hireDate;
+        String username;
+    }
+
+    /**
+     * Per-import state for username generation.
+     */
+    private static class UsernamePool {
+        final Set<String> taken = new HashSet<>();
+        final Set<String> checkedBases = new HashSet<>();
+        final Map<String, Integer> nextSuffix = new HashMap<>();
+    }
+
+    public static BulkOnboardingResult importFile(Path file, ProgressListener listener) throws IOException, SQLException {
+        long start = System.nanoTime();
+        BulkOnboardingResult result = new BulkOnboardingResult(file);
+        long size = Math.max(1, Files.size(file));
+
+        try (Connection conn = DBConnection.getConnection();
+             BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            Map<String, Integer> departments = loadNameIndex(conn, "SELECT dept_id, dept_name FROM departments");
+            Map<String, Integer> roles = loadNameIndex(conn, "SELECT role_id, role_name FROM roles");
+
+            String header = reader.readLine();
+            if (header == null) return result;
+            Map<String, Integer> columns = parseHeader(header);
+            long consumed = header.length() + 1;
+            long line = 1;
+
+            UsernamePool usernames = new UsernamePool();
+            List<NewHire> chunk = new ArrayList<>(CHUNK_ROWS);
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                consumed += text.length() + 1;
+                if (text.isBlank()) continue;
+                result.addRow();
+                try {
+                    chunk.add(parseRow(line, splitCsv(text), columns, departments, roles));
+                } catch (IllegalArgumentException e) {
+                    result.addError(line, e.getMessage());
+                }
+                if (chunk.size() >= CHUNK_ROWS) {
+                    flush(conn, chunk, usernames, result);
+                    chunk.clear();
+                    report(listener, result, (double) consumed / size);
+                }
+            }
+            flush(conn, chunk, usernames, result);
+        } finally {
+            result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        }
+
+        if (result.getInserted() > 0) {
+            SalaryHistoryService.invalidate();
+            PayrollForecastService.invalidateCache();
+        }
+        report(listener, result, 1.0);
+        return result;
+    }
+
+    // ----------------------------------------------------------------------
+    // Chunk handling
+    // ----------------------------------------------------------------------
+
+    private static void flush(Connection conn, List<NewHire> chunk, UsernamePool usernames,
+                              BulkOnboardingResult result) throws SQLException {
+        if (chunk.isEmpty()) return;
+
+        List<NewHire> hires = rejectExistingEmails(conn, chunk, result);
+        assignUsernames(conn, hires, usernames);
+
+        try {
+            insertChunk(conn, hires);
+            result.addInserted(hires.size());
+        } catch (SQLException e) {
+            // Find the offending row(s): retry one row per transaction
+            for (NewHire hire : hires) {
+                try {
+                    insertChunk(conn, List.of(hire));
+                    result.addInserted(1);
+                } catch (SQLException rowError) {
+                    result.addError(hire.line, "Insert failed: " + rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void insertChunk(Connection conn, List<NewHire> hires) throws SQLException {
+        if (hires.isEmpty()) return;
+        conn.setAutoCommit(false);
+        try (PreparedStatement userPs = conn.prepareStatement(USER_SQL, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement empPs = conn.prepareStatement(EMP_SQL, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement historyPs = conn.prepareStatement(HISTORY_SQL)) {
+
+            for (NewHire h : hires) {
+                userPs.setString(1, h.username);
+                userPs.setString(2, TEMP_PASSWORD);
+                userPs.setInt(3, h.roleId);
+                userPs.setString(4, h.firstName);
+                userPs.setString(5, h.lastName);
+                userPs.setString(6, h.email);
+                userPs.setString(7, h.phone);
+                userPs.setInt(8, h.deptId);
+                userPs.setString(9, h.position);
+                userPs.setDate(10, Date.valueOf(h.hireDate));
+                userPs.addBatch();
+            }
+            userPs.executeBatch();
+            int[] userIds = generatedKeys(userPs, hires.size());
+
+            for (int i = 0; i < hires.size(); i++) {
+                NewHire h = hires.get(i);
+                empPs.setInt(1, userIds[i]);
+                empPs.setInt(2, h.roleId);
+                empPs.setString(3, h.gender);
+                empPs.setString(4, h.phone);
+                empPs.setString(5, h.email);
+                empPs.setInt(6, h.deptId);
+                empPs.setString(7, h.position);
+                empPs.setBigDecimal(8, h.salary);
+                empPs.setDate(9, Date.valueOf(h.hireDate));
+                empPs.addBatch();
+            }
+            empPs.executeBatch();
+            int[] empIds = generatedKeys(empPs, hires.size());
+
+            for (int i = 0; i < hires.size(); i++) {
+                NewHire h = hires.get(i);
+                historyPs.setInt(1, empIds[i]);
+                historyPs.setBigDecimal(2, h.salary);
+                historyPs.setDate(3, Date.valueOf(h.hireDate));
+                historyPs.addBatch();
+            }
+            historyPs.executeBatch();
+
+            conn.commit();
+
+            for (int i = 0; i < hires.size(); i++) {
+                PayrollChangeTracker.markDirty(empIds[i], hires.get(i).hireDate);
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static int[] generatedKeys(PreparedStatement ps, int expected) throws SQLException {
+        int[] keys = new int[expected];
+        int n = 0;
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            while (rs.next() && n < expected) keys[n++] = rs.getInt(1);
+        }
+        if (n != expected) {
+            throw new SQLException("Expected " + expected + " generated key(s), got " + n);
+        }
+        return keys;
+    }
+
+    /**
+     * Drops rows whose email already belongs to a user (one IN query per chunk),
+     * plus repeats of an email earlier in the same chunk.
+     */
+    private static List<NewHire> rejectExistingEmails(Connection conn, List<NewHire> chunk,
+                                                      BulkOnboardingResult result) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        String sql = "SELECT LOWER(email) FROM users WHERE LOWER(email) IN (" + placeholders(chunk.size()) + ")";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < chunk.size(); i++) ps.setString(i + 1, chunk.get(i).email.toLowerCase());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) existing.add(rs.getString(1));
+            }
+        }
+
+        List<NewHire> accepted = new ArrayList<>(chunk.size());
+        for (NewHire h : chunk) {
+            if (!existing.add(h.email.toLowerCase())) {
+                result.addError(h.line, "Email already in use: " + h.email);
+            } else {
+                accepted.add(h);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Gives every row a unique username. Bases not seen earlier in this import
+     * are checked against users with one LIKE-per-base query for the whole chunk.
+     */
+    private static void assignUsernames(Connection conn, List<NewHire> hires, UsernamePool pool) throws SQLException {
+        List<String> unchecked = new ArrayList<>();
+        for (NewHire h : hires) {
+            String base = usernameBase(h.firstName, h.lastName);
+            h.username = base;
+            if (pool.checkedBases.add(base)) unchecked.add(base);
+        }
+
+        if (!unchecked.isEmpty()) {
+            StringBuilder sql = new StringBuilder("SELECT username FROM users WHERE ");
+            for (int i = 0; i < unchecked.size(); i++) {
+                if (i > 0) sql.append(" OR ");
+                sql.append("username LIKE ?");
+            }
+            try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+                // Bases are [a-z0-9] only, so no LIKE wildcards to escape
+                for (int i = 0; i < unchecked.size(); i++) ps.setString(i + 1, unchecked.get(i) + "%");
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) pool.taken.add(rs.getString(1).toLowerCase());
+                }
+            }
+        }
+
+        for (NewHire h : hires) {
+            String base = h.username;
+            String candidate = base;
+            int suffix = pool.nextSuffix.getOrDefault(base, 1);
+            while (pool.taken.contains(candidate)) {
+                candidate = base + (++suffix);
+            }
+            pool.nextSuffix.put(base, suffix);
+            pool.taken.add(candidate);
+            h.username = candidate;
+        }
+    }
+
+    private static String usernameBase(String firstName, String lastName) {
+        String base = (firstName.substring(0, 1) + lastName).toLowerCase().replaceAll("[^a-z0-9]", "");
+        if (base.isEmpty()) base = "user";
+        return base.length() > MAX_USERNAME_BASE ? base.substring(0, MAX_USERNAME_BASE) : base;
+    }
+
+    // ----------------------------------------------------------------------
+    // Parsing
+    // ----------------------------------------------------------------------
+
+    private static Map<String, Integer> parseHeader(String header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase().replace(' ', '_'), i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) missing.add(required);
+        }
+        if (!missing.isEmpty()) {
+            throw new IOException("Missing column(s) in header: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static NewHire parseRow(long line, List<String> fields, Map<String, Integer> columns,
+                                    Map<String, Integer> departments, Map<String, Integer> roles) {
+        NewHire h = new NewHire();
+        h.line = line;
+        h.firstName = required(fields, columns, "first_name");
+        h.lastName = required(fields, columns, "last_name");
+        h.email = required(fields, columns, "email");
+        h.position = required(fields, columns, "position");
+        h.phone = optional(fields, columns, "phone");
+
+        if (!h.email.contains("@")) throw new IllegalArgumentException("Invalid email: " + h.email);
+
+        String dept = required(fields, columns, "department");
+        Integer deptId = departments.get(dept.toLowerCase());
+        if (deptId == null) throw new IllegalArgumentException("Unknown department: " + dept);
+        h.deptId = deptId;
+
+        String role = optional(fields, columns, "role");
+        Integer roleId = roles.get(role == null ? DEFAULT_ROLE : role.toLowerCase());
+        if (roleId == null) throw new IllegalArgumentException("Unknown role: " + role);
+        h.roleId = roleId;
+
+        String salary = required(fields, columns, "salary");
+        try {
+            h.salary = new BigDecimal(salary.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid salary: " + salary);
+        }
+        if (h.salary.signum() < 0) throw new IllegalArgumentException("Salary cannot be negative");
+
+        String hireDate = required(fields, columns, "hire_date");
+        try {
+            h.hireDate = LocalDate.parse(hireDate);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid hire_date (expected yyyy-MM-dd): " + hireDate);
+        }
+
+        String gender = optional(fields, columns, "gender");
+        if (gender != null) {
+            switch (gender.toLowerCase()) {
+                case "m": case "male": h.gender = "Male"; break;
+                case "f": case "female": h.gender = "Female"; break;
+                case "o": case "other": h.gender = "Other"; break;
+                default: throw new IllegalArgumentException("Invalid gender: " + gender);
+            }
+        }
+        return h;
+    }
+
+    private static String required(List<String> fields, Map<String, Integer> columns, String name) {
+        String value = optional(fields, columns, name);
+        if (value == null) throw new IllegalArgumentException("Missing " + name);
+        return value;
+    }
+
+    private static String optional(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields ("a, b" and "" escapes).
+     */
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Map<String, Integer> loadNameIndex(Connection conn, String sql) throws SQLException {
+        Map<String, Integer> index = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) index.put(rs.getString(2).trim().toLowerCase(), rs.getInt(1));
+        }
+        return index;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
+    private static void report(ProgressListener listener, BulkOnboardingResult result, double fraction) {
+        result.setProgress(Math.min(1.0, fraction));
+        if (listener != null) {
+            listener.onProgress(result.getProgress(), result.getRowsRead(), result.getInserted(), result.getErrors().size());
+        }
+    }
+}
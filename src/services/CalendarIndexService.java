@@ -0,0 +1,167 @@
+package services;
+
+import dao.CalendarDAO;
+import models.CalendarEvent;
+import models.LeaveSpan;
+import utils.IntervalIndex;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Calendar and leave lookups backed by cached interval trees (IntervalIndex).
+ *
+ * One snapshot holds:
+ *   - shared events (Company + Holiday), visible to everyone
+ *   - Personal events, one tree per employee
+ *   - Approved + Pending leave, one tree per employee (overlap checks)
+ *   - Approved leave across the organisation ("who is out on X")
+ * Every query is O(log n + k). The snapshot is built lazily with one scan of
+ * calendar_events and leave_requests; writers call invalidate() and the next
+ * lookup rebuilds it. Each snapshot carries the generation it was built for,
+ * and invalidate() bumps the generation, so a rebuild that an invalidate()
+ * overtook is never served from the cache.
+ */
+public class CalendarIndexService {
+
+    private static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final CalendarDAO dao = new CalendarDAO();
+    private static volatile Snapshot snapshot;
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final class Snapshot {
+        final long generation;
+        final IntervalIndex<CalendarEvent> sharedEvents;
+        final Map<Integer, IntervalIndex<CalendarEvent>> personalEvents;
+        final Map<Integer, IntervalIndex<LeaveSpan>> leaveByEmployee;
+        final IntervalIndex<LeaveSpan> approvedLeave;
+
+        Snapshot(long generation, List<CalendarEvent> events, List<LeaveSpan> leave) {
+            this.generation = generation;
+            List<CalendarEvent> shared = new ArrayList<>();
+            Map<Integer, List<CalendarEvent>> personal = new HashMap<>();
+            for (CalendarEvent e : events) {
+                if ("Personal".equals(e.getEventType())) {
+                    personal.computeIfAbsent(e.getEmployeeId(), k -> new ArrayList<>()).add(e);
+                } else {
+                    shared.add(e);
+                }
+            }
+            this.sharedEvents = IntervalIndex.build(shared, CalendarEvent::getDate, CalendarEvent::getDate);
+            this.personalEvents = new HashMap<>();
+            personal.forEach((empId, list) ->
+                    personalEvents.put(empId, IntervalIndex.build(list, CalendarEvent::getDate, CalendarEvent::getDate)));
+
+            Map<Integer, List<LeaveSpan>> byEmployee = leave.stream().collect(Collectors.groupingBy(LeaveSpan::getEmpId));
+            this.leaveByEmployee = new HashMap<>();
+            byEmployee.forEach((empId, list) ->
+                    leaveByEmployee.put(empId, IntervalIndex.build(list, LeaveSpan::getStartDate, LeaveSpan::getEndDate)));
+            this.approvedLeave = IntervalIndex.build(
+                    leave.stream().filter(LeaveSpan::isApproved).collect(Collectors.toList()),
+                    LeaveSpan::getStartDate, LeaveSpan::getEndDate);
+        }
+    }
+
+    private static Snapshot getSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && current.generation == generation.get()) return current;
+        synchronized (CalendarIndexService.class) {
+            current = snapshot;
+            long gen = generation.get();
+            if (current != null && current.generation == gen) return current;
+            // If invalidate() runs during the scan, this snapshot is stale on arrival:
+            // the caller still gets it, but the next lookup sees the newer generation and rebuilds
+            current = new Snapshot(gen, dao.loadAllEvents(), dao.loadActiveLeave());
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * Drops the cached snapshot (event added/edited/deleted, leave submitted or decided),
+     * and the working-day calendars derived from its holidays.
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        WorkingDayService.invalidate();
+    }
+
+    // ----------------------------------------------------------------------
+    // Events
+    // ----------------------------------------------------------------------
+
+    /**
+     * Events the employee can see (shared + their own Personal) in [from, to],
+     * ordered by date then time.
+     */
+    public static List<CalendarEvent> eventsBetween(int empId, LocalDate from, LocalDate to) throws SQLException {
+        Snapshot s = getSnapshot();
+        List<CalendarEvent> result = new ArrayList<>(s.sharedEvents.overlapping(from, to));
+        IntervalIndex<CalendarEvent> personal = s.personalEvents.get(empId);
+        if (personal != null) result.addAll(personal.overlapping(from, to));
+        result.sort(Comparator.comparing(CalendarEvent::getDate)
+                .thenComparing(e -> e.getTime() == null ? "" : e.getTime()));
+        return result;
+    }
+
+    public static List<CalendarEvent> eventsOn(int empId, LocalDate date) throws SQLException {
+        return eventsBetween(empId, date, date);
+    }
+
+    /**
+     * Monday-to-Sunday week containing the date.
+     */
+    public static List<CalendarEvent> eventsInWeek(int empId, LocalDate anyDay) throws SQLException {
+        LocalDate monday = anyDay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return eventsBetween(empId, monday, monday.plusDays(6));
+    }
+
+    public static List<CalendarEvent> eventsInMonth(int empId, YearMonth month) throws SQLException {
+        return eventsBetween(empId, month.atDay(1), month.atEndOfMonth());
+    }
+
+    public static List<CalendarEvent> allEvents(int empId) throws SQLException {
+        return eventsBetween(empId, MIN_DATE, MAX_DATE);
+    }
+
+    /**
+     * Holiday events in [from, to].
+     */
+    public static List<CalendarEvent> holidaysBetween(LocalDate from, LocalDate to) throws SQLException {
+        List<CalendarEvent> result = new ArrayList<>();
+        for (CalendarEvent e : getSnapshot().sharedEvents.overlapping(from, to)) {
+            if ("Holiday".equals(e.getEventType())) result.add(e);
+        }
+        return result;
+    }
+
+    // ----------------------------------------------------------------------
+    // Leave
+    // ----------------------------------------------------------------------
+
+    /**
+     * The employee's Approved or Pending leave that overlaps [from, to].
+     */
+    public static List<LeaveSpan> overlappingLeave(int empId, LocalDate from, LocalDate to) throws SQLException {
+        IntervalIndex<LeaveSpan> index = getSnapshot().leaveByEmployee.get(empId);
+        return index == null ? Collections.emptyList() : index.overlapping(from, to);
+    }
+
+    /**
+     * emp_ids on approved leave on the date.
+     */
+    public static Set<Integer> whoIsOut(LocalDate date) throws SQLException {
+        Set<Integer> out = new TreeSet<>();
+        for (LeaveSpan span : getSnapshot().approvedLeave.containing(date)) out.add(span.getEmpId());
+        return out;
+    }
+}
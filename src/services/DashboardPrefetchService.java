@@ -0,0 +1,160 @@
+package services;
+
+import dao.EmployeeDAO;
+import javafx.collections.ObservableList;
+import models.AttendanceRecord;
+import models.LeaveRequest;
+import utils.DBConnection;
+import utils.SessionManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * DASHBOARD PREFETCH: Starts every employee-dashboard panel query at once,
+ * as soon as login succeeds, instead of running them one after another on
+ * the FX thread once the dashboard is built.
+ *
+ * Each login gets one Session, which owns a virtual-thread executor as its
+ * task scope: all panel queries are forked into it, it is closed once they
+ * have all finished (so no thread outlives the session), and cancel() tears
+ * the whole scope down on logout. Panels subscribe to their own future and
+ * fill in as results arrive; a failing panel does not take the others down.
+ *
+ * LoginController starts the prefetch; the session cancels it on logout
+ * through SessionManager.onLogout, whether or not the dashboard has claimed it.
+ */
+public class DashboardPrefetchService {
+
+    private static final EmployeeDAO employeeDAO = new EmployeeDAO();
+    private static Session current;   // started at login, not claimed yet
+    private static Session claimed;   // feeding the dashboard that is showing
+
+    static {
+        SessionManager.onLogout(DashboardPrefetchService::cancel);
+    }
+
+    /**
+     * Panel queries for one logged-in employee.
+     */
+    public static class Session {
+        private final int empId;
+        private final ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+
+        private final CompletableFuture<BigDecimal> netSalary;
+        private final CompletableFuture<Double> remainingLeave;
+        private final CompletableFuture<ObservableList<AttendanceRecord>> attendance;
+        private final CompletableFuture<ObservableList<LeaveRequest>> leaves;
+        private final CompletableFuture<ObservableList<String>> otherRequests;
+        private final CompletableFuture<Void> all;
+
+        private Session(int empId) {
+            this.empId = empId;
+            this.netSalary = fork(() -> queryNetSalary(empId));
+            this.remainingLeave = fork(() -> LeaveLedgerService.getTotalAvailable(empId));
+            this.attendance = fork(() -> employeeDAO.getAllAttendance(empId));
+            this.leaves = fork(() -> employeeDAO.getEmployeeLeaveRequests(empId));
+            this.otherRequests = fork(() -> employeeDAO.getEmployeeOtherRequestsStatus(empId));
+
+            // Join: the scope closes when the last subtask completes, whatever its outcome
+            this.all = CompletableFuture.allOf(netSalary, remainingLeave, attendance, leaves, otherRequests)
+                    .handle((v, e) -> null);
+            this.all.whenComplete((v, e) -> scope.shutdown());
+        }
+
+        private <T> CompletableFuture<T> fork(Supplier<T> task) {
+            return CompletableFuture.supplyAsync(task, scope);
+        }
+
+        public int getEmpId() { return empId; }
+        public CompletableFuture<BigDecimal> netSalary() { return netSalary; }
+        public CompletableFuture<Double> remainingLeave() { return remainingLeave; }
+        public CompletableFuture<ObservableList<AttendanceRecord>> attendance() { return attendance; }
+        public CompletableFuture<ObservableList<LeaveRequest>> leaves() { return leaves; }
+        public CompletableFuture<ObservableList<String>> otherRequests() { return otherRequests; }
+
+        /**
+         * Completes (normally) once every panel query has finished or failed.
+         */
+        public CompletableFuture<Void> allDone() { return all; }
+
+        /**
+         * Cancels whatever is still running and closes the scope.
+         */
+        public void cancel() {
+            for (Future<?> f : new Future<?>[] { netSalary, remainingLeave, attendance, leaves, otherRequests }) {
+                f.cancel(true);
+            }
+            scope.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts the panel queries for a freshly authenticated employee,
+     * replacing (and cancelling) any previous session's prefetch.
+     */
+    public static synchronized Session start(int empId) {
+        if (current != null) current.cancel();
+        current = new Session(empId);
+        return current;
+    }
+
+    /**
+     * Hands the prefetch to the dashboard. Returns the running session for this
+     * employee, or starts a new one (e.g. when the dashboard is refreshed).
+     * The session is consumed so a later refresh queries fresh data, but stays
+     * tracked until the next claim or logout so cancel() still reaches it.
+     */
+    public static synchronized Session claim(int empId) {
+        Session s = current;
+        current = null;
+        if (s != null && s.getEmpId() != empId) {
+            s.cancel();
+            s = null;
+        }
+        if (s == null) s = new Session(empId);
+        if (claimed != null && claimed != s) claimed.cancel();
+        claimed = s;
+        return s;
+    }
+
+    /**
+     * Runs the panel queries for one employee without making it the current
+     * prefetch, so several sessions can run at once (load tests).
+     */
+    public static Session open(int empId) {
+        return new Session(empId);
+    }
+
+    /**
+     * Cancels the pending and the claimed prefetch (logout), so no panel of
+     * the previous user is filled in after sign-out.
+     */
+    public static synchronized void cancel() {
+        if (current != null) current.cancel();
+        if (claimed != null) claimed.cancel();
+        current = null;
+        claimed = null;
+    }
+
+    private static BigDecimal queryNetSalary(int empId) {
+        String sql = "SELECT net_salary FROM payroll WHERE emp_id=? ORDER BY generated_on DESC LIMIT 1";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, empId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("net_salary") : null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Net salary query failed: " + e.getMessage(), e);
+        }
+    }
+}
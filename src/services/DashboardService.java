@@ -1,5 +1,9 @@
 package services;
 
+import dao.RequestInboxDAO;
+import models.InboxEntry;
+import utils.DBConnection;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -8,12 +12,10 @@ import java.util.Map;
 
 public class DashboardService {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/payroll_system";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
+    private final RequestInboxDAO inboxDAO = new RequestInboxDAO();
 
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return DBConnection.getConnection();
     }
 
     /**
@@ -29,31 +31,17 @@ public class DashboardService {
     }
 
     /**
-     * Pending Leave Requests from leave_requests table.
+     * Pending Leave Requests (request_inbox, idx_inbox_status).
      */
     public int getPendingLeaveRequestsCount() throws SQLException {
-        final String SQL = "SELECT COUNT(*) FROM leave_requests WHERE status = 'Pending'";
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SQL);
-             ResultSet rs = stmt.executeQuery()) {
-            return rs.next() ? rs.getInt(1) : 0;
-        }
+        return inboxDAO.count("Pending", InboxEntry.LEAVE);
     }
 
     /**
      * Sum of all pending secondary requests (Bank, Advance, Reimbursements).
      */
     public int getPendingCorrectionRequestsCount() throws SQLException {
-        final String SQL = "SELECT (" +
-                "(SELECT COUNT(*) FROM bank_requests WHERE status = 'Pending') + " +
-                "(SELECT COUNT(*) FROM salary_advance_requests WHERE status = 'Pending') + " +
-                "(SELECT COUNT(*) FROM reimbursements WHERE status = 'Pending')" +
-                ") AS total_pending";
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SQL);
-             ResultSet rs = stmt.executeQuery()) {
-            return rs.next() ? rs.getInt("total_pending") : 0;
-        }
+        return inboxDAO.count("Pending", InboxEntry.BANK_CHANGE, InboxEntry.SALARY_ADVANCE, InboxEntry.REIMBURSEMENT);
     }
 
     /**
@@ -70,34 +58,25 @@ public class DashboardService {
     }
 
     /**
-     * Unified list of latest pending items.
+     * Unified list of latest pending items, newest first from request_inbox.
      */
     public List<String[]> getLatestPendingRequests(int limit) throws SQLException {
         List<String[]> requests = new ArrayList<>();
-        final String SQL = 
-            "(SELECT 'Leave' as type, CONCAT(u.first_name, ' ', u.last_name) as name, lr.requested_on as req_date, lr.reason as details " +
-            " FROM leave_requests lr JOIN employees e ON lr.emp_id = e.emp_id JOIN users u ON e.user_id = u.user_id WHERE lr.status = 'Pending') " +
-            "UNION ALL " +
-            "(SELECT 'Bank Change' as type, CONCAT(u.first_name, ' ', u.last_name) as name, br.request_date as req_date, CONCAT('New Acct: ', br.new_account) as details " +
-            " FROM bank_requests br JOIN employees e ON br.emp_id = e.emp_id JOIN users u ON e.user_id = u.user_id WHERE br.status = 'Pending') " +
-            "UNION ALL " +
-            "(SELECT 'Advance' as type, CONCAT(u.first_name, ' ', u.last_name) as name, sar.request_date as req_date, CONCAT('Amt: ', sar.amount) as details " +
-            " FROM salary_advance_requests sar JOIN employees e ON sar.emp_id = e.emp_id JOIN users u ON e.user_id = u.user_id WHERE sar.status = 'Pending') " +
-            "ORDER BY req_date DESC LIMIT ?";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SQL)) {
-            stmt.setInt(1, limit);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    requests.add(new String[]{
-                        rs.getString("type"),
-                        rs.getString("name"),
-                        rs.getString("req_date").substring(0, 10),
-                        rs.getString("details")
-                    });
-                }
+        for (InboxEntry entry : inboxDAO.findPage("Pending", null, null, 0, limit)) {
+            String type;
+            String details;
+            switch (entry.getSource()) {
+                case InboxEntry.BANK_CHANGE -> { type = "Bank Change"; details = "New Acct: " + entry.getNewValue(); }
+                case InboxEntry.SALARY_ADVANCE -> { type = "Advance"; details = "Amt: " + entry.getAmount(); }
+                case InboxEntry.REIMBURSEMENT -> { type = "Reimbursement"; details = "Amt: " + entry.getAmount(); }
+                default -> { type = "Leave"; details = entry.getReason(); }
             }
+            requests.add(new String[]{
+                type,
+                entry.getEmployeeName(),
+                entry.getSubmittedAt() == null ? "" : entry.getSubmittedAt().toLocalDate().toString(),
+                details
+            });
         }
         return requests;
     }
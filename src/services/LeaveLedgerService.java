@@ -0,0 +1,178 @@
+package services;
+
+import dao.LeaveLedgerDAO;
+import utils.Metrics;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leave balances from the leave ledger.
+ *
+ * Balances come from a cached projection of leave_ledger_balance (one scan,
+ * then O(1) per lookup); anything that writes the ledger, directly or through
+ * the leave_requests triggers (submit, decide), calls invalidate().
+ *
+ * The balance is what has been posted (accruals, approved usage,
+ * adjustments). Pending requests reserve their days, so the available days
+ * shown and checked on submission are the balance minus the reservations.
+ *
+ * The accrual job posts monthly accruals for every active employee with one
+ * set-based statement per month. It catches up on start (so months the
+ * application was not running are still posted) and re-checks periodically;
+ * posting is idempotent per employee, type and month.
+ */
+public class LeaveLedgerService {
+
+    private static final long ACCRUAL_CHECK_HOURS = 6;
+    private static final Metrics.Counter ACCRUALS =
+            Metrics.counter("payroll_leave_accrual_entries_total", "Leave ledger accrual entries posted");
+
+    private static final LeaveLedgerDAO dao = new LeaveLedgerDAO();
+    private static volatile Snapshot snapshot;
+    private static ScheduledExecutorService accrualJob;
+
+    private static final class Snapshot {
+        final Map<String, Double> policies;
+        final Map<Integer, Map<String, double[]>> balances;   // {balance, reserved}
+
+        Snapshot(Map<String, Double> policies, Map<Integer, Map<String, double[]>> balances) {
+            this.policies = policies;
+            this.balances = balances;
+        }
+    }
+
+    private static Snapshot getSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (LeaveLedgerService.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(dao.loadPolicies(), dao.loadBalances());
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Drops the cached balances; the next lookup reloads them.
+     */
+    public static void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * @return true if the leave type has an entitlement in leave_policy
+     */
+    public static boolean isTracked(String leaveType) {
+        try {
+            return leaveType != null && getSnapshot().policies.containsKey(leaveType);
+        } catch (SQLException e) {
+            System.err.println("Leave ledger unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Posted balance for one leave type, not counting Pending reservations
+     * (0 if nothing has been posted yet).
+     */
+    public static double getBalance(int empId, String leaveType) {
+        return lookup(empId, leaveType)[0];
+    }
+
+    /**
+     * Days that can still be requested for one leave type: the balance minus
+     * what Pending requests have reserved.
+     */
+    public static double getAvailable(int empId, String leaveType) {
+        double[] entry = lookup(empId, leaveType);
+        return entry[0] - entry[1];
+    }
+
+    /**
+     * Available days summed across every tracked leave type.
+     */
+    public static double getTotalAvailable(int empId) {
+        try {
+            double total = 0;
+            for (double[] entry : getSnapshot().balances.getOrDefault(empId, Collections.emptyMap()).values()) {
+                total += entry[0] - entry[1];
+            }
+            return total;
+        } catch (SQLException e) {
+            System.err.println("Leave ledger unavailable: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static double[] lookup(int empId, String leaveType) {
+        try {
+            double[] entry = getSnapshot().balances.getOrDefault(empId, Collections.emptyMap()).get(leaveType);
+            return entry != null ? entry : new double[2];
+        } catch (SQLException e) {
+            System.err.println("Leave ledger unavailable: " + e.getMessage());
+            return new double[2];
+        }
+    }
+
+    public static boolean addAdjustment(int empId, String leaveType, double days, String note, int createdBy) {
+        try {
+            return dao.addAdjustment(empId, leaveType, days, note, createdBy);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            invalidate();
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Accrual job
+    // ----------------------------------------------------------------------
+
+    /**
+     * Posts every month from the last accrued one (re-run, to pick up employees
+     * added since) through the current month. With an empty ledger it starts
+     * at January of the current year.
+     * @return number of ledger rows inserted
+     */
+    public static int runAccrualCatchUp() throws SQLException {
+        YearMonth now = YearMonth.now();
+        YearMonth last = dao.lastAccruedPeriod();
+        YearMonth period = last == null ? YearMonth.of(now.getYear(), 1) : last;
+
+        int inserted = 0;
+        for (; !period.isAfter(now); period = period.plusMonths(1)) {
+            inserted += dao.accrue(period);
+        }
+        if (inserted > 0) invalidate();
+        return inserted;
+    }
+
+    /**
+     * Starts the background accrual job (application start-up). Safe to call more than once.
+     */
+    public static synchronized void startAccrualJob() {
+        if (accrualJob != null) return;
+        accrualJob = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leave-accrual");
+            t.setDaemon(true);
+            return t;
+        });
+        accrualJob.scheduleWithFixedDelay(() -> {
+            try {
+                ACCRUALS.add(runAccrualCatchUp());
+            } catch (SQLException e) {
+                System.err.println("Leave accrual failed: " + e.getMessage());
+            }
+        }, 0, ACCRUAL_CHECK_HOURS, TimeUnit.HOURS);
+    }
+}
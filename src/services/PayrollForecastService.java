@@ -0,0 +1,255 @@
+package services;
+
+import models.ForecastResult;
+import models.ForecastScenario;
+import utils.DBConnection;
+import utils.Metrics;
+import utils.TaxSchedule;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * FORECASTING: Projects monthly payroll cost 12-36 months ahead from current
+ * employees.salary, an annual raise rate, an annual attrition rate and the
+ * tax schedule.
+ *
+ * Each department is projected as its own fork/join task over the columnar
+ * workforce snapshot from PayrollSimulationService. Results are cached (LRU,
+ * at most CACHE_SIZE entries) by scenario hash plus a one-row change stamp of
+ * employees, payroll, departments and the tax rate, so re-opening the report
+ * with the same inputs skips loading the workforce until something changes.
+ */
+public class PayrollForecastService {
+
+    private static final DateTimeFormatter LABEL = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
+    private static final int CACHE_SIZE = 32;
+
+    // Access-ordered: the first entry is the least recently used. Guarded by itself.
+    private static final Map<String, ForecastResult> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Row counts catch deletes; updated_at (see sql.sql) catches inserts and updates
+    private static final String STAMP_SQL =
+            "SELECT (SELECT COUNT(*) FROM employees), (SELECT MAX(updated_at) FROM employees), " +
+            "(SELECT COUNT(*) FROM payroll), (SELECT MAX(updated_at) FROM payroll), " +
+            "(SELECT COUNT(*) FROM departments), (SELECT MAX(updated_at) FROM departments), " +
+            "(SELECT tax_rate FROM settings LIMIT 1)";
+
+    private static final Metrics.Counter HITS =
+            Metrics.counter("payroll_forecast_cache_requests_total", "Forecast requests by cache result", "result", "hit");
+    private static final Metrics.Counter MISSES =
+            Metrics.counter("payroll_forecast_cache_requests_total", "Forecast requests by cache result", "result", "miss");
+
+    /**
+     * Projects cost starting next month for the current active workforce. A
+     * cache hit costs one stamp query; the workforce is only loaded on a miss.
+     */
+    public static ForecastResult forecast(ForecastScenario scenario) throws SQLException {
+        YearMonth start = YearMonth.now().plusMonths(1);
+        String key = scenario.hashKey() + "|s=" + start + "|db=" + loadStamp();
+        ForecastResult cached = lookup(key);
+        if (cached != null) return cached;
+
+        ForecastResult result = project(PayrollSimulationService.loadWorkforce(), scenario, start);
+        store(key, result);
+        return result;
+    }
+
+    /**
+     * Projects cost for a given workforce snapshot and start month (benchmarks,
+     * tools without a database); cached by a fingerprint of the snapshot.
+     */
+    public static ForecastResult forecast(PayrollSimulationService.Workforce w, ForecastScenario scenario, YearMonth start) {
+        String key = scenario.hashKey() + "|s=" + start + "|w=" + fingerprint(w);
+        ForecastResult cached = lookup(key);
+        if (cached != null) return cached;
+
+        ForecastResult result = project(w, scenario, start);
+        store(key, result);
+        return result;
+    }
+
+    private static ForecastResult project(PayrollSimulationService.Workforce w, ForecastScenario scenario, YearMonth start) {
+        long t0 = System.nanoTime();
+        int months = scenario.getMonths();
+
+        String[] labels = new String[months];
+        for (int m = 0; m < months; m++) labels[m] = start.plusMonths(m).format(LABEL);
+
+        TaxSchedule tax = scenario.getTaxSchedule() != null
+                ? scenario.getTaxSchedule()
+                : TaxSchedule.flat(w.taxRatePercent);
+
+        // Group employee indexes by department
+        int deptCount = w.deptNames.length;
+        int[] counts = new int[deptCount];
+        for (int i = 0; i < w.size; i++) counts[w.deptIndex[i]]++;
+        int[][] members = new int[deptCount][];
+        for (int d = 0; d < deptCount; d++) members[d] = new int[counts[d]];
+        int[] fill = new int[deptCount];
+        for (int i = 0; i < w.size; i++) {
+            int d = w.deptIndex[i];
+            members[d][fill[d]++] = i;
+        }
+
+        // Monthly raise multiplier and survival curve shared by all departments
+        double[] raise = new double[months];
+        double[] survival = new double[months];
+        double annualRaise = 1.0 + scenario.getAnnualRaisePercent() / 100.0;
+        double monthlySurvival = Math.pow(1.0 - scenario.getAnnualAttritionPercent() / 100.0, 1.0 / 12.0);
+        for (int m = 0; m < months; m++) {
+            raise[m] = Math.pow(annualRaise, m / 12);
+            survival[m] = Math.pow(monthlySurvival, m + 1);
+        }
+
+        List<DepartmentProjection> tasks = new ArrayList<>(deptCount);
+        for (int d = 0; d < deptCount; d++) {
+            tasks.add(new DepartmentProjection(w, members[d], raise, survival, tax));
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        ForecastResult result = new ForecastResult(labels);
+        for (int d = 0; d < deptCount; d++) {
+            DepartmentProjection p = tasks.get(d);
+            result.addDepartment(w.deptNames[d], p.cost, p.tax, p.heads);
+        }
+        result.setElapsedMillis((System.nanoTime() - t0) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Drops all cached projections (e.g. after a bulk salary change).
+     */
+    public static void invalidateCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static ForecastResult lookup(String key) {
+        ForecastResult cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) HITS.inc(); else MISSES.inc();
+        return cached;
+    }
+
+    private static void store(String key, ForecastResult result) {
+        synchronized (cache) {
+            cache.put(key, result);
+            if (cache.size() > CACHE_SIZE) {
+                Iterator<String> eldest = cache.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * One-row identity of the data a forecast reads; changes whenever an
+     * employee, payroll row, department or the tax rate changes.
+     */
+    private static String loadStamp() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(STAMP_SQL)) {
+            if (!rs.next()) return "";
+            StringBuilder stamp = new StringBuilder();
+            for (int c = 1; c <= 7; c++) stamp.append(rs.getString(c)).append('/');
+            return stamp.toString();
+        }
+    }
+
+    /**
+     * Cheap identity for a workforce snapshot: size, tax rate and salary/allowance totals.
+     */
+    private static String fingerprint(PayrollSimulationService.Workforce w) {
+        double salarySum = 0.0, allowanceSum = 0.0;
+        long idHash = 1;
+        for (int i = 0; i < w.size; i++) {
+            salarySum += w.salary[i];
+            allowanceSum += w.allowances[i];
+            idHash = 31 * idHash + w.empId[i] * 17L + w.deptIndex[i];
+        }
+        return w.size + ":" + w.taxRatePercent + ":" + Math.round(salarySum * 100) + ":"
+                + Math.round(allowanceSum * 100) + ":" + Long.toHexString(idHash);
+    }
+
+    /**
+     * Projects one department: for every month, expected gross cost and tax of
+     * its members after raises and attrition.
+     */
+    private static class DepartmentProjection extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized; transient keeps javac's serial lint quiet
+        private final transient PayrollSimulationService.Workforce w;
+        private final int[] members;
+        private final double[] raise;
+        private final double[] survival;
+        private final transient TaxSchedule taxSchedule;
+
+        final double[] cost;
+        final double[] tax;
+        final double[] heads;
+
+        DepartmentProjection(PayrollSimulationService.Workforce w, int[] members,
+                             double[] raise, double[] survival, TaxSchedule taxSchedule) {
+            this.w = w;
+            this.members = members;
+            this.raise = raise;
+            this.survival = survival;
+            this.taxSchedule = taxSchedule;
+            this.cost = new double[raise.length];
+            this.tax = new double[raise.length];
+            this.heads = new double[raise.length];
+        }
+
+        @Override
+        protected void compute() {
+            int n = members.length;
+            double[] gross = new double[n];
+            double[] taxes = new double[n];
+
+            double sumGross = 0.0, sumTax = 0.0;
+            for (int m = 0; m < raise.length; m++) {
+                // Raises only change at anniversaries; reuse the previous totals otherwise
+                if (m == 0 || raise[m] != raise[m - 1]) {
+                    for (int k = 0; k < n; k++) {
+                        int i = members[k];
+                        gross[k] = w.salary[i] * raise[m] + w.allowances[i];
+                    }
+                    taxSchedule.taxFor(gross, taxes, n);
+                    sumGross = 0.0;
+                    sumTax = 0.0;
+                    for (int k = 0; k < n; k++) {
+                        sumGross += gross[k];
+                        sumTax += taxes[k];
+                    }
+                }
+                cost[m] = sumGross * survival[m];
+                tax[m] = sumTax * survival[m];
+                heads[m] = n * survival[m];
+            }
+        }
+    }
+}
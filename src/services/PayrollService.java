@@ -1,12 +1,328 @@
 package services;
 
 import utils.DBConnection;
+import utils.Metrics;
+import utils.PayrollChangeTracker;
+import utils.PayrollEvents;
+import models.PayrollRecomputeReport;
 import models.PayrollRecord;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.sql.*;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class PayrollService {
+
+    // Defaults applied by the batch generator until per-employee structures are stored
+    public static final double DEFAULT_ALLOWANCES = 500.0;
+    public static final double DEFAULT_DEDUCTIONS = 100.0;
+
+    // leave_requests.leave_type whose days are deducted from pay
+    public static final String UNPAID_LEAVE = "Unpaid Leave";
+
+    // Payroll rows per query in streamPayroll; each chunk is read before any is sent
+    private static final int STREAM_CHUNK = 500;
+
+    /**
+     * One employee's figures for a period, as written to the payroll row.
+     */
+    public static final class Computed {
+        public final double base;
+        public final double allowances;
+        public final double deductions;
+        public final double tax;
+
+        Computed(double base, double allowances, double deductions, double tax) {
+            this.base = base;
+            this.allowances = allowances;
+            this.deductions = deductions;
+            this.tax = tax;
+        }
+
+        public double net() {
+            return base + allowances - deductions - tax;
+        }
+    }
+
+    /**
+     * PAYROLL RULE shared by batch generation and incremental recompute. Base is
+     * the point-in-time salary for the period; deductions are the default plus a
+     * day's pay (base / working days) per unpaid day; tax is the settings rate
+     * on base + allowances. Retro pay arrears posted to the period are added to
+     * allowances and tax as posted (their tax was priced at the old periods' rates).
+     *
+     * @param unpaidDays working days without pay (see loadUnpaidDays)
+     * @param arrears    {gross, tax} posted to this period (see loadArrears), or null
+     */
+    public static Computed compute(int empId, YearMonth period, double currentSalary,
+                                   double unpaidDays, double[] arrears, double taxRatePercent) {
+        double base = round2(SalaryHistoryService.salaryForPeriod(empId, period, currentSalary));
+        int workingDays = WorkingDayService.workingDaysInMonth(period);
+        double unpaid = workingDays == 0 ? 0.0 : round2(base / workingDays * Math.min(unpaidDays, workingDays));
+        double tax = round2(calculateTax(base, DEFAULT_ALLOWANCES, taxRatePercent));
+        double allowances = DEFAULT_ALLOWANCES;
+        if (arrears != null) {
+            allowances = round2(allowances + arrears[0]);
+            tax = round2(tax + arrears[1]);
+        }
+        return new Computed(base, allowances, DEFAULT_DEDUCTIONS + unpaid, tax);
+    }
+
+    /**
+     * Retro pay arrears posted to a period (payroll_adjustments), per employee
+     * as {gross, tax}. Employees with none are absent from the map.
+     *
+     * @param empIds employees to load, or null for everyone
+     */
+    public static Map<Integer, double[]> loadArrears(Connection conn, String month, int year, Collection<Integer> empIds)
+            throws SQLException {
+        Map<Integer, double[]> arrears = new HashMap<>();
+        if (empIds != null && empIds.isEmpty()) return arrears;
+
+        String sql = "SELECT emp_id, SUM(amount) AS gross, SUM(tax) AS tax FROM payroll_adjustments " +
+                     "WHERE month = ? AND year = ?" +
+                     (empIds == null ? "" : " AND emp_id IN (" + String.join(",", Collections.nCopies(empIds.size(), "?")) + ")") +
+                     " GROUP BY emp_id";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, month);
+            ps.setInt(2, year);
+            bindIds(ps, 3, empIds);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    arrears.put(rs.getInt("emp_id"), new double[]{rs.getDouble("gross"), rs.getDouble("tax")});
+                }
+            }
+        }
+        return arrears;
+    }
+
+    /**
+     * Unpaid working days per employee in the period: Absent attendance on
+     * working days plus the working days of approved Unpaid Leave inside the
+     * period. Employees with none are absent from the map.
+     *
+     * @param empIds employees to load, or null for everyone
+     */
+    public static Map<Integer, Double> loadUnpaidDays(Connection conn, YearMonth period, Collection<Integer> empIds)
+            throws SQLException {
+        Map<Integer, Double> days = new HashMap<>();
+        if (empIds != null && empIds.isEmpty()) return days;
+
+        String empFilter = empIds == null ? ""
+                : " AND emp_id IN (" + String.join(",", Collections.nCopies(empIds.size(), "?")) + ")";
+        LocalDate first = period.atDay(1);
+        LocalDate last = period.atEndOfMonth();
+
+        String absentSql = "SELECT emp_id, attendance_date FROM attendance " +
+                           "WHERE status = 'Absent' AND attendance_date BETWEEN ? AND ?" + empFilter;
+        try (PreparedStatement ps = conn.prepareStatement(absentSql)) {
+            ps.setDate(1, Date.valueOf(first));
+            ps.setDate(2, Date.valueOf(last));
+            bindIds(ps, 3, empIds);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (WorkingDayService.isWorkingDay(rs.getDate("attendance_date").toLocalDate())) {
+                        days.merge(rs.getInt("emp_id"), 1.0, Double::sum);
+                    }
+                }
+            }
+        }
+
+        String leaveSql = "SELECT emp_id, start_date, end_date FROM leave_requests " +
+                          "WHERE status = 'Approved' AND leave_type = ? AND start_date <= ? AND end_date >= ?" + empFilter;
+        try (PreparedStatement ps = conn.prepareStatement(leaveSql)) {
+            ps.setString(1, UNPAID_LEAVE);
+            ps.setDate(2, Date.valueOf(last));
+            ps.setDate(3, Date.valueOf(first));
+            bindIds(ps, 4, empIds);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate from = rs.getDate("start_date").toLocalDate();
+                    LocalDate to = rs.getDate("end_date").toLocalDate();
+                    int n = WorkingDayService.workingDays(from.isBefore(first) ? first : from, to.isAfter(last) ? last : to);
+                    if (n > 0) days.merge(rs.getInt("emp_id"), (double) n, Double::sum);
+                }
+            }
+        }
+        return days;
+    }
+
+    private static void bindIds(PreparedStatement ps, int from, Collection<Integer> ids) throws SQLException {
+        if (ids == null) return;
+        for (int id : ids) ps.setInt(from++, id);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Flat tax: the settings rate applied to base + allowances.
+     */
+    public static double calculateTax(double base, double allowances, double taxRatePercent) {
+        return (base + allowances) * (taxRatePercent / 100.0);
+    }
+
+    /**
+     * Records a payroll run (batch generate, recompute, retro pay) in Metrics:
+     * rows written, employees processed and duration, labelled by run.
+     */
+    public static void recordRun(String run, int employees, int rowsWritten, long elapsedNanos) {
+        Metrics.counter("payroll_rows_written_total", "Payroll rows written by payroll runs", "run", run).add(rowsWritten);
+        Metrics.counter("payroll_run_employees_total", "Employees processed by payroll runs", "run", run).add(employees);
+        Metrics.timer("payroll_run_seconds", "Payroll run duration", "run", run).record(elapsedNanos);
+    }
+
+    /**
+     * Net pay for the structure editor's live preview: flat tax and social
+     * contribution on gross (base + allowances + bonus), then fixed deductions.
+     */
+    public static double netPay(double base, double allowances, double bonus, double deductions,
+                                double insurance, double taxRatePercent, double socialRatePercent) {
+        double gross = base + allowances + bonus;
+        double tax = gross * (taxRatePercent / 100);
+        double social = gross * (socialRatePercent / 100);
+        return gross - (tax + social + deductions + insurance);
+    }
+
+    /**
+     * Reads the flat tax rate (percentage) from the settings table. The one tax
+     * source for batch generation and recompute.
+     */
+    public static double loadTaxRate(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT tax_rate FROM settings LIMIT 1")) {
+            return rs.next() ? rs.getDouble("tax_rate") : 0.0;
+        }
+    }
+
+    /**
+     * INCREMENTAL RECOMPUTE: Recalculates only the payroll rows of employees that
+     * PayrollChangeTracker marked dirty for the period, with the same rule as the
+     * batch run (compute()): salary, unpaid absence and leave, posted arrears,
+     * settings tax rate.
+     * Rows are updated in one batch and one transaction. Employees without a
+     * payroll row for the period are skipped.
+     *
+     * @return diff report of the rows that changed (empty if nothing was dirty)
+     */
+    public static PayrollRecomputeReport recomputeDirty(String month, int year) {
+        long start = System.nanoTime();
+        PayrollRecomputeReport report = new PayrollRecomputeReport(month, year);
+
+        YearMonth period = PayrollChangeTracker.toYearMonth(month, year);
+        if (period == null) {
+            System.err.println("recomputeDirty: unrecognised month '" + month + "'");
+            return report;
+        }
+        Set<Integer> dirty = PayrollChangeTracker.drain(month, year);
+        if (dirty.isEmpty()) {
+            return report;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(dirty.size(), "?"));
+        String selectSql = "SELECT p.payroll_id, p.emp_id, p.base_salary, p.allowances, p.deductions, " +
+                           "p.tax, p.net_salary, e.salary " +
+                           "FROM payroll p JOIN employees e ON p.emp_id = e.emp_id " +
+                           "WHERE p.month = ? AND p.year = ? AND p.emp_id IN (" + placeholders + ")";
+        String updateSql = "UPDATE payroll SET base_salary = ?, allowances = ?, deductions = ?, tax = ? WHERE payroll_id = ?";
+        String totalSql = "SELECT COALESCE(SUM(net_salary), 0) FROM payroll WHERE month = ? AND year = ?";
+
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            double taxRate = loadTaxRate(conn);
+            Map<Integer, Double> unpaidDays = loadUnpaidDays(conn, period, dirty);
+            Map<Integer, double[]> arrears = loadArrears(conn, month, year, dirty);
+
+            try (PreparedStatement ps = conn.prepareStatement(totalSql)) {
+                ps.setString(1, month);
+                ps.setInt(2, year);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) report.setTotalBefore(rs.getDouble(1));
+                }
+            }
+
+            PayrollEvents.PayrollRunChunk chunk = PayrollEvents.PayrollRunChunk.begin("recompute", month + " " + year);
+            int checked = 0;
+            double delta = 0.0;
+            try (PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+                select.setString(1, month);
+                select.setInt(2, year);
+                int idx = 3;
+                for (int empId : dirty) select.setInt(idx++, empId);
+
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        checked++;
+                        int empId = rs.getInt("emp_id");
+                        double oldBase = rs.getDouble("base_salary");
+                        double oldAllowances = rs.getDouble("allowances");
+                        double oldDeductions = rs.getDouble("deductions");
+                        double oldTax = rs.getDouble("tax");
+                        double oldNet = rs.getDouble("net_salary");
+
+                        Computed row = compute(empId, period, rs.getDouble("salary"),
+                                               unpaidDays.getOrDefault(empId, 0.0), arrears.get(empId), taxRate);
+
+                        if (Math.abs(row.base - oldBase) < 0.005 && Math.abs(row.allowances - oldAllowances) < 0.005
+                                && Math.abs(row.deductions - oldDeductions) < 0.005 && Math.abs(row.tax - oldTax) < 0.005) {
+                            continue;
+                        }
+
+                        update.setDouble(1, row.base);
+                        update.setDouble(2, row.allowances);
+                        update.setDouble(3, row.deductions);
+                        update.setDouble(4, row.tax);
+                        update.setInt(5, rs.getInt("payroll_id"));
+                        update.addBatch();
+
+                        delta += row.net() - oldNet;
+                        report.addLine(new PayrollRecomputeReport.Line(
+                            empId, oldBase, row.base, oldTax, row.tax, oldNet, row.net()));
+                    }
+                }
+
+                if (!report.isEmpty()) update.executeBatch();
+            }
+
+            conn.commit();
+            chunk.finish(checked, report.getLines().size());
+            recordRun("recompute", checked, report.getLines().size(), System.nanoTime() - start);
+            report.setEmployeesChecked(checked);
+            report.setTotalAfter(report.getTotalBefore() + delta);
+
+        } catch (SQLException e) {
+            System.err.println("SQL Error in recomputeDirty: " + e.getMessage());
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ignored) { }
+            }
+            // Put the ids back so the next recompute retries them
+            for (int empId : dirty) PayrollChangeTracker.markDirty(empId, month, year);
+            report.getLines().clear();
+        } finally {
+            if (conn != null) {
+                try { conn.close(); } catch (SQLException ignored) { }
+            }
+        }
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
     
     /**
      * Retrieves all payroll records.
@@ -28,16 +344,7 @@ public class PayrollService {
              ResultSet rs = pst.executeQuery()) {
             while (rs.next()) {
                 // Using standard defaults for general retrieval
-                list.add(new PayrollRecord(
-                    rs.getInt("payroll_id"), 
-                    rs.getString("employee_name"),
-                    rs.getString("department") != null ? rs.getString("department") : "N/A",
-                    22, 0, 
-                    rs.getDouble("base_salary"),
-                    rs.getDouble("allowances"), 
-                    rs.getDouble("deductions"),
-                    "Processed" 
-                ));
+                list.add(mapPayrollRow(rs));
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return list;
@@ -62,21 +369,111 @@ public class PayrollService {
             pst.setInt(1, empId);
             ResultSet rs = pst.executeQuery();
             while (rs.next()) {
-                list.add(new PayrollRecord(
-                    rs.getInt("payroll_id"), 
-                    rs.getString("employee_name"),
-                    rs.getString("department") != null ? rs.getString("department") : "N/A",
-                    22, 0, 
-                    rs.getDouble("base_salary"),
-                    rs.getDouble("allowances"), 
-                    rs.getDouble("deductions"),
-                    "Processed"
-                ));
+                list.add(mapPayrollRow(rs));
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return list;
     }
 
+    /**
+     * Receives payroll rows one at a time from streamPayroll.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Streams payroll rows (getAllPayroll column set plus emp_id, status and
+     * generated_on) to the handler without building a list. Used by the REST
+     * API, where a full export can be the whole payroll table. Rows are read
+     * STREAM_CHUNK at a time (keyset on payroll_id) into a detached row set,
+     * and the connection goes back to the pool before the handler sees them,
+     * so a slow client never holds a connection. Null filters match everything.
+     */
+    public static void streamPayroll(String month, Integer year, Integer empId, RowHandler handler)
+            throws SQLException, IOException {
+        StringBuilder query = new StringBuilder(
+            "SELECT p.payroll_id, p.emp_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
+            "d.dept_name AS department, p.month, p.year, " +
+            "p.base_salary, p.allowances, p.deductions, p.tax, p.net_salary, p.status, p.generated_on " +
+            "FROM payroll p " +
+            "JOIN employees e ON p.emp_id = e.emp_id " +
+            "JOIN users u ON e.user_id = u.user_id " +
+            "LEFT JOIN departments d ON e.dept_id = d.dept_id WHERE p.payroll_id > ?");
+        if (month != null) query.append(" AND p.month = ?");
+        if (year != null) query.append(" AND p.year = ?");
+        if (empId != null) query.append(" AND p.emp_id = ?");
+        query.append(" ORDER BY p.payroll_id LIMIT ").append(STREAM_CHUNK);
+
+        RowSetFactory rowSets = RowSetProvider.newFactory();
+        int after = 0;
+        while (true) {
+            try (CachedRowSet chunk = rowSets.createCachedRowSet()) {
+                try (Connection conn = DBConnection.getConnection();
+                     PreparedStatement pst = conn.prepareStatement(query.toString())) {
+                    int idx = 1;
+                    pst.setInt(idx++, after);
+                    if (month != null) pst.setString(idx++, month);
+                    if (year != null) pst.setInt(idx++, year);
+                    if (empId != null) pst.setInt(idx, empId);
+                    try (ResultSet rs = pst.executeQuery()) {
+                        chunk.populate(rs);
+                    }
+                }
+                int rows = 0;
+                while (chunk.next()) {
+                    handler.row(chunk);
+                    after = chunk.getInt("payroll_id");
+                    rows++;
+                }
+                if (rows < STREAM_CHUNK) return;
+            }
+        }
+    }
+
+    /**
+     * One payroll row (getAllPayroll / getEmployeePayroll column set) as a PayrollRecord.
+     */
+    public static PayrollRecord mapPayrollRow(ResultSet rs) throws SQLException {
+        String department = rs.getString("department");
+        return new PayrollRecord(
+            rs.getInt("payroll_id"),
+            rs.getString("employee_name"),
+            department != null ? department : "N/A",
+            workingDays(rs.getString("month"), rs.getInt("year")), 0,
+            rs.getDouble("base_salary"),
+            rs.getDouble("allowances"),
+            rs.getDouble("deductions"),
+            "Processed"
+        );
+    }
+
+    /**
+     * Writes the payroll table export (PayrollOfficer "Export to Excel") as CSV.
+     */
+    public static void writeCsv(Iterable<PayrollRecord> records, PrintWriter writer) {
+        writer.println("Employee Name,Base Salary,Allowances,Deductions,Net Salary,Status");
+        for (PayrollRecord record : records) {
+            writer.println(String.format("%s,%.2f,%.2f,%.2f,%.2f,%s",
+                record.getEmployeeName(),
+                record.getBaseSalary(),
+                record.getAllowances(),
+                record.getDeductions(),
+                record.getNetSalary(),
+                record.getStatus()
+            ));
+        }
+    }
+
+    /**
+     * Working days in the payroll period (weekends and company holidays excluded).
+     */
+    private static int workingDays(String month, int year) {
+        YearMonth period = PayrollChangeTracker.toYearMonth(month, year);
+        return period == null ? 0 : WorkingDayService.workingDaysInMonth(period);
+    }
+
     /**
      * FULLY FUNCTIONAL: Enhanced query with real-time attendance/leaves.
      * This logic powers the Filter Bar and the Detail Sidebar in your UI.
@@ -88,9 +485,8 @@ public class PayrollService {
             "SELECT p.payroll_id, p.emp_id, CONCAT(u.first_name, ' ', u.last_name) AS employee_name, " +
             "d.dept_name AS department, p.month, p.year, " +
             "p.base_salary, p.allowances, p.deductions, p.tax, p.net_salary, " +
-            // Subquery 1: Counts 'Present' records for that employee in that specific month
-            "(SELECT COUNT(*) FROM attendance a WHERE a.emp_id = p.emp_id AND a.status = 'Present' AND MONTHNAME(a.attendance_date) = p.month) as days_present, " +
-            // Subquery 2: Sums 'Approved' leave days for that employee in that specific month
+            // Days present come from the attendance bitmap index (see below), not a per-row subquery
+            // Subquery: Sums 'Approved' leave days for that employee in that specific month
             "(SELECT IFNULL(SUM(total_days), 0) FROM leave_requests l WHERE l.emp_id = p.emp_id AND l.status = 'Approved' AND MONTHNAME(l.start_date) = p.month) as leave_days " +
             "FROM payroll p " +
             "JOIN employees e ON p.emp_id = e.emp_id " +
@@ -111,11 +507,13 @@ public class PayrollService {
              ResultSet rs = st.executeQuery(query.toString())) {
 
             while (rs.next()) {
+                YearMonth period = PayrollChangeTracker.toYearMonth(rs.getString("month"), rs.getInt("year"));
+                int daysPresent = period == null ? 0 : Math.max(0, AttendanceIndexService.daysPresent(rs.getInt("emp_id"), period));
                 list.add(new PayrollRecord(
                     rs.getInt("payroll_id"),
                     rs.getString("employee_name"),
                     rs.getString("department") != null ? rs.getString("department") : "N/A",
-                    rs.getInt("days_present"),
+                    daysPresent,
                     rs.getInt("leave_days"),
                     rs.getDouble("base_salary"),
                     rs.getDouble("allowances"),
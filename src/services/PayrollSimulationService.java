@@ -0,0 +1,203 @@
+package services;
+
+import models.SimulationResult;
+import models.SimulationScenario;
+import utils.DBConnection;
+import utils.TaxSchedule;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * WHAT-IF ENGINE: Models payroll changes (raises, allowance changes, new tax
+ * brackets) across the whole active workforce without touching the payroll table.
+ *
+ * The workforce is loaded once into columnar primitive arrays; each scenario
+ * is then a handful of linear passes over those arrays, which keeps a 100k
+ * employee run in the tens of milliseconds.
+ */
+public class PayrollSimulationService {
+
+    /**
+     * Columnar snapshot of the active workforce.
+     * Index i in every array refers to the same employee.
+     */
+    public static class Workforce {
+        final int size;
+        final int[] empId;
+        final double[] salary;
+        final double[] allowances;
+        final double[] deductions;
+        final int[] deptIndex;
+        final String[] deptNames;
+        final double taxRatePercent;
+
+        Workforce(int size, int[] empId, double[] salary, double[] allowances, double[] deductions,
+                  int[] deptIndex, String[] deptNames, double taxRatePercent) {
+            this.size = size;
+            this.empId = empId;
+            this.salary = salary;
+            this.allowances = allowances;
+            this.deductions = deductions;
+            this.deptIndex = deptIndex;
+            this.deptNames = deptNames;
+            this.taxRatePercent = taxRatePercent;
+        }
+
+        public int size() { return size; }
+        public String[] getDepartmentNames() { return deptNames.clone(); }
+        public double getTaxRatePercent() { return taxRatePercent; }
+    }
+
+    /**
+     * Loads every active employee's salary, department and most recent
+     * allowances/deductions (defaults when no payroll row exists yet).
+     */
+    public static Workforce loadWorkforce() throws SQLException {
+        String sql = "SELECT e.emp_id, COALESCE(e.salary, 0) AS salary, " +
+                     "COALESCE(d.dept_name, 'Unassigned') AS dept_name, " +
+                     "COALESCE(p.allowances, ?) AS allowances, COALESCE(p.deductions, ?) AS deductions " +
+                     "FROM employees e " +
+                     "LEFT JOIN departments d ON e.dept_id = d.dept_id " +
+                     "LEFT JOIN payroll p ON p.payroll_id = " +
+                     "  (SELECT MAX(p2.payroll_id) FROM payroll p2 WHERE p2.emp_id = e.emp_id) " +
+                     "WHERE e.status = 'Active'";
+
+        int capacity = 1024;
+        int n = 0;
+        int[] empId = new int[capacity];
+        double[] salary = new double[capacity];
+        double[] allowances = new double[capacity];
+        double[] deductions = new double[capacity];
+        int[] deptIndex = new int[capacity];
+        Map<String, Integer> depts = new LinkedHashMap<>();
+        double taxRate;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            taxRate = PayrollService.loadTaxRate(conn);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setDouble(1, PayrollService.DEFAULT_ALLOWANCES);
+                ps.setDouble(2, PayrollService.DEFAULT_DEDUCTIONS);
+                ps.setFetchSize(5000);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (n == capacity) {
+                            capacity *= 2;
+                            empId = Arrays.copyOf(empId, capacity);
+                            salary = Arrays.copyOf(salary, capacity);
+                            allowances = Arrays.copyOf(allowances, capacity);
+                            deductions = Arrays.copyOf(deductions, capacity);
+                            deptIndex = Arrays.copyOf(deptIndex, capacity);
+                        }
+                        empId[n] = rs.getInt("emp_id");
+                        salary[n] = rs.getDouble("salary");
+                        allowances[n] = rs.getDouble("allowances");
+                        deductions[n] = rs.getDouble("deductions");
+                        deptIndex[n] = depts.computeIfAbsent(rs.getString("dept_name"), k -> depts.size());
+                        n++;
+                    }
+                }
+            }
+        }
+
+        return new Workforce(n, empId, salary, allowances, deductions, deptIndex,
+                depts.keySet().toArray(new String[0]), taxRate);
+    }
+
+    /**
+     * Runs a scenario against a loaded workforce. Pure computation; no DB access.
+     */
+    public static SimulationResult simulate(Workforce w, SimulationScenario scenario) {
+        long start = System.nanoTime();
+        final int n = w.size;
+        final int deptCount = w.deptNames.length;
+
+        // 1. Per-department salary multiplier (global raise compounded with department raise)
+        double global = 1.0 + scenario.getGlobalRaisePercent() / 100.0;
+        double[] deptFactor = new double[deptCount];
+        for (int d = 0; d < deptCount; d++) {
+            Double pct = scenario.getDepartmentRaisePercent().get(w.deptNames[d]);
+            deptFactor[d] = global * (1.0 + (pct == null ? 0.0 : pct / 100.0));
+        }
+
+        // 2. Gross columns
+        double allowanceChange = scenario.getAllowanceChange();
+        double[] grossOld = new double[n];
+        double[] grossNew = new double[n];
+        for (int i = 0; i < n; i++) {
+            grossOld[i] = w.salary[i] + w.allowances[i];
+        }
+        for (int i = 0; i < n; i++) {
+            grossNew[i] = w.salary[i] * deptFactor[w.deptIndex[i]] + w.allowances[i] + allowanceChange;
+        }
+
+        // 3. Tax columns (current flat rule vs scenario schedule)
+        TaxSchedule current = TaxSchedule.flat(w.taxRatePercent);
+        TaxSchedule proposed = scenario.getTaxSchedule() != null ? scenario.getTaxSchedule() : current;
+        double[] taxOld = new double[n];
+        double[] taxNew = new double[n];
+        current.taxFor(grossOld, taxOld, n);
+        proposed.taxFor(grossNew, taxNew, n);
+
+        // 4. Net-pay delta (deductions cancel out) and per-department cost
+        double[] delta = new double[n];
+        double[] costOld = new double[deptCount];
+        double[] costNew = new double[deptCount];
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dNet = (grossNew[i] - taxNew[i]) - (grossOld[i] - taxOld[i]);
+            delta[i] = dNet;
+            sum += dNet;
+            int d = w.deptIndex[i];
+            costOld[d] += grossOld[i];
+            costNew[d] += grossNew[i];
+        }
+
+        SimulationResult result = new SimulationResult(scenario.getName(), n);
+        for (int d = 0; d < deptCount; d++) {
+            result.putDepartmentCost(w.deptNames[d], costOld[d], costNew[d]);
+        }
+
+        if (n > 0) {
+            Arrays.sort(delta);
+            result.setDeltaStats(delta[0], delta[n - 1], sum / n,
+                    percentile(delta, 0.50), percentile(delta, 0.90), percentile(delta, 0.99));
+            buildHistogram(result, delta, 10);
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Convenience: load the current workforce and run one scenario.
+     */
+    public static SimulationResult simulate(SimulationScenario scenario) throws SQLException {
+        return simulate(loadWorkforce(), scenario);
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+
+    private static void buildHistogram(SimulationResult result, double[] sorted, int buckets) {
+        double min = sorted[0];
+        double max = sorted[sorted.length - 1];
+        double width = (max - min) / buckets;
+
+        double[] edges = new double[buckets + 1];
+        for (int b = 0; b <= buckets; b++) edges[b] = min + b * width;
+
+        int[] counts = new int[buckets];
+        for (double v : sorted) {
+            int b = width == 0 ? 0 : (int) ((v - min) / width);
+            counts[Math.min(b, buckets - 1)]++;
+        }
+        result.setHistogram(edges, counts);
+    }
+}
@@ -0,0 +1,120 @@
+package services;
+
+import dao.RequestApprovalDAO;
+import models.ApprovalResult;
+import models.InboxEntry;
+import utils.PayrollChangeTracker;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approves or rejects requests by (source, id).
+ *
+ * Ids are grouped by request table and each table is decided in one
+ * transaction (RequestApprovalDAO.decide), so approving a thousand requests
+ * is four round-trip groups rather than a thousand updates. Only requests
+ * that are still Pending change; the result says which ones did so callers
+ * can patch their rows in place instead of reloading.
+ *
+ * Side effects: notifications and audit rows are written in the same
+ * transaction; leave balances follow through the ledger trigger; caches
+ * (calendar, ledger) are invalidated once and payroll months covered by
+ * approved leave are marked dirty.
+ */
+public class RequestApprovalService {
+
+    /**
+     * Actor id for decisions made by the application itself (auto-approval);
+     * the audit rows are filed under the requester and tagged [auto].
+     */
+    public static final int SYSTEM_ACTOR = 0;
+
+    private static final RequestApprovalDAO dao = new RequestApprovalDAO();
+
+    /**
+     * Collects ids per source, preserving the order they were added.
+     */
+    public static class Batch {
+        private final Map<String, List<Integer>> ids = new LinkedHashMap<>();
+
+        public Batch add(String source, int sourceId) {
+            ids.computeIfAbsent(source, k -> new ArrayList<>()).add(sourceId);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return ids.isEmpty();
+        }
+
+        Map<String, List<Integer>> bySource() {
+            return ids;
+        }
+    }
+
+    public static ApprovalResult approve(Batch batch, int actorUserId) {
+        return decide(batch, "Approved", actorUserId);
+    }
+
+    public static ApprovalResult reject(Batch batch, int actorUserId) {
+        return decide(batch, "Rejected", actorUserId);
+    }
+
+    public static ApprovalResult decide(Batch batch, String newStatus, int actorUserId) {
+        return decide(batch, newStatus, actorUserId, null);
+    }
+
+    /**
+     * Moves every still-Pending request in the batch to newStatus. A table whose
+     * transaction fails is rolled back and counted in getFailedSources(); the
+     * other tables are still decided. The optional comment is stored with the
+     * employee notification and the audit row of every decided request.
+     */
+    public static ApprovalResult decide(Batch batch, String newStatus, int actorUserId, String comment) {
+        ApprovalResult result = new ApprovalResult(newStatus);
+        boolean leaveChanged = false;
+
+        for (Map.Entry<String, List<Integer>> entry : batch.bySource().entrySet()) {
+            String source = entry.getKey();
+            List<Integer> ids = entry.getValue();
+            if (!RequestApprovalDAO.isKnownSource(source)) {
+                System.err.println("Skipping unknown request source: " + source);
+                result.addSkipped(ids.size());
+                continue;
+            }
+            try {
+                List<RequestApprovalDAO.Decided> decided = dao.decide(source, ids, newStatus, actorUserId, comment);
+                for (RequestApprovalDAO.Decided d : decided) {
+                    result.addDecided(source, d.sourceId);
+                }
+                result.addSkipped(ids.size() - decided.size());
+
+                if (InboxEntry.LEAVE.equals(source) && !decided.isEmpty()) {
+                    leaveChanged = true;
+                    if ("Approved".equals(newStatus)) {
+                        // Approved leave changes the payroll inputs for the months it covers
+                        for (RequestApprovalDAO.Decided d : decided) {
+                            if (d.startDate != null && d.endDate != null) {
+                                PayrollChangeTracker.markDirty(d.empId, d.startDate, d.endDate);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Failed to update " + source + " requests: " + e.getMessage());
+                e.printStackTrace();
+                result.addSkipped(ids.size());
+                result.addFailedSource();
+            }
+        }
+
+        if (leaveChanged) {
+            CalendarIndexService.invalidate();
+            LeaveLedgerService.invalidate();
+        }
+        return result;
+    }
+}
@@ -1,63 +1,35 @@
 package services;
 
+import dao.RequestInboxDAO;
 import models.EmployeeRequest;
+import models.InboxEntry;
 import utils.DBConnection;
+import utils.PayrollChangeTracker;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class RequestService {
 
-    public List<EmployeeRequest> getAllRequests() {
-        List<EmployeeRequest> list = new ArrayList<>();
-        
-        // Match columns exactly to your provided SQL schema
-        // Note: I added '' as hr_comment because your base CREATE TABLE didn't show hr_comment 
-        // in all tables, but you can add them later.
-        String sql = 
-            "SELECT leave_id AS id, 'Leave' AS type, emp_id, status, requested_on AS sub_date, reason AS justification, " +
-            "start_date, end_date, NULL AS old_val, NULL AS new_val FROM leave_requests " +
-            "UNION ALL " +
-            "SELECT request_id AS id, 'Bank Change' AS type, emp_id, status, request_date AS sub_date, 'Account Update' AS justification, " +
-            "request_date, request_date, old_account AS old_val, new_account AS new_val FROM bank_requests " +
-            "UNION ALL " +
-            "SELECT advance_id AS id, 'Salary Advance' AS type, emp_id, status, request_date AS sub_date, reason AS justification, " +
-            "request_date, request_date, amount AS old_val, NULL AS new_val FROM salary_advance_requests " +
-            "UNION ALL " +
-            "SELECT reimb_id AS id, 'Reimbursement' AS type, emp_id, status, request_date AS sub_date, reason AS justification, " +
-            "request_date, request_date, amount AS old_val, NULL AS new_val FROM reimbursements " +
-            "ORDER BY sub_date DESC";
+    private final RequestInboxDAO inboxDAO = new RequestInboxDAO();
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql);
-             ResultSet rs = pst.executeQuery()) {
-            
-            while (rs.next()) {
-                EmployeeRequest req = new EmployeeRequest();
-                req.setRequestId(rs.getInt("id"));
-                req.setEmployeeId(rs.getInt("emp_id"));
-                req.setRequestType(rs.getString("type"));
-                req.setStatus(rs.getString("status"));
-                
-                // Use empty string for HR Comment if it's missing in SQL for now
-                req.setHrComment(""); 
-                
-                req.setOldValue(rs.getString("old_val"));
-                req.setNewValue(rs.getString("new_val"));
-                
-                Timestamp ts = rs.getTimestamp("sub_date");
-                if (ts != null) req.setSubmittedDate(ts.toLocalDateTime().toLocalDate());
-                
-                Date sDate = rs.getDate("start_date");
-                if (sDate != null) req.setStartDate(sDate.toLocalDate());
-                
-                Date eDate = rs.getDate("end_date");
-                if (eDate != null) req.setEndDate(eDate.toLocalDate());
+    /**
+     * Every request across the four request tables, newest first.
+     */
+    public List<EmployeeRequest> getAllRequests() {
+        return getRequestsPage(null, null, 0, Integer.MAX_VALUE);
+    }
 
-                req.setJustification(rs.getString("justification") == null ? "" : rs.getString("justification"));
-                req.setEmployeeName(fetchEmployeeFullName(conn, rs.getInt("emp_id")));
-                
-                list.add(req);
+    /**
+     * One page of the request inbox, newest first. Status and type filters run
+     * in the query (request_inbox indexes); null means no filter. Type is one of
+     * "Leave", "Bank Change", "Salary Advance", "Reimbursement".
+     */
+    public List<EmployeeRequest> getRequestsPage(String status, String type, int offset, int limit) {
+        List<EmployeeRequest> list = new ArrayList<>();
+        try {
+            for (InboxEntry entry : inboxDAO.findPage(status, null, type, offset, limit)) {
+                list.add(toRequest(entry));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -65,18 +37,33 @@ public class RequestService {
         return list;
     }
 
-    private String fetchEmployeeFullName(Connection conn, int empId) throws SQLException {
-        // Updated to match your USERS and EMPLOYEES join logic
-        String nameSql = "SELECT u.first_name, u.last_name FROM users u " +
-                         "JOIN employees e ON u.user_id = e.user_id WHERE e.emp_id = ?";
-        try (PreparedStatement pst = conn.prepareStatement(nameSql)) {
-            pst.setInt(1, empId);
-            ResultSet rs = pst.executeQuery();
-            if (rs.next()) {
-                return rs.getString("first_name") + " " + rs.getString("last_name") + " (ID: " + empId + ")";
-            }
+    private static EmployeeRequest toRequest(InboxEntry entry) {
+        EmployeeRequest req = new EmployeeRequest();
+        req.setRequestId(entry.getSourceId());
+        req.setEmployeeId(entry.getEmpId());
+        req.setRequestType(entry.getSource());
+        req.setStatus(entry.getStatus());
+        req.setHrComment("");
+
+        if (InboxEntry.BANK_CHANGE.equals(entry.getSource())) {
+            req.setOldValue(entry.getOldValue());
+            req.setNewValue(entry.getNewValue());
+        } else if (entry.getAmount() != null) {
+            req.setOldValue(entry.getAmount().toPlainString());
+        }
+
+        if (entry.getSubmittedAt() != null) req.setSubmittedDate(entry.getSubmittedAt().toLocalDate());
+        // Non-leave requests span their submission day
+        req.setStartDate(entry.getStartDate() != null ? entry.getStartDate() : req.getSubmittedDate());
+        req.setEndDate(entry.getEndDate() != null ? entry.getEndDate() : req.getSubmittedDate());
+
+        if (InboxEntry.BANK_CHANGE.equals(entry.getSource())) {
+            req.setJustification("Account Update");
+        } else {
+            req.setJustification(entry.getReason() == null ? "" : entry.getReason());
         }
-        return "Unknown Employee (" + empId + ")";
+        req.setEmployeeName(entry.getEmployeeName() + " (ID: " + entry.getEmpId() + ")");
+        return req;
     }
 
     public boolean updateRequest(EmployeeRequest request) {
@@ -99,7 +86,18 @@ public class RequestService {
              PreparedStatement pst = conn.prepareStatement(sql)) {
             pst.setString(1, request.getStatus());
             pst.setInt(2, request.getRequestId());
-            return pst.executeUpdate() > 0;
+            boolean updated = pst.executeUpdate() > 0;
+            if (updated && "Leave".equals(request.getRequestType())) {
+                // Approval posts / withdraws ledger usage through the leave_requests trigger
+                CalendarIndexService.invalidate();
+                LeaveLedgerService.invalidate();
+            }
+
+            // Approved leave changes the payroll inputs for the months it covers
+            if (updated && "Leave".equals(request.getRequestType()) && "Approved".equals(request.getStatus())) {
+                PayrollChangeTracker.markDirty(request.getEmployeeId(), request.getStartDate(), request.getEndDate());
+            }
+            return updated;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
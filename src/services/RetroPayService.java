@@ -0,0 +1,295 @@
+package services;
+
+import dao.SalaryHistoryDAO;
+import models.RetroPayChange;
+import models.RetroPayResult;
+import utils.DBConnection;
+import utils.PayrollChangeTracker;
+import utils.PayrollEvents;
+import utils.SessionManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RETRO PAY: Applies backdated salary changes.
+ *
+ * Closed payroll rows are never rewritten (they were paid). Instead every
+ * affected period is re-priced in memory at the new salary against what was
+ * actually paid for it (base plus arrears already posted for that period in
+ * payroll_arrears_period), the differences are summed per employee, and the
+ * arrears are added to the employee's line for the current period in
+ * payroll_adjustments. Payroll generation folds that line into the current
+ * period's payroll row (PayrollService.compute). employees.salary and the
+ * salary_history ranges are updated in the same transaction.
+ *
+ * A percentage raise (applyAcrossTheBoard) re-prices each period at that
+ * period's own point-in-time salary from salary_history, raised on the days
+ * from the effective date, and scales the later salary_history ranges rather
+ * than replacing them, so salary changes after the effective date survive.
+ *
+ * Work is set-based: payroll rows are read in chunks of CHUNK_SIZE employees
+ * per query and all writes go out as JDBC batches.
+ */
+public class RetroPayService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String ARREARS = "Arrears";
+    private static final SalaryHistoryDAO salaryHistoryDAO = new SalaryHistoryDAO();
+
+    /**
+     * Arrears for one employee and one covered period.
+     */
+    private static final class PeriodArrears {
+        final int empId;
+        final String month;
+        final int year;
+        final double gross;
+        final double tax;
+
+        PeriodArrears(int empId, String month, int year, double gross, double tax) {
+            this.empId = empId;
+            this.month = month;
+            this.year = year;
+            this.gross = gross;
+            this.tax = tax;
+        }
+    }
+
+    /**
+     * Backdated percentage raise of every active employee. Each period gets the
+     * raise on its own salary; the going-forward salary is today's salary raised.
+     */
+    public static RetroPayResult applyAcrossTheBoard(double raisePercent, LocalDate effectiveFrom) throws SQLException {
+        List<RetroPayChange> changes = new ArrayList<>();
+        String sql = "SELECT emp_id, COALESCE(salary, 0) AS salary FROM employees WHERE status = 'Active'";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            double factor = 1.0 + raisePercent / 100.0;
+            while (rs.next()) {
+                double raised = Math.round(rs.getDouble("salary") * factor * 100.0) / 100.0;
+                changes.add(new RetroPayChange(rs.getInt("emp_id"), raised, effectiveFrom, raisePercent));
+            }
+        }
+        return apply(changes);
+    }
+
+    /**
+     * Re-prices closed periods for the given changes and posts arrears to the current period.
+     */
+    public static RetroPayResult apply(List<RetroPayChange> changes) throws SQLException {
+        long start = System.nanoTime();
+        YearMonth current = YearMonth.now();
+        String currentMonth = PayrollChangeTracker.monthName(current.atDay(1));
+        RetroPayResult result = new RetroPayResult(currentMonth, current.getYear());
+        if (changes == null || changes.isEmpty()) return result;
+
+        // Latest change wins if an employee appears twice
+        Map<Integer, RetroPayChange> byEmp = new HashMap<>();
+        int minYear = current.getYear();
+        for (RetroPayChange c : changes) {
+            byEmp.put(c.getEmpId(), c);
+            minYear = Math.min(minYear, c.getEffectiveFrom().getYear());
+        }
+        List<Integer> empIds = new ArrayList<>(byEmp.keySet());
+
+        // Accumulators per employee: {gross delta, tax delta, periods}
+        Map<Integer, double[]> totals = new HashMap<>();
+        List<PeriodArrears> byPeriod = new ArrayList<>();
+        int periods = 0;
+
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            // Employees without history get their current salary as a range to close or scale
+            salaryHistoryDAO.openMissing(conn, empIds);
+
+            // 1. Re-price closed periods in memory, one chunk of employees per query
+            for (int from = 0; from < empIds.size(); from += CHUNK_SIZE) {
+                List<Integer> chunk = empIds.subList(from, Math.min(from + CHUNK_SIZE, empIds.size()));
+                String sql = "SELECT p.emp_id, p.month, p.year, p.base_salary, p.allowances, p.tax, " +
+                             "COALESCE(a.gross, 0) AS paid_arrears " +
+                             "FROM payroll p " +
+                             "LEFT JOIN payroll_arrears_period a " +
+                             "ON a.emp_id = p.emp_id AND a.month = p.month AND a.year = p.year " +
+                             "WHERE p.year >= ? AND p.emp_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, minYear);
+                    int idx = 2;
+                    for (int id : chunk) ps.setInt(idx++, id);
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            int empId = rs.getInt("emp_id");
+                            RetroPayChange change = byEmp.get(empId);
+                            YearMonth period = PayrollChangeTracker.toYearMonth(rs.getString("month"), rs.getInt("year"));
+                            if (period == null) continue;
+
+                            // Only closed periods on/after the effective month
+                            if (period.isBefore(YearMonth.from(change.getEffectiveFrom())) || !period.isBefore(current)) continue;
+
+                            double oldBase = rs.getDouble("base_salary");
+                            double allowances = rs.getDouble("allowances");
+                            double oldTax = rs.getDouble("tax");
+                            // What the period has paid so far: its row plus earlier retro arrears for it
+                            double paidBase = oldBase + rs.getDouble("paid_arrears");
+
+                            double grossDelta = change.isRaise()
+                                    ? raiseArrears(empId, period, change, oldBase, paidBase)
+                                    : fixedArrears(period, change, paidBase);
+
+                            // Keep the effective tax rate that applied to that period
+                            double oldGross = oldBase + allowances;
+                            double rate = oldGross > 0 ? oldTax / oldGross : 0.0;
+                            double taxDelta = Math.round(grossDelta * rate * 100.0) / 100.0;
+                            if (Math.abs(grossDelta) < 0.005) continue;
+
+                            byPeriod.add(new PeriodArrears(empId, rs.getString("month"), rs.getInt("year"), grossDelta, taxDelta));
+                            double[] acc = totals.computeIfAbsent(empId, k -> new double[3]);
+                            acc[0] += grossDelta;
+                            acc[1] += taxDelta;
+                            acc[2]++;
+                            periods++;
+                        }
+                    }
+                }
+            }
+
+            // 2. Add each employee's arrears to this period's line and update the going-forward salary.
+            //    Every assignment reads only its own column, so evaluation order does not matter.
+            String postSql = "INSERT INTO payroll_adjustments (emp_id, month, year, adj_type, amount, tax, periods_covered, effective_from) " +
+                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                             "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount), tax = tax + VALUES(tax), " +
+                             "periods_covered = periods_covered + VALUES(periods_covered), " +
+                             "effective_from = LEAST(effective_from, VALUES(effective_from))";
+            String periodSql = "INSERT INTO payroll_arrears_period (emp_id, month, year, gross, tax) VALUES (?, ?, ?, ?, ?) " +
+                               "ON DUPLICATE KEY UPDATE gross = gross + VALUES(gross), tax = tax + VALUES(tax)";
+            String salarySql = "UPDATE employees SET salary = ? WHERE emp_id = ?";
+
+            int written = 0;
+            try (PreparedStatement detail = conn.prepareStatement(periodSql)) {
+                for (int i = 0; i < byPeriod.size(); i++) {
+                    PeriodArrears a = byPeriod.get(i);
+                    detail.setInt(1, a.empId);
+                    detail.setString(2, a.month);
+                    detail.setInt(3, a.year);
+                    detail.setDouble(4, a.gross);
+                    detail.setDouble(5, a.tax);
+                    detail.addBatch();
+                    if ((i + 1) % CHUNK_SIZE == 0) written += detail.executeBatch().length;
+                }
+                if (byPeriod.size() % CHUNK_SIZE != 0) written += detail.executeBatch().length;
+            }
+
+            try (PreparedStatement post = conn.prepareStatement(postSql);
+                 PreparedStatement salary = conn.prepareStatement(salarySql)) {
+
+                int pending = 0;
+                PayrollEvents.PayrollRunChunk event = PayrollEvents.PayrollRunChunk.begin("retro pay", current.toString());
+                for (RetroPayChange change : byEmp.values()) {
+                    salary.setDouble(1, change.getNewSalary());
+                    salary.setInt(2, change.getEmpId());
+                    salary.addBatch();
+
+                    double[] acc = totals.get(change.getEmpId());
+                    if (acc != null && Math.abs(acc[0]) >= 0.005) {
+                        double gross = Math.round(acc[0] * 100.0) / 100.0;
+                        double tax = Math.round(acc[1] * 100.0) / 100.0;
+                        post.setInt(1, change.getEmpId());
+                        post.setString(2, currentMonth);
+                        post.setInt(3, current.getYear());
+                        post.setString(4, ARREARS);
+                        post.setDouble(5, gross);
+                        post.setDouble(6, tax);
+                        post.setInt(7, (int) acc[2]);
+                        post.setDate(8, Date.valueOf(change.getEffectiveFrom()));
+                        post.addBatch();
+                        result.addArrears(new RetroPayResult.Arrears(change.getEmpId(), (int) acc[2], gross, tax));
+                    }
+
+                    if (++pending % CHUNK_SIZE == 0) {
+                        written += flush(salary, post, event, CHUNK_SIZE);
+                        event = PayrollEvents.PayrollRunChunk.begin("retro pay", current.toString());
+                    }
+                }
+                if (pending % CHUNK_SIZE != 0) written += flush(salary, post, event, pending % CHUNK_SIZE);
+            }
+
+            // 3. Effective-dated history so later periods can be priced point-in-time
+            List<RetroPayChange> fixed = new ArrayList<>();
+            List<RetroPayChange> raises = new ArrayList<>();
+            for (RetroPayChange change : byEmp.values()) {
+                if (change.isRaise()) raises.add(change); else fixed.add(change);
+            }
+            salaryHistoryDAO.recordChanges(conn, fixed, SessionManager.getCurrentUserId());
+            salaryHistoryDAO.recordRaises(conn, raises, SessionManager.getCurrentUserId());
+
+            conn.commit();
+            PayrollService.recordRun("retro pay", byEmp.size(), written, System.nanoTime() - start);
+
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
+        } finally {
+            if (conn != null) conn.close();
+        }
+
+        // Current period picks up the new base salary and the arrears through the incremental recompute
+        for (int empId : empIds) PayrollChangeTracker.markDirty(empId, currentMonth, current.getYear());
+        PayrollForecastService.invalidateCache();
+        SalaryHistoryService.invalidate();
+
+        result.setPeriodsRecomputed(periods);
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * A new fixed salary for the period less what it paid; in the effective month
+     * only the days from the effective date are re-priced.
+     */
+    private static double fixedArrears(YearMonth period, RetroPayChange change, double paidBase) {
+        double repricedShare = 1.0;
+        if (period.equals(YearMonth.from(change.getEffectiveFrom()))) {
+            int daysCovered = period.lengthOfMonth() - change.getEffectiveFrom().getDayOfMonth() + 1;
+            repricedShare = (double) daysCovered / period.lengthOfMonth();
+        }
+        return Math.round((change.getNewSalary() - paidBase) * repricedShare * 100.0) / 100.0;
+    }
+
+    /**
+     * The period's point-in-time salary (before this raise) plus the raise on
+     * the part earned from the effective date, less what the period paid.
+     * Periods without history fall back to the base their payroll row paid.
+     */
+    private static double raiseArrears(int empId, YearMonth period, RetroPayChange change, double oldBase, double paidBase) {
+        LocalDate start = period.atDay(1);
+        LocalDate raisedFrom = change.getEffectiveFrom().isAfter(start) ? change.getEffectiveFrom() : start;
+        double salary = SalaryHistoryService.salaryForPeriod(empId, period, oldBase);
+        double raisedPart = SalaryHistoryService.salaryForPeriodFrom(empId, period, raisedFrom, oldBase);
+        double target = salary + raisedPart * change.getRaisePercent() / 100.0;
+        return Math.round((target - paidBase) * 100.0) / 100.0;
+    }
+
+    /**
+     * Sends one chunk of salary updates and arrears lines (one payroll.PayrollRunChunk event).
+     *
+     * @return rows written
+     */
+    private static int flush(PreparedStatement salary, PreparedStatement post,
+                              PayrollEvents.PayrollRunChunk event, int employees) throws SQLException {
+        int rows = salary.executeBatch().length + post.executeBatch().length;
+        event.finish(employees, rows);
+        return rows;
+    }
+}
@@ -0,0 +1,114 @@
+package services;
+
+import dao.SalaryHistoryDAO;
+import utils.SalaryIntervalIndex;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Point-in-time salary lookups backed by a cached SalaryIntervalIndex.
+ * The index is built lazily with one scan of salary_history and dropped
+ * whenever a salary change is recorded through this service. The index
+ * carries the generation it was built for and invalidate() bumps it, so a
+ * load that an invalidate() overtook is rebuilt rather than kept.
+ */
+public class SalaryHistoryService {
+
+    private static final SalaryHistoryDAO dao = new SalaryHistoryDAO();
+    private static volatile Snapshot snapshot;
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final class Snapshot {
+        final long generation;
+        final SalaryIntervalIndex index;
+
+        Snapshot(long generation, SalaryIntervalIndex index) {
+            this.generation = generation;
+            this.index = index;
+        }
+    }
+
+    /**
+     * @return the cached index, loading it on first use
+     */
+    public static SalaryIntervalIndex getIndex() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && current.generation == generation.get()) return current.index;
+        synchronized (SalaryHistoryService.class) {
+            current = snapshot;
+            long gen = generation.get();
+            if (current != null && current.generation == gen) return current.index;
+            // If invalidate() runs during the scan, the next lookup sees the newer generation and rebuilds
+            current = new Snapshot(gen, dao.loadIndex());
+            snapshot = current;
+            return current.index;
+        }
+    }
+
+    /**
+     * Drops the cached index; the next lookup rebuilds it.
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Records a salary change and invalidates the index. previousSalary opens the
+     * history if the employee has none yet (see SalaryHistoryDAO.recordChange).
+     */
+    public static boolean recordChange(int empId, double previousSalary, double salary, LocalDate effectiveFrom, int changedBy) {
+        boolean ok = dao.recordChange(empId, previousSalary, salary, effectiveFrom, changedBy);
+        invalidate();
+        return ok;
+    }
+
+    /**
+     * @return salary in effect on the date, or fallback when the employee has no history row
+     */
+    public static double salaryOn(int empId, LocalDate date, double fallback) {
+        try {
+            double value = getIndex().salaryOn(empId, date);
+            return Double.isNaN(value) ? fallback : value;
+        } catch (SQLException e) {
+            System.err.println("Salary history unavailable: " + e.getMessage());
+            return fallback;
+        }
+    }
+
+    /**
+     * Salary for a payroll month, pro-rated by working days across mid-month changes.
+     */
+    public static double salaryForPeriod(int empId, YearMonth period, double fallback) {
+        try {
+            double value = getIndex().proratedSalary(empId, period.atDay(1), period.atEndOfMonth(),
+                    WorkingDayService::workingDays);
+            return Double.isNaN(value) ? fallback : Math.round(value * 100.0) / 100.0;
+        } catch (SQLException e) {
+            System.err.println("Salary history unavailable: " + e.getMessage());
+            return fallback;
+        }
+    }
+
+    /**
+     * The part of salaryForPeriod earned on [from, end of period]; fallback is the
+     * whole period's salary, pro-rated by working days when there is no history.
+     */
+    public static double salaryForPeriodFrom(int empId, YearMonth period, LocalDate from, double fallback) {
+        LocalDate end = period.atEndOfMonth();
+        int periodDays = WorkingDayService.workingDays(period.atDay(1), end);
+        int fromDays = WorkingDayService.workingDays(from, end);
+        if (periodDays == 0) return 0.0;
+        double share = (double) fromDays / periodDays;
+        try {
+            double value = getIndex().proratedSalary(empId, from, end, WorkingDayService::workingDays);
+            return Math.round((Double.isNaN(value) ? fallback : value) * share * 100.0) / 100.0;
+        } catch (SQLException e) {
+            System.err.println("Salary history unavailable: " + e.getMessage());
+            return Math.round(fallback * share * 100.0) / 100.0;
+        }
+    }
+}
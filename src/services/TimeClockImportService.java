@@ -0,0 +1,411 @@
+package services;
+
+import models.TimeClockImportResult;
+import utils.DBConnection;
+import utils.PayrollChangeTracker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TIME-CLOCK IMPORT: Streams badge punch files into attendance.
+ *
+ * The file is read through a FileChannel into a reusable 1 MB buffer and
+ * parsed byte by byte (no per-line String for the date/time fields). Badges
+ * are resolved to emp_id through an in-memory index loaded once per import.
+ *
+ * Punches are folded per employee-day into {first, last} seconds; the first
+ * punch becomes time_in and the last becomes time_out (single punch: no
+ * time_out). Every CHUNK_DAYS employee-days the chunk is upserted as one JDBC
+ * batch in its own transaction on UNIQUE(emp_id, attendance_date). The stored
+ * times of those days are read (and locked) first and merged in memory, so an
+ * employee-day split across chunks (or across files) still ends up with the
+ * earliest in / latest out. The upsert only touches the clock columns; status
+ * becomes Present only where the day had none or was Absent, so Leave and
+ * HR-corrected days keep their status.
+ *
+ * Lines that cannot be used are written to "<file>.rejects.csv" with the line
+ * number and reason; they never stop the import.
+ *
+ * Supported layouts:
+ *   CSV          badge,yyyy-MM-dd,HH:mm[:ss][,anything]   or   badge,yyyy-MM-dd HH:mm[:ss]
+ *                (a header line is skipped)
+ *   FIXED_WIDTH  badge in columns 1-10, yyyyMMdd in 11-18, HHmmss in 19-24
+ */
+public class TimeClockImportService {
+
+    public enum Format { CSV, FIXED_WIDTH }
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_LINE = 512;
+    private static final int CHUNK_DAYS = 20_000;
+
+    // Fixed-width column layout (0-based, end exclusive)
+    private static final int FW_BADGE_END = 10;
+    private static final int FW_DATE_END = 18;
+    private static final int FW_TIME_END = 24;
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO attendance (emp_id, attendance_date, time_in, time_out, status, attendance_type, hours_worked) " +
+        "VALUES (?, ?, ?, ?, 'Present', 'Regular', ?) " +
+        "ON DUPLICATE KEY UPDATE " +
+        // Each assignment reads only its own column or VALUES(), so evaluation order does not matter
+        "time_in = VALUES(time_in), " +
+        "time_out = VALUES(time_out), " +
+        "hours_worked = VALUES(hours_worked), " +
+        "status = IF(status IS NULL OR status = 'Absent', 'Present', status)";
+
+    private static final int ID_BATCH = 1000;
+
+    /**
+     * Picks the layout from the extension (.csv = CSV, anything else = fixed width).
+     */
+    public static TimeClockImportResult importFile(Path file) throws IOException, SQLException {
+        String name = file.getFileName().toString().toLowerCase();
+        return importFile(file, name.endsWith(".csv") ? Format.CSV : Format.FIXED_WIDTH);
+    }
+
+    public static TimeClockImportResult importFile(Path file, Format format) throws IOException, SQLException {
+        long start = System.nanoTime();
+        TimeClockImportResult result = new TimeClockImportResult(file);
+        Map<String, Integer> badges = loadBadgeIndex();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Connection conn = DBConnection.getConnection();
+             PreparedStatement upsert = conn.prepareStatement(UPSERT_SQL);
+             RejectWriter rejects = new RejectWriter(file, result)) {
+
+            conn.setAutoCommit(false);
+            Chunk chunk = new Chunk();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] data = buffer.array();
+            byte[] line = new byte[MAX_LINE];
+            int lineLen = 0;
+            boolean overlong = false;
+            long lineNo = 0;
+
+            while (channel.read(buffer) != -1) {
+                int limit = buffer.position();
+                for (int i = 0; i < limit; i++) {
+                    byte b = data[i];
+                    if (b == '\n') {
+                        lineNo++;
+                        handleLine(line, lineLen, overlong, lineNo, format, badges, chunk, rejects, result);
+                        if (chunk.size() >= CHUNK_DAYS) flush(conn, upsert, chunk, rejects, result);
+                        lineLen = 0;
+                        overlong = false;
+                    } else if (b != '\r') {
+                        if (lineLen < MAX_LINE) line[lineLen++] = b; else overlong = true;
+                    }
+                }
+                buffer.clear();
+            }
+            if (lineLen > 0) {
+                handleLine(line, lineLen, overlong, ++lineNo, format, badges, chunk, rejects, result);
+            }
+            flush(conn, upsert, chunk, rejects, result);
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * badge -> emp_id. Employees without a badge_id can punch with their emp_id.
+     */
+    private static Map<String, Integer> loadBadgeIndex() throws SQLException {
+        Map<String, Integer> index = new HashMap<>();
+        String sql = "SELECT emp_id, badge_id FROM employees";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int empId = rs.getInt("emp_id");
+                String badge = rs.getString("badge_id");
+                index.put(badge != null && !badge.isBlank() ? badge.trim() : String.valueOf(empId), empId);
+            }
+        }
+        return index;
+    }
+
+    private static void handleLine(byte[] line, int len, boolean overlong, long lineNo, Format format,
+                                   Map<String, Integer> badges, Chunk chunk, RejectWriter rejects,
+                                   TimeClockImportResult result) throws IOException {
+        if (len == 0 && !overlong) return;   // blank line
+        result.addLine();
+        if (overlong) { rejects.write(lineNo, "line too long", line, len); return; }
+
+        int badgeStart, badgeEnd, dateStart, dateEnd, timeStart, timeEnd;
+        if (format == Format.FIXED_WIDTH) {
+            if (len < FW_TIME_END) { rejects.write(lineNo, "line shorter than fixed-width layout", line, len); return; }
+            badgeStart = 0; badgeEnd = FW_BADGE_END;
+            dateStart = FW_BADGE_END; dateEnd = FW_DATE_END;
+            timeStart = FW_DATE_END; timeEnd = FW_TIME_END;
+        } else {
+            int c1 = indexOf(line, 0, len, (byte) ',');
+            if (c1 < 0) { rejects.write(lineNo, "expected badge,date,time", line, len); return; }
+            int c2 = indexOf(line, c1 + 1, len, (byte) ',');
+            badgeStart = 0; badgeEnd = c1;
+            if (c2 < 0) {
+                // badge,yyyy-MM-dd HH:mm[:ss]
+                int sp = indexOf(line, c1 + 1, len, (byte) ' ');
+                if (sp < 0) { rejects.write(lineNo, "expected badge,date,time", line, len); return; }
+                dateStart = c1 + 1; dateEnd = sp;
+                timeStart = sp + 1; timeEnd = len;
+            } else {
+                int c3 = indexOf(line, c2 + 1, len, (byte) ',');
+                dateStart = c1 + 1; dateEnd = c2;
+                timeStart = c2 + 1; timeEnd = c3 < 0 ? len : c3;
+            }
+        }
+
+        // Trim the badge field (fixed-width badges are space padded)
+        while (badgeStart < badgeEnd && line[badgeStart] == ' ') badgeStart++;
+        while (badgeEnd > badgeStart && line[badgeEnd - 1] == ' ') badgeEnd--;
+
+        long epochDay = parseDate(line, dateStart, dateEnd);
+        if (epochDay == Long.MIN_VALUE) {
+            // CSV header ("badge,date,time")
+            if (lineNo == 1 && format == Format.CSV) return;
+            rejects.write(lineNo, "invalid date", line, len);
+            return;
+        }
+        int seconds = parseTime(line, timeStart, timeEnd);
+        if (seconds < 0) { rejects.write(lineNo, "invalid time", line, len); return; }
+
+        Integer empId = badges.get(new String(line, badgeStart, badgeEnd - badgeStart, StandardCharsets.ISO_8859_1));
+        if (empId == null) { rejects.write(lineNo, "unknown badge", line, len); return; }
+
+        chunk.add(empId, epochDay, seconds);
+        result.addPunch();
+    }
+
+    private static void flush(Connection conn, PreparedStatement upsert, Chunk chunk,
+                              RejectWriter rejects, TimeClockImportResult result) throws IOException, SQLException {
+        if (chunk.size() == 0) return;
+        Map<Long, String> statuses;
+        try {
+            // Already stored punches and statuses of these days (locked until commit)
+            statuses = mergeStored(conn, chunk);
+            for (Map.Entry<Long, int[]> e : chunk.days.entrySet()) {
+                long key = e.getKey();
+                int[] span = e.getValue();
+                int empId = (int) (key >>> 32);
+                LocalDate date = LocalDate.ofEpochDay((int) key);
+                boolean hasOut = span[1] > span[0];
+
+                upsert.setInt(1, empId);
+                upsert.setDate(2, Date.valueOf(date));
+                upsert.setTime(3, Time.valueOf(LocalTime.ofSecondOfDay(span[0])));
+                if (hasOut) upsert.setTime(4, Time.valueOf(LocalTime.ofSecondOfDay(span[1])));
+                else upsert.setNull(4, Types.TIME);
+                upsert.setDouble(5, hasOut ? Math.round((span[1] - span[0]) / 36.0) / 100.0 : 0.0);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            upsert.clearBatch();
+            // Whole chunk is rejected; the rest of the file still goes in
+            for (Map.Entry<Long, int[]> e2 : chunk.days.entrySet()) {
+                long key = e2.getKey();
+                rejects.write(-1, "database error: " + e.getMessage(),
+                        ((key >>> 32) + "," + LocalDate.ofEpochDay((int) key)).getBytes(StandardCharsets.ISO_8859_1), -1);
+            }
+            chunk.clear();
+            return;
+        }
+
+        // Keep the derived views in step: payroll dirty periods and the attendance bitmap index
+        for (long key : chunk.days.keySet()) {
+            int empId = (int) (key >>> 32);
+            LocalDate date = LocalDate.ofEpochDay((int) key);
+            PayrollChangeTracker.markDirty(empId, date);
+            String stored = statuses.get(key);
+            if (stored == null || stored.isEmpty() || stored.equals("Absent")) AttendanceIndexService.record(empId, date, "Present");
+        }
+        result.addEmployeeDays(chunk.size());
+        chunk.clear();
+    }
+
+    /**
+     * Widens each chunk span with the times already stored for that employee-day
+     * (rows locked FOR UPDATE in the chunk's transaction).
+     *
+     * @return stored status per chunk key ("" when the row has none); days
+     *         without a row are absent from the map
+     */
+    private static Map<Long, String> mergeStored(Connection conn, Chunk chunk) throws SQLException {
+        Map<Long, String> statuses = new HashMap<>();
+        Set<Integer> ids = new HashSet<>();
+        long minDay = Long.MAX_VALUE, maxDay = Long.MIN_VALUE;
+        for (long key : chunk.days.keySet()) {
+            ids.add((int) (key >>> 32));
+            minDay = Math.min(minDay, (int) key);
+            maxDay = Math.max(maxDay, (int) key);
+        }
+
+        List<Integer> empIds = new ArrayList<>(ids);
+        for (int from = 0; from < empIds.size(); from += ID_BATCH) {
+            List<Integer> batch = empIds.subList(from, Math.min(from + ID_BATCH, empIds.size()));
+            String sql = "SELECT emp_id, attendance_date, time_in, time_out, status FROM attendance " +
+                         "WHERE attendance_date BETWEEN ? AND ? " +
+                         "AND emp_id IN (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ") FOR UPDATE";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setDate(1, Date.valueOf(LocalDate.ofEpochDay(minDay)));
+                ps.setDate(2, Date.valueOf(LocalDate.ofEpochDay(maxDay)));
+                int idx = 3;
+                for (int id : batch) ps.setInt(idx++, id);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long day = rs.getDate("attendance_date").toLocalDate().toEpochDay();
+                        long key = ((long) rs.getInt("emp_id") << 32) | (day & 0xFFFFFFFFL);
+                        int[] span = chunk.days.get(key);
+                        if (span == null) continue;   // in the date range, but not a day in this chunk
+
+                        Time in = rs.getTime("time_in");
+                        Time out = rs.getTime("time_out");
+                        if (in != null) {
+                            int sec = in.toLocalTime().toSecondOfDay();
+                            span[0] = Math.min(span[0], sec);
+                            span[1] = Math.max(span[1], sec);
+                        }
+                        if (out != null) span[1] = Math.max(span[1], out.toLocalTime().toSecondOfDay());
+                        String status = rs.getString("status");
+                        statuses.put(key, status == null ? "" : status);
+                    }
+                }
+            }
+        }
+        return statuses;
+    }
+
+    // yyyy-MM-dd or yyyyMMdd -> epoch day, or Long.MIN_VALUE if invalid
+    private static long parseDate(byte[] b, int start, int end) {
+        int len = end - start;
+        int y, m, d;
+        if (len == 10 && b[start + 4] == '-' && b[start + 7] == '-') {
+            y = digits(b, start, 4); m = digits(b, start + 5, 2); d = digits(b, start + 8, 2);
+        } else if (len == 8) {
+            y = digits(b, start, 4); m = digits(b, start + 4, 2); d = digits(b, start + 6, 2);
+        } else {
+            return Long.MIN_VALUE;
+        }
+        if (y < 0 || m < 1 || m > 12 || d < 1 || d > 31) return Long.MIN_VALUE;
+        try {
+            return LocalDate.of(y, m, d).toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;   // e.g. 2024-02-30
+        }
+    }
+
+    // HH:mm, HH:mm:ss or HHmmss -> second of day, or -1 if invalid
+    private static int parseTime(byte[] b, int start, int end) {
+        while (start < end && b[start] == ' ') start++;
+        while (end > start && b[end - 1] == ' ') end--;
+        int len = end - start;
+        int h, m, s = 0;
+        if ((len == 5 || len == 8) && b[start + 2] == ':') {
+            h = digits(b, start, 2); m = digits(b, start + 3, 2);
+            if (len == 8) {
+                if (b[start + 5] != ':') return -1;
+                s = digits(b, start + 6, 2);
+            }
+        } else if (len == 6) {
+            h = digits(b, start, 2); m = digits(b, start + 2, 2); s = digits(b, start + 4, 2);
+        } else {
+            return -1;
+        }
+        if (h < 0 || h > 23 || m < 0 || m > 59 || s < 0 || s > 59) return -1;
+        return h * 3600 + m * 60 + s;
+    }
+
+    private static int digits(byte[] b, int start, int count) {
+        int v = 0;
+        for (int i = start; i < start + count; i++) {
+            int c = b[i] - '0';
+            if (c < 0 || c > 9) return -1;
+            v = v * 10 + c;
+        }
+        return v;
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte target) {
+        for (int i = from; i < to; i++) if (b[i] == target) return i;
+        return -1;
+    }
+
+    /**
+     * Punches of the current chunk folded per employee-day: key = empId << 32 | epochDay,
+     * value = {first second-of-day, last second-of-day}.
+     */
+    private static final class Chunk {
+        private final Map<Long, int[]> days = new HashMap<>(CHUNK_DAYS * 2);
+
+        void add(int empId, long epochDay, int seconds) {
+            long key = ((long) empId << 32) | (epochDay & 0xFFFFFFFFL);
+            int[] span = days.get(key);
+            if (span == null) {
+                days.put(key, new int[] { seconds, seconds });
+            } else {
+                if (seconds < span[0]) span[0] = seconds;
+                if (seconds > span[1]) span[1] = seconds;
+            }
+        }
+
+        int size() { return days.size(); }
+
+        void clear() { days.clear(); }
+    }
+
+    /**
+     * Reject file, created on the first rejected line.
+     */
+    private static final class RejectWriter implements AutoCloseable {
+        private final Path path;
+        private final TimeClockImportResult result;
+        private BufferedWriter out;
+
+        RejectWriter(Path source, TimeClockImportResult result) {
+            this.path = source.resolveSibling(source.getFileName() + ".rejects.csv");
+            this.result = result;
+        }
+
+        void write(long lineNo, String reason, byte[] raw, int len) throws IOException {
+            if (out == null) {
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                out.write("line,reason,raw");
+                out.newLine();
+                result.setRejectFile(path);
+            }
+            String text = new String(raw, 0, len < 0 ? raw.length : len, StandardCharsets.ISO_8859_1);
+            out.write((lineNo < 0 ? "" : String.valueOf(lineNo)) + "," + reason.replace(',', ';') + ",\"" + text.replace("\"", "\"\"") + "\"");
+            out.newLine();
+            result.addRejected(1);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) out.close();
+        }
+    }
+}
@@ -3,6 +3,7 @@
 package services; 
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,6 +13,7 @@ import java.util.ArrayList; // Added for the new method
 import java.util.List;      // Added for the new method
 
 import models.Employee; 
+import utils.DBConnection;
 
 // ⚠️ WARNING: This entire class stores and compares passwords in plaintext.
 // This is for demonstration based on your request, but is highly insecure.
@@ -98,6 +100,90 @@ public class UserService {
     // JDBC Methods for Profile Management - (EXISTING CODE)
     // ----------------------------------------------------------------------
 
+    /**
+     * Login check for the login screen (and load-test sessions).
+     * STEP 1 only checks users + roles, so a user without an employee record
+     * (e.g. the admin) still authenticates; STEP 2 loads the session details.
+     *
+     * @return the session Employee, or null if the username/password is wrong
+     */
+    public static Employee authenticate(String username, String password) throws SQLException {
+        String authSql =
+                "SELECT u.user_id, r.role_name " +
+                "FROM users u " +
+                "JOIN roles r ON u.role_id = r.role_id " +
+                "WHERE u.username = ? AND u.password = ?";
+        String detailsSql =
+                "SELECT u.*, r.role_name, d.dept_name AS department, " +
+                "e.position, e.date_joined, e.status, e.emp_id " +
+                "FROM users u " +
+                "JOIN roles r ON u.role_id = r.role_id " +
+                "LEFT JOIN departments d ON u.dept_id = d.dept_id " +
+                "LEFT JOIN employees e ON u.user_id = e.user_id " +
+                "WHERE u.user_id = ?";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            int userId;
+            String roleName;
+            try (PreparedStatement pst = conn.prepareStatement(authSql)) {
+                pst.setString(1, username);
+                pst.setString(2, password);
+                try (ResultSet rs = pst.executeQuery()) {
+                    if (!rs.next()) return null;
+                    userId = rs.getInt("user_id");
+                    roleName = rs.getString("role_name");
+                }
+            }
+
+            Employee emp = new Employee();
+            try (PreparedStatement pst = conn.prepareStatement(detailsSql)) {
+                pst.setInt(1, userId);
+                try (ResultSet rs = pst.executeQuery()) {
+                    if (rs.next()) emp = mapSessionEmployee(rs);
+                }
+            }
+            // The role_name from the initial auth check is more reliable
+            // than the one pulled from the complex join for basic Admin roles.
+            emp.setRoleName(roleName);
+            return emp;
+        }
+    }
+
+    /**
+     * Maps one login row (users + roles + departments + employees, see
+     * authenticate) to the session Employee.
+     */
+    public static Employee mapSessionEmployee(ResultSet rs) throws SQLException {
+        Employee emp = new Employee();
+
+        // emp_id might be NULL if the user is a non-employee Admin. getInt() handles NULL by returning 0.
+        // If emp_id is 0, it means the user is a system user/non-payroll employee.
+        emp.setEmployeeId(rs.getInt("emp_id")); 
+        
+        emp.setUserId(rs.getInt("user_id"));
+        emp.setUsername(rs.getString("username"));
+        emp.setFirstName(rs.getString("first_name"));
+        emp.setLastName(rs.getString("last_name"));
+        emp.setEmail(rs.getString("email"));
+        emp.setPhone(rs.getString("phone"));
+        
+        // Department and Position will be NULL if no employee record, but this is handled by the model.
+        emp.setDepartment(rs.getString("department"));
+        emp.setPosition(rs.getString("position"));
+
+        Date sqlDate = rs.getDate("date_joined");
+        // Use a fallback date if date_joined is NULL (e.g., for non-payroll Admin)
+        emp.setDateJoined(sqlDate != null ? sqlDate.toLocalDate() : LocalDate.of(1900, 1, 1)); 
+
+        String status = rs.getString("status");
+        emp.setStatus(status != null ? status : "Active");
+
+        emp.setRoleId(rs.getInt("role_id"));
+        emp.setRoleName(rs.getString("role_name"));
+
+        return emp;
+    }
+
     /**
      * Retrieves the profile data for a given user ID from the 'users' table 
      * and maps it to the Employee model.
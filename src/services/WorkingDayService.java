@@ -0,0 +1,102 @@
+package services;
+
+import models.CalendarEvent;
+import utils.WorkingDayCalendar;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Working-day arithmetic for leave, attendance and payroll.
+ *
+ * One WorkingDayCalendar per year is built on first use from the weekend
+ * rule and the Holiday rows of calendar_events (read through
+ * CalendarIndexService, so no extra query). Lookups are prefix-sum reads;
+ * ranges spanning years add the whole-year totals in between.
+ * CalendarIndexService.invalidate() also drops these calendars. Cached years
+ * are tagged with the generation they were built in, so a year built from
+ * holidays read before an invalidate() is rebuilt rather than reused.
+ */
+public class WorkingDayService {
+
+    private static final Set<DayOfWeek> WEEKEND = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    private static final Map<Integer, Cached> calendars = new ConcurrentHashMap<>();
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final class Cached {
+        final long generation;
+        final WorkingDayCalendar calendar;
+
+        Cached(long generation, WorkingDayCalendar calendar) {
+            this.generation = generation;
+            this.calendar = calendar;
+        }
+    }
+
+    public static WorkingDayCalendar forYear(int year) {
+        long gen = generation.get();
+        Cached cached = calendars.get(year);
+        if (cached != null && cached.generation == gen) return cached.calendar;
+
+        List<LocalDate> holidays = new ArrayList<>();
+        try {
+            for (CalendarEvent e : CalendarIndexService.holidaysBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))) {
+                holidays.add(e.getDate());
+            }
+        } catch (SQLException e) {
+            // Weekends only, and not cached, so holidays are picked up once the database is back
+            System.err.println("Holidays unavailable, counting weekends only: " + e.getMessage());
+            return new WorkingDayCalendar(year, WEEKEND, holidays);
+        }
+        WorkingDayCalendar cal = new WorkingDayCalendar(year, WEEKEND, holidays);
+        // Tagged with the generation read before the holidays, so an invalidate() in between makes it stale
+        calendars.put(year, new Cached(gen, cal));
+        return cal;
+    }
+
+    /**
+     * Installs a pre-built calendar for its year, for tools that run without the
+     * database (benchmarks, load tests). Replaced on the next invalidate().
+     */
+    public static void useCalendar(WorkingDayCalendar calendar) {
+        calendars.put(calendar.getYear(), new Cached(generation.get(), calendar));
+    }
+
+    /**
+     * Drops every cached year (holidays changed).
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        calendars.clear();
+    }
+
+    public static boolean isWorkingDay(LocalDate date) {
+        return forYear(date.getYear()).isWorkingDay(date);
+    }
+
+    /**
+     * Working days in [from, to] (inclusive); 0 if to is before from.
+     */
+    public static int workingDays(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return 0;
+        if (from.getYear() == to.getYear()) return forYear(from.getYear()).workingDays(from, to);
+
+        int days = forYear(from.getYear()).workingDaysFrom(from);
+        for (int y = from.getYear() + 1; y < to.getYear(); y++) days += forYear(y).total();
+        return days + forYear(to.getYear()).workingDaysUntil(to);
+    }
+
+    public static int workingDaysInMonth(YearMonth month) {
+        return forYear(month.getYear()).workingDays(month.atDay(1), month.atEndOfMonth());
+    }
+}
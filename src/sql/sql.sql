@@ -490,3 +490,558 @@ ADD COLUMN annual_leave_limit INT DEFAULT 30,
 ADD COLUMN auto_approval BOOLEAN DEFAULT FALSE,
 ADD COLUMN min_password_length INT DEFAULT 8,
 ADD COLUMN max_login_attempts INT DEFAULT 5;
+
+-- =====================================================
+-- RETRO PAY: Arrears / adjustment lines per period
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE payroll_adjustments (
+    adj_id INT AUTO_INCREMENT PRIMARY KEY,
+    emp_id INT NOT NULL,
+    month VARCHAR(20) NOT NULL,
+    year INT NOT NULL,
+    adj_type VARCHAR(30) NOT NULL DEFAULT 'Arrears',
+    amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    tax DECIMAL(12,2) NOT NULL DEFAULT 0,
+    periods_covered INT DEFAULT 0,
+    effective_from DATE,
+    created_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    UNIQUE (emp_id, month, year, adj_type)
+);
+
+-- =====================================================
+-- SALARY HISTORY: Effective-dated salary ranges
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE salary_history (
+    history_id INT AUTO_INCREMENT PRIMARY KEY,
+    emp_id INT NOT NULL,
+    salary DECIMAL(10,2) NOT NULL,
+    effective_from DATE NOT NULL,
+    effective_to DATE NULL,
+    changed_by INT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    FOREIGN KEY (changed_by) REFERENCES users(user_id)
+        ON DELETE SET NULL
+        ON UPDATE CASCADE,
+    UNIQUE (emp_id, effective_from)
+);
+
+-- Seed one open range per employee from the current salary column
+INSERT INTO salary_history (emp_id, salary, effective_from, effective_to)
+SELECT emp_id, COALESCE(salary, 0), COALESCE(date_joined, CURDATE()), NULL
+FROM employees;
+
+-- =====================================================
+-- ATTENDANCE ROLLUP: Per-employee monthly totals for charts/reports
+-- Kept current by the attendance triggers below
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE attendance_monthly_rollup (
+    emp_id INT NOT NULL,
+    year INT NOT NULL,
+    month TINYINT NOT NULL,
+    hours DECIMAL(8,2) NOT NULL DEFAULT 0,
+    present_days INT NOT NULL DEFAULT 0,
+    absent_days INT NOT NULL DEFAULT 0,
+    leave_days INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (emp_id, year, month),
+    INDEX idx_rollup_period (year, month),
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+DELIMITER //
+
+CREATE FUNCTION attendance_hours(t_in TIME, t_out TIME)
+RETURNS DECIMAL(8,2) DETERMINISTIC
+BEGIN
+    IF t_in IS NULL OR t_out IS NULL OR t_out <= t_in THEN
+        RETURN 0;
+    END IF;
+    RETURN TIMESTAMPDIFF(MINUTE, t_in, t_out) / 60;
+END //
+
+CREATE TRIGGER after_attendance_insert
+AFTER INSERT ON attendance
+FOR EACH ROW
+BEGIN
+    INSERT INTO attendance_monthly_rollup (emp_id, year, month, hours, present_days, absent_days, leave_days)
+    VALUES (NEW.emp_id, YEAR(NEW.attendance_date), MONTH(NEW.attendance_date),
+            attendance_hours(NEW.time_in, NEW.time_out),
+            NEW.status = 'Present', NEW.status = 'Absent', NEW.status = 'Leave')
+    ON DUPLICATE KEY UPDATE
+        hours = hours + VALUES(hours),
+        present_days = present_days + VALUES(present_days),
+        absent_days = absent_days + VALUES(absent_days),
+        leave_days = leave_days + VALUES(leave_days);
+END //
+
+CREATE TRIGGER after_attendance_update
+AFTER UPDATE ON attendance
+FOR EACH ROW
+BEGIN
+    -- Take the old row out of its month, then add the new row to its (possibly different) month
+    UPDATE attendance_monthly_rollup
+    SET hours = hours - attendance_hours(OLD.time_in, OLD.time_out),
+        present_days = present_days - (OLD.status = 'Present'),
+        absent_days = absent_days - (OLD.status = 'Absent'),
+        leave_days = leave_days - (OLD.status = 'Leave')
+    WHERE emp_id = OLD.emp_id AND year = YEAR(OLD.attendance_date) AND month = MONTH(OLD.attendance_date);
+
+    INSERT INTO attendance_monthly_rollup (emp_id, year, month, hours, present_days, absent_days, leave_days)
+    VALUES (NEW.emp_id, YEAR(NEW.attendance_date), MONTH(NEW.attendance_date),
+            attendance_hours(NEW.time_in, NEW.time_out),
+            NEW.status = 'Present', NEW.status = 'Absent', NEW.status = 'Leave')
+    ON DUPLICATE KEY UPDATE
+        hours = hours + VALUES(hours),
+        present_days = present_days + VALUES(present_days),
+        absent_days = absent_days + VALUES(absent_days),
+        leave_days = leave_days + VALUES(leave_days);
+END //
+
+CREATE TRIGGER after_attendance_delete
+AFTER DELETE ON attendance
+FOR EACH ROW
+BEGIN
+    UPDATE attendance_monthly_rollup
+    SET hours = hours - attendance_hours(OLD.time_in, OLD.time_out),
+        present_days = present_days - (OLD.status = 'Present'),
+        absent_days = absent_days - (OLD.status = 'Absent'),
+        leave_days = leave_days - (OLD.status = 'Leave')
+    WHERE emp_id = OLD.emp_id AND year = YEAR(OLD.attendance_date) AND month = MONTH(OLD.attendance_date);
+END //
+
+DELIMITER ;
+
+-- Backfill from existing attendance
+INSERT INTO attendance_monthly_rollup (emp_id, year, month, hours, present_days, absent_days, leave_days)
+SELECT emp_id, YEAR(attendance_date), MONTH(attendance_date),
+       SUM(attendance_hours(time_in, time_out)),
+       SUM(status = 'Present'), SUM(status = 'Absent'), SUM(status = 'Leave')
+FROM attendance
+GROUP BY emp_id, YEAR(attendance_date), MONTH(attendance_date);
+
+-- =====================================================
+-- TIME CLOCK: Badge numbers for punch file imports
+-- (employees without a badge punch with their emp_id)
+-- =====================================================
+USE payroll_system;
+
+ALTER TABLE employees ADD COLUMN badge_id VARCHAR(32) NULL UNIQUE AFTER emp_id;
+
+-- =====================================================
+-- LEAVE LEDGER: Accrual / usage / adjustment entries per leave type
+-- leave_ledger_balance is the running balance, kept current by the
+-- ledger triggers; approved leave posts its usage automatically
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE leave_policy (
+    leave_type VARCHAR(100) PRIMARY KEY,
+    annual_days DECIMAL(5,2) NOT NULL
+);
+
+INSERT INTO leave_policy (leave_type, annual_days) VALUES
+('Annual Leave', 15.00),
+('Sick Leave', 10.00);
+
+CREATE TABLE leave_ledger (
+    entry_id INT AUTO_INCREMENT PRIMARY KEY,
+    emp_id INT NOT NULL,
+    leave_type VARCHAR(100) NOT NULL,
+    entry_type ENUM('Accrual','Usage','Adjustment') NOT NULL,
+    days DECIMAL(6,2) NOT NULL,                 -- signed: usage is negative
+    effective_date DATE NOT NULL,
+    period CHAR(7) NULL,                        -- 'YYYY-MM' for accruals
+    leave_id INT NULL,                          -- source request for usage
+    note VARCHAR(255),
+    created_by INT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uq_ledger_accrual (emp_id, leave_type, entry_type, period),
+    UNIQUE KEY uq_ledger_usage (leave_id),
+    INDEX idx_ledger_emp (emp_id, leave_type, effective_date),
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    FOREIGN KEY (leave_id) REFERENCES leave_requests(leave_id)
+        ON DELETE CASCADE,
+    FOREIGN KEY (created_by) REFERENCES users(user_id)
+        ON DELETE SET NULL
+);
+
+CREATE TABLE leave_ledger_balance (
+    emp_id INT NOT NULL,
+    leave_type VARCHAR(100) NOT NULL,
+    balance DECIMAL(7,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (emp_id, leave_type),
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+);
+
+DELIMITER //
+
+CREATE TRIGGER after_leave_ledger_insert
+AFTER INSERT ON leave_ledger
+FOR EACH ROW
+BEGIN
+    INSERT INTO leave_ledger_balance (emp_id, leave_type, balance)
+    VALUES (NEW.emp_id, NEW.leave_type, NEW.days)
+    ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance);
+END //
+
+CREATE TRIGGER after_leave_ledger_delete
+AFTER DELETE ON leave_ledger
+FOR EACH ROW
+BEGIN
+    UPDATE leave_ledger_balance SET balance = balance - OLD.days
+    WHERE emp_id = OLD.emp_id AND leave_type = OLD.leave_type;
+END //
+
+-- Approving a request posts its usage; withdrawing the approval removes it
+CREATE TRIGGER after_leave_request_update
+AFTER UPDATE ON leave_requests
+FOR EACH ROW
+BEGIN
+    IF NEW.status = 'Approved' AND OLD.status <> 'Approved' THEN
+        INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, leave_id, note)
+        SELECT NEW.emp_id, NEW.leave_type, 'Usage', -NEW.total_days, NEW.start_date, NEW.leave_id, 'Approved leave'
+        FROM leave_policy WHERE leave_type = NEW.leave_type
+        ON DUPLICATE KEY UPDATE entry_id = entry_id;
+    ELSEIF OLD.status = 'Approved' AND NEW.status <> 'Approved' THEN
+        DELETE FROM leave_ledger WHERE leave_id = OLD.leave_id AND entry_type = 'Usage';
+    END IF;
+END //
+
+DELIMITER ;
+
+-- Backfill usage from leave approved before the ledger existed
+-- (accruals are posted by the application's accrual catch-up on startup)
+INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, leave_id, note)
+SELECT lr.emp_id, lr.leave_type, 'Usage', -lr.total_days, lr.start_date, lr.leave_id, 'Approved leave'
+FROM leave_requests lr
+JOIN leave_policy p ON p.leave_type = lr.leave_type
+WHERE lr.status = 'Approved';
+
+-- =====================================================
+-- REQUEST INBOX: One row per leave / bank / advance / reimbursement request
+-- Kept in sync by triggers on the four request tables, so inbox, dashboard
+-- and report queries read one indexed table instead of a four-way UNION
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE request_inbox (
+    source ENUM('Leave','Bank Change','Salary Advance','Reimbursement') NOT NULL,
+    source_id INT NOT NULL,
+    emp_id INT NOT NULL,
+    status ENUM('Pending','Approved','Rejected') NOT NULL DEFAULT 'Pending',
+    submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    subtype VARCHAR(100) NULL,                 -- leave_type for leave
+    reason VARCHAR(255) NULL,
+    amount DECIMAL(10,2) NULL,
+    old_value VARCHAR(50) NULL,                -- bank: old / new account
+    new_value VARCHAR(50) NULL,
+    start_date DATE NULL,
+    end_date DATE NULL,
+    total_days DECIMAL(4,1) NULL,
+    PRIMARY KEY (source, source_id),
+    INDEX idx_inbox_status (status, submitted_at),
+    INDEX idx_inbox_emp (emp_id, submitted_at),
+    INDEX idx_inbox_submitted (submitted_at),
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+DELIMITER //
+
+CREATE TRIGGER inbox_leave_insert AFTER INSERT ON leave_requests FOR EACH ROW
+    INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, subtype, reason, start_date, end_date, total_days)
+    VALUES ('Leave', NEW.leave_id, NEW.emp_id, NEW.status, NEW.requested_on, NEW.leave_type, LEFT(NEW.reason, 255),
+            NEW.start_date, NEW.end_date, NEW.total_days) //
+
+CREATE TRIGGER inbox_leave_update AFTER UPDATE ON leave_requests FOR EACH ROW
+    UPDATE request_inbox
+    SET emp_id = NEW.emp_id, status = NEW.status, subtype = NEW.leave_type, reason = LEFT(NEW.reason, 255),
+        start_date = NEW.start_date, end_date = NEW.end_date, total_days = NEW.total_days
+    WHERE source = 'Leave' AND source_id = NEW.leave_id //
+
+CREATE TRIGGER inbox_leave_delete AFTER DELETE ON leave_requests FOR EACH ROW
+    DELETE FROM request_inbox WHERE source = 'Leave' AND source_id = OLD.leave_id //
+
+CREATE TRIGGER inbox_bank_insert AFTER INSERT ON bank_requests FOR EACH ROW
+    INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, old_value, new_value)
+    VALUES ('Bank Change', NEW.request_id, NEW.emp_id, NEW.status, NEW.request_date, NEW.old_account, NEW.new_account) //
+
+CREATE TRIGGER inbox_bank_update AFTER UPDATE ON bank_requests FOR EACH ROW
+    UPDATE request_inbox
+    SET emp_id = NEW.emp_id, status = NEW.status, old_value = NEW.old_account, new_value = NEW.new_account
+    WHERE source = 'Bank Change' AND source_id = NEW.request_id //
+
+CREATE TRIGGER inbox_bank_delete AFTER DELETE ON bank_requests FOR EACH ROW
+    DELETE FROM request_inbox WHERE source = 'Bank Change' AND source_id = OLD.request_id //
+
+CREATE TRIGGER inbox_advance_insert AFTER INSERT ON salary_advance_requests FOR EACH ROW
+    INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, reason, amount)
+    VALUES ('Salary Advance', NEW.advance_id, NEW.emp_id, NEW.status, NEW.request_date, LEFT(NEW.reason, 255), NEW.amount) //
+
+CREATE TRIGGER inbox_advance_update AFTER UPDATE ON salary_advance_requests FOR EACH ROW
+    UPDATE request_inbox
+    SET emp_id = NEW.emp_id, status = NEW.status, reason = LEFT(NEW.reason, 255), amount = NEW.amount
+    WHERE source = 'Salary Advance' AND source_id = NEW.advance_id //
+
+CREATE TRIGGER inbox_advance_delete AFTER DELETE ON salary_advance_requests FOR EACH ROW
+    DELETE FROM request_inbox WHERE source = 'Salary Advance' AND source_id = OLD.advance_id //
+
+CREATE TRIGGER inbox_reimb_insert AFTER INSERT ON reimbursements FOR EACH ROW
+    INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, reason, amount)
+    VALUES ('Reimbursement', NEW.reimb_id, NEW.emp_id, NEW.status, NEW.request_date, LEFT(NEW.reason, 255), NEW.amount) //
+
+CREATE TRIGGER inbox_reimb_update AFTER UPDATE ON reimbursements FOR EACH ROW
+    UPDATE request_inbox
+    SET emp_id = NEW.emp_id, status = NEW.status, reason = LEFT(NEW.reason, 255), amount = NEW.amount
+    WHERE source = 'Reimbursement' AND source_id = NEW.reimb_id //
+
+CREATE TRIGGER inbox_reimb_delete AFTER DELETE ON reimbursements FOR EACH ROW
+    DELETE FROM request_inbox WHERE source = 'Reimbursement' AND source_id = OLD.reimb_id //
+
+DELIMITER ;
+
+-- Backfill from the existing request tables
+INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, subtype, reason, start_date, end_date, total_days)
+SELECT 'Leave', leave_id, emp_id, status, requested_on, leave_type, LEFT(reason, 255), start_date, end_date, total_days
+FROM leave_requests;
+
+INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, old_value, new_value)
+SELECT 'Bank Change', request_id, emp_id, status, request_date, old_account, new_account
+FROM bank_requests;
+
+INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, reason, amount)
+SELECT 'Salary Advance', advance_id, emp_id, status, request_date, LEFT(reason, 255), amount
+FROM salary_advance_requests;
+
+INSERT INTO request_inbox (source, source_id, emp_id, status, submitted_at, reason, amount)
+SELECT 'Reimbursement', reimb_id, emp_id, status, request_date, LEFT(reason, 255), amount
+FROM reimbursements;
+
+-- =====================================================
+-- AUTO-APPROVAL RULES: A new request is approved automatically when every
+-- condition of at least one enabled rule for its source holds; NULL / FALSE
+-- conditions are not checked. Everything else stays Pending for HR.
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE auto_approval_rule (
+    rule_id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    source ENUM('Leave','Bank Change','Salary Advance','Reimbursement') NOT NULL,
+    leave_type VARCHAR(50) NULL,                 -- Leave only
+    max_amount DECIMAL(10,2) NULL,               -- Salary Advance / Reimbursement
+    max_days DECIMAL(5,2) NULL,                  -- Leave only
+    require_balance BOOLEAN NOT NULL DEFAULT FALSE,
+    no_overlap BOOLEAN NOT NULL DEFAULT FALSE,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    priority INT NOT NULL DEFAULT 100            -- cheaper / more common rules first
+);
+
+INSERT INTO auto_approval_rule (name, source, leave_type, max_amount, max_days, require_balance, no_overlap, enabled, priority) VALUES
+('Small reimbursement', 'Reimbursement', NULL, 100.00, NULL, FALSE, FALSE, TRUE, 10),
+('One-day sick leave', 'Leave', 'Sick Leave', NULL, 1.00, TRUE, TRUE, TRUE, 20),
+('Small salary advance', 'Salary Advance', NULL, 200.00, NULL, FALSE, FALSE, FALSE, 30);
+
+-- =====================================================
+-- FORECAST CACHE STAMP: Last-change times so the forecast can tell whether
+-- its cached projections are still current without reloading the workforce.
+-- =====================================================
+USE payroll_system;
+
+ALTER TABLE employees ADD COLUMN updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    ADD INDEX idx_employees_updated (updated_at);
+ALTER TABLE payroll ADD COLUMN updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    ADD INDEX idx_payroll_updated (updated_at);
+ALTER TABLE departments ADD COLUMN updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+-- =====================================================
+-- RETRO PAY DETAIL: Arrears already paid per covered period, so a later
+-- backdated change is priced against base + arrears instead of paying the
+-- same months twice. payroll_adjustments keeps the per-posting totals that
+-- payroll generation folds into the open period's row.
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE payroll_arrears_period (
+    emp_id INT NOT NULL,
+    month VARCHAR(20) NOT NULL,                  -- period the arrears pay for
+    year INT NOT NULL,
+    gross DECIMAL(12,2) NOT NULL DEFAULT 0,
+    tax DECIMAL(12,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (emp_id, month, year),
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+-- =====================================================
+-- LEAVE LEDGER: Reservations, explicit delete and one source of truth
+-- Pending requests reserve their days (entry_type 'Reservation', tracked in
+-- leave_ledger_balance.reserved) until they are decided. Deleting a request
+-- removes its ledger rows through a trigger instead of an FK cascade, since
+-- cascaded deletes do not fire after_leave_ledger_delete. The old
+-- leave_balance table (fed by after_employee_insert, read by nothing) is retired.
+-- =====================================================
+USE payroll_system;
+
+ALTER TABLE leave_ledger MODIFY entry_type ENUM('Accrual','Usage','Adjustment','Reservation') NOT NULL;
+ALTER TABLE leave_ledger DROP FOREIGN KEY leave_ledger_ibfk_2;
+-- Only reached when leave_requests rows go through an employee cascade, and those
+-- ledger rows are removed with the employee anyway
+ALTER TABLE leave_ledger ADD CONSTRAINT fk_ledger_leave
+    FOREIGN KEY (leave_id) REFERENCES leave_requests(leave_id) ON DELETE SET NULL;
+
+ALTER TABLE leave_ledger_balance ADD COLUMN reserved DECIMAL(7,2) NOT NULL DEFAULT 0 AFTER balance;
+
+DROP TRIGGER IF EXISTS after_employee_insert;
+DROP TABLE IF EXISTS leave_balance;
+
+DROP TRIGGER IF EXISTS after_leave_ledger_insert;
+DROP TRIGGER IF EXISTS after_leave_ledger_delete;
+DROP TRIGGER IF EXISTS after_leave_request_update;
+
+DELIMITER //
+
+-- balance = accruals + usage + adjustments; reserved = days held by Pending requests
+CREATE TRIGGER after_leave_ledger_insert
+AFTER INSERT ON leave_ledger
+FOR EACH ROW
+BEGIN
+    IF NEW.entry_type = 'Reservation' THEN
+        INSERT INTO leave_ledger_balance (emp_id, leave_type, balance, reserved)
+        VALUES (NEW.emp_id, NEW.leave_type, 0, -NEW.days)
+        ON DUPLICATE KEY UPDATE reserved = reserved + VALUES(reserved);
+    ELSE
+        INSERT INTO leave_ledger_balance (emp_id, leave_type, balance, reserved)
+        VALUES (NEW.emp_id, NEW.leave_type, NEW.days, 0)
+        ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance);
+    END IF;
+END //
+
+CREATE TRIGGER after_leave_ledger_delete
+AFTER DELETE ON leave_ledger
+FOR EACH ROW
+BEGIN
+    IF OLD.entry_type = 'Reservation' THEN
+        UPDATE leave_ledger_balance SET reserved = reserved + OLD.days
+        WHERE emp_id = OLD.emp_id AND leave_type = OLD.leave_type;
+    ELSE
+        UPDATE leave_ledger_balance SET balance = balance - OLD.days
+        WHERE emp_id = OLD.emp_id AND leave_type = OLD.leave_type;
+    END IF;
+END //
+
+-- A new Pending request reserves its days
+CREATE TRIGGER after_leave_request_reserve
+AFTER INSERT ON leave_requests
+FOR EACH ROW
+BEGIN
+    IF NEW.status = 'Pending' THEN
+        INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, leave_id, note)
+        SELECT NEW.emp_id, NEW.leave_type, 'Reservation', -NEW.total_days, NEW.start_date, NEW.leave_id, 'Pending leave'
+        FROM leave_policy WHERE leave_type = NEW.leave_type;
+    END IF;
+END //
+
+-- Deciding a request releases its reservation; approving posts its usage,
+-- withdrawing the approval removes it. An edited Pending request re-reserves.
+CREATE TRIGGER after_leave_request_update
+AFTER UPDATE ON leave_requests
+FOR EACH ROW
+BEGIN
+    IF OLD.status = 'Pending' THEN
+        DELETE FROM leave_ledger WHERE leave_id = OLD.leave_id AND entry_type = 'Reservation';
+    END IF;
+    IF OLD.status = 'Approved' AND NEW.status <> 'Approved' THEN
+        DELETE FROM leave_ledger WHERE leave_id = OLD.leave_id AND entry_type = 'Usage';
+    END IF;
+
+    IF NEW.status = 'Approved' AND OLD.status <> 'Approved' THEN
+        INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, leave_id, note)
+        SELECT NEW.emp_id, NEW.leave_type, 'Usage', -NEW.total_days, NEW.start_date, NEW.leave_id, 'Approved leave'
+        FROM leave_policy WHERE leave_type = NEW.leave_type
+        ON DUPLICATE KEY UPDATE entry_id = entry_id;
+    ELSEIF NEW.status = 'Pending' THEN
+        INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, leave_id, note)
+        SELECT NEW.emp_id, NEW.leave_type, 'Reservation', -NEW.total_days, NEW.start_date, NEW.leave_id, 'Pending leave'
+        FROM leave_policy WHERE leave_type = NEW.leave_type;
+    END IF;
+END //
+
+-- Deleted requests take their usage / reservation with them (fires after_leave_ledger_delete)
+CREATE TRIGGER before_leave_request_delete
+BEFORE DELETE ON leave_requests
+FOR EACH ROW
+BEGIN
+    DELETE FROM leave_ledger WHERE leave_id = OLD.leave_id;
+END //
+
+DELIMITER ;
+
+-- Reserve the requests that are already pending
+INSERT INTO leave_ledger (emp_id, leave_type, entry_type, days, effective_date, leave_id, note)
+SELECT lr.emp_id, lr.leave_type, 'Reservation', -lr.total_days, lr.start_date, lr.leave_id, 'Pending leave'
+FROM leave_requests lr
+JOIN leave_policy p ON p.leave_type = lr.leave_type
+WHERE lr.status = 'Pending';
+
+-- Repair balances left wrong by earlier cascaded deletes: recompute from the ledger
+SET SQL_SAFE_UPDATES = 0;
+UPDATE leave_ledger_balance b
+SET b.balance = (SELECT COALESCE(SUM(l.days), 0) FROM leave_ledger l
+                 WHERE l.emp_id = b.emp_id AND l.leave_type = b.leave_type AND l.entry_type <> 'Reservation'),
+    b.reserved = (SELECT COALESCE(-SUM(l.days), 0) FROM leave_ledger l
+                  WHERE l.emp_id = b.emp_id AND l.leave_type = b.leave_type AND l.entry_type = 'Reservation');
+SET SQL_SAFE_UPDATES = 1;
+
+-- =====================================================
+-- PAYROLL DIRTY MARKS: Employees with changes waiting for the incremental
+-- recompute, written by the REST API server. The desktop keeps its own marks
+-- in memory and folds these in before it counts or recomputes a period.
+-- =====================================================
+USE payroll_system;
+
+CREATE TABLE payroll_dirty (
+    emp_id INT NOT NULL,
+    month VARCHAR(20) NOT NULL,                  -- upper-case month name (DECEMBER)
+    year INT NOT NULL,
+    marked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (month, year, emp_id),
+    FOREIGN KEY (emp_id) REFERENCES employees(emp_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+-- =====================================================
+-- SALARY HISTORY START: Employees without date_joined were seeded from the
+-- migration date, which pro-rated them in that month. Their first range now
+-- starts at the earliest date (later employees get one on their first change).
+-- =====================================================
+USE payroll_system;
+
+UPDATE salary_history h
+JOIN employees e ON e.emp_id = h.emp_id
+JOIN (SELECT emp_id, MIN(effective_from) AS first_from FROM salary_history GROUP BY emp_id) f
+  ON f.emp_id = h.emp_id AND f.first_from = h.effective_from
+SET h.effective_from = '1900-01-01'
+WHERE e.date_joined IS NULL;
@@ -0,0 +1,174 @@
+package utils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * In-memory bitmap index over the attendance table.
+ *
+ * Each (employee, year) owns one 366-bit bitset per status (Present, Absent,
+ * Leave), bit n = day-of-year n+1. That is 3 x 6 longs per employee-year, so a
+ * full year of attendance for 10,000 employees fits in about 1.5 MB and
+ * employee-years with no rows cost nothing.
+ *
+ * "Days present in March" is a masked popcount over one bitset, and
+ * "who was absent on X" is a column bitmap (BitSet of emp_ids) built from
+ * one bit test per employee-year.
+ *
+ * A day holds at most one status: setting a status clears the other two.
+ * All methods are synchronized; updates are single-bit and reads are
+ * popcounts, so contention is negligible.
+ */
+public final class AttendanceBitmapIndex {
+
+    public static final int PRESENT = 0;
+    public static final int ABSENT = 1;
+    public static final int LEAVE = 2;
+    private static final int STATUSES = 3;
+    private static final int WORDS = 6;   // 6 x 64 = 384 bits >= 366 days
+
+    // key = empId << 16 | year  ->  STATUSES * WORDS longs (status s uses words [s*WORDS, (s+1)*WORDS))
+    private final Map<Long, long[]> bitmaps = new HashMap<>();
+
+    /**
+     * @return PRESENT / ABSENT / LEAVE for the attendance.status value, or -1 if unknown
+     */
+    public static int statusIndex(String status) {
+        if (status == null) return -1;
+        switch (status.trim().toUpperCase()) {
+            case "PRESENT": return PRESENT;
+            case "ABSENT": return ABSENT;
+            case "LEAVE": return LEAVE;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Records the status of one employee-day (replacing any previous status for that day).
+     */
+    public synchronized void set(int empId, LocalDate date, String status) {
+        int s = statusIndex(status);
+        long[] words = bitmaps.computeIfAbsent(key(empId, date.getYear()), k -> new long[STATUSES * WORDS]);
+        int day = date.getDayOfYear() - 1;
+        clearDay(words, day);
+        if (s >= 0) words[s * WORDS + (day >>> 6)] |= 1L << day;
+    }
+
+    /**
+     * Removes one employee-day (row deleted or moved to another date).
+     */
+    public synchronized void clear(int empId, LocalDate date) {
+        long[] words = bitmaps.get(key(empId, date.getYear()));
+        if (words != null) clearDay(words, date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Days with the status for the employee in [from, to] (inclusive).
+     */
+    public synchronized int count(int empId, int status, LocalDate from, LocalDate to) {
+        int total = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            long[] words = bitmaps.get(key(empId, year));
+            if (words == null) continue;
+            int a = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int b = year == to.getYear() ? to.getDayOfYear() - 1 : 365;
+            total += popcount(words, status * WORDS, a, b);
+        }
+        return total;
+    }
+
+    public int countMonth(int empId, int status, YearMonth month) {
+        return count(empId, status, month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Column bitmap: the emp_ids that have the status on the date.
+     */
+    public synchronized BitSet employeesOn(int status, LocalDate date) {
+        BitSet result = new BitSet();
+        int year = date.getYear();
+        int day = date.getDayOfYear() - 1;
+        int word = status * WORDS + (day >>> 6);
+        long mask = 1L << day;
+        for (Map.Entry<Long, long[]> e : bitmaps.entrySet()) {
+            long k = e.getKey();
+            if ((int) (k & 0xFFFF) != year) continue;
+            if ((e.getValue()[word] & mask) != 0) result.set((int) (k >>> 16));
+        }
+        return result;
+    }
+
+    /**
+     * Organisation-wide day count for the status in [from, to] (inclusive).
+     */
+    public synchronized long countAll(int status, LocalDate from, LocalDate to) {
+        long total = 0;
+        for (Map.Entry<Long, long[]> e : bitmaps.entrySet()) {
+            int year = (int) (e.getKey() & 0xFFFF);
+            if (year < from.getYear() || year > to.getYear()) continue;
+            int a = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int b = year == to.getYear() ? to.getDayOfYear() - 1 : 365;
+            total += popcount(e.getValue(), status * WORDS, a, b);
+        }
+        return total;
+    }
+
+    /**
+     * Organisation-wide day count for the status across every indexed year.
+     */
+    public synchronized long countAll(int status) {
+        long total = 0;
+        for (long[] words : bitmaps.values()) {
+            for (int w = status * WORDS; w < (status + 1) * WORDS; w++) total += Long.bitCount(words[w]);
+        }
+        return total;
+    }
+
+    /**
+     * Organisation-wide day count for the status, restricted to the days set in
+     * each year's mask (same day-of-year layout, e.g. WorkingDayCalendar.mask()).
+     */
+    public synchronized long countAllMasked(int status, IntFunction<long[]> yearMask) {
+        Map<Integer, long[]> masks = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<Long, long[]> e : bitmaps.entrySet()) {
+            long[] mask = masks.computeIfAbsent((int) (e.getKey() & 0xFFFF), yearMask::apply);
+            long[] words = e.getValue();
+            for (int w = 0; w < WORDS; w++) total += Long.bitCount(words[status * WORDS + w] & mask[w]);
+        }
+        return total;
+    }
+
+    public synchronized int employeeYears() {
+        return bitmaps.size();
+    }
+
+    private static long key(int empId, int year) {
+        return ((long) empId << 16) | (year & 0xFFFF);
+    }
+
+    private static void clearDay(long[] words, int day) {
+        long mask = ~(1L << day);
+        int w = day >>> 6;
+        for (int s = 0; s < STATUSES; s++) words[s * WORDS + w] &= mask;
+    }
+
+    // Popcount of bits [a, b] inside the WORDS-long bitset starting at offset
+    private static int popcount(long[] words, int offset, int a, int b) {
+        if (a > b) return 0;
+        int first = a >>> 6;
+        int last = b >>> 6;
+        int total = 0;
+        for (int w = first; w <= last; w++) {
+            long bits = words[offset + w];
+            if (w == first) bits &= -1L << (a & 63);
+            if (w == last) bits &= -1L >>> (63 - (b & 63));
+            total += Long.bitCount(bits);
+        }
+        return total;
+    }
+}
@@ -1,19 +1,341 @@
 // utils/DBConnection.java (The Correct Simple Way)
 package utils;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DBConnection {
     // These should be configured correctly
-    private static final String URL = "jdbc:mysql://localhost:3306/payroll_system";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
+    // rewriteBatchedStatements: JDBC batches go out as multi-row statements (bulk imports, retro pay)
+    // -Dpayroll.db.url / .user / .password point the app at another database (load tests)
+    private static final String URL = System.getProperty("payroll.db.url",
+            "jdbc:mysql://localhost:3306/payroll_system?rewriteBatchedStatements=true");
+    private static final String USER = System.getProperty("payroll.db.user", "root");
+    private static final String PASSWORD = System.getProperty("payroll.db.password", "root");
 
-   
+    // Idle physical connections kept open between calls
+    private static final int MAX_IDLE = Integer.getInteger("payroll.db.maxIdle", 8);
+
+    // Connections handed out at once; 0 = no cap (desktop). Server mode caps it so
+    // thousands of request threads queue here instead of opening MySQL sessions.
+    private static final int MAX_ACTIVE = Integer.getInteger("payroll.db.maxActive", 0);
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("payroll.db.acquireTimeoutMs", 10_000L);
+    private static final Semaphore permits = MAX_ACTIVE > 0 ? new Semaphore(MAX_ACTIVE, true) : null;
+    private static final ConcurrentLinkedDeque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+
+    // A connection returned more recently than this is handed out without an isValid()
+    // round trip; only connections that sat idle longer are checked before reuse
+    private static final long VALIDATE_AFTER_MS = Long.getLong("payroll.db.validateAfterMs", 10_000L);
+
+    /**
+     * An idle physical connection and when it was returned to the pool.
+     */
+    private static final class IdleConnection {
+        final Connection connection;
+        final long since = System.currentTimeMillis();
+
+        IdleConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    // Pool metrics (Metrics screen / Prometheus endpoint); in use vs idle shows saturation
+    private static final LongAdder inUse = new LongAdder();
+    private static final Metrics.Counter OPENED =
+            Metrics.counter("payroll_db_connections_opened_total", "Physical connections opened");
+    private static final Metrics.Counter REUSED =
+            Metrics.counter("payroll_db_connections_reused_total", "Connections handed out from the idle pool");
+    private static final Metrics.Timer WAIT =
+            Metrics.timer("payroll_db_connection_wait_seconds", "Time to get a connection from the pool or the driver");
+    private static final Metrics.Timer STATEMENTS =
+            Metrics.timer("payroll_db_statement_seconds", "JDBC execute calls on instrumented connections");
+    private static final Metrics.Counter STATEMENT_ERRORS =
+            Metrics.counter("payroll_db_statement_errors_total", "JDBC execute calls that threw");
+
+    static {
+        Metrics.gauge("payroll_db_connections_in_use", "Pooled connections handed out and not closed yet", inUse::sum);
+        Metrics.gauge("payroll_db_connections_idle", "Idle connections in the pool", idle::size);
+        Metrics.gauge("payroll_db_pool_max_idle", "Idle connections the pool keeps", () -> MAX_IDLE);
+        if (permits != null) {
+            Metrics.gauge("payroll_db_pool_max_active", "Connections that may be handed out at once", () -> MAX_ACTIVE);
+            Metrics.gauge("payroll_db_connection_waiters", "Threads queued for a connection", permits::getQueueLength);
+        }
+    }
+
+    /**
+     * Returns a pooled connection. Callers use it exactly as before
+     * (try-with-resources / close()); close() hands the physical connection
+     * back to the pool instead of tearing down the TCP + auth handshake.
+     */
     public static Connection getConnection() throws SQLException {
-        // No static field is used here. A new connection object is created.
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        long start = System.nanoTime();
+        if (permits != null) acquirePermit();
+        Connection physical = null;
+        try {
+            IdleConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    physical = pooled.connection;
+                    break;
+                }
+                closeQuietly(pooled.connection);
+            }
+            if (physical == null) {
+                physical = DriverManager.getConnection(URL, USER, PASSWORD);
+                OPENED.inc();
+            } else {
+                REUSED.inc();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (permits != null) permits.release();
+            throw e;
+        }
+        long wait = System.nanoTime() - start;
+        WAIT.record(wait);
+        if (QueryStats.ENABLED) QueryStats.recordConnectionWait(wait);
+        inUse.increment();
+        return wrap(physical);
+    }
+
+    /**
+     * Opens up to the given number of connections ahead of time (startup warm-up),
+     * so the first screen after login does not pay for the driver load and handshake.
+     */
+    public static void warmUp(int connections) throws SQLException {
+        int target = Math.min(connections, MAX_IDLE);
+        while (idle.size() < target) {
+            idle.offerFirst(new IdleConnection(DriverManager.getConnection(URL, USER, PASSWORD)));
+            OPENED.inc();
+        }
+    }
+
+    /**
+     * Closes every idle connection (application shutdown).
+     */
+    public static void shutdown() {
+        IdleConnection c;
+        while ((c = idle.pollFirst()) != null) closeQuietly(c.connection);
+    }
+
+    private static void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + ACQUIRE_TIMEOUT_MS + " ms waiting for one of " + MAX_ACTIVE + " connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private static void release(Connection physical) {
+        if (permits != null) permits.release();
+        try {
+            // Never hand a half-finished transaction to the next caller
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (idle.size() < MAX_IDLE) {
+                idle.offerFirst(new IdleConnection(physical));
+                return;
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection: " + e.getMessage());
+        }
+        closeQuietly(physical);
+    }
+
+    private static boolean isUsable(IdleConnection pooled) {
+        try {
+            Connection c = pooled.connection;
+            if (c.isClosed()) return false;
+            return System.currentTimeMillis() - pooled.since < VALIDATE_AFTER_MS || c.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Wraps a physical connection so close() returns it to the pool and
+     * isClosed() reflects the caller's view of it. Statements the caller left
+     * open are closed with it (with their ResultSets), as they were when
+     * close() ended the physical connection, so leaks do not pile up on a
+     * pooled connection.
+     */
+    private static Connection wrap(Connection physical) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean closed = false;
+            private final List<Statement> statements = new ArrayList<>();
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class) {
+                    return method.getName().equals("equals") ? proxy == args[0] : method.invoke(physical, args);
+                }
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            inUse.decrement();
+                            closeStatements();
+                            release(physical);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || physical.isClosed();
+                    default:
+                        if (closed) throw new SQLException("Connection is closed");
+                        Object result;
+                        try {
+                            result = method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof Statement statement) track(statement);
+                        if (QueryStats.ENABLED && result instanceof Statement statement) {
+                            // prepareStatement / prepareCall carry their SQL; createStatement gets it per execute
+                            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                            return instrument(statement, method.getReturnType(), sql, (Connection) proxy);
+                        }
+                        return result;
+                }
+            }
+
+            private void track(Statement statement) throws SQLException {
+                // Long-lived connections create many statements; forget the ones already closed
+                if (statements.size() >= 64) {
+                    List<Statement> open = new ArrayList<>();
+                    for (Statement s : statements) if (!s.isClosed()) open.add(s);
+                    statements.clear();
+                    statements.addAll(open);
+                }
+                statements.add(statement);
+            }
+
+            private void closeStatements() {
+                for (Statement s : statements) {
+                    try {
+                        s.close();
+                    } catch (SQLException ignored) {
+                    }
+                }
+                statements.clear();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                DBConnection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    /**
+     * Wraps a statement so every execute* call is timed into QueryStats under its
+     * SQL fingerprint and the Class.method that created the statement. Query rows
+     * are counted as the caller reads the ResultSet. Each call is also a
+     * payroll.JdbcExecution event when a flight recording is running.
+     */
+    private static Statement instrument(Statement physical, Class<?> type, String preparedSql, Connection owner) {
+        String caller = QueryStats.callerOf();
+        QueryStats.Entry prepared = preparedSql == null ? null : QueryStats.entryFor(preparedSql, caller);
+
+        InvocationHandler handler = new InvocationHandler() {
+            private String batchSql;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("getConnection")) return owner;   // never hand out the pooled physical connection
+                if (name.equals("addBatch") && args != null && args.length == 1 && batchSql == null) {
+                    batchSql = (String) args[0];
+                }
+                if (!name.startsWith("execute")) {
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                           : preparedSql != null ? preparedSql : batchSql;
+                QueryStats.Entry entry = prepared != null && sql == preparedSql ? prepared : QueryStats.entryFor(sql, caller);
+                if (name.equals("executeBatch") || name.equals("executeLargeBatch")) batchSql = null;
+
+                PayrollEvents.JdbcExecution event = new PayrollEvents.JdbcExecution();
+                event.begin();
+                long start = System.nanoTime();
+                Object result = null;
+                boolean failed = true;
+                try {
+                    result = method.invoke(physical, args);
+                    failed = false;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    long rows = rowsOf(result);
+                    long elapsed = System.nanoTime() - start;
+                    QueryStats.record(entry, sql == null ? "" : sql, elapsed, rows, failed);
+                    STATEMENTS.record(elapsed);
+                    if (failed) STATEMENT_ERRORS.inc();
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.fingerprint = entry.getFingerprint();
+                        event.caller = caller;
+                        event.rows = rows;
+                        event.failed = failed;
+                        event.commit();
+                    }
+                }
+                return result instanceof ResultSet rs ? countRows(rs, entry) : result;
+            }
+        };
+        Class<?> iface = type.isInterface() ? type : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                DBConnection.class.getClassLoader(), new Class<?>[] { iface }, handler);
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Integer n) return Math.max(0, n);
+        if (result instanceof Long n) return Math.max(0, n);
+        long total = 0;
+        if (result instanceof int[] counts) for (int n : counts) total += n > 0 ? n : n == Statement.SUCCESS_NO_INFO ? 1 : 0;
+        if (result instanceof long[] counts) for (long n : counts) total += n > 0 ? n : n == Statement.SUCCESS_NO_INFO ? 1 : 0;
+        return total;
+    }
+
+    private static ResultSet countRows(ResultSet physical, QueryStats.Entry entry) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) entry.addRow();
+            return result;
+        };
+        return (ResultSet) Proxy.newProxyInstance(
+                DBConnection.class.getClassLoader(), new Class<?>[] { ResultSet.class }, handler);
     }
-}
\ No newline at end of file
+}
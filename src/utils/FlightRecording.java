@@ -0,0 +1,98 @@
+package utils;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * FLIGHT RECORDING: Runs the "payroll" JFR recording with the bundled profile
+ * (jfr/payroll.jfc) and dumps it on request.
+ *
+ *   -Dpayroll.jfr=true     start the recording when the app starts
+ *
+ * A recording started on the command line with the same name
+ * (-XX:StartFlightRecording=name=payroll,settings=...) is used as is. Dumps
+ * come from the admin menu or, from outside the process, scripts/jfr-dump.
+ */
+public class FlightRecording {
+
+    public static final String NAME = "payroll";
+    private static final String PROFILE = "/jfr/payroll.jfc";
+
+    // Keeps the last few hours on disk; a dump writes whatever is still in the window
+    private static final Duration MAX_AGE = Duration.ofHours(6);
+    private static final long MAX_SIZE = 250L * 1024 * 1024;
+
+    /**
+     * Starts the recording if -Dpayroll.jfr=true and it is not running yet.
+     */
+    public static synchronized void startIfRequested() {
+        if (!Boolean.getBoolean("payroll.jfr") || find() != null) return;
+        if (!FlightRecorder.isAvailable()) {
+            System.err.println("Flight Recorder is not available in this JVM");
+            return;
+        }
+        try {
+            Recording recording = new Recording(loadProfile());
+            recording.setName(NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(MAX_AGE);
+            recording.setMaxSize(MAX_SIZE);
+            recording.start();
+        } catch (IOException | ParseException e) {
+            System.err.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * True when a recording is running that a dump can be taken from.
+     */
+    public static boolean isRunning() {
+        if (!FlightRecorder.isInitialized()) return false;
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(r -> r.getState() == RecordingState.RUNNING);
+    }
+
+    /**
+     * Writes the "payroll" recording to the file; if only other recordings are
+     * running, writes a snapshot of everything recorded so far.
+     */
+    public static void dump(Path target) throws IOException {
+        Recording recording = find();
+        if (recording != null) {
+            recording.dump(target);
+            return;
+        }
+        if (!isRunning()) {
+            throw new IOException("No flight recording is running. Start the app with -Dpayroll.jfr=true.");
+        }
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.dump(target);
+        }
+    }
+
+    private static Recording find() {
+        if (!FlightRecorder.isInitialized()) return null;
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (NAME.equals(r.getName()) && r.getState() == RecordingState.RUNNING) return r;
+        }
+        return null;
+    }
+
+    private static Configuration loadProfile() throws IOException, ParseException {
+        InputStream in = FlightRecording.class.getResourceAsStream(PROFILE);
+        if (in == null) throw new IOException("JFR profile not found: " + PROFILE);
+        try (InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
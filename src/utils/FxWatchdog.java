@@ -0,0 +1,250 @@
+package utils;
+
+import javafx.application.Platform;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FX WATCHDOG: Measures how quickly the JavaFX application thread picks up
+ * work and records the stalls when it does not.
+ *
+ * A daemon thread posts a tiny task with Platform.runLater every 100 ms and
+ * times how long it waits to run (the pulse latency), per current view. If a
+ * task has not run after the stall threshold, the FX thread's stack is
+ * captured right then and re-sampled while the stall lasts; the stall is
+ * attributed to the innermost controllers.* method seen most often in those
+ * samples (a blocking JDBC call, FXMLLoader.load, a long loop...). Finished
+ * stalls are printed to System.err and kept in a ring buffer for the UI
+ * Responsiveness screen.
+ *
+ * A modal showAndWait runs a nested event loop, so an open dialog is not a
+ * stall; the work done before or after it is.
+ *
+ *   -Dpayroll.fx.stallMs=250        stall threshold
+ *   -Dpayroll.fx.watchdog=false     do not start the watchdog
+ */
+public class FxWatchdog {
+
+    private static final long PULSE_INTERVAL_MS = 100;
+    private static final int MAX_STALLS = 100;
+    private static final int MAX_STACK_FRAMES = 40;
+
+    /**
+     * One period where the FX thread did not respond within the threshold.
+     */
+    public static class Stall {
+        private final LocalDateTime at;
+        private final double millis;
+        private final String view;
+        private final String method;
+        private final String stack;
+
+        Stall(LocalDateTime at, double millis, String view, String method, String stack) {
+            this.at = at;
+            this.millis = millis;
+            this.view = view;
+            this.method = method;
+            this.stack = stack;
+        }
+
+        public LocalDateTime getAt() { return at; }
+        public double getMillis() { return millis; }
+        public String getView() { return view; }
+        public String getMethod() { return method; }
+        public String getStack() { return stack; }
+
+        @Override
+        public String toString() {
+            return String.format("%s  %,.0f ms  %s  (%s)", at.withNano(0), millis, method, view);
+        }
+    }
+
+    /**
+     * Pulse latency and stall totals for one view.
+     */
+    public static class ViewStats {
+        private final String view;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder stalls = new LongAdder();
+
+        ViewStats(String view) {
+            this.view = view;
+        }
+
+        public String getView() { return view; }
+        public long getPulses() { return latency.count(); }
+        public double getP50Millis() { return latency.percentile(50) / 1000.0; }
+        public double getP99Millis() { return latency.percentile(99) / 1000.0; }
+        public double getMaxMillis() { return latency.max() / 1000.0; }
+        public long getStalls() { return stalls.sum(); }
+    }
+
+    private static final Map<String, ViewStats> viewStats = new ConcurrentHashMap<>();
+    private static final ArrayDeque<Stall> stalls = new ArrayDeque<>();
+
+    private static volatile long stallThresholdNanos = Long.getLong("payroll.fx.stallMs", 250L) * 1_000_000L;
+    private static volatile String currentView = "/views/login.fxml";
+    private static volatile Thread fxThread;
+    private static Thread watchdog;
+
+    // Guarded by FxWatchdog.class: the pulse in flight and the stall it turned into
+    private static long pulsePostedAt;
+    private static boolean pulsePending;
+    private static LocalDateTime stallStartedAt;
+    private static String stallStack;
+    private static Map<String, Integer> stallSamples;
+
+    /**
+     * Starts the watchdog thread (once). Call from the FX thread after the first stage is shown.
+     */
+    public static synchronized void start() {
+        if (watchdog != null || "false".equalsIgnoreCase(System.getProperty("payroll.fx.watchdog"))) return;
+        fxThread = Thread.currentThread();
+        watchdog = new Thread(FxWatchdog::run, "fx-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    /**
+     * The view the user is on now (set by ViewRegistry and the dashboard loaders).
+     */
+    public static void viewShown(String fxmlPath) {
+        if (fxmlPath != null) currentView = fxmlPath;
+    }
+
+    public static long getStallThresholdMillis() {
+        return stallThresholdNanos / 1_000_000L;
+    }
+
+    public static void setStallThresholdMillis(long millis) {
+        stallThresholdNanos = Math.max(1, millis) * 1_000_000L;
+    }
+
+    /**
+     * Recent stalls, newest first.
+     */
+    public static List<Stall> recentStalls() {
+        synchronized (stalls) {
+            return new ArrayList<>(stalls);
+        }
+    }
+
+    public static List<ViewStats> viewStats() {
+        List<ViewStats> list = new ArrayList<>(viewStats.values());
+        list.sort((a, b) -> Double.compare(b.getP99Millis(), a.getP99Millis()));
+        return list;
+    }
+
+    public static void reset() {
+        viewStats.clear();
+        synchronized (stalls) {
+            stalls.clear();
+        }
+    }
+
+    private static void run() {
+        while (true) {
+            try {
+                Thread.sleep(PULSE_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            synchronized (FxWatchdog.class) {
+                if (!pulsePending) {
+                    pulsePending = true;
+                    pulsePostedAt = now;
+                    long postedAt = now;
+                    Platform.runLater(() -> onPulse(postedAt));
+                } else if (now - pulsePostedAt >= stallThresholdNanos) {
+                    sampleStall();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs on the FX thread when the posted pulse finally gets its turn.
+     */
+    private static void onPulse(long postedAt) {
+        long latency = System.nanoTime() - postedAt;
+        String view = currentView;
+        ViewStats stats = viewStats.computeIfAbsent(view, ViewStats::new);
+        stats.latency.record(latency / 1_000);
+
+        Stall stall = null;
+        synchronized (FxWatchdog.class) {
+            pulsePending = false;
+            if (stallStartedAt != null) {
+                stall = new Stall(stallStartedAt, latency / 1e6, view, attribute(stallSamples), stallStack);
+                stallStartedAt = null;
+                stallStack = null;
+                stallSamples = null;
+            }
+        }
+        if (stall != null) {
+            stats.stalls.increment();
+            System.err.println("FX STALL " + stall);
+            synchronized (stalls) {
+                if (stalls.size() == MAX_STALLS) stalls.pollLast();
+                stalls.offerFirst(stall);
+            }
+        }
+    }
+
+    /**
+     * Called on the watchdog thread (holding the lock) while the FX thread is
+     * stalled: the first call keeps the full stack, every call adds a sample.
+     */
+    private static void sampleStall() {
+        Thread fx = fxThread;
+        if (fx == null) return;
+        StackTraceElement[] frames = fx.getStackTrace();
+        if (stallStartedAt == null) {
+            stallStartedAt = LocalDateTime.now();
+            stallStack = format(frames);
+            stallSamples = new HashMap<>();
+        }
+        stallSamples.merge(innermostController(frames), 1, Integer::sum);
+    }
+
+    private static String innermostController(StackTraceElement[] frames) {
+        for (StackTraceElement f : frames) {
+            if (f.getClassName().startsWith("controllers.")) {
+                String cls = f.getClassName().substring("controllers.".length());
+                int inner = cls.indexOf('$');
+                String method = f.getMethodName();
+                if (method.startsWith("lambda$")) {
+                    // lambda$handleBatchGenerate$3 -> handleBatchGenerate
+                    int end = method.indexOf('$', "lambda$".length());
+                    method = method.substring("lambda$".length(), end < 0 ? method.length() : end);
+                }
+                return (inner < 0 ? cls : cls.substring(0, inner)) + "." + method;
+            }
+        }
+        return "unknown (no controller frame)";
+    }
+
+    private static String attribute(Map<String, Integer> samples) {
+        if (samples == null || samples.isEmpty()) return "unknown (no controller frame)";
+        return samples.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("unknown (no controller frame)");
+    }
+
+    private static String format(StackTraceElement[] frames) {
+        StringBuilder sb = new StringBuilder();
+        int n = Math.min(frames.length, MAX_STACK_FRAMES);
+        for (int i = 0; i < n; i++) sb.append("at ").append(frames[i]).append('\n');
+        if (frames.length > n) sb.append("... ").append(frames.length - n).append(" more\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable interval tree over date ranges (inclusive on both ends).
+ *
+ * Items are sorted by start date and laid out as an implicit balanced BST
+ * over that array (the middle element of every sub-range is its root). Each
+ * node also stores the latest end date in its subtree, so a query skips any
+ * subtree that ends before the range and any right subtree that starts after
+ * it: overlap queries cost O(log n + k) for k matches.
+ *
+ * Dates are held as epoch days in primitive arrays. Build once per snapshot;
+ * changes are handled by rebuilding (see CalendarIndexService).
+ */
+public final class IntervalIndex<T> {
+
+    private final Object[] items;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private IntervalIndex(Object[] items, long[] starts, long[] ends) {
+        this.items = items;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnd = new long[items.length];
+        if (items.length > 0) fillMaxEnd(0, items.length - 1);
+    }
+
+    public static <T> IntervalIndex<T> build(List<T> source, Function<T, LocalDate> start, Function<T, LocalDate> end) {
+        List<T> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(start));
+        int n = sorted.size();
+        Object[] items = new Object[n];
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            T item = sorted.get(i);
+            items[i] = item;
+            starts[i] = start.apply(item).toEpochDay();
+            ends[i] = end.apply(item).toEpochDay();
+        }
+        return new IntervalIndex<>(items, starts, ends);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Items whose range overlaps [from, to], in start-date order.
+     */
+    public List<T> overlapping(LocalDate from, LocalDate to) {
+        List<T> result = new ArrayList<>();
+        collect(0, items.length - 1, from.toEpochDay(), to.toEpochDay(), result);
+        return result;
+    }
+
+    /**
+     * Items whose range contains the date.
+     */
+    public List<T> containing(LocalDate date) {
+        return overlapping(date, date);
+    }
+
+    /**
+     * True if any item overlaps [from, to]; stops at the first hit.
+     */
+    public boolean anyOverlap(LocalDate from, LocalDate to) {
+        return find(0, items.length - 1, from.toEpochDay(), to.toEpochDay());
+    }
+
+    private long fillMaxEnd(int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        long max = ends[mid];
+        if (lo < mid) max = Math.max(max, fillMaxEnd(lo, mid - 1));
+        if (mid < hi) max = Math.max(max, fillMaxEnd(mid + 1, hi));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int lo, int hi, long from, long to, List<T> out) {
+        if (lo > hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] < from) return;             // whole subtree ends before the range
+        collect(lo, mid - 1, from, to, out);
+        if (starts[mid] > to) return;               // this node and everything right of it start after the range
+        if (ends[mid] >= from) out.add((T) items[mid]);
+        collect(mid + 1, hi, from, to, out);
+    }
+
+    private boolean find(int lo, int hi, long from, long to) {
+        if (lo > hi) return false;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] < from) return false;
+        if (find(lo, mid - 1, from, to)) return true;
+        if (starts[mid] > to) return false;
+        return ends[mid] >= from || find(mid + 1, hi, from, to);
+    }
+}
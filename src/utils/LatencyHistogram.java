@@ -0,0 +1,66 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram in microseconds with HdrHistogram-style log-linear
+ * buckets: exact below 128 us, then 64 sub-buckets per power of two, so any
+ * recorded value is reported within ~1.6%. Fixed size, no allocation on
+ * record(), safe to record into from many threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB = 1 << SUB_BITS;           // 64
+    private static final int LINEAR = 2 * SUB;               // values below this are exact
+    private static final int MAX_SHIFT = 40;                 // ~12 days in us, far beyond any call
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR + MAX_SHIFT * SUB);
+
+    public void record(long micros) {
+        counts.incrementAndGet(index(Math.max(0, micros)));
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        return total;
+    }
+
+    /**
+     * @param percentile 0..100
+     * @return upper bound (us) of the bucket holding that percentile, 0 when empty
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    public long max() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) return upperBound(i);
+        }
+        return 0;
+    }
+
+    private static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(v) - SUB_BITS, MAX_SHIFT);
+        long sub = Math.min(v >>> shift, 2 * SUB - 1);
+        return LINEAR + (shift - 1) * SUB + (int) (sub - SUB);
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int shift = (index - LINEAR) / SUB + 1;
+        long sub = (index - LINEAR) % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+}
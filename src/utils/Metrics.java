@@ -0,0 +1,228 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * METRICS: In-process counters, gauges and timers for operations (payroll
+ * rows written, notifications queued, cache hit rates, pool saturation,
+ * login latency).
+ *
+ * Counters and timer totals are LongAdders and timer distributions are a
+ * LatencyHistogram, so recording from many threads never takes a lock; the
+ * cost is paid when a snapshot is read. Metrics are registered once (usually
+ * into a static final field) and looked up by name plus labels:
+ *
+ *   Metrics.counter("payroll_rows_written_total", "Payroll rows written", "run", "recompute").add(n);
+ *
+ * Read by the Metrics admin screen and, when -Dpayroll.metrics.port is set,
+ * served in Prometheus text format by MetricsServer.
+ */
+public class Metrics {
+
+    public enum Type { COUNTER, GAUGE, TIMER }
+
+    /**
+     * Common part of every metric: Prometheus name, help text and rendered labels.
+     */
+    public abstract static class Metric {
+        private final String name;
+        private final String help;
+        private final String labels;
+
+        Metric(String name, String help, String labels) {
+            this.name = name;
+            this.help = help;
+            this.labels = labels;
+        }
+
+        public String getName() { return name; }
+        public String getHelp() { return help; }
+        /** Rendered label set without braces, e.g. run="recompute"; empty when none. */
+        public String getLabels() { return labels; }
+        public abstract Type getType();
+        /** Counter total, gauge value or timer count. */
+        public abstract double getValue();
+    }
+
+    public static final class Counter extends Metric {
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name, String help, String labels) {
+            super(name, help, labels);
+        }
+
+        public void inc() { count.increment(); }
+        public void add(long n) { if (n > 0) count.add(n); }
+        public long get() { return count.sum(); }
+
+        @Override public Type getType() { return Type.COUNTER; }
+        @Override public double getValue() { return get(); }
+    }
+
+    public static final class Gauge extends Metric {
+        private final DoubleSupplier value;
+
+        Gauge(String name, String help, String labels, DoubleSupplier value) {
+            super(name, help, labels);
+            this.value = value;
+        }
+
+        @Override public Type getType() { return Type.GAUGE; }
+
+        @Override
+        public double getValue() {
+            try {
+                return value.getAsDouble();
+            } catch (RuntimeException e) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Durations, recorded in nanoseconds and exposed as a Prometheus summary in seconds.
+     */
+    public static final class Timer extends Metric {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        Timer(String name, String help, String labels) {
+            super(name, help, labels);
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            histogram.record(nanos / 1_000);
+        }
+
+        /** Records the time since a System.nanoTime() start. */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() { return count.sum(); }
+        public double getTotalSeconds() { return totalNanos.sum() / 1e9; }
+        public double getPercentileMillis(double p) { return histogram.percentile(p) / 1000.0; }
+        public double getMaxMillis() { return histogram.max() / 1000.0; }
+
+        @Override public Type getType() { return Type.TIMER; }
+        @Override public double getValue() { return getCount(); }
+    }
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    // name + labels -> metric; insertion order does not matter, output is sorted
+    private static final Map<String, Metric> registry = new ConcurrentHashMap<>();
+
+    static {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("payroll_jvm_heap_used_bytes", "Heap in use", () -> memory.getHeapMemoryUsage().getUsed());
+        gauge("payroll_jvm_heap_committed_bytes", "Heap committed by the JVM", () -> memory.getHeapMemoryUsage().getCommitted());
+        gauge("payroll_jvm_threads_live", "Live threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        gauge("payroll_process_uptime_seconds", "Time since the JVM started",
+                () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+    /**
+     * Returns the counter with this name and labels, registering it on first use.
+     *
+     * @param labels alternating label names and values
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, labels, l -> new Counter(name, help, l));
+    }
+
+    public static Timer timer(String name, String help, String... labels) {
+        return (Timer) register(name, labels, l -> new Timer(name, help, l));
+    }
+
+    /**
+     * Registers a gauge read on every snapshot. The supplier must be cheap and thread-safe.
+     */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, labels, l -> new Gauge(name, help, l, value));
+    }
+
+    /**
+     * Every metric, sorted by name then labels.
+     */
+    public static List<Metric> snapshot() {
+        List<Metric> list = new ArrayList<>(registry.values());
+        list.sort((a, b) -> a.getName().equals(b.getName())
+                ? a.getLabels().compareTo(b.getLabels())
+                : a.getName().compareTo(b.getName()));
+        return list;
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format (version 0.0.4).
+     */
+    public static String toPrometheusText() {
+        StringBuilder sb = new StringBuilder(4096);
+        String lastName = null;
+        for (Metric m : snapshot()) {
+            if (!m.getName().equals(lastName)) {
+                lastName = m.getName();
+                sb.append("# HELP ").append(m.getName()).append(' ').append(escapeHelp(m.getHelp())).append('\n');
+                sb.append("# TYPE ").append(m.getName()).append(' ')
+                  .append(m.getType() == Type.TIMER ? "summary" : m.getType().name().toLowerCase(Locale.ROOT)).append('\n');
+            }
+            if (m instanceof Timer t) {
+                for (double q : QUANTILES) {
+                    String quantile = "quantile=\"" + q + "\"";
+                    sample(sb, m.getName(), m.getLabels().isEmpty() ? quantile : m.getLabels() + "," + quantile,
+                           t.getPercentileMillis(q * 100) / 1000.0);
+                }
+                sample(sb, m.getName() + "_sum", m.getLabels(), t.getTotalSeconds());
+                sample(sb, m.getName() + "_count", m.getLabels(), t.getCount());
+            } else {
+                sample(sb, m.getName(), m.getLabels(), m.getValue());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Metric register(String name, String[] labels, Function<String, Metric> factory) {
+        String rendered = renderLabels(labels);
+        return registry.computeIfAbsent(rendered.isEmpty() ? name : name + "{" + rendered + "}",
+                key -> factory.apply(rendered));
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels == null || labels.length == 0) return "";
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels must be name/value pairs");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"")
+              .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+              .append('"');
+        }
+        return sb.toString();
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) sb.append('{').append(labels).append('}');
+        sb.append(' ');
+        if (Double.isNaN(value)) sb.append("NaN");
+        else if (value == Math.rint(value) && Math.abs(value) < 1e15) sb.append((long) value);
+        else sb.append(value);
+        sb.append('\n');
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,89 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * METRICS SERVER: Serves Metrics in Prometheus text format at
+ * http://127.0.0.1:<port>/metrics. Off unless a port is given:
+ *
+ *   -Dpayroll.metrics.port=9404
+ *
+ * Bound to the loopback address only; scrape it from a local Prometheus or
+ * node agent, or with curl on the same machine.
+ */
+public class MetricsServer {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    /**
+     * Starts the endpoint if -Dpayroll.metrics.port is set (once).
+     */
+    public static synchronized void startIfConfigured() {
+        Integer port = Integer.getInteger("payroll.metrics.port");
+        if (port == null || server != null) return;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", MetricsServer::handle);
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-http");
+                t.setDaemon(true);
+                return t;
+            });
+            server.setExecutor(executor);
+            server.start();
+            System.out.println("Metrics endpoint: " + getUrl());
+        } catch (IOException e) {
+            server = null;
+            System.err.println("Could not start metrics endpoint on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The scrape URL, or null when the endpoint is off.
+     */
+    public static synchronized String getUrl() {
+        if (server == null) return null;
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/metrics";
+    }
+
+    public static synchronized void stop() {
+        if (server == null) return;
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -7,6 +7,12 @@ import java.sql.SQLException;
 
 public class NotificationService {
 
+    // Also counted by the batch inserts in RequestApprovalDAO
+    public static final Metrics.Counter QUEUED =
+            Metrics.counter("payroll_notifications_queued_total", "Notifications written for users");
+    private static final Metrics.Counter FAILED =
+            Metrics.counter("payroll_notifications_failed_total", "Notifications that could not be written");
+
     /**
      * PREVIOUS LOGIC (Maintained)
      * Creates a notification in the database for a specific user.
@@ -22,8 +28,10 @@ public class NotificationService {
             ps.setString(3, message);
             ps.setString(4, target);
             ps.executeUpdate();
+            QUEUED.inc();
             
         } catch (SQLException e) {
+            FAILED.inc();
             System.err.println("Failed to create notification: " + e.getMessage());
         }
     }
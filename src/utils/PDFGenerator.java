@@ -3,12 +3,15 @@ package utils;
 import models.PayrollRecord;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.util.List;
 
 public class PDFGenerator {
     public static void generatePayrollReport(List<PayrollRecord> records, String filePath) {
+        PayrollEvents.PdfRender event = PayrollEvents.PdfRender.begin("payroll report");
         Document document = new Document();
+        boolean written = false;
         try {
             PdfWriter.getInstance(document, new FileOutputStream(filePath));
             document.open();
@@ -36,8 +39,10 @@ public class PDFGenerator {
 
             document.add(table);
             document.close();
+            written = true;
         } catch (Exception e) {
             e.printStackTrace();
         }
+        event.finish(new File(filePath), written);
     }
 }
\ No newline at end of file
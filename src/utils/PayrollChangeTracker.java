@@ -0,0 +1,230 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which employees have pending payroll changes per open period.
+ * Salary edits, approved leave and attendance corrections mark an employee
+ * "dirty" for a period so that PayrollService.recomputeDirty() only has to
+ * recalculate those rows instead of regenerating payroll for everyone.
+ *
+ * Periods are keyed the same way as the payroll table: full month name + year
+ * (e.g. "December 2024").
+ *
+ * Marks live in memory, so they are only seen by the process that made them.
+ * The REST API server calls persistMarks(): its marks go to payroll_dirty
+ * instead, so the payroll officer's desktop picks up decisions and attendance
+ * written through the API. Counting reads that table without locking it;
+ * only drain() moves its rows into memory, and clear() deletes them.
+ */
+public class PayrollChangeTracker {
+
+    // period key -> dirty emp_ids
+    private static final Map<String, Set<Integer>> dirtyByPeriod = new ConcurrentHashMap<>();
+    private static volatile boolean persistMarks;
+
+    /**
+     * Writes marks to payroll_dirty from now on (processes that never recompute, e.g. the API server).
+     */
+    public static void persistMarks() {
+        persistMarks = true;
+    }
+
+    /**
+     * Marks an employee dirty for the payroll period that contains the given date.
+     */
+    public static void markDirty(int empId, LocalDate date) {
+        if (date == null) return;
+        markDirty(empId, monthName(date), date.getYear());
+    }
+
+    /**
+     * Marks an employee dirty for every payroll period touched by a date range
+     * (used for leave requests that span a month boundary).
+     */
+    public static void markDirty(int empId, LocalDate start, LocalDate end) {
+        if (start == null) return;
+        if (end == null || end.isBefore(start)) end = start;
+
+        LocalDate cursor = start.withDayOfMonth(1);
+        while (!cursor.isAfter(end)) {
+            markDirty(empId, cursor);
+            cursor = cursor.plusMonths(1);
+        }
+    }
+
+    /**
+     * Marks an employee dirty for a payroll period (month as stored in payroll.month).
+     */
+    public static void markDirty(int empId, String month, int year) {
+        if (empId <= 0 || month == null) return;
+        if (persistMarks && store(empId, month, year)) return;
+        dirtyByPeriod
+            .computeIfAbsent(periodKey(month, year), k -> ConcurrentHashMap.newKeySet())
+            .add(empId);
+    }
+
+    /**
+     * @return true if the period has any employees waiting to be recomputed
+     */
+    public static boolean hasPendingChanges(String month, int year) {
+        Set<Integer> dirty = dirtyByPeriod.get(periodKey(month, year));
+        return (dirty != null && !dirty.isEmpty()) || !storedIds(month, year).isEmpty();
+    }
+
+    /**
+     * @return number of employees waiting to be recomputed for the period
+     */
+    public static int pendingCount(String month, int year) {
+        Set<Integer> pending = storedIds(month, year);
+        Set<Integer> dirty = dirtyByPeriod.get(periodKey(month, year));
+        if (dirty != null) pending.addAll(dirty);
+        return pending.size();
+    }
+
+    /**
+     * Removes and returns the dirty set for a period.
+     * The caller owns the returned ids; re-mark them if the recompute fails.
+     */
+    public static Set<Integer> drain(String month, int year) {
+        absorbStored(month, year);
+        Set<Integer> dirty = dirtyByPeriod.remove(periodKey(month, year));
+        return dirty == null ? Set.of() : dirty;
+    }
+
+    /**
+     * Clears all tracked changes (e.g. after a full batch regeneration).
+     */
+    public static void clear(String month, int year) {
+        deleteStored(month, year);
+        dirtyByPeriod.remove(periodKey(month, year));
+    }
+
+    /**
+     * Full English month name, matching the values written to payroll.month.
+     */
+    public static String monthName(LocalDate date) {
+        return date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+    }
+
+    /**
+     * Parses payroll.month ("December", "DECEMBER") + year into a YearMonth, or null if unrecognised.
+     */
+    public static YearMonth toYearMonth(String month, int year) {
+        if (month == null) return null;
+        try {
+            return YearMonth.of(year, Month.valueOf(month.trim().toUpperCase(Locale.ENGLISH)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String periodKey(String month, int year) {
+        return storedMonth(month) + " " + year;
+    }
+
+    private static String storedMonth(String month) {
+        return month.trim().toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @return false if the mark could not be written (the caller keeps it in memory)
+     */
+    private static boolean store(int empId, String month, int year) {
+        String sql = "INSERT IGNORE INTO payroll_dirty (emp_id, month, year) VALUES (?, ?, ?)";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, empId);
+            ps.setString(2, storedMonth(month));
+            ps.setInt(3, year);
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Could not store payroll change for employee " + empId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads the period's rows in payroll_dirty without taking them.
+     */
+    private static Set<Integer> storedIds(String month, int year) {
+        Set<Integer> stored = new HashSet<>();
+        if (month == null) return stored;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT emp_id FROM payroll_dirty WHERE month = ? AND year = ?")) {
+            ps.setString(1, storedMonth(month));
+            ps.setInt(2, year);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) stored.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Stored payroll changes unavailable: " + e.getMessage());
+        }
+        return stored;
+    }
+
+    private static void deleteStored(String month, int year) {
+        if (month == null) return;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "DELETE FROM payroll_dirty WHERE month = ? AND year = ?")) {
+            ps.setString(1, storedMonth(month));
+            ps.setInt(2, year);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Could not clear stored payroll changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the period's rows in payroll_dirty into the in-memory set.
+     */
+    private static void absorbStored(String month, int year) {
+        if (month == null) return;
+        Set<Integer> stored = new HashSet<>();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement select = conn.prepareStatement(
+                        "SELECT emp_id FROM payroll_dirty WHERE month = ? AND year = ? FOR UPDATE")) {
+                    select.setString(1, storedMonth(month));
+                    select.setInt(2, year);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) stored.add(rs.getInt(1));
+                    }
+                }
+                if (!stored.isEmpty()) {
+                    try (PreparedStatement delete = conn.prepareStatement(
+                            "DELETE FROM payroll_dirty WHERE month = ? AND year = ?")) {
+                        delete.setString(1, storedMonth(month));
+                        delete.setInt(2, year);
+                        delete.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            // In-memory marks still work; stored ones are picked up next time
+            System.err.println("Stored payroll changes unavailable: " + e.getMessage());
+            return;
+        }
+        dirtyByPeriod.computeIfAbsent(periodKey(month, year), k -> ConcurrentHashMap.newKeySet()).addAll(stored);
+    }
+}
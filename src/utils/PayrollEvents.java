@@ -0,0 +1,140 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+
+/**
+ * JFR EVENTS: Custom Flight Recorder events for the slow parts of the app,
+ * shown under "Payroll" in JDK Mission Control. Settings (enabled, threshold,
+ * stack traces) come from the recording profile, see jfr/payroll.jfc; with no
+ * recording running, begin/commit cost next to nothing.
+ */
+public final class PayrollEvents {
+
+    private PayrollEvents() {
+    }
+
+    @Name("payroll.PayrollRunChunk")
+    @Label("Payroll Run Chunk")
+    @Category({ "Payroll", "Payroll Runs" })
+    @Description("One batch of payroll rows written by a payroll run, recompute or retro pay")
+    @StackTrace(false)
+    public static class PayrollRunChunk extends Event {
+        @Label("Run")
+        public String run;
+
+        @Label("Period")
+        public String period;
+
+        @Label("Employees")
+        public int employees;
+
+        @Label("Rows Written")
+        public int rowsWritten;
+
+        public static PayrollRunChunk begin(String run, String period) {
+            PayrollRunChunk event = new PayrollRunChunk();
+            event.run = run;
+            event.period = period;
+            event.begin();
+            return event;
+        }
+
+        public void finish(int employees, int rowsWritten) {
+            end();
+            if (shouldCommit()) {
+                this.employees = employees;
+                this.rowsWritten = rowsWritten;
+                commit();
+            }
+        }
+    }
+
+    @Name("payroll.JdbcExecution")
+    @Label("JDBC Execution")
+    @Category({ "Payroll", "Database" })
+    @Description("One execute call on a pooled connection (DBConnection)")
+    @StackTrace(false)
+    public static class JdbcExecution extends Event {
+        @Label("SQL Fingerprint")
+        public String fingerprint;
+
+        @Label("Caller")
+        public String caller;
+
+        @Label("Rows")
+        @Description("Update count or batch total; 0 for queries (rows are read later)")
+        public long rows;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    @Name("payroll.ViewLoad")
+    @Label("View Load")
+    @Category({ "Payroll", "UI" })
+    @Description("An FXML view built by FXMLLoader or handed back from the ViewRegistry cache")
+    public static class ViewLoad extends Event {
+        @Label("View")
+        public String view;
+
+        @Label("Source")
+        @Description("on demand, preload, cache (refresh only) or dashboard")
+        public String source;
+
+        public static ViewLoad begin(String view, String source) {
+            ViewLoad event = new ViewLoad();
+            event.view = view;
+            event.source = source;
+            event.begin();
+            return event;
+        }
+
+        public void finish() {
+            commit();
+        }
+    }
+
+    @Name("payroll.PdfRender")
+    @Label("PDF Render")
+    @Category({ "Payroll", "Documents" })
+    @Description("One PDF written with iText (payslip or report)")
+    public static class PdfRender extends Event {
+        @Label("Document")
+        public String document;
+
+        @Label("File")
+        public String file;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Success")
+        public boolean success;
+
+        public static PdfRender begin(String document) {
+            PdfRender event = new PdfRender();
+            event.document = document;
+            event.begin();
+            return event;
+        }
+
+        public void finish(File file, boolean success) {
+            end();
+            if (shouldCommit()) {
+                this.file = file == null ? null : file.getName();
+                this.bytes = file == null ? 0 : file.length();
+                this.success = success;
+                commit();
+            }
+        }
+    }
+}
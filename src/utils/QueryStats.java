@@ -0,0 +1,218 @@
+package utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * QUERY STATS: Latency, row and error counts for every JDBC execution that goes
+ * through DBConnection, keyed by normalized SQL fingerprint + calling
+ * Class.method, plus the time callers wait for a connection.
+ *
+ * The fingerprint replaces literals with ? and collapses IN lists and
+ * whitespace, so "WHERE emp_id = 42" and "WHERE emp_id = 7" are one query.
+ * Executions slower than the slow-query threshold are printed to System.err
+ * and kept in a small ring buffer for the Query Diagnostics screen.
+ *
+ *   -Dpayroll.db.slowQueryMs=500     slow-query threshold (also settable at runtime)
+ *   -Dpayroll.db.instrument=false    turns recording off
+ */
+public class QueryStats {
+
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("payroll.db.instrument"));
+
+    private static final int MAX_FINGERPRINTS = 10_000;
+    private static final int SLOW_LOG_SIZE = 200;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Totals for one fingerprint + caller.
+     */
+    public static class Entry {
+        private final String fingerprint;
+        private final String caller;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        Entry(String fingerprint, String caller) {
+            this.fingerprint = fingerprint;
+            this.caller = caller;
+        }
+
+        public String getFingerprint() { return fingerprint; }
+        public String getCaller() { return caller; }
+        public long getCount() { return count.sum(); }
+        public long getRows() { return rows.sum(); }
+        public long getErrors() { return errors.sum(); }
+        public double getTotalMillis() { return totalNanos.sum() / 1e6; }
+        public double getMeanMillis() { long n = getCount(); return n == 0 ? 0 : getTotalMillis() / n; }
+        public double getP50Millis() { return latency.percentile(50) / 1000.0; }
+        public double getP99Millis() { return latency.percentile(99) / 1000.0; }
+        public double getMaxMillis() { return latency.max() / 1000.0; }
+
+        /**
+         * Row counter for a query's ResultSet, incremented as the caller reads rows.
+         */
+        public void addRow() { rows.increment(); }
+    }
+
+    /**
+     * One execution over the slow-query threshold.
+     */
+    public static class SlowQuery {
+        private final LocalDateTime at;
+        private final double millis;
+        private final String caller;
+        private final String sql;
+
+        SlowQuery(LocalDateTime at, double millis, String caller, String sql) {
+            this.at = at;
+            this.millis = millis;
+            this.caller = caller;
+            this.sql = sql;
+        }
+
+        public LocalDateTime getAt() { return at; }
+        public double getMillis() { return millis; }
+        public String getCaller() { return caller; }
+        public String getSql() { return sql; }
+
+        @Override
+        public String toString() {
+            return String.format("%s  %,.1f ms  [%s]  %s", at.withNano(0), millis, caller, sql);
+        }
+    }
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private static final ArrayDeque<SlowQuery> slowLog = new ArrayDeque<>();
+    private static final LatencyHistogram connectionWait = new LatencyHistogram();
+
+    private static volatile long slowThresholdNanos =
+            Long.getLong("payroll.db.slowQueryMs", 500L) * 1_000_000L;
+
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    public static long getSlowThresholdMillis() {
+        return slowThresholdNanos / 1_000_000L;
+    }
+
+    public static void setSlowThresholdMillis(long millis) {
+        slowThresholdNanos = Math.max(0, millis) * 1_000_000L;
+    }
+
+    /**
+     * Entry an execution is recorded under. Looked up once per statement.
+     */
+    public static Entry entryFor(String sql, String caller) {
+        String fp = fingerprint(sql);
+        return entries.computeIfAbsent(fp + '\n' + caller, k -> new Entry(fp, caller));
+    }
+
+    /**
+     * Records one execution. Rows are the update count (or batch total);
+     * query rows are added by the ResultSet as they are read.
+     */
+    public static void record(Entry entry, String sql, long nanos, long rows, boolean failed) {
+        entry.count.increment();
+        entry.totalNanos.add(nanos);
+        entry.latency.record(nanos / 1_000);
+        if (rows > 0) entry.rows.add(rows);
+        if (failed) entry.errors.increment();
+
+        if (nanos >= slowThresholdNanos) {
+            SlowQuery slow = new SlowQuery(LocalDateTime.now(), nanos / 1e6, entry.caller, WHITESPACE.matcher(sql).replaceAll(" ").trim());
+            System.err.println("SLOW QUERY " + slow);
+            synchronized (slowLog) {
+                if (slowLog.size() == SLOW_LOG_SIZE) slowLog.pollLast();
+                slowLog.offerFirst(slow);
+            }
+        }
+    }
+
+    public static void recordConnectionWait(long nanos) {
+        connectionWait.record(nanos / 1_000);
+    }
+
+    public static LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    /**
+     * Queries with the highest total time, highest first.
+     */
+    public static List<Entry> top(int limit) {
+        List<Entry> list = new ArrayList<>(entries.values());
+        list.sort(Comparator.comparingDouble(Entry::getTotalMillis).reversed());
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    /**
+     * Recent slow executions, newest first.
+     */
+    public static List<SlowQuery> recentSlowQueries() {
+        synchronized (slowLog) {
+            return new ArrayList<>(slowLog);
+        }
+    }
+
+    public static void reset() {
+        entries.clear();
+        synchronized (slowLog) {
+            slowLog.clear();
+        }
+    }
+
+    /**
+     * First stack frame outside the JDBC plumbing, as Class.method.
+     */
+    public static String callerOf() {
+        return walker.walk(frames -> frames
+                .filter(f -> {
+                    String c = f.getClassName();
+                    return !c.startsWith("utils.DBConnection") && !c.equals(QueryStats.class.getName())
+                            && !c.startsWith("java.") && !c.startsWith("javax.") && !c.startsWith("jdk.")
+                            && !c.startsWith("sun.") && !c.startsWith("com.mysql.") && !c.startsWith("com.sun.proxy.");
+                })
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + f.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private static String simpleName(String className) {
+        int dot = className.lastIndexOf('.');
+        return dot < 0 ? className : className.substring(dot + 1);
+    }
+
+    /**
+     * Normalized form of the SQL: literals become ?, IN lists collapse to
+     * IN (...), whitespace collapses. Cached per distinct SQL string.
+     */
+    public static String fingerprint(String sql) {
+        if (sql == null) return "";
+        String cached = fingerprints.get(sql);
+        if (cached != null) return cached;
+
+        String fp = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fp = NUMBER_LITERAL.matcher(fp).replaceAll("?");
+        fp = IN_LIST.matcher(fp).replaceAll("IN (...)");
+        fp = WHITESPACE.matcher(fp).replaceAll(" ").trim();
+
+        // Dynamic SQL with inlined values would grow this without bound
+        if (fingerprints.size() < MAX_FINGERPRINTS) fingerprints.put(sql, fp);
+        return fp;
+    }
+}
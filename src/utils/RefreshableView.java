@@ -0,0 +1,11 @@
+package utils;
+
+/**
+ * Interface for controllers of read-only list and report views; only these
+ * views are cached by the ViewRegistry. Called every time a cached view is
+ * shown again so the controller can reload its data instead of rebuilding
+ * the whole node graph.
+ */
+public interface RefreshableView {
+    void onViewShown();
+}
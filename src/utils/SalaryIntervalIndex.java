@@ -0,0 +1,181 @@
+package utils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * In-memory point-in-time index over salary_history.
+ *
+ * Rows are stored column-wise, grouped by employee and sorted by
+ * effective_from, so "salary of employee X on date D" is a hash-free
+ * binary search over that employee's slice, and "salary of everyone on D"
+ * is one binary search per employee with no database round trips.
+ *
+ * Dates are stored as epoch days; an open-ended range uses Long.MAX_VALUE.
+ * Each employee's first range is also open at the bottom (Long.MIN_VALUE):
+ * the history may start after the employee did (no date_joined, or no row
+ * until the first change), and that salary was paid before it too.
+ */
+public final class SalaryIntervalIndex {
+
+    private final int[] empIds;      // distinct employees, ascending
+    private final int[] sliceStart;  // empIds[k] owns rows [sliceStart[k], sliceStart[k+1])
+    private final long[] from;
+    private final long[] to;
+    private final double[] salary;
+
+    private SalaryIntervalIndex(int[] empIds, int[] sliceStart, long[] from, long[] to, double[] salary) {
+        this.empIds = empIds;
+        this.sliceStart = sliceStart;
+        this.from = from;
+        this.to = to;
+        this.salary = salary;
+    }
+
+    /**
+     * Accumulates rows (must be added ordered by emp_id, effective_from) and builds the index.
+     */
+    public static final class Builder {
+        private int n = 0;
+        private int[] emp = new int[1024];
+        private long[] from = new long[1024];
+        private long[] to = new long[1024];
+        private double[] salary = new double[1024];
+
+        public Builder add(int empId, LocalDate effectiveFrom, LocalDate effectiveTo, double amount) {
+            if (n == emp.length) {
+                int cap = n * 2;
+                emp = Arrays.copyOf(emp, cap);
+                from = Arrays.copyOf(from, cap);
+                to = Arrays.copyOf(to, cap);
+                salary = Arrays.copyOf(salary, cap);
+            }
+            emp[n] = empId;
+            from[n] = effectiveFrom.toEpochDay();
+            to[n] = effectiveTo == null ? Long.MAX_VALUE : effectiveTo.toEpochDay();
+            salary[n] = amount;
+            n++;
+            return this;
+        }
+
+        public SalaryIntervalIndex build() {
+            int distinct = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || emp[i] != emp[i - 1]) distinct++;
+            }
+            int[] ids = new int[distinct];
+            int[] starts = new int[distinct + 1];
+            int k = -1;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || emp[i] != emp[i - 1]) {
+                    ids[++k] = emp[i];
+                    starts[k] = i;
+                }
+            }
+            starts[distinct] = n;
+            long[] lowerBounds = Arrays.copyOf(from, n);
+            for (k = 0; k < distinct; k++) lowerBounds[starts[k]] = Long.MIN_VALUE;
+            return new SalaryIntervalIndex(ids, starts,
+                    lowerBounds, Arrays.copyOf(to, n), Arrays.copyOf(salary, n));
+        }
+    }
+
+    /**
+     * @return salary in effect for the employee on the date, or NaN if none
+     */
+    public double salaryOn(int empId, LocalDate date) {
+        int k = Arrays.binarySearch(empIds, empId);
+        if (k < 0) return Double.NaN;
+        return lookup(k, date.toEpochDay());
+    }
+
+    /**
+     * Salaries of every indexed employee on one date.
+     * ids[i] pairs with out[i]; employees without a salary on that date get NaN.
+     */
+    public double[] salariesOn(LocalDate date) {
+        long day = date.toEpochDay();
+        double[] out = new double[empIds.length];
+        for (int k = 0; k < empIds.length; k++) out[k] = lookup(k, day);
+        return out;
+    }
+
+    /**
+     * Day-weighted average salary for the employee across [start, end] (inclusive).
+     * Used to pro-rate periods in which a change took effect mid-month.
+     */
+    public double averageSalary(int empId, LocalDate start, LocalDate end) {
+        int k = Arrays.binarySearch(empIds, empId);
+        if (k < 0) return Double.NaN;
+
+        long a = start.toEpochDay();
+        long b = end.toEpochDay();
+        double weighted = 0.0;
+        long covered = 0;
+        for (int i = sliceStart[k]; i < sliceStart[k + 1]; i++) {
+            long lo = Math.max(a, from[i]);
+            long hi = Math.min(b, to[i]);
+            if (lo > hi) continue;
+            long days = hi - lo + 1;
+            weighted += salary[i] * days;
+            covered += days;
+        }
+        return covered == 0 ? Double.NaN : weighted / covered;
+    }
+
+    /**
+     * Salary earned over [start, end] with each day weighted by the given counter
+     * (e.g. working days): the sum of salary x weight over the overlapping ranges,
+     * divided by the weight of the whole period. Days before the first range
+     * earn the first range's salary. NaN if no range overlaps.
+     */
+    public double proratedSalary(int empId, LocalDate start, LocalDate end, ToIntBiFunction<LocalDate, LocalDate> weight) {
+        int k = Arrays.binarySearch(empIds, empId);
+        if (k < 0) return Double.NaN;
+
+        int periodWeight = weight.applyAsInt(start, end);
+        if (periodWeight == 0) return averageSalary(empId, start, end);
+
+        long a = start.toEpochDay();
+        long b = end.toEpochDay();
+        double earned = 0.0;
+        boolean covered = false;
+        for (int i = sliceStart[k]; i < sliceStart[k + 1]; i++) {
+            long lo = Math.max(a, from[i]);
+            long hi = Math.min(b, to[i]);
+            if (lo > hi) continue;
+            covered = true;
+            earned += salary[i] * weight.applyAsInt(LocalDate.ofEpochDay(lo), LocalDate.ofEpochDay(hi));
+        }
+        return covered ? earned / periodWeight : Double.NaN;
+    }
+
+    /**
+     * @return the employee ids covered by the index (ascending); pairs with salariesOn()
+     */
+    public int[] employeeIds() {
+        return empIds.clone();
+    }
+
+    public int size() {
+        return from.length;
+    }
+
+    private double lookup(int k, long day) {
+        int lo = sliceStart[k];
+        int hi = sliceStart[k + 1] - 1;
+        // Last row whose effective_from <= day
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (from[mid] <= day) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return (found >= 0 && day <= to[found]) ? salary[found] : Double.NaN;
+    }
+}
@@ -2,6 +2,9 @@ package utils;
 
 import models.Employee;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * Manages the global state of the logged-in user.
  * This class acts as a central hub for session data, allowing different
@@ -12,6 +15,13 @@ public class SessionManager {
     // Holds the currently logged-in employee/user
     private static Employee currentEmployee;
 
+    // Server mode (api.ApiServer): the session of the request running on this
+    // thread. Each request has its own virtual thread, so this is per request.
+    private static final ThreadLocal<Employee> requestEmployee = new ThreadLocal<>();
+
+    // Run on logout / clearSession so other layers can drop per-user state
+    private static final List<Runnable> logoutListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Sets the session data after a successful login.
      *
@@ -30,10 +40,24 @@ public class SessionManager {
     }
 
     /**
-     * @return The full Employee object currently in session.
+     * @return The full Employee object currently in session (the request's
+     *         session when one is bound to this thread).
      */
     public static Employee getCurrentEmployee() {
-        return currentEmployee;
+        Employee bound = requestEmployee.get();
+        return bound != null ? bound : currentEmployee;
+    }
+
+    /**
+     * Binds an API request's session to the calling thread until unbindRequest().
+     * Services reading SessionManager then see that user instead of the desktop one.
+     */
+    public static void bindRequest(Employee emp) {
+        requestEmployee.set(emp);
+    }
+
+    public static void unbindRequest() {
+        requestEmployee.remove();
     }
 
     /**
@@ -41,7 +65,7 @@ public class SessionManager {
      * Useful when controllers expect a "User" context.
      */
     public static Employee getCurrentUser() {
-        return currentEmployee;
+        return getCurrentEmployee();
     }
 
     /**
@@ -53,8 +77,9 @@ public class SessionManager {
      * @return user_id or -1 if no active session
      */
     public static int getCurrentUserId() {
-        return (currentEmployee != null)
-                ? currentEmployee.getUserId()
+        Employee emp = getCurrentEmployee();
+        return (emp != null)
+                ? emp.getUserId()
                 : -1;
     }
 
@@ -68,8 +93,9 @@ public class SessionManager {
      * @return emp_id or -1 if no active session
      */
     public static int getCurrentEmployeeId() {
-        return (currentEmployee != null)
-                ? currentEmployee.getEmployeeId()
+        Employee emp = getCurrentEmployee();
+        return (emp != null)
+                ? emp.getEmployeeId()
                 : -1;
     }
 
@@ -77,8 +103,9 @@ public class SessionManager {
      * @return Username of the logged-in user, or "Guest" if none.
      */
     public static String getUsername() {
-        return (currentEmployee != null)
-                ? currentEmployee.getUsername()
+        Employee emp = getCurrentEmployee();
+        return (emp != null)
+                ? emp.getUsername()
                 : "Guest";
     }
 
@@ -86,8 +113,9 @@ public class SessionManager {
      * @return Role name of the logged-in user (Admin, HR, Employee, etc.)
      */
     public static String getRole() {
-        return (currentEmployee != null)
-                ? currentEmployee.getRoleName()
+        Employee emp = getCurrentEmployee();
+        return (emp != null)
+                ? emp.getRoleName()
                 : null;
     }
 
@@ -96,8 +124,9 @@ public class SessionManager {
      * Useful for role-based UI restrictions.
      */
     public static boolean isAdmin() {
-        return currentEmployee != null
-                && "Admin".equalsIgnoreCase(currentEmployee.getRoleName());
+        Employee emp = getCurrentEmployee();
+        return emp != null
+                && "Admin".equalsIgnoreCase(emp.getRoleName());
     }
 
     /**
@@ -120,7 +149,15 @@ public class SessionManager {
      * @return true if a user is currently logged in
      */
     public static boolean isLoggedIn() {
-        return currentEmployee != null;
+        return getCurrentEmployee() != null;
+    }
+
+    /**
+     * Registers an action to run whenever the session ends (logout or clearSession),
+     * e.g. cancelling work started for the user who is signing out.
+     */
+    public static void onLogout(Runnable listener) {
+        logoutListeners.add(listener);
     }
 
     /**
@@ -136,6 +173,8 @@ public class SessionManager {
             );
         }
         currentEmployee = null;
+        ViewRegistry.clear();
+        logoutListeners.forEach(Runnable::run);
     }
 
     /**
@@ -143,5 +182,7 @@ public class SessionManager {
      */
     public static void clearSession() {
         currentEmployee = null;
+        ViewRegistry.clear();
+        logoutListeners.forEach(Runnable::run);
     }
 }
@@ -0,0 +1,57 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * STARTUP TIMER: Records named milestones from JVM start to the first
+ * interactive screen and prints a timing report, so cold-start regressions
+ * show up in the console instead of being guessed at.
+ *
+ * Times are measured from the JVM start time reported by the runtime MXBean,
+ * so JVM boot and class loading before main() are included.
+ */
+public class StartupTimer {
+
+    private static final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final List<String> names = new ArrayList<>();
+    private static final List<Long> times = new ArrayList<>();
+    private static boolean reported = false;
+
+    /**
+     * Records a milestone (e.g. "login shown") at the current time.
+     */
+    public static synchronized void mark(String milestone) {
+        names.add(milestone);
+        times.add(System.currentTimeMillis());
+    }
+
+    /**
+     * @return milliseconds from JVM start to the named milestone, or -1 if it was not recorded
+     */
+    public static synchronized long elapsed(String milestone) {
+        int i = names.indexOf(milestone);
+        return i < 0 ? -1 : times.get(i) - jvmStart;
+    }
+
+    /**
+     * Prints the report once (the first dashboard after a cold start).
+     */
+    public static synchronized void reportOnce() {
+        if (reported) return;
+        reported = true;
+        System.out.println(getReport());
+    }
+
+    public static synchronized String getReport() {
+        StringBuilder sb = new StringBuilder("===== Startup timing (ms since JVM start) =====\n");
+        long previous = jvmStart;
+        for (int i = 0; i < names.size(); i++) {
+            long t = times.get(i);
+            sb.append(String.format("  %-28s %7d  (+%d)%n", names.get(i), t - jvmStart, t - previous));
+            previous = t;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package utils;
+
+import models.TaxBracket;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, array-backed tax schedule.
+ * Compiles a list of TaxBracket rows into primitive arrays so the tax for a
+ * gross amount can be evaluated in a tight loop without object access.
+ *
+ * Brackets are marginal: each rate applies only to the part of the gross
+ * that falls inside [minSalary, maxSalary]. A single open bracket starting
+ * at 0 reproduces the flat settings.tax_rate rule used by payroll generation.
+ */
+public final class TaxSchedule {
+
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] rate; // fraction, not percentage
+
+    private TaxSchedule(double[] lower, double[] upper, double[] rate) {
+        this.lower = lower;
+        this.upper = upper;
+        this.rate = rate;
+    }
+
+    /**
+     * Flat schedule matching PayrollService.calculateTax (rate is a percentage).
+     */
+    public static TaxSchedule flat(double ratePercent) {
+        return new TaxSchedule(new double[]{0.0}, new double[]{Double.MAX_VALUE}, new double[]{ratePercent / 100.0});
+    }
+
+    /**
+     * Builds a marginal schedule from the bracket rows shown in System Settings.
+     */
+    public static TaxSchedule of(List<TaxBracket> brackets) {
+        if (brackets == null || brackets.isEmpty()) return flat(0.0);
+
+        List<TaxBracket> sorted = new ArrayList<>(brackets);
+        sorted.sort(Comparator.comparingDouble(TaxBracket::getMinSalary));
+
+        int n = sorted.size();
+        double[] lower = new double[n];
+        double[] upper = new double[n];
+        double[] rate = new double[n];
+        for (int i = 0; i < n; i++) {
+            TaxBracket b = sorted.get(i);
+            lower[i] = b.getMinSalary();
+            upper[i] = b.getMaxSalary() <= 0 ? Double.MAX_VALUE : b.getMaxSalary();
+            rate[i] = b.getRate() / 100.0;
+        }
+        return new TaxSchedule(lower, upper, rate);
+    }
+
+    /**
+     * Parses brackets typed as "min-max:rate" or "min+:rate" (open top), separated
+     * by commas or semicolons, e.g. "0-10000:0, 10000-20000:10, 20000+:20".
+     *
+     * @throws IllegalArgumentException naming the bracket that could not be read,
+     *         or the overlap or gap between brackets
+     */
+    public static TaxSchedule parse(String spec) {
+        List<TaxBracket> brackets = new ArrayList<>();
+        for (String part : spec.split("[,;]")) {
+            String text = part.trim();
+            if (text.isEmpty()) continue;
+            try {
+                int colon = text.indexOf(':');
+                if (colon < 0) throw new IllegalArgumentException();
+                String range = text.substring(0, colon).trim();
+                double rate = Double.parseDouble(text.substring(colon + 1).replace("%", "").trim());
+                double min;
+                double max;
+                if (range.endsWith("+")) {
+                    min = Double.parseDouble(range.substring(0, range.length() - 1).trim());
+                    max = 0.0;
+                } else {
+                    int dash = range.indexOf('-', 1);
+                    if (dash < 0) throw new IllegalArgumentException();
+                    min = Double.parseDouble(range.substring(0, dash).trim());
+                    max = Double.parseDouble(range.substring(dash + 1).trim());
+                    if (max <= min) throw new IllegalArgumentException();
+                }
+                if (min < 0 || rate < 0) throw new IllegalArgumentException();
+                brackets.add(new TaxBracket(min, max, rate));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cannot read tax bracket '" + text + "' (use min-max:rate or min+:rate)");
+            }
+        }
+        if (brackets.isEmpty()) throw new IllegalArgumentException("No tax brackets given");
+        checkContiguous(brackets);
+        return of(brackets);
+    }
+
+    /**
+     * Brackets must cover [0, top) without gaps or overlaps: sorted by minimum,
+     * each starts where the previous one ends, and only the last may be open.
+     */
+    private static void checkContiguous(List<TaxBracket> brackets) {
+        List<TaxBracket> sorted = new ArrayList<>(brackets);
+        sorted.sort(Comparator.comparingDouble(TaxBracket::getMinSalary));
+        double expected = 0.0;
+        for (int i = 0; i < sorted.size(); i++) {
+            TaxBracket b = sorted.get(i);
+            if (b.getMinSalary() < expected) {
+                throw new IllegalArgumentException(String.format("Tax brackets overlap from %.2f to %.2f", b.getMinSalary(), expected));
+            }
+            if (b.getMinSalary() > expected) {
+                throw new IllegalArgumentException(String.format("Tax brackets leave a gap from %.2f to %.2f", expected, b.getMinSalary()));
+            }
+            if (b.getMaxSalary() <= 0) {
+                if (i < sorted.size() - 1) {
+                    throw new IllegalArgumentException(String.format("Open bracket from %.2f must be the last one", b.getMinSalary()));
+                }
+            } else {
+                expected = b.getMaxSalary();
+            }
+        }
+    }
+
+    /**
+     * @return tax owed on the given gross amount
+     */
+    public double taxFor(double gross) {
+        double tax = 0.0;
+        for (int i = 0; i < rate.length; i++) {
+            if (gross <= lower[i]) break;
+            double top = gross < upper[i] ? gross : upper[i];
+            tax += (top - lower[i]) * rate[i];
+        }
+        return tax;
+    }
+
+    /**
+     * Evaluates the schedule for a whole column of gross amounts.
+     * out[i] = taxFor(gross[i]) for i in [0, length).
+     */
+    public void taxFor(double[] gross, double[] out, int length) {
+        if (rate.length == 1 && lower[0] == 0.0 && upper[0] == Double.MAX_VALUE) {
+            // Flat rate: single multiply per element, friendly to auto-vectorization
+            double r = rate[0];
+            for (int i = 0; i < length; i++) {
+                double g = gross[i];
+                out[i] = g > 0 ? g * r : 0.0;
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[i] = taxFor(gross[i]);
+        }
+    }
+
+    public int size() {
+        return rate.length;
+    }
+}
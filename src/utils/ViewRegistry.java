@@ -0,0 +1,171 @@
+package utils;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * VIEW REGISTRY: Caches loaded FXML views (node graph + controller).
+ *
+ * Sidebar navigation used to call FXMLLoader.load on every click, which
+ * re-parses the XML, reflectively builds the controller and re-applies CSS.
+ * Read-only list and report views (controller implements RefreshableView)
+ * are now built once per session and handed back on later visits, with
+ * onViewShown() to reload their data. Every other view, forms in particular,
+ * is built fresh on each visit so no half-filled fields or old validation
+ * state carry over.
+ *
+ * On first display the data loaded by initialize() is used as is; a
+ * preloaded view is refreshed only if it was built more than FRESH_MILLIS ago.
+ *
+ * After login, preloadForRole() builds that role's cached views on a
+ * background thread. FXMLLoader is safe off the FX thread as long as the
+ * nodes are not attached to a live scene yet, which is the case until get()
+ * hands them out. A view that fails to preload (e.g. its controller shows an
+ * Alert in initialize) is simply loaded on demand later.
+ *
+ * Every build and every cache hit is a payroll.ViewLoad JFR event (source
+ * "preload", "on demand" or "cache"; a cache hit only times onViewShown).
+ */
+public class ViewRegistry {
+
+    /**
+     * A loaded view: the root node and its controller (may be null).
+     */
+    public static class View {
+        private final Parent root;
+        private final Object controller;
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile boolean shown;
+
+        View(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() { return root; }
+
+        @SuppressWarnings("unchecked")
+        public <T> T getController() { return (T) controller; }
+    }
+
+    // Cached (RefreshableView) views each role navigates to from its dashboard
+    private static final Map<String, List<String>> ROLE_VIEWS = Map.of(
+        "ADMIN", List.of(
+            "/views/DepartmentManagement.fxml", "/views/AttendanceLeaves.fxml", "/views/Requests.fxml",
+            "/views/Notifications.fxml"),
+        "HR", List.of(
+            "/views/hr_employee_management.fxml", "/views/AttendanceLeaves.fxml",
+            "/views/quick_action_notifications.fxml"),
+        "EMPLOYEE", List.of(
+            "/views/Notifications.fxml"),
+        "PAYROLL OFFICER", List.of(
+            "/views/Notifications.fxml")
+    );
+
+    // A preloaded view older than this is refreshed on its first display
+    private static final long FRESH_MILLIS = 60_000;
+
+    private static final Map<String, CompletableFuture<View>> cache = new ConcurrentHashMap<>();
+
+    private static final Metrics.Counter HITS =
+            Metrics.counter("payroll_view_cache_requests_total", "View requests by cache result", "result", "hit");
+    private static final Metrics.Counter MISSES =
+            Metrics.counter("payroll_view_cache_requests_total", "View requests by cache result", "result", "miss");
+
+    private static final ExecutorService preloader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "view-preloader");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    /**
+     * Builds the role's cached views in the background. Safe to call more than once.
+     */
+    public static void preloadForRole(String role) {
+        if (role == null) return;
+        List<String> paths = ROLE_VIEWS.get(role.toUpperCase());
+        if (paths == null) return;
+
+        for (String path : paths) {
+            cache.computeIfAbsent(path, p -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    View view = load(p, "preload");
+                    return view.controller instanceof RefreshableView ? view : null;
+                } catch (Exception e) {
+                    System.err.println("View preload skipped (" + p + "): " + e.getMessage());
+                    return null;
+                }
+            }, preloader));
+        }
+    }
+
+    /**
+     * Returns the view, loading it on the calling (FX) thread if it is not
+     * cached or not ready yet. Only RefreshableView views are kept for reuse;
+     * they are refreshed when shown again.
+     */
+    public static View get(String fxmlPath) throws IOException {
+        FxWatchdog.viewShown(fxmlPath);
+        CompletableFuture<View> pending = cache.get(fxmlPath);
+        View view = (pending != null && pending.isDone() && !pending.isCompletedExceptionally())
+                ? pending.join() : null;
+
+        if (view == null) {
+            MISSES.inc();
+            // Not preloaded (or still loading): build it here rather than block the UI on the preloader
+            view = load(fxmlPath, "on demand");
+            view.shown = true;
+            if (view.controller instanceof RefreshableView) {
+                cache.put(fxmlPath, CompletableFuture.completedFuture(view));
+            }
+            return view;
+        }
+
+        HITS.inc();
+        PayrollEvents.ViewLoad event = PayrollEvents.ViewLoad.begin(fxmlPath, "cache");
+        boolean firstShow = !view.shown;
+        view.shown = true;
+        // initialize() already loaded the data of a view that is shown for the first time
+        if (view.controller instanceof RefreshableView refreshable
+                && (!firstShow || System.currentTimeMillis() - view.loadedAt > FRESH_MILLIS)) {
+            refreshable.onViewShown();
+        }
+        event.finish();
+        return view;
+    }
+
+    /**
+     * Drops one view so the next get() rebuilds it (e.g. after its FXML-bound state goes stale).
+     */
+    public static void invalidate(String fxmlPath) {
+        cache.remove(fxmlPath);
+    }
+
+    /**
+     * Drops every cached view. Called on logout so the next user never sees
+     * the previous session's controllers.
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    private static View load(String fxmlPath, String source) throws IOException {
+        URL resource = ViewRegistry.class.getResource(fxmlPath);
+        if (resource == null) throw new IOException("FXML file not found: " + fxmlPath);
+        PayrollEvents.ViewLoad event = PayrollEvents.ViewLoad.begin(fxmlPath, source);
+        FXMLLoader loader = new FXMLLoader(resource);
+        Parent root = loader.load();
+        event.finish();
+        return new View(root, loader.getController());
+    }
+}
@@ -0,0 +1,89 @@
+package utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Business days of one calendar year.
+ *
+ * A 366-bit set (bit n = day-of-year n+1, the same layout as
+ * AttendanceBitmapIndex) marks the working days: every day that is neither a
+ * weekend day nor a holiday. A prefix-sum table over it answers
+ * "working days between A and B" within the year with two array reads.
+ */
+public final class WorkingDayCalendar {
+
+    private static final int WORDS = 6;   // 6 x 64 = 384 bits >= 366 days
+
+    private final int year;
+    private final int length;
+    private final long[] bits = new long[WORDS];
+    // prefix[d] = working days among days-of-year [0, d)
+    private final short[] prefix;
+
+    public WorkingDayCalendar(int year, Set<DayOfWeek> weekend, Collection<LocalDate> holidays) {
+        this.year = year;
+        LocalDate first = LocalDate.of(year, 1, 1);
+        this.length = first.lengthOfYear();
+
+        for (int d = 0; d < length; d++) {
+            if (!weekend.contains(first.plusDays(d).getDayOfWeek())) bits[d >>> 6] |= 1L << d;
+        }
+        for (LocalDate h : holidays) {
+            if (h.getYear() == year) {
+                int d = h.getDayOfYear() - 1;
+                bits[d >>> 6] &= ~(1L << d);
+            }
+        }
+
+        this.prefix = new short[length + 1];
+        for (int d = 0; d < length; d++) {
+            prefix[d + 1] = (short) (prefix[d] + (int) ((bits[d >>> 6] >>> d) & 1L));
+        }
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        int d = date.getDayOfYear() - 1;
+        return ((bits[d >>> 6] >>> d) & 1L) != 0;
+    }
+
+    /**
+     * Working days in [from, to] (inclusive); both dates must fall in this year.
+     */
+    public int workingDays(LocalDate from, LocalDate to) {
+        int a = from.getDayOfYear() - 1;
+        int b = to.getDayOfYear() - 1;
+        return a > b ? 0 : prefix[b + 1] - prefix[a];
+    }
+
+    /**
+     * Working days from the given date to the end of the year.
+     */
+    public int workingDaysFrom(LocalDate from) {
+        return prefix[length] - prefix[from.getDayOfYear() - 1];
+    }
+
+    /**
+     * Working days from the start of the year up to the given date.
+     */
+    public int workingDaysUntil(LocalDate to) {
+        return prefix[to.getDayOfYear()];
+    }
+
+    public int total() {
+        return prefix[length];
+    }
+
+    /**
+     * Copy of the working-day bitset, for masking day-of-year bitmaps.
+     */
+    public long[] mask() {
+        return bits.clone();
+    }
+}